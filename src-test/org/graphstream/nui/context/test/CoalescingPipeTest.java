@@ -0,0 +1,159 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.nui.context.CoalescingPipe;
+import org.graphstream.stream.SinkAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CoalescingPipeTest {
+	@Test
+	public void testFolding() {
+		CoalescingPipe pipe = new CoalescingPipe();
+		Recorder rec = new Recorder();
+
+		pipe.addSink(rec);
+		pipe.setCoalescing(true);
+
+		pipe.nodeAdded("s", 0, "A");
+
+		for (int i = 0; i < 10; i++) {
+			pipe.nodeAttributeChanged("s", 1, "A", "x", i, i + 1);
+			pipe.nodeAttributeChanged("s", 2, "A", "y", i, i + 1);
+			pipe.nodeAttributeChanged("s", 3, "A", "ui.color", i, i + 1);
+		}
+
+		Assert.assertEquals(0, rec.events.size());
+
+		pipe.flush();
+
+		Assert.assertEquals(4, rec.events.size());
+		Assert.assertEquals("+n A", rec.events.get(0));
+		Assert.assertEquals("~n A.x 0 10", rec.events.get(1));
+		Assert.assertEquals("~n A.y 0 10", rec.events.get(2));
+		Assert.assertEquals("~n A.ui.color 0 10", rec.events.get(3));
+		Assert.assertEquals(31, pipe.getReceivedCount());
+		Assert.assertEquals(27, pipe.getCoalescedCount());
+	}
+
+	@Test
+	public void testStructuralOrdering() {
+		CoalescingPipe pipe = new CoalescingPipe();
+		Recorder rec = new Recorder();
+
+		pipe.addSink(rec);
+		pipe.setCoalescing(true);
+
+		pipe.nodeAdded("s", 0, "A");
+		pipe.nodeAttributeAdded("s", 1, "A", "x", 1);
+		pipe.nodeAttributeChanged("s", 2, "A", "x", 1, 2);
+		pipe.nodeRemoved("s", 3, "A");
+		pipe.nodeAdded("s", 4, "A");
+		pipe.nodeAttributeAdded("s", 5, "A", "x", 3);
+		pipe.nodeAttributeRemoved("s", 6, "A", "x");
+		pipe.nodeAttributeAdded("s", 7, "A", "x", 4);
+		pipe.nodeAttributeChanged("s", 8, "A", "x", 4, 5);
+		pipe.flush();
+
+		String[] expected = { "+n A", "+n A.x 2", "-n A", "+n A", "+n A.x 3",
+				"-n A.x", "+n A.x 5" };
+
+		Assert.assertEquals(expected.length, rec.events.size());
+
+		for (int i = 0; i < expected.length; i++)
+			Assert.assertEquals(expected[i], rec.events.get(i));
+
+		Assert.assertEquals(2, pipe.getCoalescedCount());
+	}
+
+	@Test
+	public void testDisabled() {
+		CoalescingPipe pipe = new CoalescingPipe();
+		Recorder rec = new Recorder();
+
+		pipe.addSink(rec);
+		pipe.nodeAdded("s", 0, "A");
+		pipe.nodeAttributeChanged("s", 1, "A", "x", 0, 1);
+		pipe.nodeAttributeChanged("s", 2, "A", "x", 1, 2);
+
+		Assert.assertEquals(3, rec.events.size());
+
+		pipe.setCoalescing(true);
+		pipe.nodeAttributeChanged("s", 3, "A", "x", 2, 3);
+		pipe.nodeAttributeChanged("s", 4, "A", "x", 3, 4);
+
+		Assert.assertEquals(3, rec.events.size());
+
+		pipe.setCoalescing(false);
+
+		Assert.assertEquals(4, rec.events.size());
+		Assert.assertEquals("~n A.x 2 4", rec.events.get(3));
+	}
+
+	static class Recorder extends SinkAdapter {
+		final List<String> events = new ArrayList<String>();
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			events.add("+n " + nodeId);
+		}
+
+		@Override
+		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+			events.add("-n " + nodeId);
+		}
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId,
+				String nodeId, String attribute, Object value) {
+			events.add("+n " + nodeId + "." + attribute + " " + value);
+		}
+
+		@Override
+		public void nodeAttributeChanged(String sourceId, long timeId,
+				String nodeId, String attribute, Object oldValue,
+				Object newValue) {
+			events.add("~n " + nodeId + "." + attribute + " " + oldValue + " "
+					+ newValue);
+		}
+
+		@Override
+		public void nodeAttributeRemoved(String sourceId, long timeId,
+				String nodeId, String attribute) {
+			events.add("-n " + nodeId + "." + attribute);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.graphstream.nui.context.connector.Connector;
+import org.graphstream.nui.context.connector.Connector.State;
+import org.graphstream.nui.context.connector.ConnectorManager;
+import org.graphstream.nui.context.connector.SourceReader;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.Source;
+import org.graphstream.stream.SourceBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConnectorTest {
+	@Test
+	public void testOrderAndStatistics() throws InterruptedException {
+		ConnectorManager manager = new ConnectorManager();
+		Collector collector = new Collector();
+
+		manager.setCapacity(64);
+		Connector c = manager.open("fast", new NodesReader("fast", 10000, 100,
+				null), collector);
+
+		while (!c.isDone())
+			manager.pump();
+
+		Assert.assertEquals(State.FINISHED, c.getState());
+		Assert.assertEquals(10000, c.getReadCount());
+		Assert.assertEquals(10000, c.getDeliveredCount());
+		Assert.assertEquals(0, c.getLag());
+		Assert.assertEquals(10000, collector.nodes.size());
+
+		for (int i = 0; i < 10000; i++)
+			Assert.assertEquals("fast" + i, collector.nodes.get(i));
+
+		manager.closeAll();
+	}
+
+	@Test
+	public void testSlowReaderDoesNotBlock() throws InterruptedException {
+		ConnectorManager manager = new ConnectorManager();
+		Collector collector = new Collector();
+		CountDownLatch release = new CountDownLatch(1);
+
+		Connector slow = manager.open("slow", new NodesReader("slow", 10, 1,
+				release), collector);
+		Connector fast = manager.open("fast", new NodesReader("fast", 1000,
+				10, null), collector);
+
+		while (!fast.isDone())
+			manager.pump();
+
+		Assert.assertEquals(State.RUNNING, slow.getState());
+		Assert.assertEquals(0, slow.getReadCount());
+
+		release.countDown();
+
+		while (!slow.isDone())
+			manager.pump();
+
+		Assert.assertEquals(1010, collector.nodes.size());
+
+		int fastIndex = 0, slowIndex = 0;
+
+		for (String id : collector.nodes) {
+			if (id.startsWith("fast"))
+				Assert.assertEquals("fast" + fastIndex++, id);
+			else
+				Assert.assertEquals("slow" + slowIndex++, id);
+		}
+
+		manager.closeAll();
+	}
+
+	@Test
+	public void testCloseBlockedReader() {
+		ConnectorManager manager = new ConnectorManager();
+
+		manager.setCapacity(16);
+		Connector c = manager.open("full", new NodesReader("full", 1000, 1000,
+				null), new Collector());
+
+		//
+		// Nothing is pumped, the reader waits for free slots.
+		//
+		manager.close("full");
+
+		Assert.assertEquals(State.CLOSED, c.getState());
+		Assert.assertNull(manager.get("full"));
+	}
+
+	@Test
+	public void testFailure() {
+		ConnectorManager manager = new ConnectorManager();
+		Connector c = manager.open("failing", new NodesReader("failing", 0,
+				1, null) {
+			public boolean nextEvents() throws IOException {
+				throw new IOException("broken input");
+			}
+		}, new Collector());
+
+		while (!c.isDone())
+			manager.pump();
+
+		Assert.assertEquals(State.FAILED, c.getState());
+		Assert.assertTrue(c.getFailure() instanceof IOException);
+
+		manager.closeAll();
+	}
+
+	static class Collector extends SinkAdapter {
+		final List<String> nodes = new ArrayList<String>();
+
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			nodes.add(nodeId);
+		}
+	}
+
+	static class NodesReader extends SourceBase implements SourceReader {
+		final String prefix;
+		final int count;
+		final int chunk;
+		final CountDownLatch latch;
+		int next;
+
+		NodesReader(String prefix, int count, int chunk, CountDownLatch latch) {
+			super(prefix);
+
+			this.prefix = prefix;
+			this.count = count;
+			this.chunk = chunk;
+			this.latch = latch;
+		}
+
+		public Source getSource() {
+			return this;
+		}
+
+		public void begin() throws IOException {
+			next = 0;
+		}
+
+		public boolean nextEvents() throws IOException {
+			if (latch != null) {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+			}
+
+			for (int i = 0; i < chunk && next < count; i++)
+				sendNodeAdded(sourceId, prefix + next++);
+
+			return next < count;
+		}
+
+		public void end() throws IOException {
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.nui.UIContext;
+import org.graphstream.nui.context.UIWorker;
+import org.graphstream.nui.context.worker.DefaultWorkerManager;
+import org.graphstream.nui.context.worker.WorkerTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DefaultWorkerTest {
+	@Test
+	public void testPhases() throws InterruptedException {
+		DefaultWorkerManager manager = new DefaultWorkerManager(null);
+		RecordingTask task = new RecordingTask();
+
+		manager.createWorker("w", task);
+		Assert.assertTrue(manager.hasWorker("w"));
+		Assert.assertEquals(1, task.init);
+
+		for (int i = 0; i < 10; i++) {
+			manager.preProcess();
+			manager.startWorkers();
+			manager.awaitWorkers();
+			manager.postProcess();
+		}
+
+		manager.terminateWorker("w");
+		Assert.assertFalse(manager.hasWorker("w"));
+		Assert.assertEquals(1, task.release);
+
+		Assert.assertEquals(40, task.phases.size());
+
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals("pre", task.phases.get(4 * i));
+			Assert.assertEquals("run", task.phases.get(4 * i + 1));
+			Assert.assertEquals("post", task.phases.get(4 * i + 2));
+			Assert.assertEquals(Integer.toString(i + 1),
+					task.phases.get(4 * i + 3));
+		}
+
+		Assert.assertNotNull(task.runThread);
+		Assert.assertNotSame(Thread.currentThread(), task.runThread);
+		Assert.assertFalse(task.runThread.isAlive());
+	}
+
+	@Test
+	public void testParallelRun() throws InterruptedException {
+		DefaultWorkerManager manager = new DefaultWorkerManager(null);
+		RecordingTask[] tasks = new RecordingTask[4];
+
+		for (int i = 0; i < tasks.length; i++) {
+			tasks[i] = new RecordingTask();
+			manager.createWorker("w" + i, tasks[i]);
+		}
+
+		manager.preProcess();
+		manager.startWorkers();
+		manager.awaitWorkers();
+		manager.postProcess();
+
+		for (int i = 0; i < tasks.length; i++) {
+			Assert.assertEquals(1, tasks[i].runs);
+
+			for (int j = i + 1; j < tasks.length; j++)
+				Assert.assertNotSame(tasks[i].runThread, tasks[j].runThread);
+		}
+
+		manager.terminateAll();
+
+		for (int i = 0; i < tasks.length; i++) {
+			Assert.assertFalse(manager.hasWorker("w" + i));
+			Assert.assertEquals(1, tasks[i].release);
+		}
+	}
+
+	@Test
+	public void testFailingRun() throws InterruptedException {
+		DefaultWorkerManager manager = new DefaultWorkerManager(null);
+		RecordingTask task = new RecordingTask() {
+			@Override
+			public void run() {
+				super.run();
+				throw new RuntimeException("expected failure");
+			}
+		};
+
+		manager.createWorker("w", task);
+
+		for (int i = 0; i < 3; i++) {
+			manager.startWorkers();
+			manager.awaitWorkers();
+		}
+
+		manager.terminateAll();
+		Assert.assertEquals(3, task.runs);
+	}
+
+	static class RecordingTask implements WorkerTask {
+		final List<String> phases = new ArrayList<String>();
+		int init, release;
+		int runs;
+		Thread runThread;
+
+		@Override
+		public void init(UIContext ctx, UIWorker worker) {
+			init++;
+		}
+
+		@Override
+		public void preProcess() {
+			phases.add("pre");
+		}
+
+		@Override
+		public void run() {
+			//
+			// The list is only published by the barrier between the run and
+			// the post-process phase.
+			//
+			runs++;
+			runThread = Thread.currentThread();
+			phases.add("run");
+		}
+
+		@Override
+		public void postProcess() {
+			phases.add("post");
+			phases.add(Integer.toString(runs));
+		}
+
+		@Override
+		public void release() {
+			release++;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.DefaultGraph;
+import org.graphstream.nui.UIContext.ThreadingModel;
+import org.graphstream.nui.UIDataset;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UILayout;
+import org.graphstream.nui.UIRandom;
+import org.graphstream.nui.context.HeadlessContext;
+import org.graphstream.stream.SourceBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeadlessContextTest {
+	static final int NODES = 100;
+
+	@Test
+	public void testReproducible() throws Exception {
+		double[] run1 = layout(42, 50);
+		double[] run2 = layout(42, 50);
+
+		Assert.assertArrayEquals(run1, run2, 0);
+	}
+
+	@Test
+	public void testSeededRandom() throws Exception {
+		long[] draws = new long[2];
+
+		for (int run = 0; run < 2; run++) {
+			HeadlessContext ctx = new HeadlessContext(42);
+
+			ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+			ctx.loadModule(UIRandom.MODULE_ID);
+
+			UIRandom random = (UIRandom) ctx.getModule(UIRandom.MODULE_ID);
+			draws[run] = random.getRandom().nextLong();
+
+			ctx.release();
+		}
+
+		Assert.assertEquals(new Random(42).nextLong(), draws[0]);
+		Assert.assertEquals(draws[0], draws[1]);
+	}
+
+	@Test
+	public void testRunUntilStable() throws Exception {
+		HeadlessContext ctx = createContext(42);
+
+		//
+		// Any layout is stable enough for a zero limit.
+		//
+		Assert.assertEquals(1, ctx.runUntilStable(1000, 0));
+
+		//
+		// A stabilization can not be greater than one, so all the steps are
+		// run.
+		//
+		Assert.assertEquals(10, ctx.runUntilStable(10, 2));
+
+		ctx.release();
+	}
+
+	@Test
+	public void testStepFromAnotherThread() throws Exception {
+		final HeadlessContext ctx = createContext(42);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+		Thread t = new Thread() {
+			public void run() {
+				try {
+					ctx.step(1);
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}
+		};
+
+		t.start();
+		t.join();
+
+		Assert.assertTrue(error.get() instanceof IllegalStateException);
+		ctx.release();
+	}
+
+	@Test
+	public void testSyncFromAnotherThread() throws Exception {
+		final HeadlessContext ctx = new HeadlessContext(42);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final SourceBase source = new SourceBase("source") {
+		};
+
+		ctx.init(ThreadingModel.SOURCE_IN_ANOTHER_THREAD);
+		ctx.loadModule(UILayout.MODULE_ID);
+		ctx.connect(source);
+
+		//
+		// There is no ui thread in a headless context, the events of the
+		// source are pumped by the thread calling the sync.
+		//
+		Thread t = new Thread() {
+			public void run() {
+				try {
+					source.sendNodeAdded("source", "extra");
+					ctx.sync();
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			}
+		};
+
+		t.start();
+		t.join();
+
+		Assert.assertNull(error.get());
+
+		ctx.step(1);
+
+		UIIndexer indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		Assert.assertNotNull(indexer.getNodeIndex("extra"));
+
+		ctx.release();
+	}
+
+	static double[] layout(long seed, int steps) throws Exception {
+		HeadlessContext ctx = createContext(seed);
+		ctx.step(steps);
+
+		UIIndexer indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		UIDataset dataset = (UIDataset) ctx.getModule(UIDataset.MODULE_ID);
+		double[] positions = new double[3 * NODES];
+		double[] xyz = new double[3];
+
+		for (int i = 0; i < NODES; i++) {
+			dataset.getNodeXYZ(indexer.getNodeIndex(Integer.toString(i)), xyz);
+			System.arraycopy(xyz, 0, positions, 3 * i, 3);
+		}
+
+		ctx.release();
+
+		return positions;
+	}
+
+	static HeadlessContext createContext(long seed) throws Exception {
+		HeadlessContext ctx = new HeadlessContext(seed);
+
+		ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+		ctx.loadModule(UILayout.MODULE_ID);
+		ctx.connect(createGraph());
+
+		return ctx;
+	}
+
+	/**
+	 * A ring with a chord every ten nodes.
+	 */
+	static Graph createGraph() {
+		Graph g = new DefaultGraph("g");
+
+		for (int i = 0; i < NODES; i++)
+			g.addNode(Integer.toString(i));
+
+		for (int i = 0; i < NODES; i++) {
+			g.addEdge(i + "-" + (i + 1), Integer.toString(i),
+					Integer.toString((i + 1) % NODES));
+
+			if (i % 10 == 0 && i < NODES / 2)
+				g.addEdge(i + "-" + (i + NODES / 2), Integer.toString(i),
+						Integer.toString((i + NODES / 2) % NODES));
+		}
+
+		return g;
+	}
+}
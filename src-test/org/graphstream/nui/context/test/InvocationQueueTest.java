@@ -0,0 +1,166 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.graphstream.nui.context.InvocationQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InvocationQueueTest {
+	@Test
+	public void testOrder() {
+		InvocationQueue queue = new InvocationQueue();
+		List<Integer> runs = new ArrayList<Integer>();
+
+		for (int i = 0; i < 10; i++)
+			queue.post(new Add(runs, i));
+
+		Assert.assertEquals(10, queue.size());
+		Assert.assertEquals(0, runs.size());
+		Assert.assertEquals(10, queue.runPending());
+		Assert.assertEquals(0, queue.size());
+
+		for (int i = 0; i < 10; i++)
+			Assert.assertEquals(i, (int) runs.get(i));
+	}
+
+	@Test
+	public void testPostedWhileRunning() {
+		final InvocationQueue queue = new InvocationQueue();
+		final List<Integer> runs = new ArrayList<Integer>();
+
+		queue.post(new Runnable() {
+			public void run() {
+				queue.post(new Add(runs, 1));
+			}
+		});
+
+		Assert.assertEquals(1, queue.runPending());
+		Assert.assertEquals(0, runs.size());
+		Assert.assertEquals(1, queue.runPending());
+		Assert.assertEquals(1, runs.size());
+	}
+
+	@Test
+	public void testSubmit() throws Exception {
+		InvocationQueue queue = new InvocationQueue();
+		Future<String> f = queue.submit(new Callable<String>() {
+			public String call() {
+				return "done";
+			}
+		});
+
+		Assert.assertFalse(f.isDone());
+		queue.runPending();
+		Assert.assertTrue(f.isDone());
+		Assert.assertEquals("done", f.get());
+	}
+
+	@Test
+	public void testFailureDoesNotStopRun() {
+		InvocationQueue queue = new InvocationQueue();
+		List<Integer> runs = new ArrayList<Integer>();
+
+		queue.post(new Runnable() {
+			public void run() {
+				throw new IllegalStateException();
+			}
+		});
+		queue.post(new Add(runs, 0));
+
+		Assert.assertEquals(2, queue.runPending());
+		Assert.assertEquals(1, runs.size());
+	}
+
+	@Test
+	public void testClear() {
+		InvocationQueue queue = new InvocationQueue();
+		Future<Object> f = queue.submit(new Callable<Object>() {
+			public Object call() {
+				return null;
+			}
+		});
+
+		Assert.assertEquals(1, queue.clear());
+		Assert.assertTrue(f.isCancelled());
+		Assert.assertEquals(0, queue.runPending());
+	}
+
+	@Test
+	public void testConcurrentPost() throws InterruptedException {
+		final InvocationQueue queue = new InvocationQueue();
+		final int[] count = { 0 };
+		final Runnable inc = new Runnable() {
+			public void run() {
+				count[0]++;
+			}
+		};
+
+		Thread[] producers = new Thread[4];
+
+		for (int i = 0; i < producers.length; i++) {
+			producers[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < 10000; j++)
+						queue.post(inc);
+				}
+			};
+
+			producers[i].start();
+		}
+
+		for (int i = 0; i < producers.length; i++)
+			producers[i].join();
+
+		Assert.assertEquals(40000, queue.runPending());
+		Assert.assertEquals(40000, count[0]);
+	}
+
+	static class Add implements Runnable {
+		final List<Integer> runs;
+		final int value;
+
+		Add(List<Integer> runs, int value) {
+			this.runs = runs;
+			this.value = value;
+		}
+
+		public void run() {
+			runs.add(value);
+		}
+	}
+}
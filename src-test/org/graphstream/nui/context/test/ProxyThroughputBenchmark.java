@@ -0,0 +1,142 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.graphstream.nui.context.RingBufferProxyPipe;
+import org.graphstream.nui.context.RingBufferProxyPipe.Backpressure;
+import org.graphstream.stream.ProxyPipe;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.thread.ThreadProxyPipe;
+
+/**
+ * Measure the number of events per second transmitted by a proxy pipe from 1,
+ * 4 and 16 producer threads to a consumer thread pumping the proxy.
+ * 
+ * Usage : ProxyThroughputBenchmark [thread|ring|all] [events per producer]
+ */
+public class ProxyThroughputBenchmark {
+	static final int[] PRODUCERS = { 1, 4, 16 };
+	static final int EVENTS = 2000000;
+	static final int NODES = 10000;
+
+	public static void main(String... args) throws InterruptedException {
+		String which = args.length > 0 ? args[0] : "all";
+		int events = args.length > 1 ? Integer.parseInt(args[1]) : EVENTS;
+
+		for (int producers : PRODUCERS) {
+			if (which.equals("all") || which.equals("thread"))
+				run("ThreadProxyPipe", new ThreadProxyPipe(), producers, events);
+
+			if (which.equals("all") || which.equals("ring")) {
+				for (Backpressure b : Backpressure.values())
+					run("RingBuffer " + b, new RingBufferProxyPipe(1 << 16, b),
+							producers, events);
+			}
+		}
+	}
+
+	static void run(String name, final ProxyPipe pipe, int producers,
+			final int events) throws InterruptedException {
+		final Counter counter = new Counter();
+		final CountDownLatch start = new CountDownLatch(1);
+		final String[] nodes = new String[NODES];
+
+		for (int i = 0; i < NODES; i++)
+			nodes[i] = Integer.toString(i);
+
+		pipe.addSink(counter);
+
+		Thread[] threads = new Thread[producers];
+
+		for (int p = 0; p < producers; p++) {
+			final String source = "source" + p;
+
+			threads[p] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+
+					for (int i = 0; i < events; i++)
+						pipe.nodeAttributeChanged(source, i, nodes[i % NODES],
+								"x", null, i);
+				}
+			};
+
+			threads[p].start();
+		}
+
+		long total = (long) producers * events;
+		long t = System.nanoTime();
+
+		start.countDown();
+
+		while (counter.events < total) {
+			pipe.pump();
+
+			//
+			// Drops are not counted by the sink.
+			//
+			if (pipe instanceof RingBufferProxyPipe
+					&& counter.events
+							+ ((RingBufferProxyPipe) pipe).getDroppedCount() >= total)
+				break;
+		}
+
+		t = System.nanoTime() - t;
+
+		for (Thread thread : threads)
+			thread.join();
+
+		long dropped = pipe instanceof RingBufferProxyPipe ? ((RingBufferProxyPipe) pipe)
+				.getDroppedCount() : 0;
+
+		System.out.printf(
+				"%-36s %2d producers : %8.2f Mevents/s (%d dropped)%n", name,
+				producers, total / (t / 1000.0), dropped);
+	}
+
+	static class Counter extends SinkAdapter {
+		long events;
+
+		@Override
+		public void nodeAttributeChanged(String sourceId, long timeId,
+				String nodeId, String attribute, Object oldValue,
+				Object newValue) {
+			events++;
+		}
+	}
+}
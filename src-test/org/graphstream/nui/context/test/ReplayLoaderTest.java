@@ -0,0 +1,268 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.graphstream.nui.UIContext;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.context.CoalescingPipe;
+import org.graphstream.nui.context.ReplayListener;
+import org.graphstream.nui.context.ReplayLoader;
+import org.graphstream.stream.Replayable.Controller;
+import org.graphstream.stream.SinkAdapter;
+import org.graphstream.stream.Source;
+import org.graphstream.stream.SourceBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReplayLoaderTest {
+	@Test
+	public void testInlineChunks() {
+		List<String> log = Collections.synchronizedList(new ArrayList<String>());
+		Progress progress = new Progress();
+		ReplayLoader loader = createLoader(log, 8, true, progress);
+
+		//
+		// 100 nodes with an attribute, and 99 edges.
+		//
+		loader.replay(new Replay(100, true));
+
+		Assert.assertTrue(loader.isDone());
+		Assert.assertEquals(199, loader.getLoadedElements());
+		Assert.assertEquals(-1, loader.getExpectedElements());
+
+		//
+		// 299 events in chunks of 8.
+		//
+		Assert.assertEquals(38, progress.elements.size());
+		checkProgress(progress, 199);
+	}
+
+	@Test
+	public void testChunksFromAnotherThread() throws InterruptedException {
+		List<String> log = Collections.synchronizedList(new ArrayList<String>());
+		Progress progress = new Progress();
+		final ReplayLoader loader = createLoader(log, 8, false, progress);
+
+		Thread t = new Thread() {
+			public void run() {
+				loader.replay(new Replay(100, true));
+			}
+		};
+
+		t.start();
+
+		int events = 0;
+
+		while (!loader.isDone()) {
+			int n = loader.loadChunk();
+
+			Assert.assertTrue(n <= 8);
+			events += n;
+
+			if (n == 0)
+				Thread.yield();
+		}
+
+		t.join();
+
+		Assert.assertEquals(299, events);
+		Assert.assertEquals(199, loader.getLoadedElements());
+		Assert.assertTrue(progress.elements.size() >= 38);
+		checkProgress(progress, 199);
+	}
+
+	@Test
+	public void testAttributesAfterCommit() {
+		List<String> log = Collections.synchronizedList(new ArrayList<String>());
+		ReplayLoader loader = createLoader(log, 4, true, new Progress());
+
+		loader.replay(new Replay(3, false));
+
+		//
+		// Attributes of a chunk are dispatched in their order, once the
+		// batch of the new elements of the chunk is committed.
+		//
+		String[] expected = { "begin", "+n 0", "+n 1", "commit", "0.x 0",
+				"1.x 1", "begin", "+n 2", "commit", "2.x 2" };
+
+		Assert.assertEquals(expected.length, log.size());
+
+		for (int i = 0; i < expected.length; i++)
+			Assert.assertEquals(expected[i], log.get(i));
+	}
+
+	static void checkProgress(Progress progress, long elements) {
+		for (int i = 1; i < progress.elements.size(); i++)
+			Assert.assertTrue(progress.elements.get(i - 1) <= progress.elements
+					.get(i));
+
+		Assert.assertEquals(elements,
+				(long) progress.elements.get(progress.elements.size() - 1));
+		Assert.assertEquals(1, progress.done);
+		Assert.assertEquals(elements, progress.doneElements);
+	}
+
+	static ReplayLoader createLoader(final List<String> log, int chunkSize,
+			boolean inline, ReplayListener listener) {
+		CoalescingPipe target = new CoalescingPipe();
+
+		target.addSink(new SinkAdapter() {
+			@Override
+			public void nodeAdded(String sourceId, long timeId, String nodeId) {
+				log.add("+n " + nodeId);
+			}
+
+			@Override
+			public void edgeAdded(String sourceId, long timeId, String edgeId,
+					String fromNodeId, String toNodeId, boolean directed) {
+				log.add("+e " + edgeId);
+			}
+
+			@Override
+			public void nodeAttributeAdded(String sourceId, long timeId,
+					String nodeId, String attribute, Object value) {
+				log.add(nodeId + "." + attribute + " " + value);
+			}
+		});
+
+		List<ReplayListener> listeners = new ArrayList<ReplayListener>();
+		listeners.add(listener);
+
+		return new ReplayLoader(context(indexer(log)), new Replay(0, false),
+				target, chunkSize, inline, listeners);
+	}
+
+	/**
+	 * A context only giving an indexer.
+	 */
+	static UIContext context(final UIIndexer indexer) {
+		return (UIContext) Proxy.newProxyInstance(
+				ReplayLoaderTest.class.getClassLoader(),
+				new Class<?>[] { UIContext.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						if (method.getName().equals("getModule"))
+							return UIIndexer.MODULE_ID.equals(args[0]) ? indexer
+									: null;
+
+						throw new UnsupportedOperationException(method
+								.getName());
+					}
+				});
+	}
+
+	/**
+	 * An indexer logging the batches.
+	 */
+	static UIIndexer indexer(final List<String> log) {
+		return (UIIndexer) Proxy.newProxyInstance(
+				ReplayLoaderTest.class.getClassLoader(),
+				new Class<?>[] { UIIndexer.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						switch (method.getName()) {
+						case "beginBatch":
+							log.add("begin");
+							return null;
+						case "commitBatch":
+							log.add("commit");
+							return null;
+						default:
+							throw new UnsupportedOperationException(method
+									.getName());
+						}
+					}
+				});
+	}
+
+	static class Progress implements ReplayListener {
+		final List<Long> elements = new ArrayList<Long>();
+		int done;
+		long doneElements;
+
+		@Override
+		public void replayProgress(Source source, long elements,
+				long expectedElements) {
+			this.elements.add(elements);
+		}
+
+		@Override
+		public void replayDone(Source source, long elements) {
+			done++;
+			doneElements = elements;
+		}
+	}
+
+	/**
+	 * Replays nodes with an attribute, and a path through them.
+	 */
+	static class Replay extends SourceBase implements Controller {
+		final int nodes;
+		final boolean edges;
+
+		Replay(int nodes, boolean edges) {
+			super("replay");
+
+			this.nodes = nodes;
+			this.edges = edges;
+		}
+
+		@Override
+		public void replay() {
+			replay(sourceId);
+		}
+
+		@Override
+		public void replay(String id) {
+			for (int i = 0; i < nodes; i++) {
+				sendNodeAdded(id, Integer.toString(i));
+				sendNodeAttributeAdded(id, Integer.toString(i), "x", i);
+			}
+
+			if (edges) {
+				for (int i = 1; i < nodes; i++)
+					sendEdgeAdded(id, (i - 1) + "-" + i,
+							Integer.toString(i - 1), Integer.toString(i),
+							false);
+			}
+		}
+	}
+}
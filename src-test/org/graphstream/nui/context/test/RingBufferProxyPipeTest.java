@@ -0,0 +1,205 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.nui.context.RingBufferProxyPipe;
+import org.graphstream.nui.context.RingBufferProxyPipe.Backpressure;
+import org.graphstream.stream.SinkAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferProxyPipeTest {
+	@Test
+	public void testEvents() {
+		RingBufferProxyPipe pipe = new RingBufferProxyPipe(16,
+				Backpressure.BLOCK);
+		Recorder rec = new Recorder();
+
+		pipe.addSink(rec);
+
+		pipe.nodeAdded("s", 0, "A");
+		pipe.nodeAdded("s", 1, "B");
+		pipe.edgeAdded("s", 2, "AB", "A", "B", true);
+		pipe.nodeAttributeAdded("s", 3, "A", "x", 1.0);
+		pipe.edgeAttributeChanged("s", 4, "AB", "weight", 1, 2);
+		pipe.graphAttributeRemoved("s", 5, "ui.title");
+		pipe.stepBegins("s", 6, 2.5);
+
+		Assert.assertEquals(0, rec.events.size());
+
+		pipe.pump();
+
+		String[] expected = { "s:0 +n A", "s:1 +n B", "s:2 +e AB A B true",
+				"s:3 +n A.x 1.0", "s:4 ~e AB.weight 1 2", "s:5 -g ui.title",
+				"s:6 step 2.5" };
+
+		Assert.assertEquals(expected.length, rec.events.size());
+
+		for (int i = 0; i < expected.length; i++)
+			Assert.assertEquals(expected[i], rec.events.get(i));
+	}
+
+	@Test
+	public void testBlock() throws InterruptedException {
+		checkProducers(Backpressure.BLOCK);
+	}
+
+	@Test
+	public void testGrow() throws InterruptedException {
+		checkProducers(Backpressure.GROW);
+	}
+
+	@Test
+	public void testDrop() {
+		RingBufferProxyPipe pipe = new RingBufferProxyPipe(8,
+				Backpressure.DROP_ATTRIBUTE_CHANGES);
+		Recorder rec = new Recorder();
+
+		pipe.addSink(rec);
+
+		for (int i = 0; i < 20; i++)
+			pipe.nodeAttributeChanged("s", i, "A", "x", i, i + 1);
+
+		Assert.assertEquals(12, pipe.getDroppedCount());
+
+		pipe.pump();
+		Assert.assertEquals(8, rec.events.size());
+	}
+
+	void checkProducers(Backpressure backpressure)
+			throws InterruptedException {
+		final int producers = 4;
+		final int events = 20000;
+		final RingBufferProxyPipe pipe = new RingBufferProxyPipe(64,
+				backpressure);
+		final int[] last = new int[producers];
+		final int[] count = { 0 };
+		final boolean[] ordered = { true };
+
+		pipe.addSink(new SinkAdapter() {
+			@Override
+			public void nodeAttributeChanged(String sourceId, long timeId,
+					String nodeId, String attribute, Object oldValue,
+					Object newValue) {
+				int p = Integer.parseInt(nodeId);
+
+				if ((Integer) newValue != last[p] + 1)
+					ordered[0] = false;
+
+				last[p] = (Integer) newValue;
+				count[0]++;
+			}
+		});
+
+		Thread[] threads = new Thread[producers];
+
+		for (int p = 0; p < producers; p++) {
+			final String id = Integer.toString(p);
+
+			threads[p] = new Thread() {
+				public void run() {
+					for (int i = 1; i <= events; i++)
+						pipe.nodeAttributeChanged("s", i, id, "x", i - 1, i);
+				}
+			};
+
+			threads[p].start();
+		}
+
+		long deadline = System.currentTimeMillis() + 10000;
+
+		while (count[0] < producers * events
+				&& System.currentTimeMillis() < deadline)
+			pipe.pump();
+
+		for (int p = 0; p < producers; p++)
+			threads[p].join();
+
+		pipe.pump();
+
+		Assert.assertEquals(producers * events, count[0]);
+		Assert.assertTrue(ordered[0]);
+	}
+
+	static class Recorder extends SinkAdapter {
+		final List<String> events = new ArrayList<String>();
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			events.add(sourceId + ":" + timeId + " +n " + nodeId);
+		}
+
+		@Override
+		public void edgeAdded(String sourceId, long timeId, String edgeId,
+				String fromNodeId, String toNodeId, boolean directed) {
+			events.add(sourceId + ":" + timeId + " +e " + edgeId + " "
+					+ fromNodeId + " " + toNodeId + " " + directed);
+		}
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId,
+				String nodeId, String attribute, Object value) {
+			events.add(sourceId + ":" + timeId + " +n " + nodeId + "."
+					+ attribute + " " + value);
+		}
+
+		@Override
+		public void nodeAttributeChanged(String sourceId, long timeId,
+				String nodeId, String attribute, Object oldValue,
+				Object newValue) {
+			events.add(sourceId + ":" + timeId + " ~n " + nodeId + "."
+					+ attribute + " " + oldValue + " " + newValue);
+		}
+
+		@Override
+		public void edgeAttributeChanged(String sourceId, long timeId,
+				String edgeId, String attribute, Object oldValue,
+				Object newValue) {
+			events.add(sourceId + ":" + timeId + " ~e " + edgeId + "."
+					+ attribute + " " + oldValue + " " + newValue);
+		}
+
+		@Override
+		public void graphAttributeRemoved(String sourceId, long timeId,
+				String attribute) {
+			events.add(sourceId + ":" + timeId + " -g " + attribute);
+		}
+
+		@Override
+		public void stepBegins(String sourceId, long timeId, double step) {
+			events.add(sourceId + ":" + timeId + " step " + step);
+		}
+	}
+}
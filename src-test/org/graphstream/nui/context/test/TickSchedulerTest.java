@@ -0,0 +1,271 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.nui.context.IncrementalTickTask;
+import org.graphstream.nui.context.TickScheduler;
+import org.graphstream.nui.context.TickTask;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TickSchedulerTest {
+	static final long TICK = 1000000;
+
+	@Test
+	public void testPriorities() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler();
+		List<String> runs = new ArrayList<String>();
+
+		scheduler.add("low", new Task("low", runs, TickTask.PRIORITY_LOW,
+				false, 0), TICK);
+		scheduler.add("high", new Task("high", runs, TickTask.PRIORITY_HIGH,
+				false, 0), TICK);
+		scheduler.add("normal", new Task("normal", runs,
+				TickTask.PRIORITY_NORMAL, false, 0), TICK);
+
+		Thread.sleep(2);
+		scheduler.runTasks(Long.MAX_VALUE, TICK, null);
+
+		Assert.assertEquals(3, runs.size());
+		Assert.assertEquals("high", runs.get(0));
+		Assert.assertEquals("normal", runs.get(1));
+		Assert.assertEquals("low", runs.get(2));
+	}
+
+	@Test
+	public void testDeferral() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler();
+		List<String> runs = new ArrayList<String>();
+
+		scheduler.add("slow", new Task("slow", runs, TickTask.PRIORITY_NORMAL,
+				true, 2), TICK);
+		scheduler.add("fixed", new Task("fixed", runs,
+				TickTask.PRIORITY_LOW, false, 0), TICK);
+
+		//
+		// First run gives a cost estimation to the slow task.
+		//
+		Thread.sleep(2);
+		scheduler.runTasks(Long.MAX_VALUE, TICK, null);
+		Assert.assertEquals(2, runs.size());
+		Assert.assertTrue(scheduler.getEstimatedCost("slow") >= 2 * TICK);
+
+		runs.clear();
+
+		for (int i = 0; i < TickScheduler.MAX_DEFERRALS; i++) {
+			Thread.sleep(2);
+			scheduler.runTasks(System.nanoTime() + TICK, TICK, null);
+
+			Assert.assertEquals(i + 1, runs.size());
+			Assert.assertEquals("fixed", runs.get(i));
+		}
+
+		//
+		// The slow task can not be deferred anymore.
+		//
+		Thread.sleep(2);
+		scheduler.runTasks(System.nanoTime() + TICK, TICK, null);
+		Assert.assertTrue(runs.contains("slow"));
+	}
+
+	@Test
+	public void testIncremental() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler();
+		final int[] count = { 0 };
+
+		scheduler.add("incremental", new IncrementalTickTask() {
+			public void run() {
+				count[0]++;
+			}
+
+			public int getCycleLength() {
+				return 1;
+			}
+
+			public boolean isPeriodic() {
+				return true;
+			}
+
+			public int getPriority() {
+				return PRIORITY_NORMAL;
+			}
+
+			public boolean isDeferrable() {
+				return true;
+			}
+
+			public boolean hasMoreWork() {
+				return count[0] < 10;
+			}
+		}, TICK);
+
+		Thread.sleep(2);
+		scheduler.runTasks(Long.MAX_VALUE, TICK, null);
+		Assert.assertEquals(10, count[0]);
+	}
+
+	@Test
+	public void testNotPeriodic() throws InterruptedException {
+		TickScheduler scheduler = new TickScheduler();
+		List<String> runs = new ArrayList<String>();
+		Task task = new Task("once", runs, TickTask.PRIORITY_NORMAL, false, 0);
+		task.periodic = false;
+
+		scheduler.add("once", task, TICK);
+
+		Thread.sleep(2);
+		scheduler.runTasks(Long.MAX_VALUE, TICK, null);
+		Thread.sleep(2);
+		scheduler.runTasks(Long.MAX_VALUE, TICK, null);
+
+		Assert.assertEquals(1, runs.size());
+		Assert.assertFalse(scheduler.contains("once"));
+	}
+
+	@Test
+	public void testVirtualClock() {
+		TickScheduler scheduler = new TickScheduler(false);
+		List<String> runs = new ArrayList<String>();
+
+		scheduler.add("slow", new Task("slow", runs, TickTask.PRIORITY_NORMAL,
+				true, 2), TICK);
+		scheduler.add("fixed", new Task("fixed", runs,
+				TickTask.PRIORITY_LOW, false, 0), TICK);
+
+		//
+		// Without budget, the cost of the tasks is ignored : nothing is
+		// deferred, even if the deadline is already over.
+		//
+		for (int i = 0; i < 3; i++)
+			scheduler.runTasks(0, TICK, null);
+
+		Assert.assertEquals(6, runs.size());
+
+		for (int i = 0; i < 6; i += 2) {
+			Assert.assertEquals("slow", runs.get(i));
+			Assert.assertEquals("fixed", runs.get(i + 1));
+		}
+	}
+
+	@Test
+	public void testEveryTickWithDrop() {
+		checkEveryTick(TickScheduler.OverrunPolicy.DROP);
+	}
+
+	@Test
+	public void testEveryTickWithCatchUp() {
+		checkEveryTick(TickScheduler.OverrunPolicy.CATCH_UP);
+	}
+
+	/**
+	 * Simulates ticks spending some time in the sync before running the tasks,
+	 * with a task taking a part of the tick. A task with a cycle length of one
+	 * has to run at each tick.
+	 */
+	protected void checkEveryTick(TickScheduler.OverrunPolicy policy) {
+		TickScheduler scheduler = new TickScheduler();
+		List<String> runs = new ArrayList<String>();
+		long tick = 4 * TICK;
+		int ticks = 30;
+
+		scheduler.setOverrunPolicy(policy);
+		scheduler.add("task", new Task("task", runs, TickTask.PRIORITY_NORMAL,
+				false, 1), tick);
+
+		long start = System.nanoTime() + tick;
+
+		for (int i = 0; i < ticks; i++, start += tick) {
+			waitUntil(start);
+			waitUntil(start + TICK);
+
+			scheduler.runTasks(start, start + tick, tick, null);
+		}
+
+		Assert.assertEquals(ticks, runs.size());
+	}
+
+	static void waitUntil(long date) {
+		while (System.nanoTime() < date)
+			;
+	}
+
+	static class Task implements TickTask {
+		final String id;
+		final List<String> runs;
+		final int priority;
+		final boolean deferrable;
+		final long ticks;
+		boolean periodic = true;
+
+		Task(String id, List<String> runs, int priority, boolean deferrable,
+				long ticks) {
+			this.id = id;
+			this.runs = runs;
+			this.priority = priority;
+			this.deferrable = deferrable;
+			this.ticks = ticks;
+		}
+
+		@Override
+		public void run() {
+			long end = System.nanoTime() + ticks * TICK;
+
+			while (System.nanoTime() < end)
+				;
+
+			runs.add(id);
+		}
+
+		@Override
+		public int getCycleLength() {
+			return 1;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return periodic;
+		}
+
+		@Override
+		public int getPriority() {
+			return priority;
+		}
+
+		@Override
+		public boolean isDeferrable() {
+			return deferrable;
+		}
+	}
+}
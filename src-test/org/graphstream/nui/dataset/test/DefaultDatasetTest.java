@@ -0,0 +1,248 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.dataset.test;
+
+import java.nio.DoubleBuffer;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.DefaultGraph;
+import org.graphstream.nui.UIContext.ThreadingModel;
+import org.graphstream.nui.UIDataset;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UISpace;
+import org.graphstream.nui.context.HeadlessContext;
+import org.graphstream.nui.dataset.DefaultDataset;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultDatasetTest {
+	static final int NODES = 10;
+
+	HeadlessContext ctx;
+	UIIndexer indexer;
+	UIDataset dataset;
+	int dim;
+
+	@Before
+	public void createContext() throws Exception {
+		ctx = new HeadlessContext(42);
+		ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+		ctx.loadModule(UIDataset.MODULE_ID);
+
+		Graph g = new DefaultGraph("g");
+		ctx.connect(g);
+
+		for (int i = 0; i < NODES; i++)
+			g.addNode(Integer.toString(i));
+
+		indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		dataset = (UIDataset) ctx.getModule(UIDataset.MODULE_ID);
+		dim = ((UISpace) ctx.getModule(UISpace.MODULE_ID)).is3D() ? 3 : 2;
+
+		dataset.setAttribute(DefaultDataset.ATTRIBUTE_DOUBLE_BUFFERING, true);
+	}
+
+	@After
+	public void releaseContext() {
+		ctx.release();
+	}
+
+	@Test
+	public void testPublishAndFlip() {
+		long epoch = dataset.getNodesXYZEpoch();
+		double[] before = positions();
+
+		dataset.publishNodesXYZ(frame(1), 0);
+
+		//
+		// Nothing is visible before the flip.
+		//
+		Assert.assertArrayEquals(before, positions(), 0);
+		Assert.assertEquals(epoch, dataset.getNodesXYZEpoch());
+
+		ctx.step(1);
+
+		Assert.assertArrayEquals(frame(1), positions(), 0);
+		Assert.assertEquals(epoch + 1, dataset.getNodesXYZEpoch());
+
+		//
+		// No flip without a new frame.
+		//
+		ctx.step(1);
+		Assert.assertEquals(epoch + 1, dataset.getNodesXYZEpoch());
+	}
+
+	@Test
+	public void testDirectWriteWithoutPendingFrame() {
+		dataset.publishNodesXYZ(frame(1), 0);
+		ctx.step(1);
+
+		ElementIndex index = indexer.getNodeIndex("3");
+		dataset.setNodeXYZ(index, new double[] { -1, -2, -3 });
+
+		ctx.step(1);
+
+		//
+		// The direct write survives the flip, the other nodes keep the
+		// last published frame.
+		//
+		double[] expected = frame(1);
+		expected[3 * dim] = -1;
+		expected[3 * dim + 1] = -2;
+
+		if (dim == 3)
+			expected[3 * dim + 2] = -3;
+
+		Assert.assertArrayEquals(expected, positions(), 0);
+	}
+
+	@Test
+	public void testDirectWriteWithPendingFrame() {
+		long epoch = dataset.getNodesXYZEpoch();
+
+		dataset.publishNodesXYZ(frame(1), 0);
+		dataset.setNodeX(indexer.getNodeIndex("5"), -5);
+
+		ctx.step(1);
+
+		double[] expected = frame(1);
+		expected[5 * dim] = -5;
+
+		Assert.assertArrayEquals(expected, positions(), 0);
+		Assert.assertEquals(epoch + 1, dataset.getNodesXYZEpoch());
+
+		//
+		// The flipped frame does not come back on the next publish.
+		//
+		dataset.publishNodesXYZ(frame(2), 0);
+		ctx.step(1);
+
+		Assert.assertArrayEquals(frame(2), positions(), 0);
+		Assert.assertEquals(epoch + 2, dataset.getNodesXYZEpoch());
+	}
+
+	@Test
+	public void testInterpolation() throws InterruptedException {
+		dataset.setAttribute(DefaultDataset.ATTRIBUTE_INTERPOLATION, true);
+
+		dataset.publishNodesXYZ(frame(1), 0);
+		ctx.step(1);
+		Thread.sleep(2);
+		dataset.publishNodesXYZ(frame(2), 0);
+		ctx.step(1);
+
+		//
+		// The previous frame is the first one, the front frame the second.
+		//
+		Assert.assertArrayEquals(frame(1),
+				toArray(dataset.getNodesXYZInterpolated(0, null)), 0);
+		Assert.assertArrayEquals(frame(2),
+				toArray(dataset.getNodesXYZInterpolated(1, null)), 0);
+
+		double[] half = frame(1);
+
+		for (int i = 0; i < half.length; i++)
+			half[i] += 50;
+
+		Assert.assertArrayEquals(half,
+				toArray(dataset.getNodesXYZInterpolated(0.5, null)), 1e-9);
+
+		//
+		// Without a target, the same buffer is reused.
+		//
+		Assert.assertSame(dataset.getNodesXYZInterpolated(0, null),
+				dataset.getNodesXYZInterpolated(1, null));
+	}
+
+	@Test
+	public void testInterpolationFactor() throws InterruptedException {
+		//
+		// Without interpolation, the front frame is drawn.
+		//
+		Assert.assertEquals(1,
+				dataset.getNodesXYZInterpolationFactor(System.nanoTime()), 0);
+
+		dataset.setAttribute(DefaultDataset.ATTRIBUTE_INTERPOLATION, true);
+
+		dataset.publishNodesXYZ(frame(1), 0);
+		ctx.step(1);
+		Thread.sleep(2);
+		dataset.publishNodesXYZ(frame(2), 0);
+		ctx.step(1);
+
+		long time = dataset.getNodesXYZTime();
+		long period = time - dataset.getPreviousNodesXYZTime();
+
+		Assert.assertTrue(period > 0);
+		Assert.assertEquals(0, dataset.getNodesXYZInterpolationFactor(time), 0);
+		Assert.assertEquals(0,
+				dataset.getNodesXYZInterpolationFactor(time - period), 0);
+		Assert.assertEquals(0.5,
+				dataset.getNodesXYZInterpolationFactor(time + period / 2),
+				1e-6);
+		Assert.assertEquals(1,
+				dataset.getNodesXYZInterpolationFactor(time + period), 0);
+		Assert.assertEquals(1,
+				dataset.getNodesXYZInterpolationFactor(time + 2 * period), 0);
+	}
+
+	static double[] toArray(DoubleBuffer buffer) {
+		double[] a = new double[buffer.remaining()];
+		buffer.duplicate().get(a);
+
+		return a;
+	}
+
+	double[] frame(int n) {
+		double[] xyz = new double[NODES * dim];
+
+		for (int i = 0; i < xyz.length; i++)
+			xyz[i] = n * 100 + i;
+
+		return xyz;
+	}
+
+	double[] positions() {
+		double[] positions = new double[NODES * dim];
+		double[] xyz = new double[3];
+
+		for (int i = 0; i < NODES; i++) {
+			dataset.getNodeXYZ(indexer.getNodeIndex(i), xyz);
+			System.arraycopy(xyz, 0, positions, i * dim, dim);
+		}
+
+		return positions;
+	}
+}
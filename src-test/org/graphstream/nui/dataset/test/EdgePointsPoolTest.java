@@ -0,0 +1,234 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.dataset.test;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.DefaultGraph;
+import org.graphstream.nui.UIContext.ThreadingModel;
+import org.graphstream.nui.UIDataset.EdgePointsType;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UISwapper;
+import org.graphstream.nui.context.HeadlessContext;
+import org.graphstream.nui.dataset.EdgePointsPool;
+import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EdgePointsPoolTest {
+	static final int EDGES = 40;
+
+	HeadlessContext ctx;
+	Graph g;
+	UIIndexer indexer;
+	EdgePointsPool pool;
+
+	/**
+	 * A star of edges "0" to "39" around node "c".
+	 */
+	@Before
+	public void createContext() throws Exception {
+		ctx = new HeadlessContext(42);
+		ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+		ctx.loadModule(UIIndexer.MODULE_ID);
+		ctx.loadModule(UISwapper.MODULE_ID);
+
+		indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		pool = new EdgePointsPool((UISwapper) ctx.getModule(UISwapper.MODULE_ID),
+				indexer);
+
+		g = new DefaultGraph("g");
+		ctx.connect(g);
+		g.addNode("c");
+
+		for (int i = 0; i < EDGES; i++) {
+			g.addNode("n" + i);
+			g.addEdge(Integer.toString(i), "c", "n" + i);
+		}
+	}
+
+	@After
+	public void releaseContext() {
+		pool.release();
+		ctx.release();
+	}
+
+	@Test
+	public void testReuseInPlace() {
+		ElementIndex e = edge(0);
+
+		Assert.assertNull(pool.getPoints(e));
+		Assert.assertNull(pool.getType(e));
+
+		setPoints(0, 3, 1);
+		int offset = pool.getOffset(e);
+
+		//
+		// Less points fit in the current range.
+		//
+		setPoints(0, 2, 2);
+
+		Assert.assertEquals(offset, pool.getOffset(e));
+		Assert.assertEquals(2, pool.getCount(e));
+		Assert.assertEquals(EdgePointsType.RELATIVE, pool.getType(e));
+		checkPoints(0, 2, 2);
+
+		//
+		// More points take a new range at the end of the pool.
+		//
+		setPoints(0, 5, 3);
+
+		Assert.assertTrue(pool.getOffset(e) > offset);
+		checkPoints(0, 5, 3);
+
+		pool.setPoints(e, null, null);
+
+		Assert.assertNull(pool.getPoints(e));
+		Assert.assertEquals(0, pool.getCount(e));
+	}
+
+	@Test
+	public void testLazyCompaction() {
+		//
+		// 30 edges of 10 points use 900 of the 1024 doubles of the pool.
+		//
+		for (int i = 0; i < 30; i++)
+			setPoints(i, 10, i);
+
+		int capacity = pool.getCoordinates().capacity();
+
+		for (int i = 0; i < 20; i++)
+			pool.setPoints(edge(i), null, null);
+
+		//
+		// Unused ranges are kept while the pool does not have to grow.
+		//
+		setPoints(30, 1, 30);
+
+		Assert.assertEquals(903, pool.getCoordinates().limit());
+
+		//
+		// Growing with more than half of the pool unused compacts it
+		// instead.
+		//
+		setPoints(31, 50, 31);
+
+		Assert.assertEquals(capacity, pool.getCoordinates().capacity());
+		Assert.assertEquals((10 * 10 + 1 + 50) * EdgePointsPool.COMPONENTS,
+				pool.getCoordinates().limit());
+
+		for (int i = 20; i < 30; i++)
+			checkPoints(i, 10, i);
+
+		checkPoints(30, 1, 30);
+		checkPoints(31, 50, 31);
+	}
+
+	@Test
+	public void testSwapsAndRemovals() {
+		//
+		// The removed edges own most of the pool.
+		//
+		for (int i = 0; i < EDGES; i++)
+			setPoints(i, count(i), i);
+
+		//
+		// Removing edges moves the last edges in their indexes, their
+		// ranges follow them.
+		//
+		for (int i = 0; i < EDGES; i += 3)
+			g.removeEdge(Integer.toString(i));
+
+		for (int i = 0; i < EDGES; i++)
+			if (i % 3 != 0)
+				checkPoints(i, count(i), i);
+
+		//
+		// A new edge has no points, even if it reuses the index of a
+		// removed edge.
+		//
+		g.addEdge("new", "c", "n0");
+		Assert.assertNull(pool.getPoints(indexer.getEdgeIndex("new")));
+
+		//
+		// Force the compaction, and check that the ranges are still right.
+		//
+		int size = pool.getCoordinates().limit();
+
+		setPoints(1, 400, 1);
+
+		Assert.assertTrue(pool.getCoordinates().limit() < size + 400
+				* EdgePointsPool.COMPONENTS);
+
+		for (int i = 2; i < EDGES; i++)
+			if (i % 3 != 0)
+				checkPoints(i, count(i), i);
+
+		checkPoints(1, 400, 1);
+	}
+
+	static int count(int edge) {
+		return edge % 3 == 0 ? 20 : 1 + edge % 4;
+	}
+
+	ElementIndex edge(int i) {
+		return indexer.getEdgeIndex(Integer.toString(i));
+	}
+
+	/**
+	 * Give count points to an edge, whose coordinates identify the edge and
+	 * the point.
+	 */
+	void setPoints(int edge, int count, int tag) {
+		Vector3[] points = new Vector3[count];
+
+		for (int i = 0; i < count; i++)
+			points[i] = new Vector3(tag, i, -tag);
+
+		pool.setPoints(edge(edge), EdgePointsType.RELATIVE, points);
+	}
+
+	void checkPoints(int edge, int count, int tag) {
+		Vector3[] points = pool.getPoints(edge(edge));
+
+		Assert.assertNotNull(points);
+		Assert.assertEquals(count, points.length);
+
+		for (int i = 0; i < count; i++) {
+			Assert.assertEquals(tag, points[i].x(), 0);
+			Assert.assertEquals(i, points[i].y(), 0);
+			Assert.assertEquals(-tag, points[i].z(), 0);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.indexer.test;
+
+import java.util.Random;
+
+import org.graphstream.nui.indexer.CompressedAdjacency;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedAdjacencyTest {
+	@Test
+	public void testRows() {
+		//
+		// 0 - 1, 0 - 2, 2 - 1, 3 - 3 (loop), node 4 is isolated
+		//
+		int[] sources = { 0, 0, 2, 3 };
+		int[] targets = { 1, 2, 1, 3 };
+
+		CompressedAdjacency a = new CompressedAdjacency(5, 4, sources, targets);
+
+		Assert.assertEquals(2, a.getDegree(0));
+		Assert.assertEquals(2, a.getDegree(1));
+		Assert.assertEquals(2, a.getDegree(2));
+		Assert.assertEquals(1, a.getDegree(3));
+		Assert.assertEquals(0, a.getDegree(4));
+
+		int[] n = a.getNeighbours();
+		int[] e = a.getEdges();
+		int o = a.getOffset(1);
+
+		Assert.assertEquals(0, n[o]);
+		Assert.assertEquals(0, e[o]);
+		Assert.assertEquals(2, n[o + 1]);
+		Assert.assertEquals(2, e[o + 1]);
+
+		Assert.assertTrue(a.isConnected(1, 2));
+		Assert.assertTrue(a.isConnected(2, 1));
+		Assert.assertTrue(a.isConnected(3, 3));
+		Assert.assertFalse(a.isConnected(0, 3));
+		Assert.assertFalse(a.isConnected(4, 0));
+		Assert.assertEquals(1, a.getEdgeBetween(2, 0));
+		Assert.assertEquals(-1, a.getEdgeBetween(0, 4));
+
+		Assert.assertEquals(2, a.getEdgeSource(2));
+		Assert.assertEquals(1, a.getEdgeTarget(2));
+	}
+
+	@Test
+	public void testSortedRows() {
+		Random random = new Random(0);
+		int nodeCount = 500, edgeCount = 3000;
+		int[] sources = new int[edgeCount];
+		int[] targets = new int[edgeCount];
+		boolean[][] connected = new boolean[nodeCount][nodeCount];
+
+		for (int i = 0; i < edgeCount; i++) {
+			sources[i] = random.nextInt(nodeCount);
+			targets[i] = random.nextInt(nodeCount);
+			connected[sources[i]][targets[i]] = true;
+			connected[targets[i]][sources[i]] = true;
+		}
+
+		CompressedAdjacency a = new CompressedAdjacency(nodeCount, edgeCount,
+				sources, targets);
+
+		for (int i = 0; i < nodeCount; i++) {
+			for (int k = a.getOffset(i) + 1; k < a.getOffset(i + 1); k++)
+				Assert.assertTrue(a.getNeighbours()[k - 1] <= a
+						.getNeighbours()[k]);
+
+			for (int k = a.getOffset(i); k < a.getOffset(i + 1); k++) {
+				int edge = a.getEdges()[k];
+				int other = a.getEdgeSource(edge) == i ? a.getEdgeTarget(edge)
+						: a.getEdgeSource(edge);
+
+				Assert.assertEquals(other, a.getNeighbours()[k]);
+			}
+
+			for (int j = 0; j < nodeCount; j++)
+				Assert.assertEquals(connected[i][j], a.isConnected(i, j));
+		}
+	}
+}
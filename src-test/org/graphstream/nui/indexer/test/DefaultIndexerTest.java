@@ -31,6 +31,7 @@
  */
 package org.graphstream.nui.indexer.test;
 
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,6 +47,9 @@ import org.graphstream.nui.UIContext.ThreadingModel;
 import org.graphstream.nui.UIModules;
 import org.graphstream.nui.indexer.DefaultIndexer;
 import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.IndexPermutation;
+import org.graphstream.nui.indexer.IndexerListener;
+import org.graphstream.nui.indexer.ElementIndex.Type;
 import org.junit.Test;
 
 public class DefaultIndexerTest {
@@ -194,4 +198,121 @@ public class DefaultIndexerTest {
 
 		ctx.release();
 	}
+
+	@Test
+	public void testBatch() {
+		DefaultGraph g = new DefaultGraph("g");
+		UIContext ctx = UIFactory.getDefaultFactory().createContext();
+
+		ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+
+		try {
+			ctx.loadModule("indexer");
+		} catch (InstantiationException | ModuleNotFoundException e) {
+			Assert.fail(e.getMessage());
+		}
+
+		UIIndexer indexer = (UIIndexer) ctx.getModule("indexer");
+		ctx.connect(g);
+
+		for (int i = 0; i < 10; i++)
+			g.addNode(Integer.toString(i));
+
+		for (int i = 0; i < 9; i++)
+			g.addEdge(i + "-" + (i + 1), Integer.toString(i),
+					Integer.toString(i + 1));
+
+		String[] before = new String[10];
+
+		for (int i = 0; i < 10; i++)
+			before[i] = indexer.getNodeIndex(i).id();
+
+		BatchListener listener = new BatchListener();
+		indexer.addIndexerListener(listener);
+
+		indexer.beginBatch();
+		g.removeNode("2");
+		g.addNode("A");
+		g.removeNode("7");
+		g.addNode("B");
+		g.removeNode("B");
+		indexer.commitBatch();
+
+		Assert.assertEquals(0, listener.events);
+		Assert.assertNotNull(listener.nodes);
+		Assert.assertNotNull(listener.edges);
+
+		IndexPermutation p = listener.nodes;
+
+		Assert.assertEquals(10, p.getOldCount());
+		Assert.assertEquals(9, p.getNewCount());
+		Assert.assertEquals(1, p.getAddedCount());
+		Assert.assertEquals("A", indexer.getNodeIndex(p.getAddedIndex(0))
+				.id());
+		Assert.assertEquals(2, p.getRemoved().size());
+
+		//
+		// Apply the swaps to the old ids, they must match the new indexes.
+		//
+		String[] after = Arrays.copyOf(before, 10);
+
+		for (int i = 0; i < p.getSwapCount(); i++) {
+			int i1 = p.getSwapIndex1(i), i2 = p.getSwapIndex2(i);
+			String tmp = after[i1];
+			after[i1] = after[i2];
+			after[i2] = tmp;
+		}
+
+		for (int i = 0; i < p.getNewCount(); i++)
+			if (!indexer.getNodeIndex(i).id().equals("A"))
+				Assert.assertEquals(indexer.getNodeIndex(i).id(), after[i]);
+
+		Assert.assertEquals(9 - 4, listener.edges.getNewCount());
+
+		ctx.release();
+	}
+
+	static class BatchListener implements IndexerListener {
+		int events = 0;
+		IndexPermutation nodes, edges;
+
+		public void nodeAdded(ElementIndex nodeIndex) {
+			events++;
+		}
+
+		public void nodeRemoved(ElementIndex nodeIndex) {
+			events++;
+		}
+
+		public void nodesSwapped(ElementIndex nodeIndex1,
+				ElementIndex nodeIndex2) {
+			events++;
+		}
+
+		public void edgeAdded(ElementIndex edgeIndex,
+				ElementIndex sourceIndex, ElementIndex targetIndex,
+				boolean directed) {
+			events++;
+		}
+
+		public void edgeRemoved(ElementIndex edgeIndex) {
+			events++;
+		}
+
+		public void edgesSwapped(ElementIndex edgeIndex1,
+				ElementIndex edgeIndex2) {
+			events++;
+		}
+
+		public void elementsClear() {
+			events++;
+		}
+
+		public void elementsPermuted(IndexPermutation permutation) {
+			if (permutation.getType() == Type.NODE)
+				nodes = permutation;
+			else
+				edges = permutation;
+		}
+	}
 }
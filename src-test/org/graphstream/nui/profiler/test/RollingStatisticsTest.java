@@ -0,0 +1,77 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.profiler.test;
+
+import org.graphstream.nui.profiler.RollingStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RollingStatisticsTest {
+	@Test
+	public void testPercentiles() {
+		RollingStatistics rs = new RollingStatistics(100);
+
+		for (int i = 100; i > 0; i--)
+			rs.add(i);
+
+		Assert.assertEquals(100, rs.getSampleCount());
+		Assert.assertEquals(1, rs.getPercentile(0));
+		Assert.assertEquals(50, rs.getPercentile(50));
+		Assert.assertEquals(95, rs.getPercentile(95));
+		Assert.assertEquals(100, rs.getPercentile(100));
+		Assert.assertEquals(100, rs.getMax());
+		Assert.assertEquals(50.5, rs.getMean(), 1E-9);
+		Assert.assertEquals(1, rs.getLast());
+		Assert.assertEquals(0.1, rs.getRatioAbove(90), 1E-9);
+	}
+
+	@Test
+	public void testWindow() {
+		RollingStatistics rs = new RollingStatistics(10);
+
+		for (int i = 0; i < 25; i++)
+			rs.add(i);
+
+		Assert.assertEquals(10, rs.getSampleCount());
+		Assert.assertEquals(25, rs.getTotalCount());
+		Assert.assertEquals(15, rs.getPercentile(0));
+		Assert.assertEquals(24, rs.getMax());
+		Assert.assertEquals(24, rs.getLast());
+		Assert.assertEquals(19.5, rs.getMean(), 1E-9);
+
+		rs.clear();
+
+		Assert.assertEquals(0, rs.getSampleCount());
+		Assert.assertEquals(0, rs.getPercentile(50));
+		Assert.assertEquals(0, rs.getMean(), 0);
+	}
+}
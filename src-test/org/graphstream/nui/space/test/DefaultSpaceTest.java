@@ -0,0 +1,166 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.space.test;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.DefaultGraph;
+import org.graphstream.nui.UIContext.ThreadingModel;
+import org.graphstream.nui.UIDataset;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UISpace;
+import org.graphstream.nui.UISpace.Mode;
+import org.graphstream.nui.context.HeadlessContext;
+import org.graphstream.nui.space.Bounds;
+import org.graphstream.nui.space.DefaultSpace;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultSpaceTest {
+	static final int NODES = 10;
+	static final double PADDING = DefaultSpace.DEFAULT_PADDING;
+
+	HeadlessContext ctx;
+	Graph g;
+	UIIndexer indexer;
+	UIDataset dataset;
+	UISpace space;
+
+	/**
+	 * Node i is at (i, i, i), so the extremes are 0 and 9 on each axis.
+	 */
+	@Before
+	public void createContext() throws Exception {
+		ctx = new HeadlessContext(42);
+		ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+		ctx.loadModule(UISpace.MODULE_ID);
+
+		g = new DefaultGraph("g");
+		ctx.connect(g);
+
+		indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		dataset = (UIDataset) ctx.getModule(UIDataset.MODULE_ID);
+		space = (UISpace) ctx.getModule(UISpace.MODULE_ID);
+
+		for (int i = 0; i < NODES; i++) {
+			g.addNode(Integer.toString(i));
+			move(Integer.toString(i), i, i, i);
+		}
+
+		space.setMode(Mode.ADAPTATIVE);
+		ctx.step(1);
+
+		checkBounds(0, 0, 0, 9, 9, 9);
+	}
+
+	@After
+	public void releaseContext() {
+		ctx.release();
+	}
+
+	@Test
+	public void testIncremental() {
+		move("4", 20, 4, -5);
+		ctx.step(1);
+
+		checkBounds(0, 0, -5, 20, 9, 9);
+
+		//
+		// In the growing mode, the space does not shrink when an extreme
+		// moves inward.
+		//
+		space.setMode(Mode.GROWING);
+		move("4", 4, 4, 4);
+		ctx.step(1);
+
+		checkBounds(0, 0, -5, 20, 9, 9);
+	}
+
+	@Test
+	public void testExtremeMovesInward() {
+		move("9", 5, 5, 5);
+		ctx.step(1);
+
+		checkBounds(0, 0, 0, 8, 8, 8);
+
+		move("0", 1, 5, 5);
+		ctx.step(1);
+
+		checkBounds(1, 1, 1, 8, 8, 8);
+	}
+
+	@Test
+	public void testExtremeRemoved() {
+		g.removeNode("9");
+		move("4", 4.5, 4, 4);
+		ctx.step(1);
+
+		checkBounds(0, 0, 0, 8, 8, 8);
+	}
+
+	@Test
+	public void testAxisWithoutCoordinates() {
+		for (int i = 0; i < NODES; i++)
+			dataset.setNodeX(indexer.getNodeIndex(Integer.toString(i)),
+					Double.NaN);
+
+		ctx.step(1);
+
+		//
+		// The x axis keeps its previous extremes.
+		//
+		checkBounds(0, 0, 0, 9, 9, 9);
+
+		move("3", 3, 20, 3);
+		ctx.step(1);
+
+		checkBounds(0, 0, 0, 9, 20, 9);
+	}
+
+	void move(String nodeId, double x, double y, double z) {
+		dataset.setNodeXYZ(indexer.getNodeIndex(nodeId), new double[] { x, y,
+				z });
+	}
+
+	void checkBounds(double lx, double ly, double lz, double hx, double hy,
+			double hz) {
+		Bounds b = space.getBounds();
+
+		Assert.assertEquals(lx - PADDING, b.getLowestPoint().x(), 1e-9);
+		Assert.assertEquals(ly - PADDING, b.getLowestPoint().y(), 1e-9);
+		Assert.assertEquals(lz - PADDING, b.getLowestPoint().z(), 1e-9);
+		Assert.assertEquals(hx + PADDING, b.getHighestPoint().x(), 1e-9);
+		Assert.assertEquals(hy + PADDING, b.getHighestPoint().y(), 1e-9);
+		Assert.assertEquals(hz + PADDING, b.getHighestPoint().z(), 1e-9);
+	}
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.spacePartition.data.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.DefaultGraph;
+import org.graphstream.nui.UIContext.ThreadingModel;
+import org.graphstream.nui.UIDataset;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UISpace;
+import org.graphstream.nui.UISpacePartition;
+import org.graphstream.nui.UISwapper;
+import org.graphstream.nui.context.HeadlessContext;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.spacePartition.SpaceCell;
+import org.graphstream.nui.spacePartition.TreeSpaceCell;
+import org.graphstream.nui.spacePartition.data.BarycenterData;
+import org.graphstream.nui.spacePartition.data.QuadrupoleData;
+import org.graphstream.nui.spacePartition.data.SpaceCellDataIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpaceCellDataTest {
+	static final int NODES = 400;
+
+	HeadlessContext ctx;
+	UIIndexer indexer;
+	UIDataset dataset;
+	UISpacePartition partition;
+	SpaceCellDataIndex barycenter, quadrupole;
+	Random random;
+
+	/**
+	 * A ring of nodes spread in the space, with more nodes than a cell can
+	 * hold so that the tree has internal cells.
+	 */
+	@Before
+	public void createContext() throws Exception {
+		ctx = new HeadlessContext(42);
+		ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+		ctx.loadModule(UIIndexer.MODULE_ID);
+		ctx.loadModule(UISwapper.MODULE_ID);
+		ctx.loadModule(UIDataset.MODULE_ID);
+		ctx.loadModule(UISpace.MODULE_ID);
+		ctx.loadModule(UISpacePartition.MODULE_ID);
+
+		Graph g = new DefaultGraph("g");
+		ctx.connect(g);
+
+		for (int i = 0; i < NODES; i++)
+			g.addNode(Integer.toString(i));
+
+		for (int i = 0; i < NODES; i++)
+			g.addEdge(Integer.toString(i), Integer.toString(i),
+					Integer.toString((i + 1) % NODES));
+
+		indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		dataset = (UIDataset) ctx.getModule(UIDataset.MODULE_ID);
+		partition = (UISpacePartition) ctx
+				.getModule(UISpacePartition.MODULE_ID);
+		random = new Random(7);
+
+		for (int i = 0; i < NODES; i++)
+			move(i, 90 * (2 * random.nextDouble() - 1),
+					90 * (2 * random.nextDouble() - 1),
+					90 * (2 * random.nextDouble() - 1));
+
+		ctx.step(1);
+
+		barycenter = partition.addSpaceCellData(BarycenterData.FACTORY);
+		quadrupole = partition.addSpaceCellData(QuadrupoleData.FACTORY);
+
+		checkAllCells();
+	}
+
+	@After
+	public void releaseContext() {
+		ctx.release();
+	}
+
+	@Test
+	public void testNodesMovingBetweenCells() {
+		//
+		// Few nodes move, so only the paths from their cells to the root are
+		// computed again.
+		//
+		for (int i = 0; i < NODES; i += 20)
+			move(i, -dataset.getNodeX(i), dataset.getNodeZ(i),
+					dataset.getNodeY(i));
+
+		ctx.step(1);
+		checkAllCells();
+
+		//
+		// Cells subdivided while moves were pending do not lose nodes.
+		//
+		SpaceCell root = null;
+
+		for (int i = 0; i < NODES; i++) {
+			root = partition.getSpaceCell(indexer.getNodeIndex(i));
+			Assert.assertNotNull(root);
+		}
+
+		while (((TreeSpaceCell) root).getParent() != null)
+			root = ((TreeSpaceCell) root).getParent();
+
+		Assert.assertEquals(NODES, root.getElementCount());
+
+		//
+		// Nodes moving inside their cell.
+		//
+		for (int i = 1; i < NODES; i += 20)
+			move(i, dataset.getNodeX(i) + 1e-3, dataset.getNodeY(i),
+					dataset.getNodeZ(i));
+
+		ctx.step(1);
+		checkAllCells();
+	}
+
+	@Test
+	public void testEmptyInternalCells() {
+		TreeSpaceCell root = (TreeSpaceCell) partition
+				.getSpaceCell(indexer.getNodeIndex(0));
+
+		while (root.getParent() != null)
+			root = root.getParent();
+
+		//
+		// The root holds no node itself, its data come from its children.
+		//
+		Assert.assertTrue(root.getChildrenCount() > 0);
+		Assert.assertEquals(NODES,
+				root.getData(barycenter, BarycenterData.COUNT), 0);
+		Assert.assertEquals(2 * NODES,
+				root.getData(barycenter, BarycenterData.DEGREE), 0);
+
+		//
+		// Empty the octant of the positive coordinates.
+		//
+		for (int i = 0; i < NODES; i++) {
+			double x = dataset.getNodeX(i);
+			double y = dataset.getNodeY(i);
+			double z = dataset.getNodeZ(i);
+
+			if (x > 0 && y > 0 && z > 0)
+				move(i, -x, -y, -z);
+		}
+
+		ctx.step(1);
+		checkAllCells();
+	}
+
+	@Test
+	public void testQuadrupoleMerge() {
+		QuadrupoleData data = new QuadrupoleData(dataset);
+		int stride = data.getComponentCount();
+		double[] values = new double[3 * stride];
+		double[][] a = randomPoints(7), b = randomPoints(13);
+		double[][] all = new double[20][];
+
+		System.arraycopy(a, 0, all, 0, 7);
+		System.arraycopy(b, 0, all, 7, 13);
+
+		//
+		// Children hold their barycenter and their central moments, the
+		// parent aggregates them around its own barycenter.
+		//
+		setMoments(a, values, stride);
+		setMoments(b, values, 2 * stride);
+
+		data.reset(values, 0);
+		data.addChild(values, 0, stride);
+		data.addChild(values, 0, 2 * stride);
+		data.complete(values, 0);
+
+		double[] expected = new double[stride];
+
+		setMoments(all, expected, 0);
+		checkMoments(expected, values);
+
+		//
+		// An empty child does not change anything.
+		//
+		data.reset(values, stride);
+		data.complete(values, stride);
+
+		data.reset(values, 0);
+		data.addChild(values, 0, stride);
+		data.addChild(values, 0, 2 * stride);
+		data.complete(values, 0);
+
+		setMoments(b, expected, 0);
+		checkMoments(expected, values);
+	}
+
+	static void checkMoments(double[] expected, double[] values) {
+		for (int k : new int[] { BarycenterData.X, BarycenterData.Y,
+				BarycenterData.Z, BarycenterData.COUNT, QuadrupoleData.XX,
+				QuadrupoleData.YY, QuadrupoleData.ZZ, QuadrupoleData.XY,
+				QuadrupoleData.XZ, QuadrupoleData.YZ })
+			Assert.assertEquals(expected[k], values[k], 1e-9);
+	}
+
+	void move(int node, double x, double y, double z) {
+		dataset.setNodeXYZ(indexer.getNodeIndex(node), new double[] { x, y,
+				z });
+	}
+
+	double[][] randomPoints(int n) {
+		double[][] points = new double[n][3];
+
+		for (int i = 0; i < n; i++)
+			for (int a = 0; a < 3; a++)
+				points[i][a] = 10 * random.nextDouble() - 5 + 3 * n;
+
+		return points;
+	}
+
+	/**
+	 * Write the barycenter, the count and the central second moments of
+	 * points, as aggregated by a QuadrupoleData.
+	 */
+	static void setMoments(double[][] points, double[] values, int offset) {
+		double[] c = new double[3];
+
+		for (double[] p : points)
+			for (int a = 0; a < 3; a++)
+				c[a] += p[a] / points.length;
+
+		double[] m = new double[6];
+
+		for (double[] p : points) {
+			double dx = p[0] - c[0], dy = p[1] - c[1], dz = p[2] - c[2];
+
+			m[0] += dx * dx;
+			m[1] += dy * dy;
+			m[2] += dz * dz;
+			m[3] += dx * dy;
+			m[4] += dx * dz;
+			m[5] += dy * dz;
+		}
+
+		values[offset + BarycenterData.X] = c[0];
+		values[offset + BarycenterData.Y] = c[1];
+		values[offset + BarycenterData.Z] = c[2];
+		values[offset + BarycenterData.COUNT] = points.length;
+
+		for (int k = 0; k < 6; k++)
+			values[offset + QuadrupoleData.XX + k] = m[k];
+	}
+
+	/**
+	 * Compare the data of each cell with the data computed from scratch on
+	 * the nodes of the cell and of its descendants.
+	 */
+	void checkAllCells() {
+		int cells = 0;
+
+		for (SpaceCell cell : partition) {
+			checkCell((TreeSpaceCell) cell);
+			cells++;
+		}
+
+		Assert.assertTrue(cells > 1);
+	}
+
+	void checkCell(TreeSpaceCell cell) {
+		List<ElementIndex> nodes = new ArrayList<ElementIndex>();
+		collectNodes(cell, nodes);
+
+		int n = nodes.size();
+		double[] c = new double[3];
+		double weight = 0, degree = 0;
+		double[] xyz = new double[3];
+
+		for (ElementIndex e : nodes) {
+			dataset.getNodeXYZ(e, xyz);
+
+			for (int a = 0; a < 3; a++)
+				c[a] += xyz[a] / n;
+
+			weight += dataset.getElementWeight(e);
+			degree += ((ElementIndex.NodeIndex) e).getDegree();
+		}
+
+		double[][] q = new double[3][3];
+
+		for (ElementIndex e : nodes) {
+			dataset.getNodeXYZ(e, xyz);
+
+			double r2 = 0;
+
+			for (int a = 0; a < 3; a++)
+				r2 += (xyz[a] - c[a]) * (xyz[a] - c[a]);
+
+			for (int a = 0; a < 3; a++)
+				for (int b = 0; b < 3; b++)
+					q[a][b] += 3 * (xyz[a] - c[a]) * (xyz[b] - c[b])
+							- (a == b ? r2 : 0);
+		}
+
+		Assert.assertEquals(n, cell.getData(barycenter, BarycenterData.COUNT),
+				0);
+		Assert.assertEquals(weight,
+				cell.getData(barycenter, BarycenterData.WEIGHT), 1e-9);
+		Assert.assertEquals(degree,
+				cell.getData(barycenter, BarycenterData.DEGREE), 0);
+
+		for (int a = 0; a < 3; a++) {
+			Assert.assertEquals(c[a], cell.getData(barycenter, a), 1e-9);
+			Assert.assertEquals(c[a], cell.getData(quadrupole, a), 1e-9);
+		}
+
+		int[][] components = {
+				{ QuadrupoleData.XX, QuadrupoleData.XY, QuadrupoleData.XZ },
+				{ QuadrupoleData.XY, QuadrupoleData.YY, QuadrupoleData.YZ },
+				{ QuadrupoleData.XZ, QuadrupoleData.YZ, QuadrupoleData.ZZ } };
+
+		for (int a = 0; a < 3; a++)
+			for (int b = 0; b < 3; b++)
+				Assert.assertEquals(q[a][b], QuadrupoleData.getQuadrupole(
+						cell, quadrupole, components[a][b]),
+						1e-6 * Math.max(1, Math.abs(q[a][b])));
+	}
+
+	static void collectNodes(TreeSpaceCell cell, List<ElementIndex> nodes) {
+		if (cell.getChildrenCount() == 0) {
+			for (ElementIndex e : cell)
+				nodes.add(e);
+
+			return;
+		}
+
+		for (int i = 0; i < cell.getChildrenCount(); i++)
+			collectNodes(cell.getChild(i), nodes);
+	}
+}
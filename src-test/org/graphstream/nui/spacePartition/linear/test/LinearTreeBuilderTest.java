@@ -0,0 +1,317 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.spacePartition.linear.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.space.Bounds;
+import org.graphstream.nui.spacePartition.TreeSpaceCell;
+import org.graphstream.nui.spacePartition.linear.LinearTreeBuilder;
+import org.graphstream.nui.spacePartition.linear.LinearTreeSpaceCell;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LinearTreeBuilderTest {
+	static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+	@Test
+	public void testMortonOrder2D() {
+		//
+		// One node per quadrant, given in the reverse order of the curve :
+		// x is the lowest bit of the digit of a quadrant and y the highest.
+		//
+		DoubleBuffer points = DoubleBuffer.wrap(new double[] { 0.5, 0.5,
+				-0.5, 0.5, 0.5, -0.5, -0.5, -0.5 });
+
+		LinearTreeSpaceCell root = new LinearTreeBuilder(POOL).build(
+				indexer(), points, 2, 4, bounds(2, 1), 1);
+
+		Assert.assertArrayEquals(new int[] { 3, 2, 1, 0 }, indexes(root));
+		Assert.assertEquals(4, root.getChildrenCount());
+
+		for (int i = 0; i < 4; i++) {
+			TreeSpaceCell child = root.getChild(i);
+
+			Assert.assertEquals(1, child.getElementCount());
+			Assert.assertEquals(0, child.getChildrenCount());
+			Assert.assertSame(root, child.getParent());
+			Assert.assertEquals(3 - i, child.iterator().next().index());
+		}
+	}
+
+	@Test
+	public void testMortonOrder3D() {
+		double[] xyz = new double[8 * 3];
+
+		for (int i = 0; i < 8; i++) {
+			int digit = 7 - i;
+
+			for (int a = 0; a < 3; a++)
+				xyz[i * 3 + a] = (digit >>> a & 1) == 0 ? -0.5 : 0.5;
+		}
+
+		LinearTreeSpaceCell root = new LinearTreeBuilder(POOL).build(
+				indexer(), DoubleBuffer.wrap(xyz), 3, 8, bounds(3, 1), 1);
+
+		Assert.assertArrayEquals(new int[] { 7, 6, 5, 4, 3, 2, 1, 0 },
+				indexes(root));
+		Assert.assertEquals(8, root.getChildrenCount());
+	}
+
+	@Test
+	public void testCellRanges() {
+		LinearTreeBuilder builder = new LinearTreeBuilder(POOL);
+
+		for (int dim = 2; dim <= 3; dim++) {
+			for (int n : new int[] { 0, 1, 50, 51, 1000, 20000 }) {
+				DoubleBuffer points = randomPoints(n, dim, 100);
+				LinearTreeSpaceCell root = builder.build(indexer(), points,
+						dim, n, bounds(dim, 100), 50);
+				boolean[] seen = new boolean[n];
+
+				Assert.assertEquals(n, root.getElementCount());
+				checkCell(root, points, dim, 50, seen);
+
+				for (int i = 0; i < n; i++)
+					Assert.assertTrue(seen[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testOutOfBounds() {
+		int n = 100;
+		DoubleBuffer points = randomPoints(n, 2, 1);
+
+		points.put(0, 5).put(1, 5);
+		points.put(2, -5).put(3, -5);
+
+		LinearTreeSpaceCell root = new LinearTreeBuilder(POOL).build(
+				indexer(), points, 2, n, bounds(2, 1), 4);
+
+		//
+		// Nodes outside of the bounds are put in the closest cell, which is
+		// in a corner of the root cell.
+		//
+		TreeSpaceCell high = leafOf(root, 0);
+		TreeSpaceCell low = leafOf(root, 1);
+
+		Assert.assertNotNull(high);
+		Assert.assertNotNull(low);
+		Assert.assertEquals(1, high.getBoundary().getHighestPoint().x(), 0);
+		Assert.assertEquals(1, high.getBoundary().getHighestPoint().y(), 0);
+		Assert.assertEquals(-1, low.getBoundary().getLowestPoint().x(), 0);
+		Assert.assertEquals(-1, low.getBoundary().getLowestPoint().y(), 0);
+		Assert.assertEquals(n, root.getElementCount());
+	}
+
+	@Test
+	public void test2DAnd3D() {
+		int n = 1000;
+		DoubleBuffer points = randomPoints(n, 3, 1);
+		LinearTreeBuilder builder = new LinearTreeBuilder(POOL);
+
+		LinearTreeSpaceCell root3 = builder.build(indexer(), points, 3, n,
+				bounds(3, 1), 10);
+
+		Assert.assertEquals(8, root3.getChildrenCount());
+
+		//
+		// The same buffer read as 2D points.
+		//
+		LinearTreeSpaceCell root2 = builder.build(indexer(), points, 2, n,
+				bounds(2, 1), 10);
+
+		Assert.assertEquals(4, root2.getChildrenCount());
+
+		for (int i = 0; i < root2.getChildrenCount(); i++) {
+			Bounds b = root2.getChild(i).getBoundary();
+
+			Assert.assertEquals(0, b.getLowestPoint().z(), 0);
+			Assert.assertEquals(0, b.getHighestPoint().z(), 0);
+		}
+
+		//
+		// Trees do not depend on the builder once built.
+		//
+		Assert.assertEquals(n, root3.getElementCount());
+		checkCell(root3, points, 3, 10, new boolean[n]);
+	}
+
+	/**
+	 * Check the nodes of a cell and of its descendants : leaves are not
+	 * larger than the maximum, inner cells are larger, and the nodes are in
+	 * the boundary of their leaf.
+	 */
+	static void checkCell(TreeSpaceCell cell, DoubleBuffer points, int dim,
+			int max, boolean[] seen) {
+		if (cell.getChildrenCount() == 0) {
+			Assert.assertTrue(cell.getElementCount() <= max);
+
+			for (ElementIndex e : cell) {
+				int i = e.index();
+				double z = dim == 3 ? points.get(i * dim + 2) : 0;
+
+				Assert.assertFalse(seen[i]);
+				Assert.assertTrue(cell.getBoundary().contains(
+						points.get(i * dim), points.get(i * dim + 1), z));
+
+				seen[i] = true;
+			}
+
+			return;
+		}
+
+		int count = 0;
+
+		Assert.assertTrue(cell.getElementCount() > max);
+		Assert.assertTrue(cell.getChildrenCount() <= 1 << dim);
+
+		for (int i = 0; i < cell.getChildrenCount(); i++) {
+			TreeSpaceCell child = cell.getChild(i);
+
+			Assert.assertSame(cell, child.getParent());
+			checkCell(child, points, dim, max, seen);
+			count += child.getElementCount();
+		}
+
+		Assert.assertEquals(cell.getElementCount(), count);
+	}
+
+	static TreeSpaceCell leafOf(TreeSpaceCell cell, int nodeIndex) {
+		if (cell.getChildrenCount() == 0) {
+			for (ElementIndex e : cell)
+				if (e.index() == nodeIndex)
+					return cell;
+
+			return null;
+		}
+
+		for (int i = 0; i < cell.getChildrenCount(); i++) {
+			TreeSpaceCell leaf = leafOf(cell.getChild(i), nodeIndex);
+
+			if (leaf != null)
+				return leaf;
+		}
+
+		return null;
+	}
+
+	static int[] indexes(TreeSpaceCell cell) {
+		ArrayList<Integer> list = new ArrayList<Integer>();
+
+		for (ElementIndex e : cell)
+			list.add(e.index());
+
+		int[] indexes = new int[list.size()];
+
+		for (int i = 0; i < indexes.length; i++)
+			indexes[i] = list.get(i);
+
+		return indexes;
+	}
+
+	static DoubleBuffer randomPoints(int n, int dim, double size) {
+		Random random = new Random(n);
+		DoubleBuffer points = DoubleBuffer.allocate(Math.max(1, n * dim));
+
+		for (int i = 0; i < n * dim; i++)
+			points.put(i, (random.nextDouble() * 2 - 1) * size);
+
+		return points;
+	}
+
+	static Bounds bounds(int dim, double size) {
+		double z = dim == 3 ? size : 0;
+
+		return new Bounds(new Vector3(-size, -size, -z), new Vector3(size,
+				size, z));
+	}
+
+	/**
+	 * An indexer giving a node index object for any integer index, which is
+	 * all the builder needs.
+	 */
+	static UIIndexer indexer() {
+		final ClassLoader loader = LinearTreeBuilderTest.class
+				.getClassLoader();
+
+		return (UIIndexer) Proxy.newProxyInstance(loader,
+				new Class<?>[] { UIIndexer.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						if (!method.getName().equals("getNodeIndex")
+								|| !(args[0] instanceof Integer))
+							throw new UnsupportedOperationException(method
+									.getName());
+
+						return nodeIndex(loader, (Integer) args[0]);
+					}
+				});
+	}
+
+	static ElementIndex.NodeIndex nodeIndex(ClassLoader loader,
+			final int index) {
+		return (ElementIndex.NodeIndex) Proxy.newProxyInstance(loader,
+				new Class<?>[] { ElementIndex.NodeIndex.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						switch (method.getName()) {
+						case "index":
+							return index;
+						case "id":
+						case "toString":
+							return Integer.toString(index);
+						case "hashCode":
+							return index;
+						case "equals":
+							return proxy == args[0];
+						default:
+							throw new UnsupportedOperationException(method
+									.getName());
+						}
+					}
+				});
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.IndexPermutation;
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.swapper.DefaultBufferReference.DefaultDoubleBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectDoubleBufferReference;
+import org.graphstream.nui.swapper.DefaultDirtyTracker;
+import org.graphstream.nui.swapper.Swappable;
+import org.graphstream.nui.swapper.test.BenchmarkHandler.BenchmarkIndex;
+
+/**
+ * Remove a large set of nodes and compare the cost of updating the swappables
+ * for each removal, like the indexer does outside of a batch, with the cost
+ * of a single permutation at the end of a batch.
+ */
+public class BatchPermutationBenchmark {
+	static final int NODE_COUNT = 1000000;
+	static final int REMOVED_COUNT = 50000;
+	static final int RUNS = 5;
+
+	public static void main(String... args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0])
+				: NODE_COUNT;
+		int removedCount = args.length > 1 ? Integer.parseInt(args[1])
+				: REMOVED_COUNT;
+
+		for (int i = 0; i < 2; i++)
+			run(nodeCount, removedCount, i > 0);
+	}
+
+	static void run(int nodeCount, int removedCount, boolean print) {
+		long events = Long.MAX_VALUE, batch = Long.MAX_VALUE;
+		int swaps = 0, dispatches = 0;
+
+		for (int r = 0; r < RUNS; r++) {
+			int[] victims = victims(nodeCount, removedCount, r);
+
+			//
+			// One swap and one resize of each swappable for each removal.
+			//
+			BenchmarkHandler handler = new BenchmarkHandler();
+			List<Swappable> swappables = swappables(handler, nodeCount);
+
+			long t = System.nanoTime();
+			dispatches = 0;
+
+			for (int i = 0; i < removedCount; i++) {
+				int last = handler.nodeCount - 1;
+
+				if (victims[i] != last) {
+					for (Swappable s : swappables)
+						s.swap(victims[i], last);
+
+					dispatches++;
+				}
+
+				handler.nodeCount--;
+
+				for (Swappable s : swappables)
+					s.checkSize();
+
+				for (Swappable s : swappables)
+					s.initDefaultValues();
+
+				dispatches++;
+			}
+
+			events = Math.min(events, System.nanoTime() - t);
+			double[] expected = snapshot(swappables, handler.nodeCount);
+
+			//
+			// Record the origins like the indexer does in a batch, then
+			// permute each swappable once.
+			//
+			handler = new BenchmarkHandler();
+			swappables = swappables(handler, nodeCount);
+
+			t = System.nanoTime();
+
+			int[] origins = new int[nodeCount];
+			List<ElementIndex> removed = new LinkedList<ElementIndex>();
+
+			for (int i = 0; i < nodeCount; i++)
+				origins[i] = i;
+
+			for (int i = 0; i < removedCount; i++) {
+				int last = handler.nodeCount - 1;
+				int tmp = origins[victims[i]];
+
+				origins[victims[i]] = origins[last];
+				origins[last] = tmp;
+				handler.nodeCount--;
+			}
+
+			IndexPermutation p = new IndexPermutation(Type.NODE, nodeCount,
+					handler.nodeCount, origins, removed);
+
+			for (Swappable s : swappables)
+				s.permute(p);
+
+			for (Swappable s : swappables)
+				s.initDefaultValues(p);
+
+			batch = Math.min(batch, System.nanoTime() - t);
+			swaps = p.getSwapCount();
+
+			double[] actual = snapshot(swappables, handler.nodeCount);
+
+			if (!Arrays.equals(expected, actual))
+				throw new AssertionError("permutation differs from events");
+		}
+
+		if (print)
+			System.out
+					.printf("%d nodes, %d removed : events %8.2f ms (%d dispatches)   batch %8.2f ms (%d swaps)%n",
+							nodeCount, removedCount, events / 1000000.0,
+							dispatches, batch / 1000000.0, swaps);
+	}
+
+	static int[] victims(int nodeCount, int removedCount, long seed) {
+		Random random = new Random(seed);
+		int[] victims = new int[removedCount];
+
+		for (int i = 0; i < removedCount; i++)
+			victims[i] = random.nextInt(nodeCount - i);
+
+		return victims;
+	}
+
+	static List<Swappable> swappables(BenchmarkHandler handler, int nodeCount) {
+		BenchmarkIndex[] nodes = handler.nodes(nodeCount);
+		List<Swappable> swappables = new LinkedList<Swappable>();
+
+		handler.nodeCount = nodeCount;
+
+		DirectDoubleBufferReference points = new DirectDoubleBufferReference(
+				handler, Type.NODE, 3, 1000, ByteOrder.nativeOrder(), null);
+		DefaultDoubleBufferReference weights = new DefaultDoubleBufferReference(
+				handler, Type.NODE, 1, 1000, null);
+
+		swappables.add(points);
+		swappables.add(weights);
+		swappables.add(new DefaultDirtyTracker(handler, Type.NODE));
+		swappables.add(new DefaultDirtyTracker(handler, Type.NODE));
+
+		for (Swappable s : swappables)
+			s.checkSize();
+
+		for (Swappable s : swappables)
+			s.initDefaultValues();
+
+		for (int i = 0; i < nodeCount; i++) {
+			points.setDouble(nodes[i], 0, i);
+			points.setDouble(nodes[i], 1, -i);
+			points.setDouble(nodes[i], 2, i * 0.5);
+			weights.setDouble(nodes[i], 0, i);
+		}
+
+		return swappables;
+	}
+
+	static double[] snapshot(List<Swappable> swappables, int nodeCount) {
+		DirectDoubleBufferReference points = (DirectDoubleBufferReference) swappables
+				.get(0);
+		double[] values = new double[nodeCount * 3];
+
+		for (int i = 0; i < nodeCount; i++)
+			for (int c = 0; c < 3; c++)
+				values[i * 3 + c] = points.getDouble(new BenchmarkIndex(i), c);
+
+		return values;
+	}
+}
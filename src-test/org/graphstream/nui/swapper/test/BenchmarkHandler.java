@@ -0,0 +1,279 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.util.Collections;
+
+import org.graphstream.nui.UIContext;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.indexer.CompressedAdjacency;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.ElementIndex.EdgeIndex;
+import org.graphstream.nui.indexer.ElementIndex.NodeIndex;
+import org.graphstream.nui.indexer.IndexerListener;
+import org.graphstream.nui.swapper.CapacityPolicy;
+import org.graphstream.nui.swapper.CapacityPolicy.GeometricCapacityPolicy;
+import org.graphstream.nui.swapper.Swappable;
+import org.graphstream.nui.swapper.SwappableHandler;
+
+/**
+ * Handler used by benchmarks to drive swappables without a context. The
+ * element count is set by hand and indexes are simple objects, so only the
+ * cost of the swappable itself is measured.
+ */
+class BenchmarkHandler implements SwappableHandler {
+	int nodeCount;
+	int edgeCount;
+	CapacityPolicy policy = new GeometricCapacityPolicy();
+	BenchmarkIndex[] nodes = new BenchmarkIndex[0];
+
+	final UIIndexer indexer = new CountIndexer();
+
+	/**
+	 * Create the node indexes, up to the given count.
+	 */
+	BenchmarkIndex[] nodes(int count) {
+		nodes = new BenchmarkIndex[count];
+
+		for (int i = 0; i < count; i++)
+			nodes[i] = new BenchmarkIndex(i);
+
+		return nodes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.SwappableHandler#indexer()
+	 */
+	@Override
+	public UIIndexer indexer() {
+		return indexer;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.SwappableHandler#capacityPolicy(org.graphstream
+	 * .nui.indexer.ElementIndex.Type)
+	 */
+	@Override
+	public CapacityPolicy capacityPolicy(ElementIndex.Type type) {
+		return policy;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.SwappableHandler#release(org.graphstream
+	 * .nui.swapper.Swappable)
+	 */
+	@Override
+	public void release(Swappable swappable) {
+	}
+
+	static class BenchmarkIndex implements NodeIndex, EdgeIndex {
+		final int index;
+
+		BenchmarkIndex(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String id() {
+			return Integer.toString(index);
+		}
+
+		@Override
+		public int index() {
+			return index;
+		}
+
+		@Override
+		public Type getType() {
+			return Type.NODE;
+		}
+
+		@Override
+		public int getDegree() {
+			return 0;
+		}
+
+		@Override
+		public EdgeIndex getEdgeIndex(int i) {
+			return null;
+		}
+
+		@Override
+		public boolean isConnectedTo(NodeIndex n) {
+			return false;
+		}
+
+		@Override
+		public EdgeIndex getConnectionTo(NodeIndex n) {
+			return null;
+		}
+
+		@Override
+		public NodeIndex getSource() {
+			return null;
+		}
+
+		@Override
+		public NodeIndex getTarget() {
+			return null;
+		}
+
+		@Override
+		public boolean isDirected() {
+			return false;
+		}
+	}
+
+	class CountIndexer implements UIIndexer {
+		@Override
+		public String getModuleID() {
+			return MODULE_ID;
+		}
+
+		@Override
+		public Iterable<String> getModuleDeps() {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public void init(UIContext ctx) {
+		}
+
+		@Override
+		public void release() {
+		}
+
+		@Override
+		public void setAttribute(String key, Object value) {
+		}
+
+		@Override
+		public UIContext getContext() {
+			return null;
+		}
+
+		@Override
+		public ElementIndex getGraphIndex() {
+			return null;
+		}
+
+		@Override
+		public int getNodeCount() {
+			return nodeCount;
+		}
+
+		@Override
+		public NodeIndex getNodeIndex(String nodeId) {
+			return nodes[Integer.parseInt(nodeId)];
+		}
+
+		@Override
+		public NodeIndex getNodeIndex(int nodeIndex) {
+			return nodes[nodeIndex];
+		}
+
+		@Override
+		public int getEdgeCount() {
+			return edgeCount;
+		}
+
+		@Override
+		public EdgeIndex getEdgeIndex(String edgeId) {
+			return null;
+		}
+
+		@Override
+		public EdgeIndex getEdgeIndex(int edgeIndex) {
+			return null;
+		}
+
+		@Override
+		public int getSpriteCount() {
+			return 0;
+		}
+
+		@Override
+		public ElementIndex getSpriteIndex(String spriteId) {
+			return null;
+		}
+
+		@Override
+		public ElementIndex getSpriteIndex(int spriteIndex) {
+			return null;
+		}
+
+		@Override
+		public int getEdgeSourceIndex(int edgeIndex) {
+			return 0;
+		}
+
+		@Override
+		public int getEdgeTargetIndex(int edgeIndex) {
+			return 0;
+		}
+
+		@Override
+		public CompressedAdjacency getAdjacency() {
+			return new CompressedAdjacency(nodeCount, 0, new int[0],
+					new int[0]);
+		}
+
+		@Override
+		public void beginBatch() {
+		}
+
+		@Override
+		public void commitBatch() {
+		}
+
+		@Override
+		public boolean isBatching() {
+			return false;
+		}
+
+		@Override
+		public void addIndexerListener(IndexerListener l) {
+		}
+
+		@Override
+		public void removeIndexerListener(IndexerListener l) {
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.swapper.DefaultBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DefaultDoubleBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectDoubleBufferReference;
+import org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference;
+import org.graphstream.nui.swapper.test.BenchmarkHandler.BenchmarkIndex;
+
+/**
+ * Compare the heap and the direct backends of the double buffer references :
+ * 
+ * <ul>
+ * <li>per-element access : read and write all the components of all the nodes
+ * through getDouble / setDouble;</li>
+ * <li>swap : swap random pairs of nodes, as the indexer does on removal;</li>
+ * <li>upload preparation : what has to be done before the buffer can be given
+ * to native code. A heap buffer has to be copied into a direct buffer, a direct
+ * buffer can be given as it is.</li>
+ * </ul>
+ */
+public class BufferBackendBenchmark {
+	static final int NODE_COUNT = 1000000;
+	static final int COMPONENTS = 3;
+	static final int RUNS = 10;
+
+	static double sink;
+
+	public static void main(String... args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0])
+				: NODE_COUNT;
+
+		for (int i = 0; i < 2; i++) {
+			boolean print = i > 0;
+
+			run("heap", nodeCount, false, print);
+			run("direct", nodeCount, true, print);
+		}
+	}
+
+	static void run(String name, int nodeCount, boolean direct, boolean print) {
+		BenchmarkHandler handler = new BenchmarkHandler();
+		BenchmarkIndex[] nodes = handler.nodes(nodeCount);
+
+		handler.nodeCount = nodeCount;
+
+		DefaultBufferReference ref = direct ? new DirectDoubleBufferReference(
+				handler, Type.NODE, COMPONENTS, 1000, ByteOrder.nativeOrder(),
+				null) : new DefaultDoubleBufferReference(handler, Type.NODE,
+				COMPONENTS, 1000, null);
+
+		ref.checkSize();
+		ref.initDefaultValues();
+
+		DoubleBufferReference dref = (DoubleBufferReference) ref;
+		DoubleBuffer upload = ByteBuffer
+				.allocateDirect(nodeCount * COMPONENTS * 8)
+				.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+
+		long access = Long.MAX_VALUE, swap = Long.MAX_VALUE, prepare = Long.MAX_VALUE;
+
+		for (int r = 0; r < RUNS; r++) {
+			long t = System.nanoTime();
+
+			for (int i = 0; i < nodeCount; i++) {
+				BenchmarkIndex index = nodes[i];
+
+				for (int c = 0; c < COMPONENTS; c++)
+					dref.setDouble(index, c, dref.getDouble(index, c) + 1);
+			}
+
+			access = Math.min(access, System.nanoTime() - t);
+
+			t = System.nanoTime();
+
+			for (int i = 0, j = nodeCount - 1; i < j; i += 7, j -= 13)
+				ref.swap(i, j);
+
+			swap = Math.min(swap, System.nanoTime() - t);
+
+			t = System.nanoTime();
+
+			DoubleBuffer data = (DoubleBuffer) ref.buffer();
+			data.rewind();
+
+			if (!data.isDirect()) {
+				upload.clear();
+				upload.put(data);
+				upload.flip();
+				data = upload;
+			}
+
+			sink += data.get(0);
+			prepare = Math.min(prepare, System.nanoTime() - t);
+		}
+
+		if (print)
+			System.out
+					.printf("%-7s access %6.2f ns/element   swap %8.2f ms   upload preparation %8.3f ms%n",
+							name, access / (double) nodeCount,
+							swap / 1000000.0, prepare / 1000000.0);
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.util.Arrays;
+
+import org.graphstream.nui.swapper.CapacityPolicy;
+import org.graphstream.nui.swapper.CapacityPolicy.FixedCapacityPolicy;
+import org.graphstream.nui.swapper.CapacityPolicy.GeometricCapacityPolicy;
+
+/**
+ * Grow a three components double buffer up to one million nodes, one node at
+ * a time, the way the swapper does when nodes are streamed into the ui, and
+ * report the reallocations, the bytes copied and the time spent for each
+ * capacity policy.
+ */
+public class CapacityPolicyBenchmark {
+	static final int NODE_COUNT = 1000000;
+	static final int COMPONENTS = 3;
+	static final int INITIAL_SIZE = 1000;
+	static final int RUNS = 5;
+
+	public static void main(String... args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0])
+				: NODE_COUNT;
+
+		for (int i = 0; i < 2; i++) {
+			//
+			// First iteration is a warm up.
+			//
+			boolean print = i > 0;
+
+			run("fixed(1000)", new FixedCapacityPolicy(1000), nodeCount, 0,
+					print);
+			run("geometric(1.5)", new GeometricCapacityPolicy(1.5),
+					nodeCount, 0, print);
+			run("geometric(2.0)", new GeometricCapacityPolicy(2.0),
+					nodeCount, 0, print);
+			run("geometric(1.5) + reserve", new GeometricCapacityPolicy(1.5),
+					nodeCount, nodeCount, print);
+		}
+	}
+
+	static void run(String name, CapacityPolicy policy, int nodeCount,
+			int reserved, boolean print) {
+		long best = Long.MAX_VALUE;
+		long copied = 0;
+		int reallocations = 0;
+
+		for (int r = 0; r < RUNS; r++) {
+			long t = System.nanoTime();
+			int capacity = Math.max(INITIAL_SIZE, reserved);
+			double[] data = new double[capacity * COMPONENTS];
+
+			copied = 0;
+			reallocations = 0;
+
+			for (int count = 1; count <= nodeCount; count++) {
+				int newCapacity = policy.getCapacity(capacity, count,
+						Math.max(INITIAL_SIZE, count < reserved ? reserved : 0));
+
+				if (newCapacity != capacity) {
+					copied += (long) Math.min(capacity, newCapacity)
+							* COMPONENTS * 8;
+					reallocations++;
+
+					capacity = newCapacity;
+					data = Arrays.copyOf(data, capacity * COMPONENTS);
+				}
+
+				data[(count - 1) * COMPONENTS] = count;
+			}
+
+			best = Math.min(best, System.nanoTime() - t);
+		}
+
+		if (print)
+			System.out.printf("%-26s %8d reallocations %12.1f MB copied %10.2f ms%n",
+					name, reallocations, copied / (1024.0 * 1024.0),
+					best / 1000000.0);
+	}
+}
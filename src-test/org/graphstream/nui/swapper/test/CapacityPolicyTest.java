@@ -0,0 +1,100 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import org.graphstream.nui.swapper.CapacityPolicy;
+import org.graphstream.nui.swapper.CapacityPolicy.FixedCapacityPolicy;
+import org.graphstream.nui.swapper.CapacityPolicy.GeometricCapacityPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CapacityPolicyTest {
+	@Test
+	public void testFixedGrowth() {
+		CapacityPolicy policy = new FixedCapacityPolicy(1000);
+
+		Assert.assertEquals(2000, policy.getCapacity(1000, 1000, 1000));
+		Assert.assertEquals(1000, policy.getCapacity(1000, 999, 1000));
+		Assert.assertEquals(5000, policy.getCapacity(1000, 5000, 1000));
+	}
+
+	@Test
+	public void testGeometricGrowth() {
+		CapacityPolicy policy = new GeometricCapacityPolicy(2);
+
+		Assert.assertEquals(1000, policy.getCapacity(1000, 1000, 1000));
+		Assert.assertEquals(2000, policy.getCapacity(1000, 1001, 1000));
+		Assert.assertEquals(8000, policy.getCapacity(1000, 5000, 1000));
+		Assert.assertEquals(1, policy.getCapacity(0, 1, 0));
+	}
+
+	@Test
+	public void testGeometricHysteresis() {
+		CapacityPolicy policy = new GeometricCapacityPolicy(2);
+
+		//
+		// Usage is 1/2, the capacity must not change.
+		//
+		Assert.assertEquals(8000, policy.getCapacity(8000, 4000, 1000));
+		Assert.assertEquals(8000, policy.getCapacity(8000, 2000, 1000));
+
+		//
+		// Under 1/4, capacity is reduced to count * 2.
+		//
+		Assert.assertEquals(3998, policy.getCapacity(8000, 1999, 1000));
+
+		//
+		// Never under the minimum capacity.
+		//
+		Assert.assertEquals(1000, policy.getCapacity(8000, 10, 1000));
+		Assert.assertEquals(8000, policy.getCapacity(8000, 10, 10000 - 2000));
+		Assert.assertEquals(10000, policy.getCapacity(8000, 10, 10000));
+	}
+
+	@Test
+	public void testGeometricSequenceDoesNotThrash() {
+		CapacityPolicy policy = new GeometricCapacityPolicy(1.5);
+		int capacity = 1000, reallocations = 0;
+
+		for (int i = 0; i < 1000; i++) {
+			int count = (i % 2 == 0) ? 1001 : 1000;
+			int newCapacity = policy.getCapacity(capacity, count, 1000);
+
+			if (newCapacity != capacity)
+				reallocations++;
+
+			capacity = newCapacity;
+		}
+
+		Assert.assertEquals(1, reallocations);
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.indexer.IndexPermutation;
+import org.graphstream.nui.swapper.CapacityPolicy;
+import org.graphstream.nui.swapper.DefaultDirtyTracker;
+import org.graphstream.nui.swapper.DirtyTracker;
+import org.graphstream.nui.swapper.Swappable;
+import org.graphstream.nui.swapper.SwappableHandler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultDirtyTrackerTest {
+	protected int nodeCount;
+	protected SwappableHandler handler;
+
+	@Before
+	public void setUp() {
+		nodeCount = 5;
+		handler = new SwappableHandler() {
+			@Override
+			public UIIndexer indexer() {
+				return (UIIndexer) Proxy.newProxyInstance(getClass()
+						.getClassLoader(), new Class<?>[] { UIIndexer.class },
+						new InvocationHandler() {
+							@Override
+							public Object invoke(Object proxy, Method method,
+									Object[] args) {
+								if (!method.getName().equals("getNodeCount"))
+									throw new UnsupportedOperationException(
+											method.getName());
+
+								return nodeCount;
+							}
+						});
+			}
+
+			@Override
+			public CapacityPolicy capacityPolicy(Type type) {
+				return null;
+			}
+
+			@Override
+			public void release(Swappable swappable) {
+			}
+		};
+	}
+
+	@Test
+	public void testMarkAndIterate() {
+		DefaultDirtyTracker tracker = new DefaultDirtyTracker(handler,
+				Type.NODE);
+
+		//
+		// Existing elements are new for the consumer.
+		//
+		assertDirty(tracker, 0, 1, 2, 3, 4);
+
+		tracker.clear();
+		assertDirty(tracker);
+		Assert.assertEquals(0, tracker.nextClean(0));
+
+		tracker.markDirty(3);
+		tracker.markDirty(1);
+		tracker.markDirty(3);
+		assertDirty(tracker, 1, 3);
+		Assert.assertTrue(tracker.isDirty(1));
+		Assert.assertFalse(tracker.isDirty(2));
+		Assert.assertEquals(3, tracker.nextDirty(2));
+		Assert.assertEquals(2, tracker.nextClean(1));
+
+		tracker.markDirty(0, 2);
+		assertDirty(tracker, 0, 1, 3);
+
+		tracker.clear();
+		tracker.markAllDirty();
+		assertDirty(tracker, 0, 1, 2, 3, 4);
+	}
+
+	@Test
+	public void testInclude() {
+		DefaultDirtyTracker tracker = new DefaultDirtyTracker(handler,
+				Type.NODE);
+		DefaultDirtyTracker other = new DefaultDirtyTracker(handler,
+				Type.NODE);
+
+		tracker.clear();
+		other.clear();
+
+		tracker.markDirty(0);
+		other.markDirty(2);
+		other.markDirty(4);
+		tracker.include(other);
+
+		assertDirty(tracker, 0, 2, 4);
+		assertDirty(other, 2, 4);
+
+		//
+		// Any other tracker is included through its iteration methods.
+		//
+		final BitSet bits = new BitSet();
+		bits.set(1);
+		bits.set(4);
+
+		DirtyTracker foreign = (DirtyTracker) Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class<?>[] { DirtyTracker.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						if (!method.getName().equals("nextDirty"))
+							throw new UnsupportedOperationException(method
+									.getName());
+
+						return bits.nextSetBit((Integer) args[0]);
+					}
+				});
+
+		tracker.include(foreign);
+		assertDirty(tracker, 0, 1, 2, 4);
+	}
+
+	@Test
+	public void testResize() {
+		DefaultDirtyTracker tracker = new DefaultDirtyTracker(handler,
+				Type.NODE);
+
+		tracker.clear();
+		tracker.markDirty(1);
+
+		//
+		// Added elements are dirty, the others keep their state.
+		//
+		nodeCount = 8;
+		tracker.reserve(16);
+		tracker.initDefaultValues();
+		assertDirty(tracker, 1, 5, 6, 7);
+
+		//
+		// Removed elements are no longer dirty, and markAllDirty() only
+		// covers the remaining ones.
+		//
+		nodeCount = 3;
+		tracker.checkSize();
+		assertDirty(tracker, 1);
+
+		tracker.markAllDirty();
+		assertDirty(tracker, 0, 1, 2);
+
+		//
+		// A removal is notified while the element is still counted. The
+		// element taking its index again is dirty.
+		//
+		tracker.clear();
+		tracker.markDirty(2);
+		tracker.remove(2);
+		assertDirty(tracker);
+
+		tracker.checkSize();
+		tracker.initDefaultValues();
+		assertDirty(tracker, 2);
+	}
+
+	@Test
+	public void testSwaps() {
+		DefaultDirtyTracker tracker = new DefaultDirtyTracker(handler,
+				Type.NODE);
+
+		tracker.clear();
+		tracker.swap(0, 3);
+		assertDirty(tracker, 0, 3);
+
+		//
+		// Node 2 is removed and the last node takes its index : the moved
+		// data is dirty, and the freed index is cleared.
+		//
+		tracker.clear();
+		tracker.markDirty(4);
+		nodeCount = 4;
+		tracker.permute(new IndexPermutation(Type.NODE, 5, 4, new int[] { 0,
+				1, 4, 3 }, Collections.<ElementIndex> emptyList()));
+		assertDirty(tracker, 2);
+
+		//
+		// Two nodes are added at the end.
+		//
+		tracker.clear();
+		nodeCount = 6;
+		IndexPermutation added = new IndexPermutation(Type.NODE, 4, 6,
+				new int[] { 0, 1, 2, 3, -1, -1 },
+				Collections.<ElementIndex> emptyList());
+		tracker.permute(added);
+		tracker.initDefaultValues(added);
+		assertDirty(tracker, 4, 5);
+
+		tracker.markAllDirty();
+		assertDirty(tracker, 0, 1, 2, 3, 4, 5);
+	}
+
+	protected static void assertDirty(DirtyTracker tracker, int... expected) {
+		int k = 0;
+
+		for (int i = tracker.nextDirty(0); i >= 0; i = tracker
+				.nextDirty(i + 1)) {
+			Assert.assertTrue(k < expected.length);
+			Assert.assertEquals(expected[k++], i);
+		}
+
+		Assert.assertEquals(expected.length, k);
+		Assert.assertEquals(expected.length, tracker.getDirtyCount());
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectDoubleBufferReference;
+import org.graphstream.nui.swapper.DefaultDirtyTracker;
+import org.graphstream.nui.swapper.test.BenchmarkHandler.BenchmarkIndex;
+
+/**
+ * Simulate a tick where a fraction of the nodes moved, and compare the cost of
+ * a consumer processing all the nodes with the cost of a consumer processing
+ * only the dirty nodes.
+ */
+public class DirtyTrackerBenchmark {
+	static final int NODE_COUNT = 1000000;
+	static final int COMPONENTS = 3;
+	static final int RUNS = 20;
+
+	static double sink;
+
+	public static void main(String... args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0])
+				: NODE_COUNT;
+
+		for (int i = 0; i < 2; i++) {
+			run(nodeCount, 0.01, i > 0);
+			run(nodeCount, 0.10, i > 0);
+			run(nodeCount, 1.00, i > 0);
+		}
+	}
+
+	static void run(int nodeCount, double movedRatio, boolean print) {
+		BenchmarkHandler handler = new BenchmarkHandler();
+		BenchmarkIndex[] nodes = handler.nodes(nodeCount);
+		Random random = new Random(nodeCount);
+
+		handler.nodeCount = nodeCount;
+
+		DirectDoubleBufferReference ref = new DirectDoubleBufferReference(
+				handler, Type.NODE, COMPONENTS, 1000, ByteOrder.nativeOrder(),
+				null);
+		DefaultDirtyTracker tracker = new DefaultDirtyTracker(handler,
+				Type.NODE);
+
+		ref.checkSize();
+		ref.initDefaultValues();
+		ref.addDirtyTracker(tracker);
+
+		int moved = (int) (nodeCount * movedRatio);
+		int[] movedNodes = new int[moved];
+
+		for (int i = 0; i < moved; i++)
+			movedNodes[i] = movedRatio >= 1 ? i : random.nextInt(nodeCount);
+
+		long write = Long.MAX_VALUE, full = Long.MAX_VALUE, tracked = Long.MAX_VALUE;
+		int processed = 0;
+
+		for (int r = 0; r < RUNS; r++) {
+			tracker.clear();
+
+			long t = System.nanoTime();
+
+			for (int i = 0; i < moved; i++)
+				ref.setDouble(nodes[movedNodes[i]], 0, r + 1);
+
+			write = Math.min(write, System.nanoTime() - t);
+
+			//
+			// Consumer without tracking : every node has to be checked.
+			//
+			t = System.nanoTime();
+
+			for (int i = 0; i < nodeCount; i++)
+				for (int c = 0; c < COMPONENTS; c++)
+					sink += ref.getDouble(nodes[i], c);
+
+			full = Math.min(full, System.nanoTime() - t);
+
+			//
+			// Consumer with tracking.
+			//
+			t = System.nanoTime();
+			processed = 0;
+
+			for (int i = tracker.nextDirty(0); i >= 0; i = tracker
+					.nextDirty(i + 1)) {
+				for (int c = 0; c < COMPONENTS; c++)
+					sink += ref.getDouble(nodes[i], c);
+
+				processed++;
+			}
+
+			tracker.clear();
+			tracked = Math.min(tracked, System.nanoTime() - t);
+		}
+
+		if (print)
+			System.out
+					.printf("%5.1f%% moved (%7d dirty)  write %7.2f ms   full scan %7.2f ms   tracked %7.2f ms%n",
+							movedRatio * 100, processed, write / 1000000.0,
+							full / 1000000.0, tracked / 1000000.0);
+	}
+}
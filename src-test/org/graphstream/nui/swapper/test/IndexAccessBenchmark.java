@@ -0,0 +1,153 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper.test;
+
+import java.nio.ByteOrder;
+
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.swapper.DefaultBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DefaultDoubleBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectDoubleBufferReference;
+import org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference;
+import org.graphstream.nui.swapper.test.BenchmarkHandler.BenchmarkIndex;
+
+/**
+ * Compare a loop over all the nodes using the accessors taking an index object
+ * with the same loop using the accessors taking an integer index.
+ * 
+ * In the ui, index objects come from several classes, so the call to
+ * {@link ElementIndex#index()} is not monomorphic. This is simulated by mixing
+ * several implementations of the index objects.
+ */
+public class IndexAccessBenchmark {
+	static final int NODE_COUNT = 1000000;
+	static final int COMPONENTS = 3;
+	static final int RUNS = 30;
+
+	static double sink;
+
+	public static void main(String... args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0])
+				: NODE_COUNT;
+
+		for (int i = 0; i < 2; i++) {
+			run("heap", nodeCount, false, i > 0);
+			run("direct", nodeCount, true, i > 0);
+		}
+	}
+
+	static void run(String name, int nodeCount, boolean direct, boolean print) {
+		BenchmarkHandler handler = new BenchmarkHandler();
+		handler.nodes(nodeCount);
+		handler.nodeCount = nodeCount;
+
+		DefaultBufferReference ref = direct ? new DirectDoubleBufferReference(
+				handler, Type.NODE, COMPONENTS, 1000, ByteOrder.nativeOrder(),
+				null) : new DefaultDoubleBufferReference(handler, Type.NODE,
+				COMPONENTS, 1000, null);
+
+		ref.checkSize();
+		ref.initDefaultValues();
+
+		DoubleBufferReference points = (DoubleBufferReference) ref;
+		ElementIndex[] indexes = new ElementIndex[nodeCount];
+
+		for (int i = 0; i < nodeCount; i++) {
+			switch (i % 3) {
+			case 0:
+				indexes[i] = new BenchmarkIndex(i);
+				break;
+			case 1:
+				indexes[i] = new OtherIndex(i);
+				break;
+			default:
+				indexes[i] = new ThirdIndex(i);
+				break;
+			}
+
+			for (int c = 0; c < COMPONENTS; c++)
+				points.setDouble(i, c, i + c);
+		}
+
+		long object = Long.MAX_VALUE, integer = Long.MAX_VALUE;
+
+		for (int r = 0; r < RUNS; r++) {
+			long t = System.nanoTime();
+			double sum = 0;
+
+			for (int i = 0; i < nodeCount; i++)
+				for (int c = 0; c < COMPONENTS; c++)
+					sum += points.getDouble(indexes[i], c);
+
+			object = Math.min(object, System.nanoTime() - t);
+			sink += sum;
+
+			t = System.nanoTime();
+			sum = 0;
+
+			for (int i = 0; i < nodeCount; i++)
+				for (int c = 0; c < COMPONENTS; c++)
+					sum += points.getDouble(i, c);
+
+			integer = Math.min(integer, System.nanoTime() - t);
+			sink += sum;
+		}
+
+		if (print)
+			System.out.printf(
+					"%-6s : index object %6.2f ms   integer index %6.2f ms%n",
+					name, object / 1000000.0, integer / 1000000.0);
+	}
+
+	static class OtherIndex extends BenchmarkIndex {
+		OtherIndex(int index) {
+			super(index);
+		}
+
+		@Override
+		public int index() {
+			return index;
+		}
+	}
+
+	static class ThirdIndex extends BenchmarkIndex {
+		ThirdIndex(int index) {
+			super(index);
+		}
+
+		@Override
+		public int index() {
+			return index;
+		}
+	}
+}
@@ -31,7 +31,13 @@
  */
 package org.graphstream.nui;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.graphstream.nui.context.TickProfiler;
 import org.graphstream.nui.context.TickTask;
+import org.graphstream.nui.context.connector.Connector;
+import org.graphstream.nui.context.connector.SourceReader;
 import org.graphstream.nui.context.worker.WorkerTask;
 import org.graphstream.stream.Pipe;
 import org.graphstream.stream.Source;
@@ -100,10 +106,67 @@ public interface UIContext {
 	 */
 	void invokeOnUIThread(Runnable r) throws InterruptedException;
 
+	/**
+	 * Post a task that will be run on the ui thread at the beginning of the
+	 * next tick, and return immediately. Tasks posted between two ticks are run
+	 * together, in the order they have been posted. This can be called from
+	 * any thread.
+	 * 
+	 * @param r
+	 *            the task
+	 */
+	void invokeLater(Runnable r);
+
+	/**
+	 * Post a computation that will be run on the ui thread at the beginning of
+	 * the next tick, like {@link #invokeLater(Runnable)}. The result can be
+	 * retrieved from the returned future once the computation has been run.
+	 * Pending computations are cancelled when the context is released.
+	 * 
+	 * @param c
+	 *            the computation
+	 * @return future holding the result of the computation
+	 */
+	<T> Future<T> submit(Callable<T> c);
+
 	void addTickTask(String id, TickTask task);
 
 	void removeTickTask(String id);
 
+	/**
+	 * Install a profiler that will receive the durations of each phase of the
+	 * tick. Use null to disable profiling, in which case the tick does not
+	 * measure anything.
+	 * 
+	 * @param profiler
+	 *            the new profiler, or null
+	 */
+	void setTickProfiler(TickProfiler profiler);
+
+	/**
+	 * Create a new worker running the given task in its own thread. The
+	 * pre-process and post-process phases of the task are run inside the ui
+	 * thread, at the beginning and at the end of each tick, while the main
+	 * part of the task runs in parallel with the rendering.
+	 * 
+	 * @param id
+	 *            id of the worker
+	 * @param task
+	 *            the task run by the worker
+	 * @UIThreadUse
+	 */
+	void createWorker(String id, WorkerTask task);
+
+	/**
+	 * Terminate a worker created with {@link #createWorker(String, WorkerTask)}
+	 * . If the worker is running, this waits for the end of the run.
+	 * 
+	 * @param id
+	 *            id of the worker
+	 * @UIThreadUse
+	 */
+	void terminateWorker(String id);
+
 	/**
 	 * This context has to be connected to at least one source. This has to be
 	 * done INSIDE the thread of the source, and after the initialization. One
@@ -125,6 +188,41 @@ public interface UIContext {
 	 */
 	void disconnect(Source source);
 
+	/**
+	 * Open a connector, reading events with the given reader inside its own
+	 * thread. Events of the connector are merged into the proxy of this
+	 * context at each tick, in the order they have been read. A slow reader
+	 * does not block the other connectors or the ui.
+	 * 
+	 * @param id
+	 *            id of the connector
+	 * @param reader
+	 *            the reader producing the events
+	 * @return the new connector, giving some statistics about the reading
+	 * @UIThreadUse
+	 */
+	Connector openConnector(String id, SourceReader reader);
+
+	/**
+	 * Close a connector opened with
+	 * {@link #openConnector(String, SourceReader)}. Events not delivered yet
+	 * are discarded.
+	 * 
+	 * @param id
+	 *            id of the connector
+	 * @UIThreadUse
+	 */
+	void closeConnector(String id);
+
+	/**
+	 * Get a connector opened with {@link #openConnector(String, SourceReader)}.
+	 * 
+	 * @param id
+	 *            id of the connector
+	 * @return the connector, or null if there is no such connector
+	 */
+	Connector getConnector(String id);
+
 	void sync();
 
 	/**
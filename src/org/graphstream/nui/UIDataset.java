@@ -37,6 +37,7 @@ import org.graphstream.nui.dataset.DataProvider;
 import org.graphstream.nui.dataset.DatasetListener;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.swapper.DirtyTracker;
 
 /**
  * The dataset is one of the main objects involved in the ui since it allows to
@@ -142,6 +143,50 @@ public interface UIDataset extends UIModule {
 	 */
 	double[] getNodeXYZ(ElementIndex nodexIndex, double[] xyz);
 
+	/**
+	 * Same as {@link #getNodeX(ElementIndex)}, using directly the integer
+	 * index of the node. This avoids an interface call for each node in loops
+	 * over all the nodes. Integer indexes are stable between two events of
+	 * {@link org.graphstream.nui.indexer.IndexerListener}.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return the x-coordinate
+	 */
+	double getNodeX(int nodeIndex);
+
+	/**
+	 * Same as {@link #getNodeY(ElementIndex)}, using the integer index of the
+	 * node.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return the y-coordinate
+	 */
+	double getNodeY(int nodeIndex);
+
+	/**
+	 * Same as {@link #getNodeZ(ElementIndex)}, using the integer index of the
+	 * node.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return the z-coordinate or 0 if the space is not a 3d space
+	 */
+	double getNodeZ(int nodeIndex);
+
+	/**
+	 * Same as {@link #getNodeXYZ(ElementIndex, double[])}, using the integer
+	 * index of the node.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @param xyz
+	 *            an optional array that will be used to return the coordinate
+	 * @return the coordinates in the xyz if specified, or in a new array
+	 */
+	double[] getNodeXYZ(int nodeIndex, double[] xyz);
+
 	Vector3 getNodeXYZ(ElementIndex nodeIndex, Vector3 xyz);
 
 	/**
@@ -152,6 +197,28 @@ public interface UIDataset extends UIModule {
 	 */
 	DoubleBuffer getNodesXYZ();
 
+	/**
+	 * Create a tracker of the nodes whose coordinates have changed. This
+	 * allows a consumer to process only the nodes modified since its last
+	 * read rather than the whole buffer. Nodes added since the last read, and
+	 * nodes whose index changed, are dirty too.
+	 * 
+	 * The tracker has to be released with
+	 * {@link #releaseNodesXYZTracker(DirtyTracker)} when no longer needed.
+	 * 
+	 * @return a new tracker, in which all the current nodes are dirty
+	 */
+	DirtyTracker createNodesXYZTracker();
+
+	/**
+	 * Stop tracking the changes of coordinates for a tracker created with
+	 * {@link #createNodesXYZTracker()}.
+	 * 
+	 * @param tracker
+	 *            the tracker to release
+	 */
+	void releaseNodesXYZTracker(DirtyTracker tracker);
+
 	/**
 	 * Set the abscissa of a node.
 	 * 
@@ -200,6 +267,136 @@ public interface UIDataset extends UIModule {
 	 */
 	void setNodesXYZ(DataProvider dataProvider);
 
+	/**
+	 * Publish a new frame of coordinates for all nodes. If the dataset is
+	 * double buffered, the coordinates are written in the back buffer, which
+	 * becomes the front buffer at the next tick of the context. This method
+	 * can then be called by a producer, like a layout, outside of the ui
+	 * thread while readers keep reading the front buffer without locks. The
+	 * producer must not run while the structure of the graph is changing.
+	 * 
+	 * If the dataset is not double buffered, this is the same as
+	 * {@link #setNodesXYZ(DataProvider)} and has to be called in the ui
+	 * thread.
+	 * 
+	 * @param dataProvider
+	 *            provider of the coordinates of the new frame
+	 */
+	void publishNodesXYZ(DataProvider dataProvider);
+
+	/**
+	 * Set the coordinates of all nodes from an array, in one bulk copy. The
+	 * array holds {@link #getPointDimension()} components for each node, in
+	 * the order of the indexes of the nodes.
+	 * 
+	 * @param src
+	 *            the coordinates
+	 * @param offset
+	 *            position of the coordinates of the first node in the array
+	 */
+	void setNodesXYZ(double[] src, int offset);
+
+	/**
+	 * Same as {@link #setNodesXYZ(double[], int)}, reading the coordinates
+	 * from the position of a buffer. The position of the buffer is not
+	 * modified.
+	 * 
+	 * @param src
+	 *            the coordinates
+	 */
+	void setNodesXYZ(DoubleBuffer src);
+
+	/**
+	 * Publish a new frame of coordinates copied from an array, laid out like
+	 * in {@link #setNodesXYZ(double[], int)}. This follows the rules of
+	 * {@link #publishNodesXYZ(DataProvider)}.
+	 * 
+	 * @param src
+	 *            the coordinates
+	 * @param offset
+	 *            position of the coordinates of the first node in the array
+	 */
+	void publishNodesXYZ(double[] src, int offset);
+
+	/**
+	 * Publish a new frame of coordinates by adopting a buffer that already
+	 * contains them, without any copy. The buffer is laid out like in
+	 * {@link #setNodesXYZ(double[], int)}, starting at index 0, and has to
+	 * be of the kind of {@link #getNodesXYZ()} : a direct buffer in native
+	 * order.
+	 * 
+	 * The buffer then belongs to the dataset and the producer should not
+	 * write it anymore. The buffer previously used by the dataset is given
+	 * back so the producer can fill it with the next frame, and adopt it
+	 * again. This follows the rules of {@link #publishNodesXYZ(DataProvider)}
+	 * : if the dataset is double buffered, the adopted buffer is the back
+	 * buffer, otherwise this has to be called in the ui thread.
+	 * 
+	 * @param xyz
+	 *            the coordinates of the new frame
+	 * @return a buffer no longer used by the dataset
+	 * @throws IllegalArgumentException
+	 *             if the buffer can not be adopted
+	 */
+	DoubleBuffer adoptNodesXYZ(DoubleBuffer xyz);
+
+	/**
+	 * Get the coordinates of nodes interpolated between the previous frame and
+	 * the front frame : a factor of 0 gives the previous frame and a factor of
+	 * 1 the front one. This allows to draw smooth frames while the layout
+	 * publishes less often than the views are drawn. If interpolation is not
+	 * enabled, this is a copy of {@link #getNodesXYZ()}. This has to be called
+	 * in the ui thread.
+	 * 
+	 * @param alpha
+	 *            the interpolation factor, in [0..1]
+	 * @param target
+	 *            an optional buffer that will be used to return the
+	 *            coordinates. If null or too small, a buffer of the dataset
+	 *            is used, which is overwritten by the next call
+	 * @return the interpolated coordinates, from position 0 to the limit
+	 */
+	DoubleBuffer getNodesXYZInterpolated(double alpha, DoubleBuffer target);
+
+	/**
+	 * Get the interpolation factor to draw a frame at the given date. Views
+	 * are drawn one frame late : the factor goes from 0 when the front frame
+	 * is flipped, to 1 once the time between the two last frames has elapsed.
+	 * 
+	 * @param time
+	 *            date of the drawn frame, as given by {@link System#nanoTime()}
+	 * @return the interpolation factor to give to
+	 *         {@link #getNodesXYZInterpolated(double, DoubleBuffer)}
+	 */
+	double getNodesXYZInterpolationFactor(long time);
+
+	/**
+	 * Get the date at which the front frame of the coordinates has been
+	 * flipped, as given by {@link System#nanoTime()}. This is only updated
+	 * when interpolation is enabled.
+	 * 
+	 * @return date of the front frame
+	 */
+	long getNodesXYZTime();
+
+	/**
+	 * Same as {@link #getNodesXYZTime()} for the previous frame.
+	 * 
+	 * @return date of the previous frame
+	 */
+	long getPreviousNodesXYZTime();
+
+	/**
+	 * Get the epoch of the coordinates of nodes, which is incremented each
+	 * time a published frame becomes the front buffer. A reader outside of the
+	 * ui thread can compare the epoch before and after reading the coordinates
+	 * to check that it has read a consistent frame. The epoch does not change
+	 * if the dataset is not double buffered.
+	 * 
+	 * @return the current epoch of the coordinates
+	 */
+	long getNodesXYZEpoch();
+
 	/**
 	 * Set the data provider who provides the default coordinates for new nodes.
 	 * 
@@ -243,12 +440,45 @@ public interface UIDataset extends UIModule {
 	 * Get the breaking points of an edge. The type of the coordinates can be
 	 * retrieve by the {@link #getEdgePointsType(ElementIndex)} method.
 	 * 
+	 * Points are stored packed, so this allocates new points : renderers
+	 * should rather read them from {@link #getEdgesPoints()}.
+	 * 
 	 * @param edgeIndex
 	 *            index of the edge
-	 * @return an array of points
+	 * @return an array of points, or null if the edge has none
 	 */
 	Vector3[] getEdgePoints(ElementIndex edgeIndex);
 
+	/**
+	 * Get the count of breaking points of an edge.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return the count of points, 0 if the edge has none
+	 */
+	int getEdgePointsCount(ElementIndex edgeIndex);
+
+	/**
+	 * Get the index, in {@link #getEdgesPoints()}, of the first coordinate of
+	 * the breaking points of an edge.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return offset of the points of the edge
+	 */
+	int getEdgePointsOffset(ElementIndex edgeIndex);
+
+	/**
+	 * Get the breaking points of all edges, three coordinates per point. The
+	 * points of an edge are found with
+	 * {@link #getEdgePointsOffset(ElementIndex)} and
+	 * {@link #getEdgePointsCount(ElementIndex)}. The buffer is read-only and is
+	 * valid until the next change of the points of an edge.
+	 * 
+	 * @return a buffer containing the breaking points of all edges
+	 */
+	DoubleBuffer getEdgesPoints();
+
 	/**
 	 * Get the type of the breaking points of an edge. These points can be
 	 * retrieve using the {@link #getEdgePoints(ElementIndex)} method.
@@ -273,6 +503,24 @@ public interface UIDataset extends UIModule {
 	void setEdgePoints(ElementIndex edgeIndex, EdgePointsType type,
 			Vector3[] points);
 
+	/**
+	 * Same as {@link #setEdgePoints(ElementIndex, EdgePointsType, Vector3[])}
+	 * with packed coordinates, three per point.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @param type
+	 *            type of coordinates, or null to remove the points
+	 * @param xyz
+	 *            coordinates of the breaking points
+	 * @param offset
+	 *            index of the first coordinate in xyz
+	 * @param count
+	 *            count of points
+	 */
+	void setEdgePoints(ElementIndex edgeIndex, EdgePointsType type,
+			double[] xyz, int offset, int count);
+
 	/**
 	 * Get the weight of an element.
 	 * 
@@ -31,13 +31,24 @@
  */
 package org.graphstream.nui;
 
+import org.graphstream.nui.indexer.CompressedAdjacency;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.EdgeIndex;
 import org.graphstream.nui.indexer.ElementIndex.NodeIndex;
 import org.graphstream.nui.indexer.IndexerListener;
 
 /**
+ * The indexer gives to each element an integer index, from 0 to the count of
+ * elements of its type. Data of elements, like the buffers of the swapper, are
+ * stored at this index.
  * 
+ * Indexes are stable between two events of
+ * {@link org.graphstream.nui.indexer.IndexerListener} : an index only changes
+ * when an element is added, removed or swapped, and listeners are notified
+ * before any other module can read the data. So a loop over the elements can
+ * safely use integer indexes, and the integer accessors of the other modules,
+ * as long as it does not change the structure of the graph. During a batch,
+ * indexes change before the data is moved, see {@link #beginBatch()}.
  */
 public interface UIIndexer extends UIModule {
 	public static final String MODULE_ID = "indexer";
@@ -92,6 +103,35 @@ public interface UIIndexer extends UIModule {
 	 */
 	EdgeIndex getEdgeIndex(int edgeIndex);
 
+	/**
+	 * Get the index of the source node of an edge, without going through the
+	 * edge object.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return index of the source node
+	 */
+	int getEdgeSourceIndex(int edgeIndex);
+
+	/**
+	 * Get the index of the target node of an edge, without going through the
+	 * edge object.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return index of the target node
+	 */
+	int getEdgeTargetIndex(int edgeIndex);
+
+	/**
+	 * Get the adjacency of the nodes, using only integer indexes. The
+	 * adjacency is a snapshot built on demand after a structural change, and
+	 * the same object is returned until the next change.
+	 * 
+	 * @return the current adjacency
+	 */
+	CompressedAdjacency getAdjacency();
+
 	/**
 	 * Get the count of sprites indexed in this indexer.
 	 * 
@@ -113,6 +153,32 @@ public interface UIIndexer extends UIModule {
 	 */
 	ElementIndex getSpriteIndex(int spriteIndex);
 
+	/**
+	 * Start a batch of structural changes. Until the batch is committed, the
+	 * additions and removals of elements are not sent to the listeners. The
+	 * indexes returned by the indexer are updated, but data indexed by them,
+	 * like buffers of the swapper, are not : the elements should not be read
+	 * or written in such data before the end of the batch.
+	 * 
+	 * Batches can be nested, changes are sent when the outermost batch is
+	 * committed.
+	 */
+	void beginBatch();
+
+	/**
+	 * Commit the current batch of structural changes. Listeners receive one
+	 * {@link org.graphstream.nui.indexer.IndexPermutation} for each type of
+	 * elements that has changed, so they can update their data in one pass.
+	 */
+	void commitBatch();
+
+	/**
+	 * Test if a batch of structural changes is in progress.
+	 * 
+	 * @return true if changes are currently batched
+	 */
+	boolean isBatching();
+
 	/**
 	 * 
 	 * @param l
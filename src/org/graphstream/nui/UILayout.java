@@ -35,4 +35,12 @@ public interface UILayout extends UIModule {
 	public static final String MODULE_ID = "layout";
 
 	public static final int LAYOUT_CYCLE_LENGTH = 1;
+
+	/**
+	 * A number in [0..1] telling how stable the layout is, 1 meaning fully
+	 * stabilized.
+	 * 
+	 * @return the stabilization of the layout
+	 */
+	double getStabilization();
 }
@@ -51,6 +51,7 @@ import org.graphstream.nui.attributes.DefaultAttributes;
 import org.graphstream.nui.dataset.DefaultDataset;
 import org.graphstream.nui.indexer.DefaultIndexer;
 import org.graphstream.nui.layout.DefaultLayout;
+import org.graphstream.nui.profiler.DefaultProfiler;
 import org.graphstream.nui.space.DefaultSpace;
 import org.graphstream.nui.spacePartition.DefaultSpacePartition;
 import org.graphstream.nui.style.base.BaseStyle;
@@ -121,6 +122,7 @@ public class UIModules {
 			registerModule(DefaultSpacePartition.class);
 			registerModule(DefaultLayout.class);
 			registerModule(DefaultRandom.class);
+			registerModule(DefaultProfiler.class);
 		} catch (RegisterException e) {
 			/*
 			 * This should not happens because lovely devs check and test their
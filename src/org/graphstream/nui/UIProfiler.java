@@ -0,0 +1,92 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui;
+
+import org.graphstream.nui.context.TickProfiler.Phase;
+import org.graphstream.nui.profiler.RollingStatistics;
+
+/**
+ * A module measuring where the time of the context tick goes. Durations are
+ * given in nanoseconds and statistics are computed over a rolling window of
+ * ticks.
+ */
+public interface UIProfiler extends UIModule {
+	public static final String MODULE_ID = "profiler";
+
+	boolean isEnabled();
+
+	/**
+	 * Enable or disable the profiling. When disabled, the tick of the context
+	 * does not measure anything.
+	 * 
+	 * @param enabled
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Durations of the whole ticks.
+	 * 
+	 * @return statistics of tick durations
+	 */
+	RollingStatistics getTickStatistics();
+
+	RollingStatistics getPhaseStatistics(Phase phase);
+
+	/**
+	 * Durations of a tick task, or null if the task has never been run while
+	 * profiling.
+	 * 
+	 * @param taskId
+	 *            id of the tick task
+	 * @return statistics of the task durations, or null
+	 */
+	RollingStatistics getTaskStatistics(String taskId);
+
+	Iterable<String> getTaskIds();
+
+	/**
+	 * Number of events received from the sources per tick.
+	 * 
+	 * @return statistics of the event counts
+	 */
+	RollingStatistics getEventStatistics();
+
+	/**
+	 * Ratio of ticks of the window that lasted longer than the tick length of
+	 * the context.
+	 * 
+	 * @return a ratio between 0 and 1
+	 */
+	double getOverrunRatio();
+
+	void reset();
+}
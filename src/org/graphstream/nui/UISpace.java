@@ -32,6 +32,7 @@
 package org.graphstream.nui;
 
 import org.graphstream.nui.space.Bounds;
+import org.graphstream.nui.space.SpaceListener;
 import org.graphstream.nui.views.UICamera;
 
 /**
@@ -132,6 +133,24 @@ public interface UISpace extends UIModule {
 
 	Bounds getBounds();
 
+	/**
+	 * Register a listener notified when the bounds or the dimension of the
+	 * space change.
+	 * 
+	 * @param l
+	 *            the listener
+	 */
+	void addSpaceListener(SpaceListener l);
+
+	/**
+	 * Unregister a listener added with
+	 * {@link #addSpaceListener(SpaceListener)}.
+	 * 
+	 * @param l
+	 *            the listener
+	 */
+	void removeSpaceListener(SpaceListener l);
+
 	int lengthToPX(UICamera camera, double lengthInGU);
 
 	double lengthToGU(UICamera camera, int lengthInPX);
@@ -46,6 +46,8 @@ public interface UISpacePartition extends UIModule, Iterable<SpaceCell> {
 
 	UIDataset getDataset();
 
+	UIIndexer getIndexer();
+
 	UISpace getSpace();
 
 	SpaceCell getSpaceCell(ElementIndex nodeIndex);
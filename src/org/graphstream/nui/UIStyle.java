@@ -34,6 +34,7 @@ package org.graphstream.nui;
 import java.util.Iterator;
 
 import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.ElementIndex.Type;
 import org.graphstream.nui.style.ElementStyle;
 import org.graphstream.nui.style.GroupStyle;
 import org.graphstream.nui.style.StyleListener;
@@ -45,6 +46,19 @@ public interface UIStyle extends UIModule {
 
 	ElementStyle getElementStyle(ElementIndex index);
 
+	/**
+	 * Same as {@link #getElementStyle(ElementIndex)}, using the type and the
+	 * integer index of the element. This should be preferred in loops over
+	 * all the elements of a type.
+	 * 
+	 * @param type
+	 *            type of the element
+	 * @param index
+	 *            integer index of the element
+	 * @return the style of the element
+	 */
+	ElementStyle getElementStyle(Type type, int index);
+
 	GroupStyle searchGroupStyle(ElementStyle data);
 	
 	Iterator<ElementIndex> getRenderingOrder();
@@ -34,6 +34,8 @@ package org.graphstream.nui;
 import java.nio.ByteOrder;
 
 import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.swapper.CapacityPolicy;
+import org.graphstream.nui.swapper.DirtyTracker;
 import org.graphstream.nui.swapper.UIArrayReference;
 import org.graphstream.nui.swapper.UIBufferReference;
 
@@ -63,15 +65,13 @@ public interface UISwapper extends UIModule {
 	 * 
 	 * @param type
 	 *            the type of element owning the data
-	 * @param initialSize
-	 *            initial size (ie. number of data elements) of the new buffer
-	 * @param growingSize
-	 *            when buffer has to grow, this defines how the capacity of the
-	 *            buffer will be increased
 	 * @param components
 	 *            how many components per data element
 	 * @param order
-	 *            byte order of the buffer
+	 *            byte order of the buffer ; if null, data are stored in a heap
+	 *            array, else they are stored in a direct buffer using this
+	 *            order, which can be given without copy to native code (use
+	 *            {@link java.nio.ByteOrder#nativeOrder()} for OpenGL)
 	 * @param onNewElement
 	 * @return a reference to the new registered buffer
 	 */
@@ -81,6 +81,54 @@ public interface UISwapper extends UIModule {
 	<T> UIArrayReference<T> createArray(ElementIndex.Type type, int components,
 			Class<T> valueType, ValueFactory<T> valueFactory);
 
+	/**
+	 * Create and register a new dirty tracker. The tracker follows the changes
+	 * of the indexes of this type of element ; it has then to be attached to
+	 * the buffers whose modifications should be tracked.
+	 * 
+	 * @param type
+	 *            the type of element
+	 * @return a new tracker, where all existing elements are dirty
+	 * @see org.graphstream.nui.swapper.UIBufferReference#addDirtyTracker(DirtyTracker)
+	 */
+	DirtyTracker createDirtyTracker(ElementIndex.Type type);
+
+	/**
+	 * Ensure that all the buffers and arrays registered for a type of element
+	 * can hold a given count of elements without any reallocation. This should
+	 * be used before a bulk insertion of elements when the final count is
+	 * known.
+	 * 
+	 * The reservation is kept until the count of elements reaches the
+	 * expected count, buffers will not shrink under it before.
+	 * 
+	 * @param type
+	 *            the type of element
+	 * @param expectedCount
+	 *            the count of elements expected
+	 */
+	void reserve(ElementIndex.Type type, int expectedCount);
+
+	/**
+	 * Define how the capacity of buffers of a type of element grows and
+	 * shrinks.
+	 * 
+	 * @param type
+	 *            the type of element
+	 * @param policy
+	 *            the new policy, applied on the next size check
+	 */
+	void setCapacityPolicy(ElementIndex.Type type, CapacityPolicy policy);
+
+	/**
+	 * Get the capacity policy used for a type of element.
+	 * 
+	 * @param type
+	 *            the type of element
+	 * @return the current policy
+	 */
+	CapacityPolicy getCapacityPolicy(ElementIndex.Type type);
+
 	public static interface ValueFactory<T> {
 		T createValue(ElementIndex index, int component);
 	}
@@ -32,10 +32,14 @@
 package org.graphstream.nui.context;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
@@ -47,8 +51,15 @@ import org.graphstream.nui.UIContext;
 import org.graphstream.nui.UIModule;
 import org.graphstream.nui.UIModules;
 import org.graphstream.nui.UIView;
+import org.graphstream.nui.context.RingBufferProxyPipe.Backpressure;
+import org.graphstream.nui.context.TickProfiler.Phase;
+import org.graphstream.nui.context.TickScheduler.OverrunPolicy;
+import org.graphstream.nui.context.connector.Connector;
+import org.graphstream.nui.context.connector.ConnectorManager;
+import org.graphstream.nui.context.connector.SourceReader;
+import org.graphstream.nui.context.worker.DefaultWorkerManager;
+import org.graphstream.nui.context.worker.WorkerTask;
 import org.graphstream.stream.Pipe;
-import org.graphstream.stream.PipeBase;
 import org.graphstream.stream.ProxyPipe;
 import org.graphstream.stream.Replayable;
 import org.graphstream.stream.Replayable.Controller;
@@ -88,18 +99,74 @@ public abstract class AbstractContext implements UIContext {
 	protected Map<String, UIView> views;
 	/**
 	 * The proxy used to dispatch events from the sources to the ui components.
+	 * This is the last stage of the proxy, coalescing events when enabled.
 	 */
-	protected Pipe proxy;
+	protected CoalescingPipe proxy;
+	/**
+	 * The first stage of the proxy, to which sources are connected. This is
+	 * the proxy itself if the source runs in the ui thread.
+	 */
+	protected Pipe input;
+
+	protected boolean eventCoalescing;
+
+	/**
+	 * Connectors reading sources in their own thread, and pumped at each
+	 * synchronization.
+	 */
+	protected final ConnectorManager connectors;
+
+	/**
+	 * Replays of connected sources, loaded chunk by chunk before any other
+	 * event of the input.
+	 */
+	protected final Queue<ReplayLoader> loaders;
+
+	protected final List<ReplayListener> replayListeners;
+
+	protected int replayChunkSize = ReplayLoader.DEFAULT_CHUNK_SIZE;
+
+	//
+	// Configuration of the ring buffer proxy, used instead of the
+	// ThreadProxyPipe if the capacity is positive.
+	//
+	protected int ringBufferCapacity = 0;
+	protected Backpressure ringBufferBackpressure = Backpressure.BLOCK;
 
-	protected Map<String, TickTaskWrapper> tasks;
+	/**
+	 * Default share of the tick length kept for the rendering. Deferrable
+	 * tick tasks are postponed once the rest of the tick is consumed.
+	 */
+	public static final double DEFAULT_RENDERING_SHARE = 0.5;
 
-	protected DelayQueue<TickTaskWrapper> tasksQueue;
+	protected TickScheduler scheduler;
+
+	protected double renderingShare = DEFAULT_RENDERING_SHARE;
+
+	//
+	// Slot of the last tick run, relatively to the first tick. Used to drop
+	// late ticks according to the overrun policy.
+	//
+	private long tickAnchor;
+	private long tickSlot = -1;
 
 	protected long tickLength = DEFAULT_TICK_LENGTH;
 
 	protected TimeUnit tickLengthUnits = DEFAULT_TICK_LENGTH_UNIT;
 
-	protected Map<String, UIWorker> workers;
+	protected WorkerManager workers;
+
+	/**
+	 * Tasks posted with {@link #invokeLater(Runnable)}, run at the beginning
+	 * of each tick.
+	 */
+	protected final InvocationQueue invocations;
+
+	/**
+	 * The profiler receiving the durations of the tick, null if profiling is
+	 * disabled.
+	 */
+	protected volatile TickProfiler profiler;
 
 	//
 	// Lock used to manage the waitForInitialization method.
@@ -120,11 +187,16 @@ public abstract class AbstractContext implements UIContext {
 	 * 
 	 */
 	protected AbstractContext() {
-		modules = new HashMap<String, UIModule>();
-		views = new HashMap<String, UIView>();
+		modules = new LinkedHashMap<String, UIModule>();
+		views = new LinkedHashMap<String, UIView>();
 		invocationLock = new ReentrantLock();
 		isInitialized = new AtomicBoolean(false);
-		workers = new HashMap<String, UIWorker>();
+		invocations = new InvocationQueue();
+		connectors = new ConnectorManager();
+		loaders = new ConcurrentLinkedQueue<ReplayLoader>();
+		replayListeners = new CopyOnWriteArrayList<ReplayListener>();
+		workers = createWorkerManager();
+		scheduler = createScheduler();
 	}
 
 	/*
@@ -142,19 +214,26 @@ public abstract class AbstractContext implements UIContext {
 
 		this.threadingModel = threadingModel;
 
+		proxy = new CoalescingPipe();
+		proxy.setCoalescing(eventCoalescing);
+
 		switch (AbstractContext.this.threadingModel) {
 		case SOURCE_IN_UI_THREAD:
-			proxy = new PipeBase();
+			input = proxy;
 			break;
 		default:
-			proxy = new ThreadProxyPipe();
+			if (ringBufferCapacity > 0)
+				input = new RingBufferProxyPipe(ringBufferCapacity,
+						ringBufferBackpressure);
+			else
+				input = new ThreadProxyPipe();
+
+			input.addSink(proxy);
 			break;
 		}
 
 		tickLength = DEFAULT_TICK_LENGTH;
 		tickLengthUnits = DEFAULT_TICK_LENGTH_UNIT;
-		tasks = new HashMap<String, TickTaskWrapper>();
-		tasksQueue = new DelayQueue<TickTaskWrapper>();
 
 		try {
 			invokeOnUIThread(new Runnable() {
@@ -180,6 +259,36 @@ public abstract class AbstractContext implements UIContext {
 	public abstract void invokeOnUIThread(Runnable r)
 			throws InterruptedException;
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIContext#invokeLater(java.lang.Runnable)
+	 */
+	@Override
+	public void invokeLater(Runnable r) {
+		invocations.post(r);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIContext#submit(java.util.concurrent.Callable)
+	 */
+	@Override
+	public <T> Future<T> submit(Callable<T> c) {
+		return invocations.submit(c);
+	}
+
+	/**
+	 * Number of tasks posted with {@link #invokeLater(Runnable)} or
+	 * {@link #submit(Callable)} that are waiting for the next tick.
+	 * 
+	 * @return count of pending invocations
+	 */
+	public int getPendingInvocationCount() {
+		return invocations.size();
+	}
+
 	/**
 	 * An initialization action called inside the ui-thread during the
 	 * initialization of the context. Things that have to be done inside the
@@ -201,39 +310,112 @@ public abstract class AbstractContext implements UIContext {
 		// The TICK process
 		// ----------------------------
 		//
-		// 1. Synchronization and dispatching of events
-		// 2. Run the "pre-process" phase of workers
-		// 3. Let the workers run and the rendering be done
-		// 4. Run the "post-process" phase of workers
+		// 1. Synchronization and dispatching of events, then run the
+		// invocations posted since the last tick
+		// 2. Run the tick tasks, within the budget left by the rendering
+		// 3. Run the "pre-process" phase of workers
+		// 4. Let the workers run and the rendering be done
+		// 5. Run the "post-process" phase of workers
+		//
+		// Tick tasks are run before the workers start, so that they never
+		// modify data while workers are reading it. Between steps 3 and 5,
+		// the ui thread only reads data.
+		//
+
+		final TickProfiler p = profiler;
+		final long start = System.nanoTime();
+		final long length = TimeUnit.NANOSECONDS.convert(tickLength,
+				tickLengthUnits);
+
+		if (isLateTick(start, length))
+			return;
+
+		long t = start;
+		long deadline = start + (long) (length * (1 - renderingShare));
+
+		//
+		// Replays are loaded within the budget of the tick tasks. Without
+		// budget, they are loaded at once so that runs are reproducible.
 		//
+		if (isSyncNeeded())
+			pumpEvents(scheduler.isBudgeted() ? deadline : Long.MAX_VALUE);
+
+		invocations.runPending();
 
-		sync();
+		if (p != null)
+			t = phaseDone(p, Phase.SYNC, t);
 
-		for (UIWorker w : workers.values())
-			w.getWorkerTask().preProcess();
+		scheduler.runTasks(start, deadline, length, p);
 
-		TickTaskWrapper ttw;
+		if (p != null)
+			t = phaseDone(p, Phase.TASKS, t);
 
-		while ((ttw = tasksQueue.poll()) != null) {
-			ttw.resetNextExecutionDate();
-			ttw.run();
+		workers.preProcess();
 
-			if (ttw.task.isPeriodic())
-				tasksQueue.add(ttw);
+		if (p != null)
+			t = phaseDone(p, Phase.PRE_PROCESS, t);
+
+		workers.startWorkers();
+
+		try {
+			for (UIView view : views.values())
+				view.update();
+		} finally {
+			if (p != null)
+				t = phaseDone(p, Phase.RENDERING, t);
+
+			//
+			// Now wait for all workers to finish their current process.
+			// And then publish their data.
+			//
+			try {
+				workers.awaitWorkers();
+			} catch (InterruptedException e) {
+				LOGGER.log(Level.WARNING, "tick was interrupted", e);
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			if (p != null)
+				t = phaseDone(p, Phase.WORKERS_WAIT, t);
 		}
 
-		for (UIView view : views.values())
-			view.update();
+		workers.postProcess();
 
-		//
-		// Now wait for all workers to finish their current process.
-		// And then publish their data.
-		//
+		if (p != null) {
+			t = phaseDone(p, Phase.POST_PROCESS, t);
+			p.tickDone(t - start, length);
+		}
+	}
+
+	/**
+	 * Ticks are expected at regular slots, one tick length apart. When a tick
+	 * lasts longer than the tick length, the ticker may call the next ticks
+	 * late, all in the same slot. With the {@link OverrunPolicy#DROP} policy,
+	 * only the first tick of a slot is run.
+	 */
+	protected boolean isLateTick(long now, long length) {
+		if (tickSlot < 0) {
+			tickAnchor = now;
+			tickSlot = 0;
+			return false;
+		}
+
+		long slot = Math.round((now - tickAnchor) / (double) length);
+
+		if (slot <= tickSlot
+				&& scheduler.getOverrunPolicy() == OverrunPolicy.DROP)
+			return true;
+
+		tickSlot = Math.max(slot, tickSlot);
+		return false;
+	}
 
-		
-		
-		for (UIWorker w : workers.values())
-			w.getWorkerTask().postProcess();
+	private static long phaseDone(TickProfiler p, Phase phase, long since) {
+		long now = System.nanoTime();
+		p.phaseDone(phase, now - since);
+
+		return now;
 	}
 
 	/*
@@ -244,10 +426,8 @@ public abstract class AbstractContext implements UIContext {
 	 */
 	@Override
 	public void addTickTask(String id, TickTask task) {
-		TickTaskWrapper ttw = new TickTaskWrapper(task);
-
-		tasks.put(id, ttw);
-		tasksQueue.offer(ttw);
+		scheduler.add(id, task,
+				TimeUnit.NANOSECONDS.convert(tickLength, tickLengthUnits));
 	}
 
 	/*
@@ -257,19 +437,60 @@ public abstract class AbstractContext implements UIContext {
 	 */
 	@Override
 	public void removeTickTask(String id) {
-		TickTaskWrapper ttw = tasks.remove(id);
-
-		if (id == null) {
+		if (!scheduler.remove(id))
 			LOGGER.warning("no such task " + id);
-			return;
-		}
+	}
 
-		tasksQueue.remove(ttw);
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIContext#setTickProfiler(org.graphstream.nui.context
+	 * .TickProfiler)
+	 */
+	@Override
+	public void setTickProfiler(TickProfiler profiler) {
+		this.profiler = profiler;
 	}
 
 	public void setTickLength(long tickLength, TimeUnit unit) {
 		this.tickLength = tickLength;
 		this.tickLengthUnits = unit;
+		this.tickSlot = -1;
+	}
+
+	public OverrunPolicy getOverrunPolicy() {
+		return scheduler.getOverrunPolicy();
+	}
+
+	/**
+	 * Define what happens when ticks or periodic tasks are late. With
+	 * {@link OverrunPolicy#CATCH_UP}, late ticks and task executions are all
+	 * run. With {@link OverrunPolicy#DROP}, they are skipped.
+	 * 
+	 * @param policy
+	 *            the new policy
+	 */
+	public void setOverrunPolicy(OverrunPolicy policy) {
+		scheduler.setOverrunPolicy(policy);
+	}
+
+	public double getRenderingShare() {
+		return renderingShare;
+	}
+
+	/**
+	 * Set the share of the tick length kept for the rendering. Deferrable tick
+	 * tasks are postponed when they would run beyond the rest of the tick.
+	 * 
+	 * @param share
+	 *            a value in [0,1[
+	 */
+	public void setRenderingShare(double share) {
+		if (share < 0 || share >= 1)
+			throw new IllegalArgumentException("share should be in [0,1[");
+
+		this.renderingShare = share;
 	}
 
 	/*
@@ -279,16 +500,87 @@ public abstract class AbstractContext implements UIContext {
 	 */
 	@Override
 	public void connect(Source source) {
-		source.addSink(proxy);
-
 		if (source instanceof Replayable) {
 			Replayable r = (Replayable) source;
 			Controller c = r.getReplayController();
 
-			c.addSink(proxy);
-			c.replay();
-			c.removeSink(proxy);
+			//
+			// If the source is not in the ui thread, the replay is loaded by
+			// the ui thread, chunk by chunk within the budget of each tick,
+			// and events of the input are not dispatched until the loading is
+			// over.
+			//
+			boolean inline = Thread.currentThread() == thread;
+			ReplayLoader loader = new ReplayLoader(this, source, proxy,
+					replayChunkSize, inline, replayListeners);
+
+			if (!inline)
+				loaders.add(loader);
+
+			loader.replay(c);
 		}
+
+		source.addSink(input);
+	}
+
+	/**
+	 * Set the count of events of a chunk of the replay of a source, when the
+	 * source is connected. Ticks load as many chunks as their budget allows.
+	 * 
+	 * @param chunkSize
+	 *            count of events per chunk
+	 */
+	public void setReplayChunkSize(int chunkSize) {
+		if (chunkSize <= 0)
+			throw new IllegalArgumentException("chunk size should be positive");
+
+		this.replayChunkSize = chunkSize;
+	}
+
+	public int getReplayChunkSize() {
+		return replayChunkSize;
+	}
+
+	public void addReplayListener(ReplayListener l) {
+		replayListeners.add(l);
+	}
+
+	public void removeReplayListener(ReplayListener l) {
+		replayListeners.remove(l);
+	}
+
+	/**
+	 * Load chunks of the pending replays until the deadline. At least one
+	 * chunk is loaded, so the loading goes on even if the tick has no budget
+	 * left.
+	 * 
+	 * @param deadline
+	 *            date, as given by {@link System#nanoTime()}, after which no
+	 *            more chunk is loaded
+	 * @return true if there are no more replays to load
+	 */
+	protected boolean loadReplays(long deadline) {
+		ReplayLoader loader;
+		boolean first = true;
+
+		while ((loader = loaders.peek()) != null) {
+			if (!first && System.nanoTime() >= deadline)
+				return false;
+
+			first = false;
+
+			//
+			// If the replaying thread is late, there is nothing to do until
+			// the next tick.
+			//
+			if (loader.loadChunk() == 0 && !loader.isDone())
+				return false;
+
+			if (loader.isDone())
+				loaders.poll();
+		}
+
+		return true;
 	}
 
 	/*
@@ -299,7 +591,42 @@ public abstract class AbstractContext implements UIContext {
 	 */
 	@Override
 	public void disconnect(Source source) {
-		source.removeSink(proxy);
+		source.removeSink(input);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIContext#openConnector(java.lang.String,
+	 * org.graphstream.nui.context.connector.SourceReader)
+	 */
+	@Override
+	public Connector openConnector(String id, SourceReader reader) {
+		checkThread();
+		return connectors.open(id, reader, proxy);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIContext#closeConnector(java.lang.String)
+	 */
+	@Override
+	public void closeConnector(String id) {
+		checkThread();
+
+		if (!connectors.close(id))
+			LOGGER.warning("no such connector " + id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIContext#getConnector(java.lang.String)
+	 */
+	@Override
+	public Connector getConnector(String id) {
+		return connectors.get(id);
 	}
 
 	/*
@@ -309,19 +636,101 @@ public abstract class AbstractContext implements UIContext {
 	 */
 	@Override
 	public void sync() {
-		if (proxy instanceof ProxyPipe) {
+		if (isSyncNeeded()) {
 			if (Thread.currentThread() != thread) {
 				try {
 					invokeOnUIThread(syncAction);
 				} catch (InterruptedException e) {
 					LOGGER.log(Level.WARNING, "sync was interrupted", e);
 				}
-			} else {
-				((ProxyPipe) proxy).pump();
-			}
+			} else
+				pumpEvents();
 		}
 	}
 
+	/**
+	 * Tell if some events may be waiting to be dispatched to the modules.
+	 */
+	protected boolean isSyncNeeded() {
+		return input instanceof ProxyPipe || proxy.isCoalescing()
+				|| !connectors.isEmpty() || !loaders.isEmpty();
+	}
+
+	/**
+	 * Pump the events received since the last sync, and dispatch them to the
+	 * modules. This has to be called inside the ui thread. Only one chunk of
+	 * the pending replays is loaded.
+	 */
+	protected void pumpEvents() {
+		pumpEvents(Long.MIN_VALUE);
+	}
+
+	/**
+	 * Pump the events received since the last sync, and dispatch them to the
+	 * modules. This has to be called inside the ui thread.
+	 * 
+	 * @param deadline
+	 *            date, as given by {@link System#nanoTime()}, until which
+	 *            chunks of the pending replays are loaded
+	 */
+	protected void pumpEvents(long deadline) {
+		if (loadReplays(deadline) && input instanceof ProxyPipe)
+			((ProxyPipe) input).pump();
+
+		connectors.pump();
+
+		proxy.flush();
+	}
+
+	/**
+	 * Use a {@link RingBufferProxyPipe} rather than a ThreadProxyPipe to
+	 * receive events from sources running in another thread. This has to be
+	 * called before the initialization of the context.
+	 * 
+	 * @param capacity
+	 *            number of events of the ring buffer, or zero to use a
+	 *            ThreadProxyPipe
+	 * @param backpressure
+	 *            what sources do when the ring buffer is full
+	 */
+	public void setRingBufferProxy(int capacity, Backpressure backpressure) {
+		if (proxy != null)
+			LOGGER.warning("context already initialized, the proxy will not change");
+
+		ringBufferCapacity = capacity;
+		ringBufferBackpressure = backpressure;
+	}
+
+	public boolean isEventCoalescing() {
+		return eventCoalescing;
+	}
+
+	/**
+	 * Enable or disable the coalescing of attribute events. When enabled,
+	 * events are dispatched to the ui components once per tick, and repeated
+	 * changes of the same attribute of an element are folded into a single
+	 * event. Coalescing is disabled by default.
+	 * 
+	 * @param on
+	 * @see CoalescingPipe
+	 */
+	public void setEventCoalescing(boolean on) {
+		eventCoalescing = on;
+
+		if (proxy != null)
+			proxy.setCoalescing(on);
+	}
+
+	/**
+	 * Number of events eliminated by the coalescing since the initialization
+	 * of this context.
+	 * 
+	 * @return the count of eliminated events
+	 */
+	public long getCoalescedEventCount() {
+		return proxy == null ? 0 : proxy.getCoalescedCount();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -332,19 +741,40 @@ public abstract class AbstractContext implements UIContext {
 		try {
 			invokeOnUIThread(new Runnable() {
 				public void run() {
-					internalRelease();
-
 					for (UIView view : views.values())
 						view.close();
 
 					views.clear();
 
-					for (UIModule module : modules.values())
-						module.release();
+					//
+					// Modules are inserted after their dependencies, so they
+					// are released in the reverse order.
+					//
+					UIModule[] loaded = modules.values().toArray(
+							new UIModule[modules.size()]);
+
+					for (int i = loaded.length - 1; i >= 0; i--)
+						loaded[i].release();
 
 					modules.clear();
 
+					//
+					// Workers are terminated before the internal release,
+					// which may interrupt the ui thread.
+					//
+					ReplayLoader loader;
+
+					while ((loader = loaders.poll()) != null)
+						loader.abort();
+
+					connectors.closeAll();
+					workers.terminateAll();
+					invocations.clear();
+					internalRelease();
+
+					input.clearSinks();
 					proxy.clearSinks();
+					input = null;
 					proxy = null;
 
 					thread = null;
@@ -530,19 +960,12 @@ public abstract class AbstractContext implements UIContext {
 	 * (non-Javadoc)
 	 * 
 	 * @see org.graphstream.nui.UIContext#createWorker(java.lang.String,
-	 * org.graphstream.nui.context.WorkerTaskMap)
+	 * org.graphstream.nui.context.worker.WorkerTask)
 	 */
 	@Override
-	public void createWorker(String id, WorkerTaskMap tasks) {
-		if (workers.containsKey(id))
-			LOGGER.warning(String.format("Worker \"%s\" already created", id));
-		else {
-			ContextWorker cw = createContextWorker(id);
-			cw.setTaskMap(tasks);
-			cw.init();
-
-			workers.put(id, cw);
-		}
+	public void createWorker(String id, WorkerTask task) {
+		checkThread();
+		workers.createWorker(id, task);
 	}
 
 	/*
@@ -552,22 +975,27 @@ public abstract class AbstractContext implements UIContext {
 	 */
 	@Override
 	public void terminateWorker(String id) {
-		UIWorker w = workers.remove(id);
+		checkThread();
+		workers.terminateWorker(id);
+	}
 
-		if (w != null) {
-			try {
-				w.terminate();
-			} catch (InterruptedException e) {
-				LOGGER.log(Level.SEVERE,
-						String.format("Failed to terminate worker \"%s\"", id),
-						e);
-			}
-		} else
-			LOGGER.warning(String.format("Worker \"%s\" does not exist", id));
+	/**
+	 * Create the scheduler of the tick tasks of this context. This is called
+	 * by the constructor.
+	 * 
+	 * @return a new scheduler
+	 */
+	protected TickScheduler createScheduler() {
+		return new TickScheduler();
 	}
 
-	protected ContextWorker createContextWorker(String id) {
-		return null;
+	/**
+	 * Create the manager that will hold the workers of this context.
+	 * 
+	 * @return a new worker manager
+	 */
+	protected WorkerManager createWorkerManager() {
+		return new DefaultWorkerManager(this);
 	}
 
 	protected void checkThread() {
@@ -578,53 +1006,4 @@ public abstract class AbstractContext implements UIContext {
 							+ "concurrent exceptions. Don't blame the devs.");
 		}
 	}
-
-	class TickTaskWrapper implements Delayed, Runnable {
-		protected final TickTask task;
-		protected long nextExecutionDate;
-
-		TickTaskWrapper(TickTask task) {
-			this.task = task;
-			resetNextExecutionDate();
-		}
-
-		protected void resetNextExecutionDate() {
-			nextExecutionDate = System.currentTimeMillis()
-					+ TimeUnit.MILLISECONDS.convert(task.getCycleLength()
-							* tickLength, tickLengthUnits);
-		}
-
-		/*
-		 * (non-Javadoc)
-		 * 
-		 * @see java.lang.Comparable#compareTo(java.lang.Object)
-		 */
-		@Override
-		public int compareTo(Delayed o) {
-			return Long.compare(getDelay(TimeUnit.MILLISECONDS),
-					o.getDelay(TimeUnit.MILLISECONDS));
-		}
-
-		/*
-		 * (non-Javadoc)
-		 * 
-		 * @see
-		 * java.util.concurrent.Delayed#getDelay(java.util.concurrent.TimeUnit)
-		 */
-		@Override
-		public long getDelay(TimeUnit unit) {
-			return unit.convert(nextExecutionDate - System.currentTimeMillis(),
-					TimeUnit.MILLISECONDS);
-		}
-
-		/*
-		 * (non-Javadoc)
-		 * 
-		 * @see java.lang.Runnable#run()
-		 */
-		@Override
-		public void run() {
-			task.run();
-		}
-	}
 }
@@ -0,0 +1,567 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graphstream.stream.PipeBase;
+
+/**
+ * A pipe folding attribute changes before dispatching them.
+ * 
+ * When coalescing is enabled, events are buffered until {@link #flush()} is
+ * called, which the context does once per tick, just after the events of the
+ * sources have been pumped. While buffering, a change of an attribute is
+ * folded into the pending event of the same element and the same key, so a
+ * node whose "x" attribute is changed ten times between two ticks produces a
+ * single event.
+ * 
+ * Folding never crosses a structural event : all pending attribute events are
+ * closed when a node or an edge is added or removed, when the graph is
+ * cleared or when a step begins. Only the relative order of attribute events
+ * of different keys between two structural events may change.
+ * 
+ * When coalescing is disabled, events are forwarded immediately.
+ */
+public class CoalescingPipe extends PipeBase {
+	protected static enum EventType {
+		ATTRIBUTE_ADDED, ATTRIBUTE_CHANGED, ATTRIBUTE_REMOVED, NODE_ADDED, NODE_REMOVED, EDGE_ADDED, EDGE_REMOVED, GRAPH_CLEARED, STEP_BEGINS
+	}
+
+	protected static enum ElementType {
+		GRAPH, NODE, EDGE
+	}
+
+	protected boolean coalescing;
+
+	/**
+	 * Pending events, in their arrival order.
+	 */
+	protected final List<PendingEvent> pending;
+
+	/**
+	 * Pending attribute events that can still be folded, mapped by element and
+	 * key.
+	 */
+	protected final Map<String, PendingEvent> foldable;
+
+	protected volatile long receivedCount;
+
+	protected volatile long coalescedCount;
+
+	public CoalescingPipe() {
+		pending = new ArrayList<PendingEvent>();
+		foldable = new HashMap<String, PendingEvent>();
+		coalescing = false;
+	}
+
+	public boolean isCoalescing() {
+		return coalescing;
+	}
+
+	/**
+	 * Enable or disable coalescing. Disabling the coalescing flushes pending
+	 * events.
+	 * 
+	 * @param on
+	 */
+	public void setCoalescing(boolean on) {
+		if (!on)
+			flush();
+
+		coalescing = on;
+	}
+
+	/**
+	 * Number of events received while coalescing was enabled.
+	 * 
+	 * @return the count of received events
+	 */
+	public long getReceivedCount() {
+		return receivedCount;
+	}
+
+	/**
+	 * Number of events eliminated by folding them into a previous event.
+	 * 
+	 * @return the count of eliminated events
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount;
+	}
+
+	/**
+	 * Dispatch all pending events to the sinks of this pipe.
+	 */
+	public void flush() {
+		if (pending.isEmpty())
+			return;
+
+		foldable.clear();
+
+		for (int i = 0; i < pending.size(); i++)
+			dispatch(pending.get(i));
+
+		pending.clear();
+	}
+
+	protected void dispatch(PendingEvent e) {
+		switch (e.type) {
+		case ATTRIBUTE_ADDED:
+			switch (e.elementType) {
+			case GRAPH:
+				super.graphAttributeAdded(e.sourceId, e.timeId, e.attribute,
+						e.newValue);
+				break;
+			case NODE:
+				super.nodeAttributeAdded(e.sourceId, e.timeId, e.elementId,
+						e.attribute, e.newValue);
+				break;
+			case EDGE:
+				super.edgeAttributeAdded(e.sourceId, e.timeId, e.elementId,
+						e.attribute, e.newValue);
+				break;
+			}
+
+			break;
+		case ATTRIBUTE_CHANGED:
+			switch (e.elementType) {
+			case GRAPH:
+				super.graphAttributeChanged(e.sourceId, e.timeId, e.attribute,
+						e.oldValue, e.newValue);
+				break;
+			case NODE:
+				super.nodeAttributeChanged(e.sourceId, e.timeId, e.elementId,
+						e.attribute, e.oldValue, e.newValue);
+				break;
+			case EDGE:
+				super.edgeAttributeChanged(e.sourceId, e.timeId, e.elementId,
+						e.attribute, e.oldValue, e.newValue);
+				break;
+			}
+
+			break;
+		case ATTRIBUTE_REMOVED:
+			switch (e.elementType) {
+			case GRAPH:
+				super.graphAttributeRemoved(e.sourceId, e.timeId, e.attribute);
+				break;
+			case NODE:
+				super.nodeAttributeRemoved(e.sourceId, e.timeId, e.elementId,
+						e.attribute);
+				break;
+			case EDGE:
+				super.edgeAttributeRemoved(e.sourceId, e.timeId, e.elementId,
+						e.attribute);
+				break;
+			}
+
+			break;
+		case NODE_ADDED:
+			super.nodeAdded(e.sourceId, e.timeId, e.elementId);
+			break;
+		case NODE_REMOVED:
+			super.nodeRemoved(e.sourceId, e.timeId, e.elementId);
+			break;
+		case EDGE_ADDED:
+			super.edgeAdded(e.sourceId, e.timeId, e.elementId, e.attribute,
+					(String) e.newValue, e.directed);
+			break;
+		case EDGE_REMOVED:
+			super.edgeRemoved(e.sourceId, e.timeId, e.elementId);
+			break;
+		case GRAPH_CLEARED:
+			super.graphCleared(e.sourceId, e.timeId);
+			break;
+		case STEP_BEGINS:
+			super.stepBegins(e.sourceId, e.timeId, e.step);
+			break;
+		}
+	}
+
+	protected void attributeAdded(String sourceId, long timeId,
+			ElementType elementType, String elementId, String attribute,
+			Object value) {
+		receivedCount++;
+
+		PendingEvent e = new PendingEvent(EventType.ATTRIBUTE_ADDED, sourceId,
+				timeId);
+		e.elementType = elementType;
+		e.elementId = elementId;
+		e.attribute = attribute;
+		e.newValue = value;
+
+		pending.add(e);
+		foldable.put(key(elementType, elementId, attribute), e);
+	}
+
+	protected void attributeChanged(String sourceId, long timeId,
+			ElementType elementType, String elementId, String attribute,
+			Object oldValue, Object newValue) {
+		receivedCount++;
+
+		String key = key(elementType, elementId, attribute);
+		PendingEvent e = foldable.get(key);
+
+		if (e != null) {
+			//
+			// An added event stays an added event, with the new value. A
+			// changed event keeps its old value.
+			//
+			e.sourceId = sourceId;
+			e.timeId = timeId;
+			e.newValue = newValue;
+			coalescedCount++;
+		} else {
+			e = new PendingEvent(EventType.ATTRIBUTE_CHANGED, sourceId, timeId);
+			e.elementType = elementType;
+			e.elementId = elementId;
+			e.attribute = attribute;
+			e.oldValue = oldValue;
+			e.newValue = newValue;
+
+			pending.add(e);
+			foldable.put(key, e);
+		}
+	}
+
+	protected void attributeRemoved(String sourceId, long timeId,
+			ElementType elementType, String elementId, String attribute) {
+		receivedCount++;
+
+		PendingEvent e = new PendingEvent(EventType.ATTRIBUTE_REMOVED,
+				sourceId, timeId);
+		e.elementType = elementType;
+		e.elementId = elementId;
+		e.attribute = attribute;
+
+		pending.add(e);
+		foldable.remove(key(elementType, elementId, attribute));
+	}
+
+	protected PendingEvent structural(EventType type, String sourceId,
+			long timeId, String elementId) {
+		receivedCount++;
+
+		PendingEvent e = new PendingEvent(type, sourceId, timeId);
+		e.elementId = elementId;
+
+		pending.add(e);
+		foldable.clear();
+
+		return e;
+	}
+
+	protected static String key(ElementType elementType, String elementId,
+			String attribute) {
+		switch (elementType) {
+		case GRAPH:
+			return "g:" + attribute;
+		case NODE:
+			return "n:" + elementId + "\u0000" + attribute;
+		default:
+			return "e:" + elementId + "\u0000" + attribute;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#graphAttributeAdded(java.lang.String,
+	 * long, java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void graphAttributeAdded(String sourceId, long timeId,
+			String attribute, Object value) {
+		if (coalescing)
+			attributeAdded(sourceId, timeId, ElementType.GRAPH, null,
+					attribute, value);
+		else
+			super.graphAttributeAdded(sourceId, timeId, attribute, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#graphAttributeChanged(java.lang.String,
+	 * long, java.lang.String, java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public void graphAttributeChanged(String sourceId, long timeId,
+			String attribute, Object oldValue, Object newValue) {
+		if (coalescing)
+			attributeChanged(sourceId, timeId, ElementType.GRAPH, null,
+					attribute, oldValue, newValue);
+		else
+			super.graphAttributeChanged(sourceId, timeId, attribute, oldValue,
+					newValue);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#graphAttributeRemoved(java.lang.String,
+	 * long, java.lang.String)
+	 */
+	@Override
+	public void graphAttributeRemoved(String sourceId, long timeId,
+			String attribute) {
+		if (coalescing)
+			attributeRemoved(sourceId, timeId, ElementType.GRAPH, null,
+					attribute);
+		else
+			super.graphAttributeRemoved(sourceId, timeId, attribute);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#nodeAttributeAdded(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void nodeAttributeAdded(String sourceId, long timeId,
+			String nodeId, String attribute, Object value) {
+		if (coalescing)
+			attributeAdded(sourceId, timeId, ElementType.NODE, nodeId,
+					attribute, value);
+		else
+			super.nodeAttributeAdded(sourceId, timeId, nodeId, attribute,
+					value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#nodeAttributeChanged(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void nodeAttributeChanged(String sourceId, long timeId,
+			String nodeId, String attribute, Object oldValue, Object newValue) {
+		if (coalescing)
+			attributeChanged(sourceId, timeId, ElementType.NODE, nodeId,
+					attribute, oldValue, newValue);
+		else
+			super.nodeAttributeChanged(sourceId, timeId, nodeId, attribute,
+					oldValue, newValue);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#nodeAttributeRemoved(java.lang.String,
+	 * long, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public void nodeAttributeRemoved(String sourceId, long timeId,
+			String nodeId, String attribute) {
+		if (coalescing)
+			attributeRemoved(sourceId, timeId, ElementType.NODE, nodeId,
+					attribute);
+		else
+			super.nodeAttributeRemoved(sourceId, timeId, nodeId, attribute);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#edgeAttributeAdded(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void edgeAttributeAdded(String sourceId, long timeId,
+			String edgeId, String attribute, Object value) {
+		if (coalescing)
+			attributeAdded(sourceId, timeId, ElementType.EDGE, edgeId,
+					attribute, value);
+		else
+			super.edgeAttributeAdded(sourceId, timeId, edgeId, attribute,
+					value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#edgeAttributeChanged(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void edgeAttributeChanged(String sourceId, long timeId,
+			String edgeId, String attribute, Object oldValue, Object newValue) {
+		if (coalescing)
+			attributeChanged(sourceId, timeId, ElementType.EDGE, edgeId,
+					attribute, oldValue, newValue);
+		else
+			super.edgeAttributeChanged(sourceId, timeId, edgeId, attribute,
+					oldValue, newValue);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#edgeAttributeRemoved(java.lang.String,
+	 * long, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public void edgeAttributeRemoved(String sourceId, long timeId,
+			String edgeId, String attribute) {
+		if (coalescing)
+			attributeRemoved(sourceId, timeId, ElementType.EDGE, edgeId,
+					attribute);
+		else
+			super.edgeAttributeRemoved(sourceId, timeId, edgeId, attribute);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#nodeAdded(java.lang.String, long,
+	 * java.lang.String)
+	 */
+	@Override
+	public void nodeAdded(String sourceId, long timeId, String nodeId) {
+		if (coalescing)
+			structural(EventType.NODE_ADDED, sourceId, timeId, nodeId);
+		else
+			super.nodeAdded(sourceId, timeId, nodeId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#nodeRemoved(java.lang.String, long,
+	 * java.lang.String)
+	 */
+	@Override
+	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		if (coalescing)
+			structural(EventType.NODE_REMOVED, sourceId, timeId, nodeId);
+		else
+			super.nodeRemoved(sourceId, timeId, nodeId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#edgeAdded(java.lang.String, long,
+	 * java.lang.String, java.lang.String, java.lang.String, boolean)
+	 */
+	@Override
+	public void edgeAdded(String sourceId, long timeId, String edgeId,
+			String fromNodeId, String toNodeId, boolean directed) {
+		if (coalescing) {
+			PendingEvent e = structural(EventType.EDGE_ADDED, sourceId,
+					timeId, edgeId);
+			e.attribute = fromNodeId;
+			e.newValue = toNodeId;
+			e.directed = directed;
+		} else
+			super.edgeAdded(sourceId, timeId, edgeId, fromNodeId, toNodeId,
+					directed);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#edgeRemoved(java.lang.String, long,
+	 * java.lang.String)
+	 */
+	@Override
+	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		if (coalescing)
+			structural(EventType.EDGE_REMOVED, sourceId, timeId, edgeId);
+		else
+			super.edgeRemoved(sourceId, timeId, edgeId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#graphCleared(java.lang.String, long)
+	 */
+	@Override
+	public void graphCleared(String sourceId, long timeId) {
+		if (coalescing)
+			structural(EventType.GRAPH_CLEARED, sourceId, timeId, null);
+		else
+			super.graphCleared(sourceId, timeId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#stepBegins(java.lang.String, long,
+	 * double)
+	 */
+	@Override
+	public void stepBegins(String sourceId, long timeId, double step) {
+		if (coalescing)
+			structural(EventType.STEP_BEGINS, sourceId, timeId, null).step = step;
+		else
+			super.stepBegins(sourceId, timeId, step);
+	}
+
+	/**
+	 * A buffered event. For edge additions, the source and target nodes are
+	 * stored in the attribute and new value fields.
+	 */
+	protected static class PendingEvent {
+		final EventType type;
+		String sourceId;
+		long timeId;
+		ElementType elementType;
+		String elementId;
+		String attribute;
+		Object oldValue;
+		Object newValue;
+		boolean directed;
+		double step;
+
+		PendingEvent(EventType type, String sourceId, long timeId) {
+			this.type = type;
+			this.sourceId = sourceId;
+			this.timeId = timeId;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import java.util.logging.Logger;
+
+import org.graphstream.nui.UILayout;
+import org.graphstream.nui.UIModule;
+import org.graphstream.nui.UIRandom;
+import org.graphstream.nui.util.DefaultRandom;
+
+/**
+ * A context without timer, whose ticks are run explicitly by the thread that
+ * initialized it. This is used to compute layouts in batch, as fast as
+ * possible.
+ * 
+ * Runs are reproducible : the random module is seeded, modules and views are
+ * processed in their insertion order, and tick tasks are scheduled on a
+ * virtual clock, without time budget, so they do not depend on the time they
+ * take.
+ * 
+ * <pre>
+ * HeadlessContext ctx = new HeadlessContext(42);
+ * ctx.init(ThreadingModel.SOURCE_IN_UI_THREAD);
+ * ctx.loadModule(UILayout.MODULE_ID);
+ * ctx.connect(graph);
+ * ctx.runUntilStable(10000, 0.9);
+ * </pre>
+ */
+public class HeadlessContext extends AbstractContext {
+	private static final Logger LOGGER = Logger.getLogger(HeadlessContext.class
+			.getName());
+
+	public static final long DEFAULT_SEED = 0;
+
+	protected final long seed;
+
+	public HeadlessContext() {
+		this(DEFAULT_SEED);
+	}
+
+	/**
+	 * Create a new headless context.
+	 * 
+	 * @param seed
+	 *            seed given to the random module
+	 */
+	public HeadlessContext(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Run ticks, back to back, inside the calling thread.
+	 * 
+	 * @param n
+	 *            number of ticks to run
+	 * @throws IllegalStateException
+	 *             if the calling thread is not the one which initialized the
+	 *             context
+	 */
+	public void step(int n) {
+		checkStepThread();
+
+		invocationLock.lock();
+
+		try {
+			for (int i = 0; i < n; i++)
+				tick();
+		} finally {
+			invocationLock.unlock();
+		}
+	}
+
+	/**
+	 * Run ticks until the layout is stable.
+	 * 
+	 * @param maxSteps
+	 *            maximum number of ticks to run
+	 * @param stabilizationLimit
+	 *            the layout is considered as stable once its stabilization is
+	 *            greater or equal to this limit
+	 * @return the number of ticks run
+	 * @throws IllegalStateException
+	 *             if the calling thread is not the one which initialized the
+	 *             context
+	 */
+	public int runUntilStable(int maxSteps, double stabilizationLimit) {
+		checkStepThread();
+
+		UILayout layout = (UILayout) getModule(UILayout.MODULE_ID);
+
+		if (layout == null) {
+			LOGGER.warning("no layout loaded, nothing can be stabilized");
+			return 0;
+		}
+
+		int steps = 0;
+
+		while (steps < maxSteps) {
+			step(1);
+			steps++;
+
+			if (layout.getStabilization() >= stabilizationLimit)
+				break;
+		}
+
+		return steps;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.AbstractContext#sync()
+	 */
+	@Override
+	public void sync() {
+		if (!isSyncNeeded())
+			return;
+
+		//
+		// There is no ui thread to post the sync to, events are pumped in the
+		// calling thread, but never during a tick.
+		//
+		invocationLock.lock();
+
+		try {
+			pumpEvents();
+		} finally {
+			invocationLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.context.AbstractContext#invokeOnUIThread(java.lang
+	 * .Runnable)
+	 */
+	@Override
+	public void invokeOnUIThread(Runnable r) throws InterruptedException {
+		//
+		// There is no ui thread to post the task to, so it runs in the
+		// calling thread, but never during a tick.
+		//
+		invocationLock.lockInterruptibly();
+
+		try {
+			r.run();
+		} finally {
+			invocationLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.context.AbstractContext#insertModules(org.graphstream
+	 * .nui.UIModule[])
+	 */
+	@Override
+	public void insertModules(UIModule... modules) {
+		if (modules != null) {
+			for (int i = 0; i < modules.length; i++)
+				if (modules[i] instanceof UIRandom)
+					modules[i].setAttribute(
+							DefaultRandom.ATTRIBUTE_RANDOM_SEED, seed);
+		}
+
+		super.insertModules(modules);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.AbstractContext#internalInit()
+	 */
+	@Override
+	protected void internalInit() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.AbstractContext#internalRelease()
+	 */
+	@Override
+	protected void internalRelease() {
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.AbstractContext#createScheduler()
+	 */
+	@Override
+	protected TickScheduler createScheduler() {
+		return new TickScheduler(false);
+	}
+
+	/**
+	 * Ticks have to be run by the thread which initialized the context, as
+	 * modules expect to be used from a single thread.
+	 */
+	protected void checkStepThread() {
+		if (Thread.currentThread() != thread)
+			throw new IllegalStateException(
+					"ticks have to be run by the thread which initialized the context");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.AbstractContext#isLateTick(long, long)
+	 */
+	@Override
+	protected boolean isLateTick(long now, long length) {
+		//
+		// Ticks are run on demand, they are never late.
+		//
+		return false;
+	}
+}
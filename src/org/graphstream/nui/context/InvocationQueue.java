@@ -0,0 +1,149 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Queue of invocations posted from any thread and run in batch by the ui
+ * thread, once per tick. Posting never blocks : the caller does not wait for
+ * the ui thread, and many invocations cost a single hop to the ui thread.
+ * 
+ * Invocations are run in the order they have been posted. Invocations posted
+ * while the queue is being run are kept for the next run.
+ */
+public class InvocationQueue {
+	private static final Logger LOGGER = Logger.getLogger(InvocationQueue.class
+			.getName());
+
+	protected final ConcurrentLinkedQueue<Runnable> queue;
+
+	protected final AtomicInteger size;
+
+	public InvocationQueue() {
+		queue = new ConcurrentLinkedQueue<Runnable>();
+		size = new AtomicInteger(0);
+	}
+
+	/**
+	 * Post an invocation.
+	 * 
+	 * @param r
+	 *            the invocation
+	 */
+	public void post(Runnable r) {
+		if (r == null)
+			throw new NullPointerException();
+
+		queue.offer(r);
+		size.incrementAndGet();
+	}
+
+	/**
+	 * Post a computation whose result can be retrieved once it has been run.
+	 * 
+	 * @param c
+	 *            the computation
+	 * @return a future completed when the computation has been run
+	 */
+	public <T> Future<T> submit(Callable<T> c) {
+		FutureTask<T> f = new FutureTask<T>(c);
+		post(f);
+
+		return f;
+	}
+
+	/**
+	 * Run the invocations posted so far. Exceptions thrown by an invocation
+	 * are logged and do not prevent the others to be run.
+	 * 
+	 * @return the number of invocations run
+	 */
+	public int runPending() {
+		int n = size.get();
+		int run = 0;
+
+		while (run < n) {
+			Runnable r = queue.poll();
+
+			if (r == null)
+				break;
+
+			size.decrementAndGet();
+			run++;
+
+			try {
+				r.run();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.SEVERE, "failed to execute invocation", e);
+			}
+		}
+
+		return run;
+	}
+
+	/**
+	 * Drop the pending invocations. Futures returned by
+	 * {@link #submit(Callable)} are cancelled.
+	 * 
+	 * @return the number of invocations dropped
+	 */
+	public int clear() {
+		Runnable r;
+		int dropped = 0;
+
+		while ((r = queue.poll()) != null) {
+			size.decrementAndGet();
+			dropped++;
+
+			if (r instanceof Future<?>)
+				((Future<?>) r).cancel(false);
+		}
+
+		return dropped;
+	}
+
+	/**
+	 * Number of invocations waiting to be run.
+	 * 
+	 * @return count of pending invocations
+	 */
+	public int size() {
+		return size.get();
+	}
+}
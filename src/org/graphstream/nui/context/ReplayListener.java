@@ -0,0 +1,63 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import org.graphstream.stream.Source;
+
+/**
+ * Listener following the loading of the replay of a source connected to a
+ * context. Listeners are called inside the ui thread, after each chunk of
+ * events loaded.
+ */
+public interface ReplayListener {
+	/**
+	 * Called after each chunk of the replay.
+	 * 
+	 * @param source
+	 *            the source being replayed
+	 * @param elements
+	 *            count of nodes and edges loaded so far
+	 * @param expectedElements
+	 *            count of nodes and edges of the source, or -1 if unknown
+	 */
+	void replayProgress(Source source, long elements, long expectedElements);
+
+	/**
+	 * Called once the whole replay has been loaded.
+	 * 
+	 * @param source
+	 *            the source replayed
+	 * @param elements
+	 *            count of nodes and edges loaded
+	 */
+	void replayDone(Source source, long elements);
+}
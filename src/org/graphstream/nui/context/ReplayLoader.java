@@ -0,0 +1,354 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graphstream.graph.Structure;
+import org.graphstream.nui.UIContext;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UISwapper;
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.stream.Replayable.Controller;
+import org.graphstream.stream.Source;
+
+/**
+ * Loads the replay of a source into a context, chunk by chunk.
+ * 
+ * The replay is run by the thread connecting the source and goes into a ring
+ * buffer of the size of a chunk. The ui thread loads chunks while the budget
+ * of the tick allows, so the ui stays responsive while a large graph is
+ * loading; the connecting thread waits when the buffer is full. If the source
+ * is connected from the ui thread, chunks are loaded as soon as they are full,
+ * before the end of the connection.
+ * 
+ * Loading is optimized for bulk insertions :
+ * <ul>
+ * <li>if the source is a structure, the buffers of the swapper are reserved
+ * for all its elements before the first chunk;</li>
+ * <li>additions of elements of a chunk are batched in the indexer, and the
+ * attribute events of the chunk are dispatched after the commit of the batch,
+ * in their order, once the new elements have their data.</li>
+ * </ul>
+ */
+public class ReplayLoader extends RingBufferProxyPipe {
+	/**
+	 * Default count of events loaded per chunk.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+	protected final UIContext ctx;
+
+	protected final Source source;
+
+	protected final CoalescingPipe target;
+
+	protected final int chunkSize;
+
+	protected final boolean inline;
+
+	protected final List<ReplayListener> listeners;
+
+	protected final long expectedNodes;
+
+	protected final long expectedEdges;
+
+	protected volatile boolean replayed;
+
+	protected volatile boolean aborted;
+
+	//
+	// Following fields are only used by the ui thread.
+	//
+	protected boolean prepared;
+	protected boolean doneFired;
+	protected UIIndexer indexer;
+	protected boolean batching;
+	protected final List<Record> deferred;
+	protected long elements;
+
+	/**
+	 * Create a new loader. This has to be done by the thread connecting the
+	 * source.
+	 * 
+	 * @param ctx
+	 *            the context in which the source is loaded
+	 * @param source
+	 *            the source replayed
+	 * @param target
+	 *            the proxy of the context
+	 * @param chunkSize
+	 *            count of events loaded per chunk
+	 * @param inline
+	 *            true if the connecting thread is the ui thread
+	 * @param listeners
+	 *            listeners following the progress of the loading
+	 */
+	public ReplayLoader(UIContext ctx, Source source, CoalescingPipe target,
+			int chunkSize, boolean inline, List<ReplayListener> listeners) {
+		super(chunkSize, Backpressure.BLOCK);
+
+		this.ctx = ctx;
+		this.source = source;
+		this.target = target;
+		this.chunkSize = chunkSize;
+		this.inline = inline;
+		this.listeners = listeners;
+		this.deferred = new ArrayList<Record>();
+
+		if (source instanceof Structure) {
+			Structure s = (Structure) source;
+			expectedNodes = s.getNodeCount();
+			expectedEdges = s.getEdgeCount();
+		} else {
+			expectedNodes = -1;
+			expectedEdges = -1;
+		}
+
+		addSink(target);
+	}
+
+	public Source getSource() {
+		return source;
+	}
+
+	/**
+	 * Count of nodes and edges expected, or -1 if unknown.
+	 * 
+	 * @return expected count of elements
+	 */
+	public long getExpectedElements() {
+		return expectedNodes < 0 ? -1 : expectedNodes + expectedEdges;
+	}
+
+	/**
+	 * Count of nodes and edges loaded so far.
+	 * 
+	 * @return count of elements loaded
+	 */
+	public long getLoadedElements() {
+		return elements;
+	}
+
+	/**
+	 * Run the replay. This has to be called by the thread connecting the
+	 * source. If this thread is the ui thread, the replay is completely loaded
+	 * when this returns.
+	 * 
+	 * @param controller
+	 *            the replay controller of the source
+	 */
+	public void replay(Controller controller) {
+		controller.addSink(this);
+
+		try {
+			controller.replay();
+		} finally {
+			controller.removeSink(this);
+			replayed = true;
+		}
+
+		if (inline) {
+			while (!isDone())
+				loadChunk();
+		}
+	}
+
+	/**
+	 * Tell if the replay has been completely loaded, or aborted.
+	 * 
+	 * @return true if there is nothing more to load
+	 */
+	public boolean isDone() {
+		return aborted || (replayed && !hasPendingEvents());
+	}
+
+	/**
+	 * Load the next chunk of events. This has to be called by the ui thread.
+	 * 
+	 * @return the count of events loaded
+	 */
+	public int loadChunk() {
+		if (!prepared)
+			prepare();
+
+		int n = pump(chunkSize);
+		endBatch();
+
+		if (n > 0) {
+			for (int i = 0; i < listeners.size(); i++)
+				listeners.get(i).replayProgress(source, elements,
+						getExpectedElements());
+		}
+
+		if (!doneFired && isDone()) {
+			doneFired = true;
+
+			for (int i = 0; i < listeners.size(); i++)
+				listeners.get(i).replayDone(source, elements);
+		}
+
+		return n;
+	}
+
+	/**
+	 * Stop the loading. Events not loaded yet are discarded, and the thread
+	 * running the replay is released if it waits for some free space. This
+	 * has to be called by the ui thread.
+	 */
+	public void abort() {
+		aborted = true;
+		clearSinks();
+		pump();
+	}
+
+	protected void prepare() {
+		prepared = true;
+		indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+
+		UISwapper swapper = (UISwapper) ctx.getModule(UISwapper.MODULE_ID);
+
+		if (swapper != null && expectedNodes >= 0) {
+			int nodes = indexer == null ? 0 : indexer.getNodeCount();
+			int edges = indexer == null ? 0 : indexer.getEdgeCount();
+
+			swapper.reserve(Type.NODE, (int) (nodes + expectedNodes));
+			swapper.reserve(Type.EDGE, (int) (edges + expectedEdges));
+		}
+	}
+
+	protected void beginBatch() {
+		if (!batching && indexer != null) {
+			indexer.beginBatch();
+			batching = true;
+		}
+	}
+
+	protected void endBatch() {
+		if (!batching)
+			return;
+
+		//
+		// Coalesced events have to reach the indexer before the commit.
+		//
+		target.flush();
+		indexer.commitBatch();
+		batching = false;
+
+		for (int i = 0; i < deferred.size(); i++) {
+			Record r = deferred.get(i);
+			super.dispatch(r.type, r.source, r.time, r.element, r.attribute,
+					r.target, r.oldValue, r.value, r.step);
+		}
+
+		deferred.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.RingBufferProxyPipe#offer(int,
+	 * java.lang.String, long, java.lang.String, java.lang.String,
+	 * java.lang.String, java.lang.Object, java.lang.Object, double)
+	 */
+	@Override
+	protected void offer(int type, String sourceId, long time, String element,
+			String attribute, String target, Object oldValue, Object value,
+			double step) {
+		if (aborted)
+			return;
+
+		//
+		// The ui thread can not wait for itself, so it loads the chunk once
+		// the buffer is full.
+		//
+		if (inline && tail.get() - head >= capacity)
+			loadChunk();
+
+		super.offer(type, sourceId, time, element, attribute, target,
+				oldValue, value, step);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.RingBufferProxyPipe#dispatch(int,
+	 * java.lang.String, long, java.lang.String, java.lang.String,
+	 * java.lang.String, java.lang.Object, java.lang.Object, double)
+	 */
+	@Override
+	protected void dispatch(int type, String source, long time,
+			String element, String attribute, String target, Object oldValue,
+			Object value, double step) {
+		switch (type) {
+		case NODE_ADDED:
+		case EDGE_ADDED:
+		case EDGE_ADDED_DIRECTED:
+			beginBatch();
+			elements++;
+			break;
+		case GRAPH_ATTRIBUTE_ADDED:
+		case GRAPH_ATTRIBUTE_CHANGED:
+		case GRAPH_ATTRIBUTE_REMOVED:
+		case NODE_ATTRIBUTE_ADDED:
+		case NODE_ATTRIBUTE_CHANGED:
+		case NODE_ATTRIBUTE_REMOVED:
+		case EDGE_ATTRIBUTE_ADDED:
+		case EDGE_ATTRIBUTE_CHANGED:
+		case EDGE_ATTRIBUTE_REMOVED:
+			if (batching) {
+				Record r = new Record();
+				r.type = type;
+				r.source = source;
+				r.time = time;
+				r.element = element;
+				r.attribute = attribute;
+				r.target = target;
+				r.oldValue = oldValue;
+				r.value = value;
+				r.step = step;
+
+				deferred.add(r);
+				return;
+			}
+
+			break;
+		default:
+			endBatch();
+			break;
+		}
+
+		super.dispatch(type, source, time, element, attribute, target,
+				oldValue, value, step);
+	}
+}
@@ -0,0 +1,679 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.graphstream.stream.PipeBase;
+import org.graphstream.stream.ProxyPipe;
+
+/**
+ * A proxy pipe transmitting events from several source threads to the ui
+ * thread through a preallocated ring buffer.
+ * 
+ * Events are encoded in parallel arrays, one slot per event. Ids are stored
+ * as references, like the values, and are released with their slot. Each slot
+ * has a sequence number telling producers when it is free and the consumer
+ * when it is published, so producers only contend on a single counter and
+ * never take a lock. Events of a same producer thread are dispatched in their
+ * order.
+ * 
+ * Only one thread, the ui thread, should call the pump methods.
+ */
+public class RingBufferProxyPipe extends PipeBase implements ProxyPipe {
+	/**
+	 * Defines what producers do when the ring buffer is full.
+	 */
+	public static enum Backpressure {
+		/**
+		 * Producers wait until the consumer has freed some slots.
+		 */
+		BLOCK,
+		/**
+		 * Attribute changes are dropped while the buffer is full, other events
+		 * wait for a free slot. A later change of the same attribute will
+		 * carry the new value.
+		 */
+		DROP_ATTRIBUTE_CHANGES,
+		/**
+		 * Events that do not fit in the buffer are stored in an unbounded
+		 * overflow queue, dispatched after the buffer has been drained.
+		 */
+		GROW
+	}
+
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	protected static final int GRAPH_ATTRIBUTE_ADDED = 0;
+	protected static final int GRAPH_ATTRIBUTE_CHANGED = 1;
+	protected static final int GRAPH_ATTRIBUTE_REMOVED = 2;
+	protected static final int NODE_ATTRIBUTE_ADDED = 3;
+	protected static final int NODE_ATTRIBUTE_CHANGED = 4;
+	protected static final int NODE_ATTRIBUTE_REMOVED = 5;
+	protected static final int EDGE_ATTRIBUTE_ADDED = 6;
+	protected static final int EDGE_ATTRIBUTE_CHANGED = 7;
+	protected static final int EDGE_ATTRIBUTE_REMOVED = 8;
+	protected static final int NODE_ADDED = 9;
+	protected static final int NODE_REMOVED = 10;
+	protected static final int EDGE_ADDED = 11;
+	protected static final int EDGE_ADDED_DIRECTED = 12;
+	protected static final int EDGE_REMOVED = 13;
+	protected static final int GRAPH_CLEARED = 14;
+	protected static final int STEP_BEGINS = 15;
+
+	protected static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	protected final Backpressure backpressure;
+
+	protected final int capacity;
+
+	protected final int mask;
+
+	//
+	// Slot sequences. A slot at position p is free for the producer claiming
+	// p when its sequence is p, and published for the consumer when its
+	// sequence is p + 1.
+	//
+	protected final AtomicLongArray sequences;
+
+	protected final AtomicLong tail;
+
+	protected long head;
+
+	//
+	// Event records.
+	//
+	protected final int[] types;
+	protected final String[] sources;
+	protected final long[] times;
+	protected final String[] elements;
+	protected final String[] attributes;
+	protected final String[] targets;
+	protected final Object[] values;
+	protected final Object[] oldValues;
+	protected final double[] steps;
+
+	//
+	// Overflow used by the GROW backpressure.
+	//
+	protected final Queue<Record> overflow;
+	protected final AtomicInteger overflowCount;
+
+	protected final AtomicLong droppedCount;
+
+	public RingBufferProxyPipe() {
+		this(DEFAULT_CAPACITY, Backpressure.BLOCK);
+	}
+
+	/**
+	 * Create a new ring buffer proxy.
+	 * 
+	 * @param capacity
+	 *            number of slots of the buffer, rounded to the next power of
+	 *            two
+	 * @param backpressure
+	 *            what to do when the buffer is full
+	 */
+	public RingBufferProxyPipe(int capacity, Backpressure backpressure) {
+		if (capacity <= 0 || capacity > (1 << 30))
+			throw new IllegalArgumentException("invalid capacity " + capacity);
+
+		int c = 1;
+
+		while (c < capacity)
+			c <<= 1;
+
+		this.capacity = c;
+		this.mask = this.capacity - 1;
+		this.backpressure = backpressure;
+
+		sequences = new AtomicLongArray(this.capacity);
+
+		for (int i = 0; i < this.capacity; i++)
+			sequences.set(i, i);
+
+		tail = new AtomicLong(0);
+		head = 0;
+
+		types = new int[this.capacity];
+		sources = new String[this.capacity];
+		times = new long[this.capacity];
+		elements = new String[this.capacity];
+		attributes = new String[this.capacity];
+		targets = new String[this.capacity];
+		values = new Object[this.capacity];
+		oldValues = new Object[this.capacity];
+		steps = new double[this.capacity];
+
+		overflow = new ArrayDeque<Record>();
+		overflowCount = new AtomicInteger(0);
+		droppedCount = new AtomicLong(0);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public Backpressure getBackpressure() {
+		return backpressure;
+	}
+
+	/**
+	 * Number of attribute changes dropped because the buffer was full.
+	 * 
+	 * @return the count of dropped events
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * Number of events waiting in the overflow queue.
+	 * 
+	 * @return the size of the overflow
+	 */
+	public int getOverflowSize() {
+		return overflowCount.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.ProxyPipe#pump()
+	 */
+	@Override
+	public void pump() {
+		pump(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Dispatch at most a given count of pending events.
+	 * 
+	 * @param maxEvents
+	 *            maximum count of events to dispatch
+	 * @return the count of events dispatched
+	 */
+	public int pump(int maxEvents) {
+		int n = drain(maxEvents);
+
+		//
+		// The overflow is only dispatched once every slot claimed before it
+		// has been dispatched, so events of a producer stay ordered.
+		//
+		if (n < maxEvents && overflowCount.get() > 0 && head == tail.get()) {
+			synchronized (overflow) {
+				Record r;
+
+				while (n < maxEvents && (r = overflow.poll()) != null) {
+					overflowCount.decrementAndGet();
+					dispatch(r.type, r.source, r.time, r.element, r.attribute,
+							r.target, r.oldValue, r.value, r.step);
+					n++;
+				}
+			}
+		}
+
+		return n;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.ProxyPipe#blockingPump()
+	 */
+	@Override
+	public void blockingPump() throws InterruptedException {
+		while (!hasPendingEvents()) {
+			LockSupport.parkNanos(PARK_NANOS);
+
+			if (Thread.interrupted())
+				throw new InterruptedException();
+		}
+
+		pump();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.ProxyPipe#blockingPump(long)
+	 */
+	@Override
+	public void blockingPump(long timeout) throws InterruptedException {
+		long deadline = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(timeout);
+
+		while (!hasPendingEvents() && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(PARK_NANOS);
+
+			if (Thread.interrupted())
+				throw new InterruptedException();
+		}
+
+		pump();
+	}
+
+	protected boolean hasPendingEvents() {
+		return tail.get() != head || overflowCount.get() > 0;
+	}
+
+	protected int drain(int maxEvents) {
+		int n = 0;
+
+		while (n < maxEvents) {
+			int index = (int) (head & mask);
+
+			if (sequences.get(index) != head + 1)
+				break;
+
+			Object value = values[index];
+			Object oldValue = oldValues[index];
+			String source = sources[index];
+			String element = elements[index];
+			String attribute = attributes[index];
+			String target = targets[index];
+
+			values[index] = null;
+			oldValues[index] = null;
+			sources[index] = null;
+			elements[index] = null;
+			attributes[index] = null;
+			targets[index] = null;
+
+			int type = types[index];
+			long time = times[index];
+			double step = steps[index];
+
+			//
+			// Free the slot before dispatching, so producers can go on.
+			//
+			sequences.lazySet(index, head + capacity);
+			head++;
+
+			dispatch(type, source, time, element, attribute, target, oldValue,
+					value, step);
+			n++;
+		}
+
+		return n;
+	}
+
+	protected void dispatch(int type, String sourceId, long time,
+			String element, String attribute, String target, Object oldValue,
+			Object value, double step) {
+		switch (type) {
+		case GRAPH_ATTRIBUTE_ADDED:
+			super.graphAttributeAdded(sourceId, time, attribute, value);
+			break;
+		case GRAPH_ATTRIBUTE_CHANGED:
+			super.graphAttributeChanged(sourceId, time, attribute,
+					oldValue, value);
+			break;
+		case GRAPH_ATTRIBUTE_REMOVED:
+			super.graphAttributeRemoved(sourceId, time, attribute);
+			break;
+		case NODE_ATTRIBUTE_ADDED:
+			super.nodeAttributeAdded(sourceId, time, element,
+					attribute, value);
+			break;
+		case NODE_ATTRIBUTE_CHANGED:
+			super.nodeAttributeChanged(sourceId, time, element,
+					attribute, oldValue, value);
+			break;
+		case NODE_ATTRIBUTE_REMOVED:
+			super.nodeAttributeRemoved(sourceId, time, element,
+					attribute);
+			break;
+		case EDGE_ATTRIBUTE_ADDED:
+			super.edgeAttributeAdded(sourceId, time, element,
+					attribute, value);
+			break;
+		case EDGE_ATTRIBUTE_CHANGED:
+			super.edgeAttributeChanged(sourceId, time, element,
+					attribute, oldValue, value);
+			break;
+		case EDGE_ATTRIBUTE_REMOVED:
+			super.edgeAttributeRemoved(sourceId, time, element,
+					attribute);
+			break;
+		case NODE_ADDED:
+			super.nodeAdded(sourceId, time, element);
+			break;
+		case NODE_REMOVED:
+			super.nodeRemoved(sourceId, time, element);
+			break;
+		case EDGE_ADDED:
+		case EDGE_ADDED_DIRECTED:
+			super.edgeAdded(sourceId, time, element,
+					attribute, target,
+					type == EDGE_ADDED_DIRECTED);
+			break;
+		case EDGE_REMOVED:
+			super.edgeRemoved(sourceId, time, element);
+			break;
+		case GRAPH_CLEARED:
+			super.graphCleared(sourceId, time);
+			break;
+		case STEP_BEGINS:
+			super.stepBegins(sourceId, time, step);
+			break;
+		}
+	}
+
+	/**
+	 * Put an event in the buffer, according to the backpressure policy.
+	 */
+	protected void offer(int type, String sourceId, long time, String element,
+			String attribute, String target, Object oldValue, Object value,
+			double step) {
+		boolean dropable = backpressure == Backpressure.DROP_ATTRIBUTE_CHANGES
+				&& (type == GRAPH_ATTRIBUTE_CHANGED
+						|| type == NODE_ATTRIBUTE_CHANGED || type == EDGE_ATTRIBUTE_CHANGED);
+
+		if (backpressure == Backpressure.GROW && overflowCount.get() > 0) {
+			toOverflow(type, sourceId, time, element, attribute, target,
+					oldValue, value, step);
+			return;
+		}
+
+		while (true) {
+			long pos = tail.get();
+			int index = (int) (pos & mask);
+			long dif = sequences.get(index) - pos;
+
+			if (dif == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					types[index] = type;
+					sources[index] = sourceId;
+					times[index] = time;
+					elements[index] = element;
+					attributes[index] = attribute;
+					targets[index] = target;
+					oldValues[index] = oldValue;
+					values[index] = value;
+					steps[index] = step;
+
+					sequences.lazySet(index, pos + 1);
+					return;
+				}
+			} else if (dif < 0) {
+				//
+				// The buffer is full.
+				//
+				if (dropable) {
+					droppedCount.incrementAndGet();
+					return;
+				} else if (backpressure == Backpressure.GROW) {
+					toOverflow(type, sourceId, time, element, attribute,
+							target, oldValue, value, step);
+					return;
+				}
+
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+	}
+
+	protected void toOverflow(int type, String source, long time,
+			String element, String attribute, String target, Object oldValue,
+			Object value, double step) {
+		Record r = new Record();
+		r.type = type;
+		r.source = source;
+		r.time = time;
+		r.element = element;
+		r.attribute = attribute;
+		r.target = target;
+		r.oldValue = oldValue;
+		r.value = value;
+		r.step = step;
+
+		synchronized (overflow) {
+			overflow.add(r);
+			overflowCount.incrementAndGet();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#graphAttributeAdded(java.lang.String,
+	 * long, java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void graphAttributeAdded(String sourceId, long timeId,
+			String attribute, Object value) {
+		offer(GRAPH_ATTRIBUTE_ADDED, sourceId, timeId, null, attribute, null,
+				null, value, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#graphAttributeChanged(java.lang.String,
+	 * long, java.lang.String, java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public void graphAttributeChanged(String sourceId, long timeId,
+			String attribute, Object oldValue, Object newValue) {
+		offer(GRAPH_ATTRIBUTE_CHANGED, sourceId, timeId, null, attribute, null,
+				oldValue, newValue, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#graphAttributeRemoved(java.lang.String,
+	 * long, java.lang.String)
+	 */
+	@Override
+	public void graphAttributeRemoved(String sourceId, long timeId,
+			String attribute) {
+		offer(GRAPH_ATTRIBUTE_REMOVED, sourceId, timeId, null, attribute, null,
+				null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#nodeAttributeAdded(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void nodeAttributeAdded(String sourceId, long timeId,
+			String nodeId, String attribute, Object value) {
+		offer(NODE_ATTRIBUTE_ADDED, sourceId, timeId, nodeId, attribute, null,
+				null, value, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#nodeAttributeChanged(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void nodeAttributeChanged(String sourceId, long timeId,
+			String nodeId, String attribute, Object oldValue, Object newValue) {
+		offer(NODE_ATTRIBUTE_CHANGED, sourceId, timeId, nodeId, attribute,
+				null, oldValue, newValue, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#nodeAttributeRemoved(java.lang.String,
+	 * long, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public void nodeAttributeRemoved(String sourceId, long timeId,
+			String nodeId, String attribute) {
+		offer(NODE_ATTRIBUTE_REMOVED, sourceId, timeId, nodeId, attribute,
+				null, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#edgeAttributeAdded(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void edgeAttributeAdded(String sourceId, long timeId,
+			String edgeId, String attribute, Object value) {
+		offer(EDGE_ATTRIBUTE_ADDED, sourceId, timeId, edgeId, attribute, null,
+				null, value, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#edgeAttributeChanged(java.lang.String,
+	 * long, java.lang.String, java.lang.String, java.lang.Object,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void edgeAttributeChanged(String sourceId, long timeId,
+			String edgeId, String attribute, Object oldValue, Object newValue) {
+		offer(EDGE_ATTRIBUTE_CHANGED, sourceId, timeId, edgeId, attribute,
+				null, oldValue, newValue, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.stream.PipeBase#edgeAttributeRemoved(java.lang.String,
+	 * long, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public void edgeAttributeRemoved(String sourceId, long timeId,
+			String edgeId, String attribute) {
+		offer(EDGE_ATTRIBUTE_REMOVED, sourceId, timeId, edgeId, attribute,
+				null, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#nodeAdded(java.lang.String, long,
+	 * java.lang.String)
+	 */
+	@Override
+	public void nodeAdded(String sourceId, long timeId, String nodeId) {
+		offer(NODE_ADDED, sourceId, timeId, nodeId, null, null, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#nodeRemoved(java.lang.String, long,
+	 * java.lang.String)
+	 */
+	@Override
+	public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+		offer(NODE_REMOVED, sourceId, timeId, nodeId, null, null, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#edgeAdded(java.lang.String, long,
+	 * java.lang.String, java.lang.String, java.lang.String, boolean)
+	 */
+	@Override
+	public void edgeAdded(String sourceId, long timeId, String edgeId,
+			String fromNodeId, String toNodeId, boolean directed) {
+		offer(directed ? EDGE_ADDED_DIRECTED : EDGE_ADDED, sourceId, timeId,
+				edgeId, fromNodeId, toNodeId, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#edgeRemoved(java.lang.String, long,
+	 * java.lang.String)
+	 */
+	@Override
+	public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+		offer(EDGE_REMOVED, sourceId, timeId, edgeId, null, null, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#graphCleared(java.lang.String, long)
+	 */
+	@Override
+	public void graphCleared(String sourceId, long timeId) {
+		offer(GRAPH_CLEARED, sourceId, timeId, null, null, null, null, null, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.stream.PipeBase#stepBegins(java.lang.String, long,
+	 * double)
+	 */
+	@Override
+	public void stepBegins(String sourceId, long timeId, double step) {
+		offer(STEP_BEGINS, sourceId, timeId, null, null, null, null, null,
+				step);
+	}
+
+	/**
+	 * An event stored in the overflow queue.
+	 */
+	protected static class Record {
+		int type;
+		String source;
+		long time;
+		String element;
+		String attribute;
+		String target;
+		Object oldValue;
+		Object value;
+		double step;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+/**
+ * Receives the durations measured during the tick of a context. A profiler is
+ * installed with {@link org.graphstream.nui.UIContext#setTickProfiler}. When
+ * no profiler is installed, the tick does not measure anything.
+ * 
+ * All methods are called inside the context thread and durations are given in
+ * nanoseconds.
+ */
+public interface TickProfiler {
+	/**
+	 * The phases of a tick, in their execution order.
+	 */
+	public static enum Phase {
+		/**
+		 * Synchronization and dispatching of the events of the sources, and
+		 * execution of the invocations posted since the last tick.
+		 */
+		SYNC,
+		/**
+		 * Execution of the tick tasks.
+		 */
+		TASKS,
+		/**
+		 * The "pre-process" phase of workers.
+		 */
+		PRE_PROCESS,
+		/**
+		 * Update of the views, while workers are running.
+		 */
+		RENDERING,
+		/**
+		 * Time spent waiting for workers after the rendering is done.
+		 */
+		WORKERS_WAIT,
+		/**
+		 * The "post-process" phase of workers.
+		 */
+		POST_PROCESS
+	}
+
+	void phaseDone(Phase phase, long duration);
+
+	void taskDone(String taskId, long duration);
+
+	/**
+	 * Called at the end of each tick.
+	 * 
+	 * @param duration
+	 *            duration of the whole tick
+	 * @param tickLength
+	 *            the expected length of a tick
+	 */
+	void tickDone(long duration, long tickLength);
+}
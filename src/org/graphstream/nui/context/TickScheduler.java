@@ -0,0 +1,365 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schedules the tick tasks of a context inside a time budget.
+ * 
+ * At each tick, due tasks are run by decreasing priority. The cost of each
+ * task is estimated from its previous runs with an exponentially weighted
+ * moving average. A task that is not deferrable is always run. A deferrable
+ * task is postponed to the next tick if its estimated cost does not fit in
+ * what remains of the budget, unless it has already been postponed
+ * {@link #MAX_DEFERRALS} times in a row. Once all due tasks have been handled,
+ * {@link IncrementalTickTask} with more work to do are run again while the
+ * budget allows it.
+ * 
+ * A scheduler created without budget runs on a virtual clock advancing by one
+ * tick length at each call to
+ * {@link #runTasks(long, long, long, TickProfiler)}. It never postpones tasks
+ * and never gives them extra runs, so the tasks run in a reproducible order,
+ * regardless of the time they take.
+ * 
+ * This scheduler is only used inside the context thread.
+ */
+public class TickScheduler {
+	private static final Logger LOGGER = Logger.getLogger(TickScheduler.class
+			.getName());
+
+	/**
+	 * Defines what happens to a periodic task that could not be run on time.
+	 */
+	public static enum OverrunPolicy {
+		/**
+		 * Late executions are kept : the task is scheduled relatively to its
+		 * previous expected date, so it runs on the next ticks until it has
+		 * caught up.
+		 */
+		CATCH_UP,
+		/**
+		 * Late executions are dropped : the task is scheduled relatively to
+		 * the start of the tick of its last run.
+		 */
+		DROP
+	}
+
+	/**
+	 * Number of consecutive ticks a deferrable task can be postponed before
+	 * being run regardless of the budget.
+	 */
+	public static final int MAX_DEFERRALS = 10;
+
+	/**
+	 * Weight of the last run in the estimation of the cost of a task.
+	 */
+	public static final double COST_SMOOTHING = 0.2;
+
+	protected final Map<String, ScheduledTask> tasks;
+
+	protected final List<ScheduledTask> due;
+
+	protected OverrunPolicy policy;
+
+	protected final boolean budgeted;
+
+	protected long virtualTime;
+
+	protected final Comparator<ScheduledTask> order = new Comparator<ScheduledTask>() {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.Comparator#compare(java.lang.Object,
+		 * java.lang.Object)
+		 */
+		@Override
+		public int compare(ScheduledTask t1, ScheduledTask t2) {
+			int r = Integer.compare(t2.task.getPriority(),
+					t1.task.getPriority());
+
+			if (r == 0)
+				r = Long.compare(t1.nextExecutionDate, t2.nextExecutionDate);
+
+			return r;
+		}
+	};
+
+	public TickScheduler() {
+		this(true);
+	}
+
+	/**
+	 * Create a new scheduler.
+	 * 
+	 * @param budgeted
+	 *            if false, the scheduler ignores the budget and uses a
+	 *            virtual clock
+	 */
+	public TickScheduler(boolean budgeted) {
+		this.tasks = new LinkedHashMap<String, ScheduledTask>();
+		this.due = new ArrayList<ScheduledTask>();
+		this.policy = OverrunPolicy.DROP;
+		this.budgeted = budgeted;
+		this.virtualTime = 0;
+	}
+
+	public boolean isBudgeted() {
+		return budgeted;
+	}
+
+	public OverrunPolicy getOverrunPolicy() {
+		return policy;
+	}
+
+	public void setOverrunPolicy(OverrunPolicy policy) {
+		this.policy = policy;
+	}
+
+	/**
+	 * Add a new task. The first execution of the task will happen one cycle
+	 * after now.
+	 * 
+	 * @param id
+	 *            id of the task
+	 * @param task
+	 *            the task
+	 * @param tickLength
+	 *            the current tick length, in nanoseconds
+	 */
+	public void add(String id, TickTask task, long tickLength) {
+		if (tasks.containsKey(id))
+			LOGGER.warning(String.format("task \"%s\" replaced", id));
+
+		ScheduledTask st = new ScheduledTask(id, task);
+		st.nextExecutionDate = now() + st.getPeriod(tickLength);
+
+		tasks.put(id, st);
+	}
+
+	public boolean remove(String id) {
+		return tasks.remove(id) != null;
+	}
+
+	public boolean contains(String id) {
+		return tasks.containsKey(id);
+	}
+
+	/**
+	 * Get the estimated cost of a task, in nanoseconds.
+	 * 
+	 * @param id
+	 *            id of the task
+	 * @return the estimated cost, or -1 if the task does not exist or has
+	 *         never been run
+	 */
+	public long getEstimatedCost(String id) {
+		ScheduledTask st = tasks.get(id);
+		return st == null || st.runs == 0 ? -1 : (long) st.cost;
+	}
+
+	/**
+	 * Run the due tasks, taking now as the start of the tick.
+	 * 
+	 * @see #runTasks(long, long, long, TickProfiler)
+	 */
+	public void runTasks(long deadline, long tickLength, TickProfiler profiler) {
+		runTasks(now(), deadline, tickLength, profiler);
+	}
+
+	/**
+	 * Run the due tasks. A task is due if its next execution date falls
+	 * before the middle of the tick, so a task expected at the next tick is
+	 * not missed because the tick starts slightly early.
+	 * 
+	 * @param tickStart
+	 *            date, as given by {@link System#nanoTime()}, at which the
+	 *            tick started. This is ignored without budget.
+	 * @param deadline
+	 *            date, as given by {@link System#nanoTime()}, after which
+	 *            deferrable tasks should not be run anymore
+	 * @param tickLength
+	 *            the current tick length, in nanoseconds
+	 * @param profiler
+	 *            the profiler receiving task durations, or null
+	 */
+	public void runTasks(long tickStart, long deadline, long tickLength,
+			TickProfiler profiler) {
+		if (!budgeted) {
+			virtualTime += tickLength;
+			tickStart = virtualTime;
+		}
+
+		long now = now();
+		long slot = tickStart + tickLength / 2;
+
+		due.clear();
+
+		for (ScheduledTask st : tasks.values())
+			if (st.nextExecutionDate <= slot)
+				due.add(st);
+
+		Collections.sort(due, order);
+
+		for (int i = 0; i < due.size(); i++) {
+			ScheduledTask st = due.get(i);
+
+			//
+			// A previous task may have removed this one.
+			//
+			if (tasks.get(st.id) != st)
+				continue;
+
+			if (budgeted && st.task.isDeferrable()
+					&& st.deferrals < MAX_DEFERRALS
+					&& now + (long) st.cost > deadline) {
+				st.deferrals++;
+				continue;
+			}
+
+			now = run(st, tickStart, tickLength, profiler);
+		}
+
+		//
+		// Remaining budget is given to incremental tasks that still have
+		// work to do.
+		//
+		boolean more = budgeted;
+
+		while (more) {
+			more = false;
+
+			for (int i = 0; i < due.size(); i++) {
+				ScheduledTask st = due.get(i);
+
+				if (st.deferrals > 0 || tasks.get(st.id) != st
+						|| !(st.task instanceof IncrementalTickTask)
+						|| !((IncrementalTickTask) st.task).hasMoreWork()
+						|| now + (long) st.cost > deadline)
+					continue;
+
+				now = runOnce(st, profiler);
+				more = true;
+			}
+		}
+
+		due.clear();
+	}
+
+	protected long run(ScheduledTask st, long tickStart, long tickLength,
+			TickProfiler profiler) {
+		long now = runOnce(st, profiler);
+
+		st.deferrals = 0;
+
+		if (!st.task.isPeriodic()) {
+			tasks.remove(st.id);
+			return now;
+		}
+
+		long period = st.getPeriod(tickLength);
+
+		switch (policy) {
+		case CATCH_UP:
+			st.nextExecutionDate += period;
+			break;
+		default:
+			//
+			// Anchored on the start of the tick rather than the end of the
+			// run, else the next tick, which reads the clock after the sync,
+			// would see the task as not yet due.
+			//
+			st.nextExecutionDate = Math.max(st.nextExecutionDate + period,
+					tickStart + period);
+			break;
+		}
+
+		return now;
+	}
+
+	protected long runOnce(ScheduledTask st, TickProfiler profiler) {
+		long start = System.nanoTime();
+
+		try {
+			st.task.run();
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.SEVERE,
+					String.format("task \"%s\" failed", st.id), e);
+		}
+
+		long end = System.nanoTime();
+		long duration = end - start;
+
+		if (st.runs++ == 0)
+			st.cost = duration;
+		else
+			st.cost = COST_SMOOTHING * duration + (1 - COST_SMOOTHING)
+					* st.cost;
+
+		if (profiler != null)
+			profiler.taskDone(st.id, duration);
+
+		return budgeted ? end : virtualTime;
+	}
+
+	protected long now() {
+		return budgeted ? System.nanoTime() : virtualTime;
+	}
+
+	protected static class ScheduledTask {
+		protected final String id;
+		protected final TickTask task;
+		protected long nextExecutionDate;
+		protected double cost;
+		protected long runs;
+		protected int deferrals;
+
+		ScheduledTask(String id, TickTask task) {
+			this.id = id;
+			this.task = task;
+			this.cost = 0;
+			this.runs = 0;
+			this.deferrals = 0;
+		}
+
+		long getPeriod(long tickLength) {
+			return Math.max(1, task.getCycleLength()) * tickLength;
+		}
+	}
+}
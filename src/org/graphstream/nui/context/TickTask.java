@@ -31,8 +31,40 @@
  */
 package org.graphstream.nui.context;
 
+/**
+ * A task run inside the context thread, during the tick, every
+ * {@link #getCycleLength()} ticks.
+ * 
+ * @see TickScheduler
+ */
 public interface TickTask extends Runnable {
+	public static final int PRIORITY_LOW = -10;
+
+	public static final int PRIORITY_NORMAL = 0;
+
+	public static final int PRIORITY_HIGH = 10;
+
+	/**
+	 * Number of ticks between two runs of this task.
+	 * 
+	 * @return the cycle length, in ticks
+	 */
 	int getCycleLength();
 
 	boolean isPeriodic();
+
+	/**
+	 * Due tasks with a higher priority are run first.
+	 * 
+	 * @return the priority of this task
+	 */
+	int getPriority();
+
+	/**
+	 * A deferrable task can be postponed to the next tick when the time budget
+	 * of the current tick is exhausted.
+	 * 
+	 * @return true if this task can be postponed
+	 */
+	boolean isDeferrable();
 }
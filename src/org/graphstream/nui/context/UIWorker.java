@@ -33,12 +33,42 @@ package org.graphstream.nui.context;
 
 import org.graphstream.nui.context.worker.WorkerTask;
 
+/**
+ * A worker runs a {@link WorkerTask} in its own thread. The context drives the
+ * worker during each tick : the pre-process phase of the task is run inside
+ * the ui thread, then the worker is signaled and runs the main part of the
+ * task while the ui thread does the rendering. The context waits for all
+ * workers to be done before running the post-process phase, once again inside
+ * the ui thread.
+ */
 public interface UIWorker extends Runnable {
 	String getWorkerID();
 
+	/**
+	 * Initialize the task and start the thread of this worker.
+	 */
 	void init();
 
 	WorkerTask getWorkerTask();
 
+	/**
+	 * Let the worker run its task once. This is called by the context once the
+	 * pre-process phase of the task is done.
+	 */
+	void signalRun();
+
+	/**
+	 * Wait until the run started with the last call to {@link #signalRun()}
+	 * is done. Nothing happens if the worker has not been signaled.
+	 * 
+	 * @throws InterruptedException
+	 */
+	void awaitRun() throws InterruptedException;
+
+	/**
+	 * Stop the thread of this worker and release the task.
+	 * 
+	 * @throws InterruptedException
+	 */
 	void terminate() throws InterruptedException;
 }
@@ -33,8 +33,42 @@ package org.graphstream.nui.context;
 
 import org.graphstream.nui.context.worker.WorkerTask;
 
+/**
+ * Holds the workers of a context and drives them through the phases of the
+ * tick.
+ */
 public interface WorkerManager {
 	void createWorker(String id, WorkerTask task);
-	
+
 	void terminateWorker(String id);
+
+	boolean hasWorker(String id);
+
+	/**
+	 * Run the pre-process phase of all the workers, inside the calling thread.
+	 */
+	void preProcess();
+
+	/**
+	 * Signal all the workers to run their task.
+	 */
+	void startWorkers();
+
+	/**
+	 * Wait for all the workers signaled by {@link #startWorkers()}.
+	 * 
+	 * @throws InterruptedException
+	 */
+	void awaitWorkers() throws InterruptedException;
+
+	/**
+	 * Run the post-process phase of all the workers, inside the calling
+	 * thread.
+	 */
+	void postProcess();
+
+	/**
+	 * Terminate all the workers.
+	 */
+	void terminateAll();
 }
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.connector;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.graphstream.nui.context.RingBufferProxyPipe;
+import org.graphstream.stream.Sink;
+import org.graphstream.stream.Source;
+
+/**
+ * A connector runs a {@link SourceReader} inside its own daemon thread. Events
+ * produced by the reader are queued in a ring buffer owned by the connector,
+ * and dispatched to the context by the ui thread, once per tick. Events of a
+ * connector are dispatched in the order they have been read.
+ * 
+ * When the buffer is full, only the thread of this connector waits : a slow
+ * reader, or a reader producing too much events, never blocks the other
+ * connectors or the ui.
+ * 
+ * The connector maintains some statistics about the reading : count of events
+ * read and delivered, lag (events read but not delivered yet) and rates.
+ */
+public class Connector {
+	private static final Logger LOGGER = Logger.getLogger(Connector.class
+			.getName());
+
+	public static enum State {
+		/**
+		 * The reader has not started yet.
+		 */
+		CREATED,
+		/**
+		 * The reader is reading its input.
+		 */
+		RUNNING,
+		/**
+		 * The reader has read all its input.
+		 */
+		FINISHED,
+		/**
+		 * The reader has thrown an exception, see {@link Connector#getFailure()}
+		 * .
+		 */
+		FAILED,
+		/**
+		 * The connector has been closed before the end of the reading.
+		 */
+		CLOSED
+	}
+
+	/**
+	 * Default number of events of the buffer of a connector.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 12;
+
+	/**
+	 * Minimal period between two samples of the rates.
+	 */
+	public static final long SAMPLE_PERIOD = TimeUnit.MILLISECONDS
+			.toNanos(250);
+
+	/**
+	 * Weight of the last sample in the rates.
+	 */
+	public static final double RATE_SMOOTHING = 0.2;
+
+	/**
+	 * Time given to the reader to end when the connector is closed.
+	 */
+	public static final long CLOSE_TIMEOUT = 2000;
+
+	protected final String id;
+
+	protected final SourceReader reader;
+
+	protected final CountingPipe pipe;
+
+	protected Thread thread;
+
+	protected volatile State state;
+
+	protected volatile boolean running;
+
+	protected volatile Exception failure;
+
+	//
+	// Sampling of the rates, done by the ui thread.
+	//
+	protected long sampleTime;
+	protected long sampleRead;
+	protected long sampleDelivered;
+	protected volatile double readRate;
+	protected volatile double deliveryRate;
+
+	public Connector(String id, SourceReader reader) {
+		this(id, reader, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new connector. The connector has to be started to begin the
+	 * reading.
+	 * 
+	 * @param id
+	 *            id of the connector
+	 * @param reader
+	 *            the reader run by this connector
+	 * @param capacity
+	 *            number of events of the buffer
+	 */
+	public Connector(String id, SourceReader reader, int capacity) {
+		this.id = id;
+		this.reader = reader;
+		this.pipe = new CountingPipe(capacity);
+		this.state = State.CREATED;
+		this.running = false;
+		this.readRate = 0;
+		this.deliveryRate = 0;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public SourceReader getReader() {
+		return reader;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * The exception thrown by the reader if the state is
+	 * {@link State#FAILED}.
+	 * 
+	 * @return the failure, or null
+	 */
+	public Exception getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Count of events read since the start of this connector.
+	 * 
+	 * @return count of events read
+	 */
+	public long getReadCount() {
+		return pipe.offered.get();
+	}
+
+	/**
+	 * Count of events dispatched to the context since the start of this
+	 * connector.
+	 * 
+	 * @return count of events delivered
+	 */
+	public long getDeliveredCount() {
+		return pipe.dispatched;
+	}
+
+	/**
+	 * Count of events read but not yet delivered to the context.
+	 * 
+	 * @return the lag, in events
+	 */
+	public long getLag() {
+		return Math.max(0, getReadCount() - getDeliveredCount());
+	}
+
+	/**
+	 * Smoothed rate of events read, in events per second.
+	 * 
+	 * @return the read rate
+	 */
+	public double getReadRate() {
+		return readRate;
+	}
+
+	/**
+	 * Smoothed rate of events delivered to the context, in events per second.
+	 * 
+	 * @return the delivery rate
+	 */
+	public double getDeliveryRate() {
+		return deliveryRate;
+	}
+
+	/**
+	 * Tell if this connector will not deliver any new event.
+	 * 
+	 * @return true if the reading is over and all events have been delivered
+	 */
+	public boolean isDone() {
+		State s = state;
+		return s != State.CREATED && s != State.RUNNING && getLag() == 0;
+	}
+
+	/**
+	 * Start the thread of this connector. Events will be delivered to the
+	 * given sink.
+	 * 
+	 * @param sink
+	 *            sink receiving the events, on pumps
+	 */
+	public void start(Sink sink) {
+		if (state != State.CREATED)
+			throw new IllegalStateException("connector already started");
+
+		pipe.addSink(sink);
+		reader.getSource().addSink(pipe);
+
+		running = true;
+		state = State.RUNNING;
+		sampleTime = System.nanoTime();
+
+		thread = new Thread(new Runnable() {
+			public void run() {
+				read();
+			}
+		}, "gs-nui-connector-" + id);
+
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Dispatch the pending events. This has to be called by the ui thread.
+	 */
+	public void pump() {
+		pipe.pump();
+		sample(System.nanoTime());
+	}
+
+	/**
+	 * Stop the reader and wait for the end of its thread. Events not delivered
+	 * yet are discarded. This has to be called by the ui thread.
+	 */
+	public void close() {
+		if (state == State.CREATED) {
+			state = State.CLOSED;
+			return;
+		}
+
+		running = false;
+		thread.interrupt();
+		pipe.clearSinks();
+
+		//
+		// The reader may be waiting for some free slots, so the buffer is
+		// emptied until the thread is over.
+		//
+		long deadline = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT);
+
+		try {
+			while (thread.isAlive() && System.nanoTime() < deadline) {
+				pipe.pump();
+				thread.join(10);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (thread.isAlive())
+			LOGGER.warning(String.format(
+					"reader of connector \"%s\" does not end", id));
+
+		pipe.pump();
+
+		if (state == State.RUNNING)
+			state = State.CLOSED;
+	}
+
+	protected void read() {
+		Source source = reader.getSource();
+
+		try {
+			reader.begin();
+
+			boolean more = true;
+
+			while (more && running && !Thread.currentThread().isInterrupted())
+				more = reader.nextEvents();
+
+			//
+			// Once closed, the end of the reader is not the end of the
+			// source.
+			//
+			if (!more && running)
+				state = State.FINISHED;
+		} catch (IOException | RuntimeException e) {
+			if (running) {
+				failure = e;
+				state = State.FAILED;
+
+				LOGGER.log(Level.WARNING, String.format(
+						"reader of connector \"%s\" failed", id), e);
+			}
+		} finally {
+			try {
+				reader.end();
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, String.format(
+						"failed to end reader of connector \"%s\"", id), e);
+			}
+
+			source.removeSink(pipe);
+		}
+	}
+
+	protected void sample(long now) {
+		long dt = now - sampleTime;
+
+		if (dt < SAMPLE_PERIOD)
+			return;
+
+		long read = getReadCount();
+		long delivered = getDeliveredCount();
+		double s = 1e9 / dt;
+
+		readRate += RATE_SMOOTHING * ((read - sampleRead) * s - readRate);
+		deliveryRate += RATE_SMOOTHING
+				* ((delivered - sampleDelivered) * s - deliveryRate);
+
+		sampleTime = now;
+		sampleRead = read;
+		sampleDelivered = delivered;
+	}
+
+	/**
+	 * Ring buffer counting the events offered by the reader and dispatched to
+	 * the context.
+	 */
+	protected static class CountingPipe extends RingBufferProxyPipe {
+		protected final AtomicLong offered;
+
+		//
+		// Only written by the ui thread.
+		//
+		protected volatile long dispatched;
+
+		protected CountingPipe(int capacity) {
+			super(capacity, Backpressure.BLOCK);
+
+			offered = new AtomicLong(0);
+			dispatched = 0;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.RingBufferProxyPipe#offer(int,
+		 * java.lang.String, long, java.lang.String, java.lang.String,
+		 * java.lang.String, java.lang.Object, java.lang.Object, double)
+		 */
+		@Override
+		protected void offer(int type, String sourceId, long time,
+				String element, String attribute, String target,
+				Object oldValue, Object value, double step) {
+			super.offer(type, sourceId, time, element, attribute, target,
+					oldValue, value, step);
+			offered.incrementAndGet();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.RingBufferProxyPipe#dispatch(int,
+		 * java.lang.String, long, java.lang.String, java.lang.String,
+		 * java.lang.String, java.lang.Object, java.lang.Object, double)
+		 */
+		@Override
+		protected void dispatch(int type, String source, long time,
+				String element, String attribute, String target,
+				Object oldValue, Object value, double step) {
+			dispatched++;
+			super.dispatch(type, source, time, element, attribute, target,
+					oldValue, value, step);
+		}
+	}
+}
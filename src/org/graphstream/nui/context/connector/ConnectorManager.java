@@ -0,0 +1,137 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.connector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graphstream.stream.Sink;
+
+/**
+ * Holds the connectors of a context. Connectors are pumped in the order they
+ * have been opened, so events of each connector are delivered in order, and
+ * the streams of the different connectors are merged at each pump.
+ * 
+ * Methods of the manager are synchronized, so that the presence of connectors
+ * can be checked from any thread, but opening, closing and pumping connectors
+ * is the job of the ui thread.
+ */
+public class ConnectorManager {
+	protected final Map<String, Connector> connectors;
+
+	protected int capacity;
+
+	public ConnectorManager() {
+		connectors = new LinkedHashMap<String, Connector>();
+		capacity = Connector.DEFAULT_CAPACITY;
+	}
+
+	/**
+	 * Set the number of events of the buffers of connectors opened from now.
+	 * 
+	 * @param capacity
+	 *            the new capacity
+	 */
+	public synchronized void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Create and start a new connector.
+	 * 
+	 * @param id
+	 *            id of the connector
+	 * @param reader
+	 *            the reader of the connector
+	 * @param sink
+	 *            the sink receiving the events of the connector
+	 * @return the new connector
+	 */
+	public synchronized Connector open(String id, SourceReader reader,
+			Sink sink) {
+		if (connectors.containsKey(id))
+			throw new IllegalArgumentException(String.format(
+					"connector \"%s\" already exists", id));
+
+		Connector c = new Connector(id, reader, capacity);
+		connectors.put(id, c);
+		c.start(sink);
+
+		return c;
+	}
+
+	/**
+	 * Close a connector.
+	 * 
+	 * @param id
+	 *            id of the connector
+	 * @return false if there is no such connector
+	 */
+	public synchronized boolean close(String id) {
+		Connector c = connectors.remove(id);
+
+		if (c == null)
+			return false;
+
+		c.close();
+		return true;
+	}
+
+	public synchronized Connector get(String id) {
+		return connectors.get(id);
+	}
+
+	public synchronized List<Connector> getConnectors() {
+		return new ArrayList<Connector>(connectors.values());
+	}
+
+	public synchronized boolean isEmpty() {
+		return connectors.isEmpty();
+	}
+
+	/**
+	 * Dispatch the pending events of each connector.
+	 */
+	public synchronized void pump() {
+		for (Connector c : connectors.values())
+			c.pump();
+	}
+
+	public synchronized void closeAll() {
+		for (Connector c : connectors.values())
+			c.close();
+
+		connectors.clear();
+	}
+}
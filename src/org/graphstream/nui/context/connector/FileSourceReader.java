@@ -0,0 +1,121 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.graphstream.stream.Source;
+import org.graphstream.stream.file.FileSource;
+
+/**
+ * A reader using a file source, to read a file or any input stream, a socket
+ * stream for example.
+ */
+public class FileSourceReader implements SourceReader {
+	protected final FileSource source;
+
+	protected final String fileName;
+
+	protected final InputStream stream;
+
+	/**
+	 * Read a file.
+	 * 
+	 * @param source
+	 *            the file source used to parse the file
+	 * @param fileName
+	 *            path of the file
+	 */
+	public FileSourceReader(FileSource source, String fileName) {
+		this.source = source;
+		this.fileName = fileName;
+		this.stream = null;
+	}
+
+	/**
+	 * Read an input stream.
+	 * 
+	 * @param source
+	 *            the file source used to parse the stream
+	 * @param stream
+	 *            the stream
+	 */
+	public FileSourceReader(FileSource source, InputStream stream) {
+		this.source = source;
+		this.fileName = null;
+		this.stream = stream;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.connector.SourceReader#getSource()
+	 */
+	@Override
+	public Source getSource() {
+		return source;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.connector.SourceReader#begin()
+	 */
+	@Override
+	public void begin() throws IOException {
+		if (fileName != null)
+			source.begin(fileName);
+		else
+			source.begin(stream);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.connector.SourceReader#nextEvents()
+	 */
+	@Override
+	public boolean nextEvents() throws IOException {
+		return source.nextEvents();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.connector.SourceReader#end()
+	 */
+	@Override
+	public void end() throws IOException {
+		source.end();
+	}
+}
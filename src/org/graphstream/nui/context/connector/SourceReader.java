@@ -0,0 +1,78 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.context.connector;
+
+import java.io.IOException;
+
+import org.graphstream.stream.Source;
+
+/**
+ * Something reading events from an input, a file or a socket for example, and
+ * producing them through a source. A reader is run by a {@link Connector},
+ * inside the thread of this connector, so it can block on its input without
+ * blocking the other connectors or the ui.
+ * 
+ * The reading follows the same steps than a file source : {@link #begin()} is
+ * called once, then {@link #nextEvents()} until it returns false, then
+ * {@link #end()}.
+ */
+public interface SourceReader {
+	/**
+	 * The source through which events are produced. The connector registers
+	 * its sink on this source before the reading begins.
+	 * 
+	 * @return the source of events
+	 */
+	Source getSource();
+
+	/**
+	 * Open the input.
+	 * 
+	 * @throws IOException
+	 */
+	void begin() throws IOException;
+
+	/**
+	 * Read some events from the input.
+	 * 
+	 * @return false if there are no more events to read
+	 * @throws IOException
+	 */
+	boolean nextEvents() throws IOException;
+
+	/**
+	 * Close the input. This is called even if the reading has failed.
+	 * 
+	 * @throws IOException
+	 */
+	void end() throws IOException;
+}
@@ -31,12 +31,26 @@
  */
 package org.graphstream.nui.context.worker;
 
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.graphstream.nui.UIContext;
 import org.graphstream.nui.context.UIWorker;
 
+/**
+ * Default worker, running its task inside a dedicated daemon thread.
+ * 
+ * The worker thread sleeps until {@link #signalRun()} is called, then runs the
+ * task once and tells the context that it is done. A pair of semaphores is
+ * used for this : one is released by the context to start a run, the other by
+ * the worker at the end of the run.
+ */
 public class DefaultWorker implements UIWorker {
+	private static final Logger LOGGER = Logger.getLogger(DefaultWorker.class
+			.getName());
+
 	protected final String id;
 	protected final UIContext ctx;
 
@@ -46,10 +60,24 @@ public class DefaultWorker implements UIWorker {
 
 	protected WorkerTask task;
 
-	public DefaultWorker(String id, UIContext ctx) {
+	protected final Semaphore start;
+
+	protected final Semaphore done;
+
+	/**
+	 * Flag telling if the worker has been signaled and not awaited yet. Only
+	 * used by the context thread.
+	 */
+	protected boolean running;
+
+	public DefaultWorker(String id, UIContext ctx, WorkerTask task) {
 		this.id = id;
 		this.ctx = ctx;
+		this.task = task;
 		this.alive = new AtomicBoolean(false);
+		this.start = new Semaphore(0);
+		this.done = new Semaphore(0);
+		this.running = false;
 	}
 
 	/*
@@ -79,8 +107,44 @@ public class DefaultWorker implements UIWorker {
 	 */
 	@Override
 	public void init() {
-		// TODO Auto-generated method stub
-		alive.set(true);
+		if (alive.getAndSet(true)) {
+			LOGGER.warning(String.format("Worker \"%s\" already started", id));
+			return;
+		}
+
+		task.init(ctx, this);
+
+		workerThread = new Thread(this, "gs-nui-worker-" + id);
+		workerThread.setDaemon(true);
+		workerThread.start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.UIWorker#signalRun()
+	 */
+	@Override
+	public void signalRun() {
+		if (!alive.get() || running)
+			return;
+
+		running = true;
+		start.release();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.UIWorker#awaitRun()
+	 */
+	@Override
+	public void awaitRun() throws InterruptedException {
+		if (!running)
+			return;
+
+		done.acquire();
+		running = false;
 	}
 
 	/*
@@ -90,10 +154,18 @@ public class DefaultWorker implements UIWorker {
 	 */
 	@Override
 	public void terminate() throws InterruptedException {
-		alive.set(false);
+		if (!alive.getAndSet(false))
+			return;
+
+		//
+		// Let the current run end before stopping the thread, so the task is
+		// not interrupted in the middle of its computation.
+		//
+		awaitRun();
 
-		workerThread.interrupt();
+		start.release();
 		workerThread.join();
+		workerThread = null;
 
 		task.release();
 	}
@@ -106,7 +178,23 @@ public class DefaultWorker implements UIWorker {
 	@Override
 	public void run() {
 		while (alive.get()) {
+			try {
+				start.acquire();
+			} catch (InterruptedException e) {
+				break;
+			}
+
+			if (!alive.get())
+				break;
 
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.SEVERE,
+						String.format("Worker \"%s\" task failed", id), e);
+			} finally {
+				done.release();
+			}
 		}
 	}
 }
@@ -31,9 +31,33 @@
  */
 package org.graphstream.nui.context.worker;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.graphstream.nui.UIContext;
+import org.graphstream.nui.context.UIWorker;
 import org.graphstream.nui.context.WorkerManager;
 
+/**
+ * Default worker manager, creating a {@link DefaultWorker} for each task.
+ * 
+ * Workers are created, driven and terminated inside the context thread, so the
+ * map of workers does not need to be synchronized.
+ */
 public class DefaultWorkerManager implements WorkerManager {
+	private static final Logger LOGGER = Logger
+			.getLogger(DefaultWorkerManager.class.getName());
+
+	protected final UIContext ctx;
+
+	protected final Map<String, UIWorker> workers;
+
+	public DefaultWorkerManager(UIContext ctx) {
+		this.ctx = ctx;
+		this.workers = new LinkedHashMap<String, UIWorker>();
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -44,8 +68,15 @@ public class DefaultWorkerManager implements WorkerManager {
 	 */
 	@Override
 	public void createWorker(String id, WorkerTask task) {
-		// TODO Auto-generated method stub
+		if (workers.containsKey(id)) {
+			LOGGER.warning(String.format("Worker \"%s\" already created", id));
+			return;
+		}
 
+		UIWorker w = newWorker(id, task);
+		w.init();
+
+		workers.put(id, w);
 	}
 
 	/*
@@ -57,7 +88,93 @@ public class DefaultWorkerManager implements WorkerManager {
 	 */
 	@Override
 	public void terminateWorker(String id) {
-		// TODO Auto-generated method stub
+		UIWorker w = workers.remove(id);
+
+		if (w == null) {
+			LOGGER.warning(String.format("Worker \"%s\" does not exist", id));
+			return;
+		}
+
+		terminate(w);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.WorkerManager#hasWorker(java.lang.String)
+	 */
+	@Override
+	public boolean hasWorker(String id) {
+		return workers.containsKey(id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.WorkerManager#preProcess()
+	 */
+	@Override
+	public void preProcess() {
+		for (UIWorker w : workers.values())
+			w.getWorkerTask().preProcess();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.WorkerManager#startWorkers()
+	 */
+	@Override
+	public void startWorkers() {
+		for (UIWorker w : workers.values())
+			w.signalRun();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.WorkerManager#awaitWorkers()
+	 */
+	@Override
+	public void awaitWorkers() throws InterruptedException {
+		for (UIWorker w : workers.values())
+			w.awaitRun();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.WorkerManager#postProcess()
+	 */
+	@Override
+	public void postProcess() {
+		for (UIWorker w : workers.values())
+			w.getWorkerTask().postProcess();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.WorkerManager#terminateAll()
+	 */
+	@Override
+	public void terminateAll() {
+		for (UIWorker w : workers.values())
+			terminate(w);
+
+		workers.clear();
+	}
+
+	protected UIWorker newWorker(String id, WorkerTask task) {
+		return new DefaultWorker(id, ctx, task);
+	}
 
+	protected void terminate(UIWorker w) {
+		try {
+			w.terminate();
+		} catch (InterruptedException e) {
+			LOGGER.log(Level.SEVERE, String.format(
+					"Failed to terminate worker \"%s\"", w.getWorkerID()), e);
+		}
 	}
 }
@@ -34,13 +34,29 @@ package org.graphstream.nui.context.worker;
 import org.graphstream.nui.UIContext;
 import org.graphstream.nui.context.UIWorker;
 
+/**
+ * The task run by a {@link UIWorker}. Only {@link #run()} is called inside the
+ * worker thread, all the other methods are called inside the context thread.
+ */
 public interface WorkerTask {
 	void init(UIContext ctx, UIWorker worker);
 
+	/**
+	 * Pull, inside the context thread, the data that will be used by the next
+	 * run. No worker is running at this point.
+	 */
 	void preProcess();
-	
+
+	/**
+	 * The main part of the task, run inside the worker thread, at the same
+	 * time as the rendering and the other workers.
+	 */
 	void run();
-	
+
+	/**
+	 * Publish, inside the context thread, the data computed by the last run.
+	 * All the workers are done at this point.
+	 */
 	void postProcess();
 	
 	/**
@@ -31,10 +31,27 @@
  */
 package org.graphstream.nui.dataset;
 
-import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.swapper.DirtyTracker;
 
+/**
+ * Listener of the changes of the coordinates of the nodes.
+ * 
+ * Changes are not dispatched one by one : the dataset collects the nodes whose
+ * coordinates changed, and listeners are notified once per tick with the whole
+ * set of moved nodes, whatever the count of changes.
+ */
 public interface DatasetListener {
-	void nodeMoved(ElementIndex nodeIndex, double x, double y, double z);
-
-	void allNodesMoved();
+	/**
+	 * Called once per tick, inside the ui thread, if some nodes have moved
+	 * since the previous call. Nodes added since the previous call, and nodes
+	 * whose index changed, are part of the moved nodes.
+	 * 
+	 * The tracker is owned by the dataset and is cleared once all the
+	 * listeners have been notified : listeners should read it but not modify
+	 * it, and should not keep it.
+	 * 
+	 * @param movedNodes
+	 *            the indexes of the nodes moved
+	 */
+	void nodesMoved(DirtyTracker movedNodes);
 }
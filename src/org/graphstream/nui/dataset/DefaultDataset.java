@@ -31,9 +31,13 @@
  */
 package org.graphstream.nui.dataset;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 import org.graphstream.nui.AbstractModule;
@@ -48,11 +52,12 @@ import org.graphstream.nui.UIIndexer;
 import org.graphstream.nui.UISwapper.BufferType;
 import org.graphstream.nui.UISwapper.CreationTrigger;
 import org.graphstream.nui.attributes.AttributeHandler;
+import org.graphstream.nui.context.TickTask;
 import org.graphstream.nui.geom.Vector3;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.EdgeIndex;
 import org.graphstream.nui.indexer.ElementIndex.Type;
-import org.graphstream.nui.swapper.UIArrayReference;
+import org.graphstream.nui.swapper.DirtyTracker;
 import org.graphstream.nui.swapper.UIBufferReference;
 import org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference;
 import org.graphstream.nui.util.Tools;
@@ -65,14 +70,54 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	private static final Logger LOGGER = Logger.getLogger(DefaultDataset.class
 			.getName());
 
+	public static final String ATTRIBUTE_DOUBLE_BUFFERING = "doubleBuffering";
+
+	public static final String ATTRIBUTE_INTERPOLATION = "interpolation";
+
+	public static final int PUBLISH_CYCLE_LENGTH = 1;
+
 	public static final double DEFAULT_NODE_WEIGHT = 1.0;
 	public static final double DEFAULT_EDGE_WEIGHT = 1.0;
 
 	protected int dim;
-	protected DoubleBufferReference nodesPoints;
-	protected UIArrayReference<EdgeData> edgesData;
+	protected volatile DoubleBufferReference nodesPoints;
+	/**
+	 * Back buffer of the coordinates, written by the producer when the
+	 * dataset is double buffered. Null if double buffering is disabled.
+	 */
+	protected DoubleBufferReference nodesPointsBack;
+	/**
+	 * Nodes whose coordinates have changed in the published frames which are
+	 * not yet dispatched to the trackers. Protected by the publish lock.
+	 */
+	protected DirtyTracker publishedNodes;
+	/**
+	 * Coordinates of the frame before the front one, kept when interpolation
+	 * is enabled. Null otherwise.
+	 */
+	protected DoubleBufferReference nodesPointsPrevious;
+	/**
+	 * Dates, as given by {@link System#nanoTime()}, at which the front frame
+	 * and the previous frame have been flipped.
+	 */
+	protected volatile long nodesPointsTime, nodesPointsPreviousTime;
+	/**
+	 * Buffer returned by interpolated reads when the caller does not give
+	 * one large enough. It only grows, and is only used by the ui thread.
+	 */
+	protected DoubleBuffer nodesPointsInterpolated;
+	protected final ReentrantLock publishLock;
+	protected volatile boolean publishPending;
+	protected final AtomicLong nodesPointsEpoch;
+	protected EdgePointsPool edgesPoints;
 	protected UIIndexer indexer;
 	protected List<DatasetListener> listeners;
+	protected List<DirtyTracker> nodesTrackers;
+	/**
+	 * Nodes moved since the last notification of the listeners. This is the
+	 * change set given to the listeners.
+	 */
+	protected DirtyTracker movedNodes;
 	protected CoordinatesListener coordinatesListener;
 	protected double defaultNodeWeight = DEFAULT_NODE_WEIGHT;
 	protected double defaultEdgeWeight = DEFAULT_EDGE_WEIGHT;
@@ -89,7 +134,10 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 				UIAttributes.MODULE_ID, UISpace.MODULE_ID, UIRandom.MODULE_ID);
 
 		listeners = new LinkedList<DatasetListener>();
+		nodesTrackers = new LinkedList<DirtyTracker>();
 		coordinatesListener = new CoordinatesListener();
+		publishLock = new ReentrantLock();
+		nodesPointsEpoch = new AtomicLong();
 	}
 
 	/*
@@ -138,28 +186,30 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 
 					for (int i = 0; i < buffer.getComponentsCount(); i++)
 						dbuffer.setDouble(index, i, xyz[i]);
+
+					//
+					// With double buffering or interpolation, all buffers
+					// receive the same coordinates, so the last trigger
+					// called wins.
+					//
+					copyNewNode(nodesPoints, buffer, index, xyz);
+					copyNewNode(nodesPointsBack, buffer, index, xyz);
+					copyNewNode(nodesPointsPrevious, buffer, index, xyz);
 				}
 			}
 		};
 
+		//
+		// Points are stored off-heap in native order, so the buffer can be
+		// uploaded as it is by native consumers.
+		//
 		nodesPoints = (DoubleBufferReference) swapper.createBuffer(Type.NODE,
-				dim, BufferType.DOUBLE, null, onNewNode);
-
-		edgesData = swapper.createArray(Type.EDGE, 1, EdgeData.class,
-				new UISwapper.ValueFactory<EdgeData>() {
-					/*
-					 * (non-Javadoc)
-					 * 
-					 * @see
-					 * org.graphstream.nui.UISwapper.ValueFactory#createValue
-					 * (org.graphstream.nui.indexer.ElementIndex,int)
-					 */
-					@Override
-					public EdgeData createValue(ElementIndex index,
-							int component) {
-						return new EdgeData();
-					}
-				});
+				dim, BufferType.DOUBLE, ByteOrder.nativeOrder(), onNewNode);
+
+		movedNodes = createNodesXYZTracker();
+		ctx.addTickTask("dataset.notify", new NotifyTask());
+
+		edgesPoints = new EdgePointsPool(swapper, indexer);
 
 		weightHandler = new AttributeHandler() {
 			/*
@@ -195,11 +245,21 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public void release() {
+		ctx.removeTickTask("dataset.notify");
+
 		indexer = null;
 		ctx.getContextProxy().removeAttributeSink(coordinatesListener);
 
+		disableDoubleBuffering();
+		nodesPointsInterpolated = null;
+
+		while (nodesTrackers.size() > 0)
+			releaseNodesXYZTracker(nodesTrackers.get(0));
+
+		movedNodes = null;
+
 		nodesPoints.release();
-		edgesData.release();
+		edgesPoints.release();
 
 		if (nodesWeight != null)
 			nodesWeight.release();
@@ -227,6 +287,166 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	@Override
 	public void setAttribute(String key, Object value) {
 		super.setAttribute(key, value);
+
+		switch (key) {
+		case ATTRIBUTE_DOUBLE_BUFFERING:
+			try {
+				if (Tools.checkAndGetBoolean(value))
+					enableDoubleBuffering();
+				else
+					disableDoubleBuffering();
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_DOUBLE_BUFFERING, value));
+			}
+
+			break;
+		case ATTRIBUTE_INTERPOLATION:
+			try {
+				if (Tools.checkAndGetBoolean(value))
+					enableInterpolation();
+				else
+					disableInterpolation();
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_INTERPOLATION, value));
+			}
+
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Allocate the back buffer of the coordinates. The back buffer is created
+	 * by the swapper, so it follows the changes of indexes like the front
+	 * buffer. It starts as a copy of the front buffer.
+	 */
+	protected void enableDoubleBuffering() {
+		if (nodesPointsBack != null)
+			return;
+
+		UISwapper swapper = (UISwapper) ctx.getModule(UISwapper.MODULE_ID);
+
+		nodesPointsBack = (DoubleBufferReference) swapper.createBuffer(
+				Type.NODE, dim, BufferType.DOUBLE, ByteOrder.nativeOrder(),
+				onNewNode);
+		publishedNodes = swapper.createDirtyTracker(Type.NODE);
+		publishedNodes.clear();
+
+		for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
+			ElementIndex index = indexer.getNodeIndex(idx);
+
+			for (int i = 0; i < dim; i++)
+				nodesPointsBack.setDouble(index, i,
+						nodesPoints.getDouble(index, i));
+		}
+
+		ctx.addTickTask("dataset.publish", new PublishTask());
+	}
+
+	/**
+	 * Release the back buffer of the coordinates. A frame which has been
+	 * published but not yet flipped is lost. Interpolation is disabled too.
+	 */
+	protected void disableDoubleBuffering() {
+		if (nodesPointsBack == null)
+			return;
+
+		disableInterpolation();
+		ctx.removeTickTask("dataset.publish");
+
+		publishLock.lock();
+
+		try {
+			nodesPointsBack.release();
+			nodesPointsBack = null;
+
+			publishedNodes.release();
+			publishedNodes = null;
+			publishPending = false;
+		} finally {
+			publishLock.unlock();
+		}
+	}
+
+	/**
+	 * Keep the previous frame of the coordinates at each flip, so renderers
+	 * can interpolate between the two last frames. Frames are only defined
+	 * with double buffering, which is enabled if needed. The previous frame
+	 * starts as a copy of the front buffer.
+	 */
+	protected void enableInterpolation() {
+		if (nodesPointsPrevious != null)
+			return;
+
+		enableDoubleBuffering();
+
+		UISwapper swapper = (UISwapper) ctx.getModule(UISwapper.MODULE_ID);
+		DoubleBufferReference previous = (DoubleBufferReference) swapper
+				.createBuffer(Type.NODE, dim, BufferType.DOUBLE,
+						ByteOrder.nativeOrder(), onNewNode);
+
+		previous.setDoubles(0, getNodesXYZ(), indexer.getNodeCount());
+
+		publishLock.lock();
+
+		try {
+			nodesPointsTime = System.nanoTime();
+			nodesPointsPreviousTime = nodesPointsTime;
+			nodesPointsPrevious = previous;
+		} finally {
+			publishLock.unlock();
+		}
+	}
+
+	/**
+	 * Release the previous frame of the coordinates. Interpolated reads then
+	 * return the front buffer.
+	 */
+	protected void disableInterpolation() {
+		if (nodesPointsPrevious == null)
+			return;
+
+		publishLock.lock();
+
+		try {
+			nodesPointsPrevious.release();
+			nodesPointsPrevious = null;
+		} finally {
+			publishLock.unlock();
+		}
+	}
+
+	/**
+	 * Make the back buffer the front buffer. The trackers follow the front
+	 * buffer and receive the nodes changed by the published frames. This has
+	 * to be called in the ui thread while holding the publish lock.
+	 */
+	protected void flip() {
+		DoubleBufferReference front = nodesPointsBack;
+
+		if (nodesPointsPrevious != null) {
+			nodesPointsPrevious.setDoubles(0, getNodesXYZ(),
+					indexer.getNodeCount());
+			nodesPointsPreviousTime = nodesPointsTime;
+			nodesPointsTime = System.nanoTime();
+		}
+
+		for (DirtyTracker tracker : nodesTrackers) {
+			nodesPoints.removeDirtyTracker(tracker);
+			front.addDirtyTracker(tracker);
+			tracker.include(publishedNodes);
+		}
+
+		publishedNodes.clear();
+		publishPending = false;
+
+		nodesPointsBack = nodesPoints;
+		nodesPoints = front;
+
+		nodesPointsEpoch.incrementAndGet();
 	}
 
 	/*
@@ -305,6 +525,54 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 		return xyz;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodeX(int)
+	 */
+	@Override
+	public double getNodeX(int nodeIndex) {
+		return nodesPoints.getDouble(nodeIndex, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodeY(int)
+	 */
+	@Override
+	public double getNodeY(int nodeIndex) {
+		return nodesPoints.getDouble(nodeIndex, 1);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodeZ(int)
+	 */
+	@Override
+	public double getNodeZ(int nodeIndex) {
+		return dim == 3 ? nodesPoints.getDouble(nodeIndex, 2) : 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodeXYZ(int, double[])
+	 */
+	@Override
+	public double[] getNodeXYZ(int nodeIndex, double[] xyz) {
+		if (xyz == null || xyz.length < dim)
+			xyz = new double[dim];
+
+		DoubleBufferReference points = nodesPoints;
+
+		for (int i = 0; i < dim; i++)
+			xyz[i] = points.getDouble(nodeIndex, i);
+
+		return xyz;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -333,6 +601,37 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 		return (DoubleBuffer) nodesPoints.buffer();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#createNodesXYZTracker()
+	 */
+	@Override
+	public DirtyTracker createNodesXYZTracker() {
+		UISwapper swapper = (UISwapper) ctx.getModule(UISwapper.MODULE_ID);
+		DirtyTracker tracker = swapper.createDirtyTracker(Type.NODE);
+
+		nodesPoints.addDirtyTracker(tracker);
+		nodesTrackers.add(tracker);
+
+		return tracker;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIDataset#releaseNodesXYZTracker(org.graphstream.
+	 * nui.swapper.DirtyTracker)
+	 */
+	@Override
+	public void releaseNodesXYZTracker(DirtyTracker tracker) {
+		if (nodesTrackers.remove(tracker)) {
+			nodesPoints.removeDirtyTracker(tracker);
+			tracker.release();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -340,8 +639,13 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public void setNodeX(ElementIndex nodeIndex, double x) {
-		nodesPoints.setDouble(nodeIndex, 0, x);
-		fireNodeMoved(nodeIndex);
+		DoubleBufferReference points = beginDirectWrite();
+
+		try {
+			points.setDouble(nodeIndex, 0, x);
+		} finally {
+			endDirectWrite(points, nodeIndex.index());
+		}
 	}
 
 	/*
@@ -351,8 +655,13 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public void setNodeY(ElementIndex nodeIndex, double y) {
-		nodesPoints.setDouble(nodeIndex, 1, y);
-		fireNodeMoved(nodeIndex);
+		DoubleBufferReference points = beginDirectWrite();
+
+		try {
+			points.setDouble(nodeIndex, 1, y);
+		} finally {
+			endDirectWrite(points, nodeIndex.index());
+		}
 	}
 
 	/*
@@ -362,9 +671,15 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public void setNodeZ(ElementIndex nodeIndex, double z) {
-		if (dim == 3) {
-			nodesPoints.setDouble(nodeIndex, 2, z);
-			fireNodeMoved(nodeIndex);
+		if (dim != 3)
+			return;
+
+		DoubleBufferReference points = beginDirectWrite();
+
+		try {
+			points.setDouble(nodeIndex, 2, z);
+		} finally {
+			endDirectWrite(points, nodeIndex.index());
 		}
 	}
 
@@ -375,25 +690,327 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public void setNodeXYZ(ElementIndex nodeIndex, double[] xyz) {
-		for (int i = 0; i < Math.min(xyz.length, dim); i++)
-			nodesPoints.setDouble(nodeIndex, i, xyz[i]);
+		DoubleBufferReference points = beginDirectWrite();
 
-		fireNodeMoved(nodeIndex);
+		try {
+			for (int i = 0; i < Math.min(xyz.length, dim); i++)
+				points.setDouble(nodeIndex, i, xyz[i]);
+		} finally {
+			endDirectWrite(points, nodeIndex.index());
+		}
 	}
 
 	@Override
 	public void setNodesXYZ(DataProvider dataProvider) {
 		double[] xyz = new double[3];
+		DoubleBufferReference points = beginDirectWrite();
 
-		for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
-			ElementIndex index = indexer.getNodeIndex(idx);
-			dataProvider.getNodeXYZ(index, xyz);
+		try {
+			for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
+				ElementIndex index = indexer.getNodeIndex(idx);
+				dataProvider.getNodeXYZ(index, xyz);
 
-			for (int i = 0; i < Math.min(xyz.length, dim); i++)
-				nodesPoints.setDouble(index, i, xyz[i]);
+				for (int i = 0; i < Math.min(xyz.length, dim); i++)
+					points.setDouble(index, i, xyz[i]);
+			}
+		} finally {
+			endDirectWrite(points, -1);
+		}
+	}
+
+	/**
+	 * Get the buffer receiving the direct writes of coordinates. Without
+	 * double buffering, this is the front buffer. Else, this is the back
+	 * buffer and the publish lock is held until
+	 * {@link #endDirectWrite(DoubleBufferReference, int)} : written nodes are
+	 * published with the next flip, rather than being overwritten by it, and
+	 * readers of the front buffer never see them being written. If no frame
+	 * is pending, the back buffer holds an old frame, so it is first
+	 * refreshed from the front buffer.
+	 */
+	protected DoubleBufferReference beginDirectWrite() {
+		if (nodesPointsBack == null)
+			return nodesPoints;
+
+		publishLock.lock();
+
+		//
+		// The back buffer may have been released while waiting for the lock.
+		//
+		if (nodesPointsBack == null) {
+			publishLock.unlock();
+			return nodesPoints;
+		}
+
+		if (!publishPending) {
+			nodesPointsBack.setDoubles(0, getNodesXYZ(),
+					indexer.getNodeCount());
+			publishPending = true;
+		}
+
+		return nodesPointsBack;
+	}
+
+	/**
+	 * End a write started with {@link #beginDirectWrite()}.
+	 * 
+	 * @param points
+	 *            the buffer given by {@link #beginDirectWrite()}
+	 * @param nodeIndex
+	 *            the written node, or -1 if all the nodes may have been written
+	 */
+	protected void endDirectWrite(DoubleBufferReference points, int nodeIndex) {
+		//
+		// The lock is only held when writing the back buffer.
+		//
+		if (points == nodesPoints)
+			return;
+
+		if (nodeIndex < 0)
+			publishedNodes.markDirty(0, indexer.getNodeCount());
+		else
+			publishedNodes.markDirty(nodeIndex);
+
+		publishLock.unlock();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIDataset#publishNodesXYZ(org.graphstream.nui.dataset
+	 * .DataProvider)
+	 */
+	@Override
+	public void publishNodesXYZ(DataProvider dataProvider) {
+		if (nodesPointsBack == null) {
+			setNodesXYZ(dataProvider);
+			return;
+		}
+
+		double[] xyz = new double[3];
+
+		publishLock.lock();
+
+		try {
+			//
+			// The back buffer may have been released while waiting for the
+			// lock.
+			//
+			if (nodesPointsBack == null)
+				return;
+
+			DoubleBufferReference front = nodesPoints;
+			DoubleBufferReference back = nodesPointsBack;
+
+			for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
+				ElementIndex index = indexer.getNodeIndex(idx);
+				dataProvider.getNodeXYZ(index, xyz);
+
+				boolean moved = false;
+
+				for (int i = 0; i < dim; i++) {
+					back.setDouble(index, i, xyz[i]);
+					moved = moved || front.getDouble(index, i) != xyz[i];
+				}
+
+				if (moved)
+					publishedNodes.markDirty(idx);
+			}
+
+			publishPending = true;
+		} finally {
+			publishLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#setNodesXYZ(double[], int)
+	 */
+	@Override
+	public void setNodesXYZ(double[] src, int offset) {
+		DoubleBufferReference points = beginDirectWrite();
+
+		try {
+			points.setDoubles(0, src, offset, indexer.getNodeCount());
+		} finally {
+			endDirectWrite(points, -1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#setNodesXYZ(java.nio.DoubleBuffer)
+	 */
+	@Override
+	public void setNodesXYZ(DoubleBuffer src) {
+		DoubleBufferReference points = beginDirectWrite();
+
+		try {
+			points.setDoubles(0, src, indexer.getNodeCount());
+		} finally {
+			endDirectWrite(points, -1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#publishNodesXYZ(double[], int)
+	 */
+	@Override
+	public void publishNodesXYZ(double[] src, int offset) {
+		if (nodesPointsBack == null) {
+			setNodesXYZ(src, offset);
+			return;
+		}
+
+		publishLock.lock();
+
+		try {
+			if (nodesPointsBack == null)
+				return;
+
+			int nodeCount = indexer.getNodeCount();
+
+			nodesPointsBack.setDoubles(0, src, offset, nodeCount);
+			publishedNodes.markDirty(0, nodeCount);
+			publishPending = true;
+		} finally {
+			publishLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#adoptNodesXYZ(java.nio.DoubleBuffer)
+	 */
+	@Override
+	public DoubleBuffer adoptNodesXYZ(DoubleBuffer xyz) {
+		if (nodesPointsBack == null)
+			return nodesPoints.adopt(xyz);
+
+		publishLock.lock();
+
+		try {
+			//
+			// The back buffer may have been released while waiting for the
+			// lock. The frame is lost and the buffer is given back as it is.
+			//
+			if (nodesPointsBack == null)
+				return xyz;
+
+			DoubleBuffer old = nodesPointsBack.adopt(xyz);
+
+			publishedNodes.markDirty(0, indexer.getNodeCount());
+			publishPending = true;
+
+			return old;
+		} finally {
+			publishLock.unlock();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodesXYZInterpolated(double,
+	 * java.nio.DoubleBuffer)
+	 */
+	@Override
+	public DoubleBuffer getNodesXYZInterpolated(double alpha,
+			DoubleBuffer target) {
+		int size = indexer.getNodeCount() * dim;
+
+		if (target == null || target.capacity() < size) {
+			if (nodesPointsInterpolated == null
+					|| nodesPointsInterpolated.capacity() < size) {
+				int capacity = Math.max(size,
+						nodesPointsInterpolated == null ? 0
+								: 2 * nodesPointsInterpolated.capacity());
+
+				nodesPointsInterpolated = ByteBuffer
+						.allocateDirect(capacity * Double.SIZE / 8)
+						.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+			}
+
+			target = nodesPointsInterpolated;
+		}
+
+		target.clear();
+
+		DoubleBuffer current = getNodesXYZ().duplicate();
+		current.limit(size);
+
+		if (nodesPointsPrevious == null || alpha >= 1) {
+			target.put(current);
+		} else {
+			DoubleBuffer previous = ((DoubleBuffer) nodesPointsPrevious
+					.buffer()).duplicate();
+			previous.rewind();
+
+			alpha = Math.max(alpha, 0);
+
+			for (int i = 0; i < size; i++) {
+				double p = previous.get(i);
+				target.put(i, p + alpha * (current.get(i) - p));
+			}
+
+			target.position(size);
 		}
 
-		fireAllNodesMoved();
+		target.flip();
+		return target;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodesXYZInterpolationFactor(long)
+	 */
+	@Override
+	public double getNodesXYZInterpolationFactor(long time) {
+		long period = nodesPointsTime - nodesPointsPreviousTime;
+
+		if (nodesPointsPrevious == null || period <= 0)
+			return 1;
+
+		return Math.max(0,
+				Math.min(1, (time - nodesPointsTime) / (double) period));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodesXYZTime()
+	 */
+	@Override
+	public long getNodesXYZTime() {
+		return nodesPointsTime;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getPreviousNodesXYZTime()
+	 */
+	@Override
+	public long getPreviousNodesXYZTime() {
+		return nodesPointsPreviousTime;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getNodesXYZEpoch()
+	 */
+	@Override
+	public long getNodesXYZEpoch() {
+		return nodesPointsEpoch.get();
 	}
 
 	@Override
@@ -438,7 +1055,41 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public Vector3[] getEdgePoints(ElementIndex edgeIndex) {
-		return edgesData.get(edgeIndex, 0).points;
+		return edgesPoints.getPoints(edgeIndex);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIDataset#getEdgePointsCount(org.graphstream.nui.
+	 * indexer.ElementIndex)
+	 */
+	@Override
+	public int getEdgePointsCount(ElementIndex edgeIndex) {
+		return edgesPoints.getCount(edgeIndex);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIDataset#getEdgePointsOffset(org.graphstream.nui
+	 * .indexer.ElementIndex)
+	 */
+	@Override
+	public int getEdgePointsOffset(ElementIndex edgeIndex) {
+		return edgesPoints.getOffset(edgeIndex);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIDataset#getEdgesPoints()
+	 */
+	@Override
+	public DoubleBuffer getEdgesPoints() {
+		return edgesPoints.getCoordinates();
 	}
 
 	/*
@@ -448,7 +1099,7 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	 */
 	@Override
 	public EdgePointsType getEdgePointsType(ElementIndex edgeIndex) {
-		return edgesData.get(edgeIndex, 0).pointsType;
+		return edgesPoints.getType(edgeIndex);
 	}
 
 	/*
@@ -459,9 +1110,22 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 	@Override
 	public void setEdgePoints(ElementIndex edgeIndex, EdgePointsType type,
 			Vector3[] points) {
-		edgesData.get(edgeIndex, 0).points = points;
-		edgesData.get(edgeIndex, 0).pointsType = type;
+		edgesPoints.setPoints(edgeIndex, type, points);
+		fireEdgePointsChanged(edgeIndex);
+	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIDataset#setEdgePoints(org.graphstream.nui.indexer
+	 * .ElementIndex, org.graphstream.nui.UIDataset.EdgePointsType, double[],
+	 * int, int)
+	 */
+	@Override
+	public void setEdgePoints(ElementIndex edgeIndex, EdgePointsType type,
+			double[] xyz, int offset, int count) {
+		edgesPoints.setPoints(edgeIndex, type, xyz, offset, count);
 		fireEdgePointsChanged(edgeIndex);
 	}
 
@@ -599,10 +1263,14 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 			return;
 		}
 
+		boolean doubleBuffering = nodesPointsBack != null;
+		boolean interpolation = nodesPointsPrevious != null;
+		disableDoubleBuffering();
+
 		UISwapper swapper = (UISwapper) ctx.getModule(UISwapper.MODULE_ID);
 		DoubleBufferReference tmp = (DoubleBufferReference) swapper
-				.createBuffer(Type.NODE, dim, BufferType.DOUBLE, null,
-						onNewNode);
+				.createBuffer(Type.NODE, dim, BufferType.DOUBLE,
+						ByteOrder.nativeOrder(), onNewNode);
 
 		for (int i = 0; i < indexer.getNodeCount(); i++) {
 			ElementIndex index = indexer.getNodeIndex(i);
@@ -614,25 +1282,50 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 				tmp.setDouble(index, 2, nodesPoints.getDouble(index, 2));
 		}
 
+		for (DirtyTracker tracker : nodesTrackers) {
+			nodesPoints.removeDirtyTracker(tracker);
+			tmp.addDirtyTracker(tracker);
+			tracker.markAllDirty();
+		}
+
 		nodesPoints.release();
 		nodesPoints = tmp;
-	}
+		this.dim = dim;
 
-	protected void fireNodeMoved(ElementIndex nodeIndex) {
-		double x = getNodeX(nodeIndex);
-		double y = getNodeY(nodeIndex);
-		double z = getNodeZ(nodeIndex);
+		if (doubleBuffering)
+			enableDoubleBuffering();
 
-		LOGGER.info("node \"" + nodeIndex + "\" moved to (" + x + "," + y + ","
-				+ z + ")");
+		if (interpolation)
+			enableInterpolation();
+	}
 
-		for (DatasetListener l : listeners)
-			l.nodeMoved(nodeIndex, x, y, z);
+	/**
+	 * Write the coordinates of a new node in a buffer other than the one
+	 * which has triggered the creation.
+	 */
+	protected static void copyNewNode(DoubleBufferReference other,
+			UIBufferReference buffer, ElementIndex index, double[] xyz) {
+		if (other == null || other == buffer)
+			return;
+
+		for (int i = 0; i < buffer.getComponentsCount(); i++)
+			other.setDouble(index, i, xyz[i]);
 	}
 
-	protected void fireAllNodesMoved() {
+	/**
+	 * Notify the listeners of the nodes moved since the last notification.
+	 * Coordinates are written in a buffer tracked by {@link #movedNodes}, so
+	 * changes cost nothing more than a mark in the tracker until this is
+	 * called.
+	 */
+	protected void fireNodesMoved() {
+		if (movedNodes.getDirtyCount() == 0)
+			return;
+
 		for (DatasetListener l : listeners)
-			l.allNodesMoved();
+			l.nodesMoved(movedNodes);
+
+		movedNodes.clear();
 	}
 
 	protected void fireEdgePointsChanged(ElementIndex edgeIndex) {
@@ -726,12 +1419,127 @@ public class DefaultDataset extends AbstractModule implements UIDataset {
 		}
 	}
 
-	class EdgeData {
-		Vector3[] points;
-		EdgePointsType pointsType;
+	/**
+	 * Flip the buffers in the ui thread when a frame has been published. If
+	 * the producer is still writing the back buffer, the flip is postponed to
+	 * the next tick rather than blocking the ui thread.
+	 */
+	class PublishTask implements TickTask {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			if (!publishPending || !publishLock.tryLock())
+				return;
+
+			try {
+				if (!publishPending || nodesPointsBack == null)
+					return;
+
+				flip();
+			} finally {
+				publishLock.unlock();
+			}
+
+			fireNodesMoved();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#getCycleLength()
+		 */
+		@Override
+		public int getCycleLength() {
+			return PUBLISH_CYCLE_LENGTH;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#isPeriodic()
+		 */
+		@Override
+		public boolean isPeriodic() {
+			return true;
+		}
 
-		EdgeData() {
-			points = null;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#getPriority()
+		 */
+		@Override
+		public int getPriority() {
+			return PRIORITY_HIGH;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#isDeferrable()
+		 */
+		@Override
+		public boolean isDeferrable() {
+			return false;
+		}
+	}
+
+	/**
+	 * Notify the listeners of the moved nodes, once per tick.
+	 */
+	class NotifyTask implements TickTask {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			fireNodesMoved();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#getCycleLength()
+		 */
+		@Override
+		public int getCycleLength() {
+			return 1;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#isPeriodic()
+		 */
+		@Override
+		public boolean isPeriodic() {
+			return true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#getPriority()
+		 */
+		@Override
+		public int getPriority() {
+			return PRIORITY_HIGH;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#isDeferrable()
+		 */
+		@Override
+		public boolean isDeferrable() {
+			return false;
 		}
 	}
 
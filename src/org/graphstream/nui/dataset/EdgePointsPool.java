@@ -0,0 +1,310 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.dataset;
+
+import java.nio.DoubleBuffer;
+
+import org.graphstream.nui.UIDataset.EdgePointsType;
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.UISwapper;
+import org.graphstream.nui.UISwapper.BufferType;
+import org.graphstream.nui.UISwapper.CreationTrigger;
+import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.swapper.UIBufferReference;
+import org.graphstream.nui.swapper.UIBufferReference.IntBufferReference;
+
+/**
+ * Packed storage of the breaking points of edges. Coordinates of all the
+ * points are stored in a single array, three components per point, and each
+ * edge owns a range of this array described by an offset and a count of
+ * points.
+ * 
+ * The table of ranges is a buffer of the swapper, so it follows the changes of
+ * the indexes of edges. Ranges which are no longer used, because an edge has
+ * been removed or its points have grown, are left in place and reclaimed
+ * lazily : the pool is compacted when it would have to grow while at least
+ * half of it is unused.
+ * 
+ * The pool has to be used in the ui thread.
+ */
+public class EdgePointsPool {
+	public static final int COMPONENTS = 3;
+
+	protected static final int OFFSET = 0;
+	protected static final int COUNT = 1;
+	protected static final int TYPE = 2;
+
+	protected static final int INITIAL_CAPACITY = 1 << 10;
+
+	protected final IntBufferReference ranges;
+	protected final EdgePointsType[] types;
+
+	protected double[] coordinates;
+	/**
+	 * Count of doubles used at the beginning of the coordinates, including
+	 * the unused ranges.
+	 */
+	protected int size;
+	protected final UIIndexer indexer;
+
+	public EdgePointsPool(UISwapper swapper, UIIndexer indexer) {
+		this.indexer = indexer;
+
+		ranges = (IntBufferReference) swapper.createBuffer(Type.EDGE, 3,
+				BufferType.INT, null, new CreationTrigger() {
+					/*
+					 * (non-Javadoc)
+					 * 
+					 * @see org.graphstream.nui.UISwapper.CreationTrigger#
+					 * newBufferElement
+					 * (org.graphstream.nui.swapper.UIBufferReference,
+					 * org.graphstream.nui.indexer.ElementIndex)
+					 */
+					@Override
+					public void newBufferElement(UIBufferReference buffer,
+							ElementIndex index) {
+						ranges.setInt(index, OFFSET, 0);
+						ranges.setInt(index, COUNT, 0);
+						ranges.setInt(index, TYPE, -1);
+					}
+				});
+
+		types = EdgePointsType.values();
+		coordinates = new double[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	public void release() {
+		ranges.release();
+		coordinates = null;
+	}
+
+	/**
+	 * Count of breaking points of an edge.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return the count of points, 0 if the edge has none
+	 */
+	public int getCount(ElementIndex edgeIndex) {
+		return ranges.getInt(edgeIndex, COUNT);
+	}
+
+	/**
+	 * Offset of the first coordinate of the points of an edge in
+	 * {@link #getCoordinates()}.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return offset of the coordinates of the edge
+	 */
+	public int getOffset(ElementIndex edgeIndex) {
+		return ranges.getInt(edgeIndex, OFFSET);
+	}
+
+	/**
+	 * Type of the breaking points of an edge.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return the type of the points, or null if the edge has none
+	 */
+	public EdgePointsType getType(ElementIndex edgeIndex) {
+		int t = ranges.getInt(edgeIndex, TYPE);
+		return t < 0 ? null : types[t];
+	}
+
+	/**
+	 * Read-only view on the coordinates of all the points. The view is valid
+	 * until the next change of the points of an edge.
+	 * 
+	 * @return the coordinates of the pool
+	 */
+	public DoubleBuffer getCoordinates() {
+		return DoubleBuffer.wrap(coordinates, 0, size).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get the points of an edge as vectors. This allocates the points and
+	 * should be avoided when rendering a lot of edges.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @return the points, or null if the edge has none
+	 */
+	public Vector3[] getPoints(ElementIndex edgeIndex) {
+		if (ranges.getInt(edgeIndex, TYPE) < 0)
+			return null;
+
+		int offset = ranges.getInt(edgeIndex, OFFSET);
+		Vector3[] points = new Vector3[ranges.getInt(edgeIndex, COUNT)];
+
+		for (int i = 0; i < points.length; i++, offset += COMPONENTS)
+			points[i] = new Vector3(coordinates[offset],
+					coordinates[offset + 1], coordinates[offset + 2]);
+
+		return points;
+	}
+
+	/**
+	 * Set the points of an edge from vectors.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @param type
+	 *            type of the points, or null to remove the points of the edge
+	 * @param points
+	 *            the points, or null to remove the points of the edge
+	 */
+	public void setPoints(ElementIndex edgeIndex, EdgePointsType type,
+			Vector3[] points) {
+		if (type == null || points == null) {
+			setPoints(edgeIndex, null, null, 0, 0);
+			return;
+		}
+
+		int offset = reserve(edgeIndex, points.length);
+
+		for (int i = 0; i < points.length; i++, offset += COMPONENTS) {
+			coordinates[offset] = points[i].x();
+			coordinates[offset + 1] = points[i].y();
+			coordinates[offset + 2] = points[i].z();
+		}
+
+		ranges.setInt(edgeIndex, TYPE, type.ordinal());
+	}
+
+	/**
+	 * Set the points of an edge from packed coordinates.
+	 * 
+	 * @param edgeIndex
+	 *            index of the edge
+	 * @param type
+	 *            type of the points, or null to remove the points of the edge
+	 * @param xyz
+	 *            coordinates of the points, three per point
+	 * @param offset
+	 *            index of the first coordinate in xyz
+	 * @param count
+	 *            count of points
+	 */
+	public void setPoints(ElementIndex edgeIndex, EdgePointsType type,
+			double[] xyz, int offset, int count) {
+		if (type == null || xyz == null) {
+			ranges.setInt(edgeIndex, OFFSET, 0);
+			ranges.setInt(edgeIndex, COUNT, 0);
+			ranges.setInt(edgeIndex, TYPE, -1);
+
+			return;
+		}
+
+		int dst = reserve(edgeIndex, count);
+
+		System.arraycopy(xyz, offset, coordinates, dst, count * COMPONENTS);
+		ranges.setInt(edgeIndex, TYPE, type.ordinal());
+	}
+
+	/**
+	 * Get a range of the given count of points for an edge. The current
+	 * range of the edge is reused if it is large enough, else a new range is
+	 * taken at the end of the pool.
+	 */
+	protected int reserve(ElementIndex edgeIndex, int count) {
+		int current = ranges.getInt(edgeIndex, COUNT);
+		int length = count * COMPONENTS;
+
+		if (count <= current) {
+			ranges.setInt(edgeIndex, COUNT, count);
+			return ranges.getInt(edgeIndex, OFFSET);
+		}
+
+		ranges.setInt(edgeIndex, COUNT, 0);
+
+		if (size + length > coordinates.length) {
+			if (2 * getUsedSize() <= size)
+				compact();
+
+			if (size + length > coordinates.length) {
+				double[] tmp = new double[Math.max(2 * coordinates.length,
+						size + length)];
+				System.arraycopy(coordinates, 0, tmp, 0, size);
+				coordinates = tmp;
+			}
+		}
+
+		int offset = size;
+
+		size += length;
+		ranges.setInt(edgeIndex, OFFSET, offset);
+		ranges.setInt(edgeIndex, COUNT, count);
+
+		return offset;
+	}
+
+	/**
+	 * Count of doubles used by the edges. Ranges of removed edges are not
+	 * known, so this is computed from the table of ranges.
+	 */
+	protected int getUsedSize() {
+		int used = 0;
+
+		for (int idx = 0; idx < indexer.getEdgeCount(); idx++)
+			used += ranges.getInt(idx, COUNT) * COMPONENTS;
+
+		return used;
+	}
+
+	/**
+	 * Move the ranges of the edges at the beginning of the pool, in the order
+	 * of the edge indexes, so that unused ranges are reclaimed.
+	 */
+	protected void compact() {
+		double[] tmp = new double[coordinates.length];
+		int offset = 0;
+
+		for (int idx = 0; idx < indexer.getEdgeCount(); idx++) {
+			int length = ranges.getInt(idx, COUNT) * COMPONENTS;
+
+			if (length > 0) {
+				System.arraycopy(coordinates, ranges.getInt(idx, OFFSET), tmp,
+						offset, length);
+				ranges.setInt(idx, OFFSET, offset);
+				offset += length;
+			}
+		}
+
+		coordinates = tmp;
+		size = offset;
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.indexer;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency of the nodes stored in compressed sparse rows, using only the
+ * integer indexes of the elements. The neighbours of the node {@code n} are
+ * stored in {@link #getNeighbours()} between {@code getOffset(n)} and
+ * {@code getOffset(n + 1)}, sorted in increasing order, and the edge leading
+ * to each neighbour is stored at the same position in {@link #getEdges()}.
+ * Edges are not oriented here : an edge appears in the rows of both its
+ * extremities, except loops which appear once.
+ * 
+ * An adjacency is a snapshot of the structure : it is never modified once
+ * built, so it can be read from any thread, but it becomes stale after the
+ * next structural change. A new one is then built by the indexer when
+ * requested.
+ * 
+ * @see org.graphstream.nui.UIIndexer#getAdjacency()
+ */
+public class CompressedAdjacency {
+	protected final int nodeCount;
+	protected final int edgeCount;
+	protected final int[] offsets;
+	protected final int[] neighbours;
+	protected final int[] edges;
+	protected final int[] sources;
+	protected final int[] targets;
+
+	/**
+	 * Build the adjacency from the extremities of the edges, in a time linear
+	 * in the count of nodes and edges.
+	 * 
+	 * @param nodeCount
+	 *            count of nodes
+	 * @param edgeCount
+	 *            count of edges
+	 * @param sources
+	 *            index of the source node of each edge
+	 * @param targets
+	 *            index of the target node of each edge
+	 */
+	public CompressedAdjacency(int nodeCount, int edgeCount, int[] sources,
+			int[] targets) {
+		this.nodeCount = nodeCount;
+		this.edgeCount = edgeCount;
+		this.sources = Arrays.copyOf(sources, edgeCount);
+		this.targets = Arrays.copyOf(targets, edgeCount);
+		this.offsets = new int[nodeCount + 1];
+
+		int entries = 0;
+
+		for (int e = 0; e < edgeCount; e++) {
+			offsets[this.sources[e] + 1]++;
+			entries++;
+
+			if (this.sources[e] != this.targets[e]) {
+				offsets[this.targets[e] + 1]++;
+				entries++;
+			}
+		}
+
+		for (int n = 0; n < nodeCount; n++)
+			offsets[n + 1] += offsets[n];
+
+		//
+		// Entries are first bucketed by neighbour, then appended to the row
+		// of their node in increasing order of neighbour, so rows end up
+		// sorted without any comparison.
+		//
+		int[] byNeighbourRow = new int[entries];
+		int[] byNeighbourEdge = new int[entries];
+		int[] fill = Arrays.copyOf(offsets, nodeCount + 1);
+
+		for (int e = 0; e < edgeCount; e++) {
+			int s = this.sources[e], t = this.targets[e];
+
+			byNeighbourRow[fill[t]] = s;
+			byNeighbourEdge[fill[t]++] = e;
+
+			if (s != t) {
+				byNeighbourRow[fill[s]] = t;
+				byNeighbourEdge[fill[s]++] = e;
+			}
+		}
+
+		this.neighbours = new int[entries];
+		this.edges = new int[entries];
+
+		System.arraycopy(offsets, 0, fill, 0, nodeCount + 1);
+
+		for (int v = 0; v < nodeCount; v++) {
+			for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+				int row = byNeighbourRow[k];
+
+				neighbours[fill[row]] = v;
+				edges[fill[row]++] = byNeighbourEdge[k];
+			}
+		}
+	}
+
+	/**
+	 * Count of nodes when this adjacency has been built.
+	 * 
+	 * @return count of nodes
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Count of edges when this adjacency has been built.
+	 * 
+	 * @return count of edges
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Position of the first neighbour of a node in {@link #getNeighbours()}
+	 * and {@link #getEdges()}. The row of the node ends at
+	 * {@code getOffset(node + 1)}.
+	 * 
+	 * @param node
+	 *            index of the node, from 0 to the count of nodes included
+	 * @return position of the row of the node
+	 */
+	public int getOffset(int node) {
+		return offsets[node];
+	}
+
+	/**
+	 * Count of edges connected to a node.
+	 * 
+	 * @param node
+	 *            index of the node
+	 * @return degree of the node
+	 */
+	public int getDegree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 * Index of the neighbours of all the nodes, row after row. This array must
+	 * not be modified.
+	 * 
+	 * @return the neighbours array
+	 */
+	public int[] getNeighbours() {
+		return neighbours;
+	}
+
+	/**
+	 * Index of the edges leading to each neighbour in
+	 * {@link #getNeighbours()}. This array must not be modified.
+	 * 
+	 * @return the edges array
+	 */
+	public int[] getEdges() {
+		return edges;
+	}
+
+	/**
+	 * Index of the source node of an edge.
+	 * 
+	 * @param edge
+	 *            index of the edge
+	 * @return index of the source node
+	 */
+	public int getEdgeSource(int edge) {
+		return sources[edge];
+	}
+
+	/**
+	 * Index of the target node of an edge.
+	 * 
+	 * @param edge
+	 *            index of the edge
+	 * @return index of the target node
+	 */
+	public int getEdgeTarget(int edge) {
+		return targets[edge];
+	}
+
+	/**
+	 * Test if two nodes are connected by at least one edge, with a binary
+	 * search in the row of the first node.
+	 * 
+	 * @param node1
+	 *            index of the first node
+	 * @param node2
+	 *            index of the second node
+	 * @return true if the nodes are connected
+	 */
+	public boolean isConnected(int node1, int node2) {
+		return getEdgeBetween(node1, node2) >= 0;
+	}
+
+	/**
+	 * Get an edge connecting two nodes.
+	 * 
+	 * @param node1
+	 *            index of the first node
+	 * @param node2
+	 *            index of the second node
+	 * @return index of an edge between the nodes, or -1 if they are not
+	 *         connected
+	 */
+	public int getEdgeBetween(int node1, int node2) {
+		int k = Arrays.binarySearch(neighbours, offsets[node1],
+				offsets[node1 + 1], node2);
+
+		return k >= 0 ? edges[k] : -1;
+	}
+}
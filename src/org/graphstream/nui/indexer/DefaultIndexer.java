@@ -31,8 +31,10 @@
  */
 package org.graphstream.nui.indexer;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.logging.Logger;
 
 import org.graphstream.graph.EdgeFactory;
 import org.graphstream.graph.Graph;
@@ -48,17 +50,53 @@ import org.graphstream.nui.UIContext;
 import org.graphstream.nui.UIIndexer;
 import org.graphstream.nui.indexer.ElementIndex.EdgeIndex;
 import org.graphstream.nui.indexer.ElementIndex.NodeIndex;
+import org.graphstream.nui.indexer.ElementIndex.Type;
 
 public class DefaultIndexer extends AbstractModule implements UIIndexer {
+	private static final Logger LOGGER = Logger.getLogger(DefaultIndexer.class
+			.getName());
+
 	protected final List<IndexerListener> listeners;
 
 	protected final Indexes struct;
 
+	/**
+	 * Depth of nested batches, 0 if there is no batch in progress.
+	 */
+	protected int batchDepth;
+
+	protected final PendingChanges pendingNodes;
+	protected final PendingChanges pendingEdges;
+
+	/**
+	 * Index of the extremities of each edge, kept up to date with the
+	 * structure.
+	 */
+	protected int[] edgeSources;
+	protected int[] edgeTargets;
+
+	/**
+	 * Incremented on each structural change, to know when the adjacency has
+	 * to be built again.
+	 */
+	protected long structureVersion;
+	protected long adjacencyVersion;
+	protected CompressedAdjacency adjacency;
+
 	public DefaultIndexer() {
 		super(MODULE_ID);
 
 		struct = new Indexes();
 		listeners = new LinkedList<IndexerListener>();
+
+		batchDepth = 0;
+		pendingNodes = new PendingChanges(Type.NODE);
+		pendingEdges = new PendingChanges(Type.EDGE);
+
+		edgeSources = new int[16];
+		edgeTargets = new int[16];
+		structureVersion = 0;
+		adjacencyVersion = -1;
 	}
 
 	/*
@@ -176,6 +214,42 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 		return struct.getEdge(edgeIndex);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIIndexer#getEdgeSourceIndex(int)
+	 */
+	@Override
+	public int getEdgeSourceIndex(int edgeIndex) {
+		return edgeSources[edgeIndex];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIIndexer#getEdgeTargetIndex(int)
+	 */
+	@Override
+	public int getEdgeTargetIndex(int edgeIndex) {
+		return edgeTargets[edgeIndex];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIIndexer#getAdjacency()
+	 */
+	@Override
+	public synchronized CompressedAdjacency getAdjacency() {
+		if (adjacencyVersion != structureVersion) {
+			adjacency = new CompressedAdjacency(struct.getNodeCount(),
+					struct.getEdgeCount(), edgeSources, edgeTargets);
+			adjacencyVersion = structureVersion;
+		}
+
+		return adjacency;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -187,6 +261,58 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 		throw new UnsupportedOperationException();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIIndexer#beginBatch()
+	 */
+	@Override
+	public void beginBatch() {
+		if (batchDepth++ == 0) {
+			pendingNodes.begin(struct.getNodeCount());
+			pendingEdges.begin(struct.getEdgeCount());
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIIndexer#commitBatch()
+	 */
+	@Override
+	public void commitBatch() {
+		if (batchDepth == 0) {
+			LOGGER.warning("no batch to commit");
+			return;
+		}
+
+		if (--batchDepth > 0)
+			return;
+
+		//
+		// Nodes first, so the edges are notified once their extremities are
+		// at their final index.
+		//
+		IndexPermutation nodes = pendingNodes.commit();
+		IndexPermutation edges = pendingEdges.commit();
+
+		if (nodes != null)
+			fireElementsPermuted(nodes);
+
+		if (edges != null)
+			fireElementsPermuted(edges);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIIndexer#isBatching()
+	 */
+	@Override
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -212,6 +338,11 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 	}
 
 	protected void fireElementAdded(ElementIndex index, Object... args) {
+		if (batchDepth > 0) {
+			getPendingChanges(index.getType()).added(index.index());
+			return;
+		}
+
 		switch (index.getType()) {
 		case NODE:
 			for (IndexerListener l : listeners)
@@ -231,6 +362,11 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 	protected void fireElementsSwap(ElementIndex e1, ElementIndex e2) {
 		assert e1.getType() == e2.getType();
 
+		if (batchDepth > 0) {
+			getPendingChanges(e1.getType()).swapped(e1.index(), e2.index());
+			return;
+		}
+
 		switch (e1.getType()) {
 		case NODE:
 			for (IndexerListener l : listeners)
@@ -247,6 +383,11 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 	}
 
 	protected void fireElementRemoved(ElementIndex index) {
+		if (batchDepth > 0) {
+			getPendingChanges(index.getType()).removed(index);
+			return;
+		}
+
 		switch (index.getType()) {
 		case NODE:
 			for (IndexerListener l : listeners)
@@ -263,10 +404,183 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 	}
 
 	protected void fireElementCleared() {
+		//
+		// Pending changes are meaningless once everything is removed.
+		//
+		if (batchDepth > 0) {
+			pendingNodes.begin(0);
+			pendingEdges.begin(0);
+		}
+
 		for (IndexerListener l : listeners)
 			l.elementsClear();
 	}
 
+	protected void fireElementsPermuted(IndexPermutation permutation) {
+		for (IndexerListener l : listeners)
+			l.elementsPermuted(permutation);
+	}
+
+	protected PendingChanges getPendingChanges(Type type) {
+		switch (type) {
+		case NODE:
+			return pendingNodes;
+		case EDGE:
+			return pendingEdges;
+		default:
+			return NO_CHANGES;
+		}
+	}
+
+	/**
+	 * Structure changes are made in the ui thread, while the adjacency may be
+	 * requested from another one.
+	 */
+	protected synchronized void structureChanged() {
+		structureVersion++;
+	}
+
+	protected void edgeEndpointsAdded(int edge, int source, int target) {
+		if (edge >= edgeSources.length) {
+			int capacity = Math.max(edge + 1, edgeSources.length * 3 / 2);
+
+			edgeSources = Arrays.copyOf(edgeSources, capacity);
+			edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+		}
+
+		edgeSources[edge] = source;
+		edgeTargets[edge] = target;
+
+		structureChanged();
+	}
+
+	protected void edgeEndpointsSwapped(int edge1, int edge2) {
+		int tmp = edgeSources[edge1];
+		edgeSources[edge1] = edgeSources[edge2];
+		edgeSources[edge2] = tmp;
+
+		tmp = edgeTargets[edge1];
+		edgeTargets[edge1] = edgeTargets[edge2];
+		edgeTargets[edge2] = tmp;
+	}
+
+	/**
+	 * A node has moved from an index to another one, so the extremities of
+	 * its edges have to follow.
+	 */
+	protected void nodeIndexChanged(NodeIndex node, int from, int to) {
+		for (int i = 0; i < node.getDegree(); i++) {
+			int e = node.getEdgeIndex(i).index();
+
+			if (edgeSources[e] == from)
+				edgeSources[e] = to;
+
+			if (edgeTargets[e] == from)
+				edgeTargets[e] = to;
+		}
+	}
+
+	/**
+	 * Changes of the elements which are not tracked during a batch. Sprites
+	 * are not indexed yet and the graph element is never added nor removed,
+	 * so there is never any change to record for them.
+	 */
+	protected static final PendingChanges NO_CHANGES = new PendingChanges(
+			Type.GRAPH) {
+		@Override
+		void added(int index) {
+		}
+
+		@Override
+		void swapped(int index1, int index2) {
+		}
+
+		@Override
+		void removed(ElementIndex element) {
+		}
+	};
+
+	/**
+	 * Record the changes of indexes of one type of elements during a batch.
+	 * For each current index, the origin is the index of the element at the
+	 * beginning of the batch, or -1 if the element has been added.
+	 */
+	protected static class PendingChanges {
+		protected final Type type;
+		protected int oldCount;
+		protected int count;
+		protected int[] origins;
+		protected List<ElementIndex> removed;
+
+		PendingChanges(Type type) {
+			this.type = type;
+		}
+
+		void begin(int count) {
+			this.oldCount = count;
+			this.count = count;
+			this.origins = null;
+			this.removed = new LinkedList<ElementIndex>();
+		}
+
+		/**
+		 * Origins are only allocated on the first change, so an empty batch
+		 * costs nothing.
+		 */
+		int[] origins(int minCapacity) {
+			if (origins == null) {
+				origins = new int[Math.max(minCapacity, count)];
+
+				for (int i = 0; i < count; i++)
+					origins[i] = i;
+			} else if (origins.length < minCapacity)
+				origins = Arrays.copyOf(origins,
+						Math.max(minCapacity, origins.length * 3 / 2));
+
+			return origins;
+		}
+
+		void added(int index) {
+			assert index == count;
+			origins(index + 1)[index] = -1;
+			count = index + 1;
+		}
+
+		void swapped(int index1, int index2) {
+			int[] o = origins(count);
+			int tmp = o[index1];
+
+			o[index1] = o[index2];
+			o[index2] = tmp;
+		}
+
+		void removed(ElementIndex element) {
+			//
+			// The element has been swapped with the last one before being
+			// removed.
+			//
+			int[] o = origins(count);
+
+			if (o[count - 1] >= 0)
+				removed.add(element);
+
+			count--;
+		}
+
+		IndexPermutation commit() {
+			IndexPermutation permutation = null;
+
+			if (origins != null)
+				permutation = new IndexPermutation(type, oldCount, count,
+						origins, removed);
+
+			origins = null;
+			removed = null;
+
+			return permutation;
+		}
+	}
+
 	private class Indexes extends AdjacencyListGraph implements ElementIndex {
 
 		public Indexes() {
@@ -344,6 +658,7 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 		@Override
 		protected void addNodeCallback(AbstractNode node) {
 			super.addNodeCallback(node);
+			structureChanged();
 			fireElementAdded((_NodeIndex) node);
 		}
 
@@ -358,6 +673,9 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 		protected void addEdgeCallback(AbstractEdge edge) {
 			super.addEdgeCallback(edge);
 
+			edgeEndpointsAdded(edge.getIndex(), edge.getSourceNode()
+					.getIndex(), edge.getTargetNode().getIndex());
+
 			fireElementAdded((_EdgeIndex) edge, edge.getSourceNode(),
 					edge.getTargetNode(), edge.isDirected());
 		}
@@ -382,6 +700,7 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 				edgeArray[edgeCount - 1] = index;
 				index.setIndex(edgeCount - 1);
 
+				edgeEndpointsSwapped(i, edgeCount - 1);
 				fireElementsSwap(index, last);
 			}
 
@@ -389,6 +708,7 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 
 			edgeMap.remove(edge.getId());
 			edgeArray[--edgeCount] = null;
+			structureChanged();
 		}
 
 		/*
@@ -411,6 +731,10 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 				nodeArray[nodeCount - 1] = index;
 				index.setIndex(nodeCount - 1);
 
+				//
+				// Edges of the removed node are already removed.
+				//
+				nodeIndexChanged(last, nodeCount - 1, i);
 				fireElementsSwap(index, last);
 			}
 
@@ -419,6 +743,7 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 			nodeMap.remove(node.getId());
 			nodeArray[--nodeCount] = null;
 			index.setIndex(-1);
+			structureChanged();
 		}
 
 		/*
@@ -431,6 +756,7 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 		@Override
 		protected void clearCallback() {
 			super.clearCallback();
+			structureChanged();
 			fireElementCleared();
 		}
 	}
@@ -503,6 +829,20 @@ public class DefaultIndexer extends AbstractModule implements UIIndexer {
 		 */
 		@Override
 		public boolean isConnectedTo(NodeIndex n) {
+			CompressedAdjacency a;
+
+			//
+			// Only use the adjacency if it is up to date, rather than
+			// building it again on each change. The adjacency and its version
+			// are read under the lock which publishes them together.
+			//
+			synchronized (DefaultIndexer.this) {
+				a = adjacencyVersion == structureVersion ? adjacency : null;
+			}
+
+			if (a != null)
+				return a.isConnected(index(), n.index());
+
 			return getConnectionTo(n) != null;
 		}
 
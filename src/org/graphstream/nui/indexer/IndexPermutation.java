@@ -0,0 +1,253 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.indexer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.graphstream.nui.indexer.ElementIndex.Type;
+
+/**
+ * Describes all the changes of indexes of one type of elements made during a
+ * batch of structural changes. Instead of replaying each addition, removal and
+ * swap, a consumer can use this object to update its data in one pass : the
+ * data of the elements are moved by applying {@link #getSwapCount()} swaps,
+ * then the data is resized to the new count of elements, and the added
+ * elements are initialized.
+ * 
+ * The swaps are computed so that no element is moved more than once, so their
+ * count is at most the count of elements whose index has changed.
+ * 
+ * @see org.graphstream.nui.UIIndexer#beginBatch()
+ * @see org.graphstream.nui.indexer.IndexerListener#elementsPermuted(IndexPermutation)
+ */
+public class IndexPermutation {
+	protected final Type type;
+	protected final int oldCount;
+	protected final int newCount;
+	protected final int[] swaps;
+	protected final int swapCount;
+	protected final int[] added;
+	protected final List<ElementIndex> removed;
+
+	/**
+	 * Create the permutation from the origins of the elements.
+	 * 
+	 * @param type
+	 *            type of the elements
+	 * @param oldCount
+	 *            count of elements before the changes
+	 * @param newCount
+	 *            count of elements after the changes
+	 * @param origins
+	 *            for each current index, the index of the element before the
+	 *            changes or -1 if the element has been added
+	 * @param removed
+	 *            elements which existed before the changes and have been
+	 *            removed
+	 */
+	public IndexPermutation(Type type, int oldCount, int newCount,
+			int[] origins, List<ElementIndex> removed) {
+		assert origins.length >= newCount;
+
+		int n = Math.max(oldCount, newCount);
+		int[] sources = new int[n];
+		boolean[] used = new boolean[n];
+		int addedCount = 0;
+
+		Arrays.fill(sources, -1);
+
+		for (int i = 0; i < newCount; i++) {
+			if (origins[i] >= 0) {
+				sources[i] = origins[i];
+				used[origins[i]] = true;
+			} else
+				addedCount++;
+		}
+
+		//
+		// Complete the partial permutation. The moves form cycles and paths :
+		// a path starts at an index whose data is not needed anymore and ends
+		// at an index which does not need any data. Closing each path into a
+		// cycle keeps the count of swaps equal to the count of moves.
+		//
+		for (int i = 0; i < n; i++) {
+			if (used[i])
+				continue;
+
+			int j = i;
+
+			while (sources[j] >= 0)
+				j = sources[j];
+
+			sources[j] = i;
+		}
+
+		//
+		// Each cycle of length k is applied with k-1 swaps.
+		//
+		int[] swaps = new int[16];
+		int swapCount = 0;
+		boolean[] visited = used;
+
+		Arrays.fill(visited, false);
+
+		for (int i = 0; i < n; i++) {
+			if (visited[i] || sources[i] == i)
+				continue;
+
+			int j = i;
+
+			while (sources[j] != i) {
+				if (2 * swapCount + 2 > swaps.length)
+					swaps = Arrays.copyOf(swaps, swaps.length * 2);
+
+				swaps[2 * swapCount] = j;
+				swaps[2 * swapCount + 1] = sources[j];
+				swapCount++;
+
+				visited[j] = true;
+				j = sources[j];
+			}
+
+			visited[j] = true;
+		}
+
+		this.added = new int[addedCount];
+
+		for (int i = 0, k = 0; i < newCount; i++)
+			if (origins[i] < 0)
+				this.added[k++] = i;
+
+		this.type = type;
+		this.oldCount = oldCount;
+		this.newCount = newCount;
+		this.swaps = swaps;
+		this.swapCount = swapCount;
+		this.removed = Collections.unmodifiableList(removed);
+	}
+
+	/**
+	 * Type of the elements concerned by this permutation.
+	 * 
+	 * @return type of elements
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Count of elements before the changes.
+	 * 
+	 * @return old count of elements
+	 */
+	public int getOldCount() {
+		return oldCount;
+	}
+
+	/**
+	 * Count of elements after the changes.
+	 * 
+	 * @return new count of elements
+	 */
+	public int getNewCount() {
+		return newCount;
+	}
+
+	/**
+	 * Count of swaps needed to move the data of the elements to their new
+	 * index.
+	 * 
+	 * @return count of swaps
+	 */
+	public int getSwapCount() {
+		return swapCount;
+	}
+
+	/**
+	 * First index of a swap. Swaps have to be applied in order, and indexes
+	 * are lower than the maximum of the old and new counts.
+	 * 
+	 * @param swap
+	 *            the swap
+	 * @return the first index to swap
+	 */
+	public int getSwapIndex1(int swap) {
+		assert swap < swapCount;
+		return swaps[2 * swap];
+	}
+
+	/**
+	 * Second index of a swap.
+	 * 
+	 * @param swap
+	 *            the swap
+	 * @return the second index to swap
+	 */
+	public int getSwapIndex2(int swap) {
+		assert swap < swapCount;
+		return swaps[2 * swap + 1];
+	}
+
+	/**
+	 * Count of elements added by the changes.
+	 * 
+	 * @return count of added elements
+	 */
+	public int getAddedCount() {
+		return added.length;
+	}
+
+	/**
+	 * Get the current index of an added element. Added elements are not
+	 * necessarily at the end, since they can fill the index of a removed
+	 * element.
+	 * 
+	 * @param i
+	 *            the added element, between 0 and {@link #getAddedCount()}
+	 * @return the index of this element
+	 */
+	public int getAddedIndex(int i) {
+		return added[i];
+	}
+
+	/**
+	 * Elements which have been removed by the changes. Elements added and
+	 * removed in the same batch are not included.
+	 * 
+	 * @return the removed elements
+	 */
+	public List<ElementIndex> getRemoved() {
+		return removed;
+	}
+}
@@ -46,4 +46,15 @@ public interface IndexerListener {
 	void edgesSwapped(ElementIndex edgeIndex1, ElementIndex edgeIndex2);
 
 	void elementsClear();
+
+	/**
+	 * Called when a batch of structural changes is committed, once for each
+	 * type of elements that has changed. No other event is sent for the
+	 * changes of the batch.
+	 * 
+	 * @param permutation
+	 *            the changes of indexes of the elements
+	 * @see org.graphstream.nui.UIIndexer#beginBatch()
+	 */
+	void elementsPermuted(IndexPermutation permutation);
 }
@@ -40,7 +40,9 @@ import org.graphstream.nui.UIIndexer;
 import org.graphstream.nui.UILayout;
 import org.graphstream.nui.UISpace;
 import org.graphstream.nui.UISwapper;
-import org.graphstream.nui.context.TickTask;
+import org.graphstream.nui.context.IncrementalTickTask;
+import org.graphstream.nui.context.UIWorker;
+import org.graphstream.nui.context.worker.WorkerTask;
 import org.graphstream.nui.util.Tools;
 
 public class DefaultLayout extends AbstractModule implements UILayout {
@@ -51,6 +53,20 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 
 	public static final String ATTRIBUTE_VIEW_ZONE = "viewZone";
 
+	/**
+	 * Attribute used to choose if the layout is computed inside a worker, in
+	 * parallel with the rendering, or inside the ui thread.
+	 */
+	public static final String ATTRIBUTE_WORKER = "worker";
+
+	/**
+	 * Attribute used to let the layout, when computed inside the ui thread,
+	 * use the remaining time of each tick to run extra iterations.
+	 */
+	public static final String ATTRIBUTE_EXTRA_ITERATIONS = "extraIterations";
+
+	protected static final String TASK_ID = "layout";
+
 	protected UIDataset dataset;
 
 	protected LayoutStatistics stats;
@@ -61,6 +77,10 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 
 	protected double viewZone;
 
+	protected boolean useWorker;
+
+	protected boolean extraIterations;
+
 	public DefaultLayout() {
 		super(MODULE_ID, UIIndexer.MODULE_ID, UISwapper.MODULE_ID,
 				UISpace.MODULE_ID, UIDataset.MODULE_ID);
@@ -80,7 +100,6 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 		assert dataset != null;
 
 		stats = new LayoutStatistics();
-		ctx.addTickTask("layout", new LayoutComputation());
 
 		algorithm = LayoutAlgorithms.getDefaultLayoutAlgorithm();
 		algorithm.init(ctx, this);
@@ -88,6 +107,9 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 		enableSpacePartition = true;
 		algorithm.enableSpacePartition(enableSpacePartition);
 
+		useWorker = true;
+		startComputation();
+
 		LOGGER.info("using layout "
 				+ LayoutAlgorithms.getLayoutName(algorithm.getClass()));
 	}
@@ -99,7 +121,7 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 	 */
 	@Override
 	public void release() {
-		ctx.removeTickTask("layout");
+		stopComputation();
 		super.release();
 	}
 
@@ -132,13 +154,71 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 						MODULE_ID, ATTRIBUTE_VIEW_ZONE, value));
 			}
 
+			break;
+		case ATTRIBUTE_EXTRA_ITERATIONS:
+			try {
+				extraIterations = Tools.checkAndGetBoolean(value);
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_EXTRA_ITERATIONS, value));
+			}
+
+			break;
+		case ATTRIBUTE_WORKER:
+			try {
+				boolean b = Tools.checkAndGetBoolean(value);
+
+				if (b != useWorker) {
+					stopComputation();
+					useWorker = b;
+					startComputation();
+				}
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_WORKER, value));
+			}
+
 			break;
 		default:
 			break;
 		}
 	}
 
-	class LayoutComputation implements TickTask {
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UILayout#getStabilization()
+	 */
+	@Override
+	public double getStabilization() {
+		return algorithm.getStabilization();
+	}
+
+	protected void startComputation() {
+		if (useWorker)
+			ctx.createWorker(TASK_ID, new LayoutWorkerTask());
+		else
+			ctx.addTickTask(TASK_ID, new LayoutComputation());
+	}
+
+	protected void stopComputation() {
+		if (useWorker)
+			ctx.terminateWorker(TASK_ID);
+		else
+			ctx.removeTickTask(TASK_ID);
+	}
+
+	protected void publish() {
+		if (algorithm.publishNeeded())
+			algorithm.publish(dataset);
+	}
+
+	/**
+	 * Compute the layout inside the ui thread. The computation may be
+	 * postponed when the tick has no time left, and, if extra iterations are
+	 * enabled, it is repeated while the tick has some time left.
+	 */
+	class LayoutComputation implements IncrementalTickTask {
 		/*
 		 * (non-Javadoc)
 		 * 
@@ -147,9 +227,7 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 		@Override
 		public void run() {
 			algorithm.compute();
-
-			if (algorithm.publishNeeded())
-				dataset.setNodesXYZ(algorithm.getDataProvider());
+			publish();
 		}
 
 		/*
@@ -171,5 +249,91 @@ public class DefaultLayout extends AbstractModule implements UILayout {
 		public boolean isPeriodic() {
 			return true;
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#getPriority()
+		 */
+		@Override
+		public int getPriority() {
+			return PRIORITY_NORMAL;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.TickTask#isDeferrable()
+		 */
+		@Override
+		public boolean isDeferrable() {
+			return true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.IncrementalTickTask#hasMoreWork()
+		 */
+		@Override
+		public boolean hasMoreWork() {
+			return extraIterations;
+		}
+	}
+
+	/**
+	 * Compute the layout inside a worker. The algorithm only reads the graph
+	 * structure and the dataset during the run, and the new positions are
+	 * published in the post-process phase, inside the ui thread.
+	 */
+	class LayoutWorkerTask implements WorkerTask {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.context.worker.WorkerTask#init(org.graphstream
+		 * .nui.UIContext, org.graphstream.nui.context.UIWorker)
+		 */
+		@Override
+		public void init(UIContext ctx, UIWorker worker) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.worker.WorkerTask#preProcess()
+		 */
+		@Override
+		public void preProcess() {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.worker.WorkerTask#run()
+		 */
+		@Override
+		public void run() {
+			algorithm.compute();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.worker.WorkerTask#postProcess()
+		 */
+		@Override
+		public void postProcess() {
+			publish();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.context.worker.WorkerTask#release()
+		 */
+		@Override
+		public void release() {
+		}
 	}
 }
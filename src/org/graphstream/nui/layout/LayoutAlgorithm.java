@@ -33,6 +33,7 @@ package org.graphstream.nui.layout;
 
 import org.graphstream.nui.UIContext;
 import org.graphstream.nui.UILayout;
+import org.graphstream.nui.UIDataset;
 import org.graphstream.nui.dataset.DataProvider;
 
 public interface LayoutAlgorithm {
@@ -46,9 +47,25 @@ public interface LayoutAlgorithm {
 
 	DataProvider getDataProvider();
 
+	/**
+	 * Publish the computed positions to the dataset. This is called from the
+	 * thread computing the layout, when {@link #publishNeeded()} is true.
+	 * 
+	 * @param dataset
+	 *            the dataset receiving the positions
+	 */
+	void publish(UIDataset dataset);
+
 	void enableSpacePartition(boolean on);
 
 	boolean isSpacePartitionEnable();
 
 	void setViewZone(double viewZone);
+
+	/**
+	 * A number in [0..1] with 1 meaning fully stabilized.
+	 * 
+	 * @return the stabilization of the layout
+	 */
+	double getStabilization();
 }
@@ -152,6 +152,18 @@ public abstract class LayoutAlgorithmBase implements LayoutAlgorithm {
 		return dataProvider;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.layout.LayoutAlgorithm#publish(org.graphstream.nui
+	 * .UIDataset)
+	 */
+	@Override
+	public void publish(UIDataset dataset) {
+		dataset.publishNodesXYZ(dataProvider);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
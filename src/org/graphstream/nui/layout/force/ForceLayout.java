@@ -35,6 +35,7 @@ import java.util.logging.Logger;
 
 import org.graphstream.nui.UIAttributes;
 import org.graphstream.nui.UIContext;
+import org.graphstream.nui.UIDataset;
 import org.graphstream.nui.UILayout;
 import org.graphstream.nui.UISwapper;
 import org.graphstream.nui.UIAttributes.AttributeType;
@@ -42,6 +43,7 @@ import org.graphstream.nui.UISwapper.ValueFactory;
 import org.graphstream.nui.attributes.AttributeHandler;
 import org.graphstream.nui.dataset.DataProvider;
 import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.indexer.CompressedAdjacency;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.EdgeIndex;
 import org.graphstream.nui.indexer.ElementIndex.NodeIndex;
@@ -85,6 +87,12 @@ public abstract class ForceLayout extends LayoutAlgorithmBase {
 
 	protected double boundaryWeight = 0.5;
 
+	/**
+	 * Positions published by {@link #publish(UIDataset)}, reused from one
+	 * step to another.
+	 */
+	protected double[] positions = new double[0];
+
 	protected ForceLayout() {
 	}
 
@@ -227,6 +235,16 @@ public abstract class ForceLayout extends LayoutAlgorithmBase {
 		this.stabilizationLimit = value;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.layout.LayoutAlgorithm#getStabilization()
+	 */
+	@Override
+	public double getStabilization() {
+		return energies.getStabilization();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -301,27 +319,39 @@ public abstract class ForceLayout extends LayoutAlgorithmBase {
 		Vector3 p2 = new Vector3();
 		double w;
 
+		CompressedAdjacency adjacency = indexer.getAdjacency();
+		int[] neighbours = adjacency.getNeighbours();
+
 		for (int i = 0; i < dataset.getNodeCount() - 1; i++) {
 			NodeIndex n1 = indexer.getNodeIndex(i);
 			Particle part1 = particles.get(n1, 0);
 
 			dataset.getNodeXYZ(n1, p1);
 
+			//
+			// Neighbours are sorted, so they are found while walking along
+			// the other nodes rather than searched for each of them.
+			//
+			int k = adjacency.getOffset(i);
+			int end = adjacency.getOffset(i + 1);
+
 			for (int j = i + 1; j < dataset.getNodeCount(); j++) {
-				NodeIndex n2 = indexer.getNodeIndex(j);
-				Particle part2 = particles.get(n2, 0);
+				while (k < end && neighbours[k] < j)
+					k++;
 
-				dataset.getNodeXYZ(n2, p2);
+				if (k < end && neighbours[k] == j)
+					continue;
 
-				if (!n1.isConnectedTo(n2)) {
-					w = getRepulsionWeight(n1, n2);
+				Particle part2 = particles.get(j, 0);
+				dataset.getNodeXYZ(j, p2.getRawData());
 
-					if (!part1.isFrozen())
-						particles.get(n1, 0).repulsion(p1, p2, w);
+				w = getRepulsionWeight(n1, indexer.getNodeIndex(j));
 
-					if (!part2.isFrozen())
-						particles.get(n2, 0).repulsion(p2, p1, w);
-				}
+				if (!part1.isFrozen())
+					part1.repulsion(p1, p2, w);
+
+				if (!part2.isFrozen())
+					part2.repulsion(p2, p1, w);
 			}
 		}
 	}
@@ -378,18 +408,21 @@ public abstract class ForceLayout extends LayoutAlgorithmBase {
 		//
 		else {
 			if (cell != spacePartition.getSpaceCell(n1)) {
-				BarycenterData barycenter = (BarycenterData) cell
-						.getData(barycenterIndex);
-				double dist = p1.distance(barycenter.getBarycenter());
+				double[] barycenter = p2.getRawData();
+
+				barycenter[0] = cell.getData(barycenterIndex, BarycenterData.X);
+				barycenter[1] = cell.getData(barycenterIndex, BarycenterData.Y);
+				barycenter[2] = cell.getData(barycenterIndex, BarycenterData.Z);
+
+				double dist = p1.distance(p2);
 
 				if (cell.getChildrenCount() > 0
 						&& (cell.getBoundary().getDiagonal() / dist) > barnesHutTheta) {
 					for (int i = 0; i < cell.getChildrenCount(); i++)
 						computeRepulsionRecursive(n1, p1, p2, cell.getChild(i));
-				} else if (barycenter.getWeight() != 0) {
-					particles.get(n1, 0).repulsion(p1,
-							barycenter.getBarycenter(),
-							getRepulsionWeight(n1, cell, barycenter));
+				} else if (cell.getData(barycenterIndex, BarycenterData.WEIGHT) != 0) {
+					particles.get(n1, 0).repulsion(p1, p2,
+							getRepulsionWeight(n1, cell));
 				}
 			}
 		}
@@ -463,9 +496,58 @@ public abstract class ForceLayout extends LayoutAlgorithmBase {
 		return dataset.getElementWeight(target);
 	}
 
-	protected double getRepulsionWeight(NodeIndex source, SpaceCell target,
-			BarycenterData data) {
-		return data.getWeight();
+	protected double getRepulsionWeight(NodeIndex source, SpaceCell target) {
+		return target.getData(barycenterIndex, BarycenterData.WEIGHT);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.layout.LayoutAlgorithmBase#publish(org.graphstream
+	 * .nui.UIDataset)
+	 */
+	@Override
+	public void publish(UIDataset dataset) {
+		int nodeCount = indexer.getNodeCount();
+		int dim = space.is3D() ? 3 : 2;
+
+		if (positions.length < nodeCount * dim)
+			positions = new double[nodeCount * dim];
+
+		//
+		// Positions are copied in one block and displacements are applied on
+		// the copy, instead of reading each node through the data provider.
+		//
+		dataset.getNodesXYZ().duplicate().get(positions, 0, nodeCount * dim);
+
+		Bounds b = space.getBounds();
+		Vector3 h = b.getHighestPoint();
+		Vector3 l = b.getLowestPoint();
+
+		for (int idx = 0; idx < nodeCount; idx++) {
+			Particle p = particles.get(idx, 0);
+
+			if (p.isFrozen())
+				continue;
+
+			int o = idx * dim;
+
+			positions[o] = check(positions[o] + p.displacement.x(), l.x(),
+					h.x());
+			positions[o + 1] = check(positions[o + 1] + p.displacement.y(),
+					l.y(), h.y());
+
+			if (dim == 3)
+				positions[o + 2] = check(
+						positions[o + 2] + p.displacement.z(), l.z(), h.z());
+		}
+
+		dataset.publishNodesXYZ(positions, 0);
+	}
+
+	protected static double check(double v, double min, double max) {
+		return Math.max(Math.min(v, max), min);
 	}
 
 	protected abstract Particle createParticle(NodeIndex index);
@@ -502,10 +584,6 @@ public abstract class ForceLayout extends LayoutAlgorithmBase {
 				// xyz[2]);
 			}
 		}
-
-		protected double check(double v, double min, double max) {
-			return Math.max(Math.min(v, max), min);
-		}
 	}
 
 	class ParticleInternal {
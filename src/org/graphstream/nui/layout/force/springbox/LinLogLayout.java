@@ -84,16 +84,15 @@ public class LinLogLayout extends ForceLayout {
 	 * 
 	 * @see org.graphstream.nui.layout.force.ForceLayout#getRepulsionWeight(org.
 	 * graphstream.nui.indexer.ElementIndex.NodeIndex,
-	 * org.graphstream.nui.spacePartition.SpaceCell,
-	 * org.graphstream.nui.spacePartition.data.BarycenterData)
+	 * org.graphstream.nui.spacePartition.SpaceCell)
 	 */
 	@Override
-	protected double getRepulsionWeight(NodeIndex source, SpaceCell target,
-			BarycenterData data) {
-		double degFactor = edgeBased ? source.getDegree() * data.getDegree()
-				: 1;
+	protected double getRepulsionWeight(NodeIndex source, SpaceCell target) {
+		double degFactor = edgeBased ? source.getDegree()
+				* target.getData(barycenterIndex, BarycenterData.DEGREE) : 1;
 
-		return degFactor * dataset.getElementWeight(source) * data.getWeight();
+		return degFactor * dataset.getElementWeight(source)
+				* target.getData(barycenterIndex, BarycenterData.WEIGHT);
 	}
 
 	/*
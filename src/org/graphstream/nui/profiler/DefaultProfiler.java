@@ -0,0 +1,605 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.profiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.graphstream.nui.AbstractModule;
+import org.graphstream.nui.UIContext;
+import org.graphstream.nui.UIProfiler;
+import org.graphstream.nui.context.TickProfiler;
+import org.graphstream.nui.util.Tools;
+import org.graphstream.stream.SinkAdapter;
+
+/**
+ * Default profiler. Once loaded, the module installs itself as the tick
+ * profiler of the context and registers a MBean, named
+ * <code>org.graphstream.nui:type=Profiler,name=...</code>, exposing the main
+ * statistics.
+ * 
+ * Events received from the sources are counted with a sink connected to the
+ * context proxy.
+ */
+public class DefaultProfiler extends AbstractModule implements UIProfiler,
+		TickProfiler, ProfilerMXBean {
+	private static final Logger LOGGER = Logger.getLogger(DefaultProfiler.class
+			.getName());
+
+	public static final String ATTRIBUTE_ENABLED = "enabled";
+
+	/**
+	 * Attribute used to set the number of ticks on which statistics are
+	 * computed. Changing the window resets the statistics.
+	 */
+	public static final String ATTRIBUTE_WINDOW = "window";
+
+	public static final int DEFAULT_WINDOW = 300;
+
+	protected volatile boolean enabled;
+
+	protected int window;
+
+	protected volatile RollingStatistics tickStats;
+
+	protected volatile RollingStatistics eventStats;
+
+	protected volatile Map<Phase, RollingStatistics> phaseStats;
+
+	protected volatile Map<String, RollingStatistics> taskStats;
+
+	protected volatile long tickLength;
+
+	protected EventCounter eventCounter;
+
+	protected ObjectName objectName;
+
+	public DefaultProfiler() {
+		super(MODULE_ID);
+
+		window = DEFAULT_WINDOW;
+		enabled = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.AbstractModule#init(org.graphstream.nui.UIContext)
+	 */
+	@Override
+	public void init(UIContext ctx) {
+		super.init(ctx);
+
+		createStatistics();
+
+		eventCounter = new EventCounter();
+		ctx.getContextProxy().addSink(eventCounter);
+
+		registerMBean();
+
+		if (enabled)
+			ctx.setTickProfiler(this);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.AbstractModule#release()
+	 */
+	@Override
+	public void release() {
+		ctx.setTickProfiler(null);
+		ctx.getContextProxy().removeSink(eventCounter);
+
+		unregisterMBean();
+
+		super.release();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.AbstractModule#setAttribute(java.lang.String,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void setAttribute(String key, Object value) {
+		super.setAttribute(key, value);
+
+		switch (key) {
+		case ATTRIBUTE_ENABLED:
+			try {
+				setEnabled(Tools.checkAndGetBoolean(value));
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_ENABLED, value));
+			}
+
+			break;
+		case ATTRIBUTE_WINDOW:
+			try {
+				int w = Tools.checkAndGetInt(value);
+
+				if (w <= 0)
+					throw new IllegalArgumentException();
+
+				window = w;
+				createStatistics();
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_WINDOW, value));
+			}
+
+			break;
+		default:
+			break;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#isEnabled()
+	 */
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#setEnabled(boolean)
+	 */
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+
+		if (ctx != null)
+			ctx.setTickProfiler(enabled ? this : null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#getTickStatistics()
+	 */
+	@Override
+	public RollingStatistics getTickStatistics() {
+		return tickStats;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIProfiler#getPhaseStatistics(org.graphstream.nui
+	 * .context.TickProfiler.Phase)
+	 */
+	@Override
+	public RollingStatistics getPhaseStatistics(Phase phase) {
+		return phaseStats.get(phase);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#getTaskStatistics(java.lang.String)
+	 */
+	@Override
+	public RollingStatistics getTaskStatistics(String taskId) {
+		return taskStats.get(taskId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#getTaskIds()
+	 */
+	@Override
+	public Iterable<String> getTaskIds() {
+		return Collections.unmodifiableSet(taskStats.keySet());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#getEventStatistics()
+	 */
+	@Override
+	public RollingStatistics getEventStatistics() {
+		return eventStats;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#getOverrunRatio()
+	 */
+	@Override
+	public double getOverrunRatio() {
+		return tickStats.getRatioAbove(tickLength);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UIProfiler#reset()
+	 */
+	@Override
+	public void reset() {
+		tickStats.clear();
+		eventStats.clear();
+
+		for (RollingStatistics rs : phaseStats.values())
+			rs.clear();
+
+		taskStats.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.context.TickProfiler#phaseDone(org.graphstream.nui
+	 * .context.TickProfiler.Phase, long)
+	 */
+	@Override
+	public void phaseDone(Phase phase, long duration) {
+		phaseStats.get(phase).add(duration);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.TickProfiler#taskDone(java.lang.String,
+	 * long)
+	 */
+	@Override
+	public void taskDone(String taskId, long duration) {
+		RollingStatistics rs = taskStats.get(taskId);
+
+		if (rs == null) {
+			rs = new RollingStatistics(window);
+			taskStats.put(taskId, rs);
+		}
+
+		rs.add(duration);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.context.TickProfiler#tickDone(long, long)
+	 */
+	@Override
+	public void tickDone(long duration, long tickLength) {
+		this.tickLength = tickLength;
+
+		tickStats.add(duration);
+		eventStats.add(eventCounter.events);
+		eventCounter.events = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTickCount()
+	 */
+	@Override
+	public long getTickCount() {
+		return tickStats.getTotalCount();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTickMeanMillis()
+	 */
+	@Override
+	public double getTickMeanMillis() {
+		return toMillis(tickStats.getMean());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTickP50Millis()
+	 */
+	@Override
+	public double getTickP50Millis() {
+		return toMillis(tickStats.getPercentile(50));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTickP95Millis()
+	 */
+	@Override
+	public double getTickP95Millis() {
+		return toMillis(tickStats.getPercentile(95));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTickP99Millis()
+	 */
+	@Override
+	public double getTickP99Millis() {
+		return toMillis(tickStats.getPercentile(99));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTickMaxMillis()
+	 */
+	@Override
+	public double getTickMaxMillis() {
+		return toMillis(tickStats.getMax());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getEventsPerTickMean()
+	 */
+	@Override
+	public double getEventsPerTickMean() {
+		return eventStats.getMean();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getEventsPerTickMax()
+	 */
+	@Override
+	public long getEventsPerTickMax() {
+		return eventStats.getMax();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getPhaseMeanMillis()
+	 */
+	@Override
+	public Map<String, Double> getPhaseMeanMillis() {
+		Map<String, Double> r = new HashMap<String, Double>();
+
+		for (Map.Entry<Phase, RollingStatistics> e : phaseStats.entrySet())
+			r.put(e.getKey().name(), toMillis(e.getValue().getMean()));
+
+		return r;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getPhaseP95Millis()
+	 */
+	@Override
+	public Map<String, Double> getPhaseP95Millis() {
+		Map<String, Double> r = new HashMap<String, Double>();
+
+		for (Map.Entry<Phase, RollingStatistics> e : phaseStats.entrySet())
+			r.put(e.getKey().name(), toMillis(e.getValue().getPercentile(95)));
+
+		return r;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTaskMeanMillis()
+	 */
+	@Override
+	public Map<String, Double> getTaskMeanMillis() {
+		Map<String, Double> r = new HashMap<String, Double>();
+
+		for (Map.Entry<String, RollingStatistics> e : taskStats.entrySet())
+			r.put(e.getKey(), toMillis(e.getValue().getMean()));
+
+		return r;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.profiler.ProfilerMXBean#getTaskP95Millis()
+	 */
+	@Override
+	public Map<String, Double> getTaskP95Millis() {
+		Map<String, Double> r = new HashMap<String, Double>();
+
+		for (Map.Entry<String, RollingStatistics> e : taskStats.entrySet())
+			r.put(e.getKey(), toMillis(e.getValue().getPercentile(95)));
+
+		return r;
+	}
+
+	protected void createStatistics() {
+		Map<Phase, RollingStatistics> phases = new EnumMap<Phase, RollingStatistics>(
+				Phase.class);
+
+		for (Phase phase : Phase.values())
+			phases.put(phase, new RollingStatistics(window));
+
+		tickStats = new RollingStatistics(window);
+		eventStats = new RollingStatistics(window);
+		phaseStats = phases;
+		taskStats = new ConcurrentHashMap<String, RollingStatistics>();
+	}
+
+	protected void registerMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			objectName = new ObjectName(String.format(
+					"org.graphstream.nui:type=Profiler,name=%x",
+					System.identityHashCode(ctx)));
+			server.registerMBean(this, objectName);
+		} catch (JMException e) {
+			LOGGER.log(Level.WARNING, "unable to register the profiler MBean",
+					e);
+			objectName = null;
+		}
+	}
+
+	protected void unregisterMBean() {
+		if (objectName == null)
+			return;
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+					objectName);
+		} catch (JMException e) {
+			LOGGER.log(Level.WARNING,
+					"unable to unregister the profiler MBean", e);
+		}
+
+		objectName = null;
+	}
+
+	protected static double toMillis(double nanos) {
+		return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Count the events dispatched by the context proxy.
+	 */
+	class EventCounter extends SinkAdapter {
+		int events;
+
+		@Override
+		public void graphAttributeAdded(String sourceId, long timeId,
+				String attribute, Object value) {
+			events++;
+		}
+
+		@Override
+		public void graphAttributeChanged(String sourceId, long timeId,
+				String attribute, Object oldValue, Object newValue) {
+			events++;
+		}
+
+		@Override
+		public void graphAttributeRemoved(String sourceId, long timeId,
+				String attribute) {
+			events++;
+		}
+
+		@Override
+		public void nodeAttributeAdded(String sourceId, long timeId,
+				String nodeId, String attribute, Object value) {
+			events++;
+		}
+
+		@Override
+		public void nodeAttributeChanged(String sourceId, long timeId,
+				String nodeId, String attribute, Object oldValue,
+				Object newValue) {
+			events++;
+		}
+
+		@Override
+		public void nodeAttributeRemoved(String sourceId, long timeId,
+				String nodeId, String attribute) {
+			events++;
+		}
+
+		@Override
+		public void edgeAttributeAdded(String sourceId, long timeId,
+				String edgeId, String attribute, Object value) {
+			events++;
+		}
+
+		@Override
+		public void edgeAttributeChanged(String sourceId, long timeId,
+				String edgeId, String attribute, Object oldValue,
+				Object newValue) {
+			events++;
+		}
+
+		@Override
+		public void edgeAttributeRemoved(String sourceId, long timeId,
+				String edgeId, String attribute) {
+			events++;
+		}
+
+		@Override
+		public void nodeAdded(String sourceId, long timeId, String nodeId) {
+			events++;
+		}
+
+		@Override
+		public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+			events++;
+		}
+
+		@Override
+		public void edgeAdded(String sourceId, long timeId, String edgeId,
+				String fromNodeId, String toNodeId, boolean directed) {
+			events++;
+		}
+
+		@Override
+		public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+			events++;
+		}
+
+		@Override
+		public void graphCleared(String sourceId, long timeId) {
+			events++;
+		}
+
+		@Override
+		public void stepBegins(String sourceId, long timeId, double step) {
+			events++;
+		}
+	}
+}
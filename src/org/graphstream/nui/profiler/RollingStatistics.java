@@ -0,0 +1,166 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.profiler;
+
+import java.util.Arrays;
+
+/**
+ * Statistics over the last values of a measure. Values are stored in a ring
+ * buffer whose length is the size of the window, so mean, maximum and
+ * percentiles are computed on the last samples only.
+ * 
+ * Samples are added by the context thread, but statistics may be read from
+ * any thread.
+ */
+public class RollingStatistics {
+	protected final long[] samples;
+
+	protected int next;
+
+	protected int size;
+
+	protected long count;
+
+	public RollingStatistics(int window) {
+		if (window <= 0)
+			throw new IllegalArgumentException("window should be positive");
+
+		samples = new long[window];
+		clear();
+	}
+
+	public synchronized void add(long value) {
+		samples[next] = value;
+		next = (next + 1) % samples.length;
+		size = Math.min(size + 1, samples.length);
+		count++;
+	}
+
+	public synchronized void clear() {
+		next = 0;
+		size = 0;
+		count = 0;
+	}
+
+	public int getWindow() {
+		return samples.length;
+	}
+
+	/**
+	 * Number of samples currently in the window.
+	 * 
+	 * @return the number of samples
+	 */
+	public synchronized int getSampleCount() {
+		return size;
+	}
+
+	/**
+	 * Number of samples added since the creation or the last clear.
+	 * 
+	 * @return the total number of samples
+	 */
+	public synchronized long getTotalCount() {
+		return count;
+	}
+
+	public synchronized long getLast() {
+		if (size == 0)
+			return 0;
+
+		return samples[(next + samples.length - 1) % samples.length];
+	}
+
+	public synchronized double getMean() {
+		if (size == 0)
+			return 0;
+
+		double sum = 0;
+
+		for (int i = 0; i < size; i++)
+			sum += samples[i];
+
+		return sum / size;
+	}
+
+	public synchronized long getMax() {
+		long max = 0;
+
+		for (int i = 0; i < size; i++)
+			max = Math.max(max, samples[i]);
+
+		return max;
+	}
+
+	/**
+	 * Get a percentile of the samples of the window, using the nearest-rank
+	 * method.
+	 * 
+	 * @param p
+	 *            the percentile, between 0 and 100
+	 * @return the smallest sample such that p percent of the samples are lower
+	 *         or equal
+	 */
+	public synchronized long getPercentile(double p) {
+		if (size == 0)
+			return 0;
+
+		long[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+
+		int rank = (int) Math.ceil(p / 100.0 * size);
+		rank = Math.max(1, Math.min(size, rank));
+
+		return sorted[rank - 1];
+	}
+
+	/**
+	 * Get the ratio of samples of the window that are strictly greater than a
+	 * threshold.
+	 * 
+	 * @param threshold
+	 *            the threshold
+	 * @return a ratio between 0 and 1
+	 */
+	public synchronized double getRatioAbove(long threshold) {
+		if (size == 0)
+			return 0;
+
+		int above = 0;
+
+		for (int i = 0; i < size; i++)
+			if (samples[i] > threshold)
+				above++;
+
+		return above / (double) size;
+	}
+}
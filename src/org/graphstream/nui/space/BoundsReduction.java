@@ -0,0 +1,127 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.space;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the lowest and highest coordinates of a range of points stored in a
+ * buffer, together with the indexes of the points reaching them. Large ranges
+ * are split and reduced in parallel when the task is invoked in a fork/join
+ * pool.
+ */
+class BoundsReduction extends RecursiveAction {
+	private static final long serialVersionUID = -1740453567424462311L;
+
+	/**
+	 * Ranges with less points than this are reduced sequentially.
+	 */
+	static final int SPLIT_THRESHOLD = 1 << 14;
+
+	final DoubleBuffer points;
+	final int dim;
+	final int from, to;
+
+	final double[] lowest, highest;
+	final int[] lowestIndexes, highestIndexes;
+
+	BoundsReduction(DoubleBuffer points, int dim, int from, int to) {
+		this.points = points;
+		this.dim = dim;
+		this.from = from;
+		this.to = to;
+
+		lowest = new double[dim];
+		highest = new double[dim];
+		lowestIndexes = new int[dim];
+		highestIndexes = new int[dim];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.RecursiveAction#compute()
+	 */
+	@Override
+	protected void compute() {
+		if (to - from <= SPLIT_THRESHOLD) {
+			reduce();
+			return;
+		}
+
+		int middle = (from + to) >>> 1;
+		BoundsReduction left = new BoundsReduction(points, dim, from, middle);
+		BoundsReduction right = new BoundsReduction(points, dim, middle, to);
+
+		invokeAll(left, right);
+
+		for (int a = 0; a < dim; a++) {
+			BoundsReduction l = left.lowest[a] <= right.lowest[a] ? left
+					: right;
+			BoundsReduction h = left.highest[a] >= right.highest[a] ? left
+					: right;
+
+			lowest[a] = l.lowest[a];
+			lowestIndexes[a] = l.lowestIndexes[a];
+			highest[a] = h.highest[a];
+			highestIndexes[a] = h.highestIndexes[a];
+		}
+	}
+
+	/**
+	 * Sequential reduction of the range.
+	 */
+	void reduce() {
+		for (int a = 0; a < dim; a++) {
+			lowest[a] = Double.MAX_VALUE;
+			highest[a] = -Double.MAX_VALUE;
+			lowestIndexes[a] = highestIndexes[a] = -1;
+		}
+
+		for (int idx = from, o = from * dim; idx < to; idx++) {
+			for (int a = 0; a < dim; a++, o++) {
+				double v = points.get(o);
+
+				if (v < lowest[a]) {
+					lowest[a] = v;
+					lowestIndexes[a] = idx;
+				}
+
+				if (v > highest[a]) {
+					highest[a] = v;
+					highestIndexes[a] = idx;
+				}
+			}
+		}
+	}
+}
@@ -31,6 +31,9 @@
  */
 package org.graphstream.nui.space;
 
+import java.nio.DoubleBuffer;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.logging.Logger;
 
 import org.graphstream.nui.AbstractModule;
@@ -41,6 +44,7 @@ import org.graphstream.nui.UISpace;
 import org.graphstream.nui.dataset.DatasetListener;
 import org.graphstream.nui.geom.Vector3;
 import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.swapper.DirtyTracker;
 import org.graphstream.nui.util.Tools;
 import org.graphstream.nui.views.UICamera;
 
@@ -55,22 +59,34 @@ public class DefaultSpace extends AbstractModule implements UISpace {
 
 	protected CoordinatesListener listener;
 
-	protected ElementIndex lxBounds;
-	protected ElementIndex hxBounds;
-	protected ElementIndex lyBounds;
-	protected ElementIndex hyBounds;
-	protected ElementIndex lzBounds;
-	protected ElementIndex hzBounds;
+	protected final List<SpaceListener> listeners;
+
+	/**
+	 * Lowest and highest coordinates of the nodes on each axis, without the
+	 * padding, when the bounds follow the nodes.
+	 */
+	protected final double[] lowest, highest;
+
+	/**
+	 * Nodes reaching the lowest and highest coordinates on each axis. If one
+	 * of them moves inward, or is removed, the extremes have to be computed
+	 * again from all the nodes.
+	 */
+	protected final ElementIndex[] lowestNodes, highestNodes;
 
 	protected double padding;
 
 	public DefaultSpace() {
 		super(MODULE_ID, UIIndexer.MODULE_ID, UIDataset.MODULE_ID);
 
+		listeners = new LinkedList<SpaceListener>();
 		bounds = new InternalBounds();
 		listener = new CoordinatesListener();
 
-		lxBounds = hxBounds = lyBounds = hyBounds = lzBounds = hzBounds = null;
+		lowest = new double[3];
+		highest = new double[3];
+		lowestNodes = new ElementIndex[3];
+		highestNodes = new ElementIndex[3];
 
 		padding = DEFAULT_PADDING;
 	}
@@ -250,57 +266,88 @@ public class DefaultSpace extends AbstractModule implements UISpace {
 		return bounds;
 	}
 
-	protected void computeSpace() {
-		lxBounds = hxBounds = lyBounds = hyBounds = lzBounds = hzBounds = null;
-
-		double lx, hx, ly, hy, lz, hz;
-		double[] xyz = new double[3];
-
-		lx = ly = lz = dataset.getNodeCount() == 0 ? -1 : Double.MAX_VALUE;
-		hx = hy = hz = dataset.getNodeCount() == 0 ? 1 : -Double.MAX_VALUE;
-
-		for (int i = 0; i < dataset.getNodeCount(); i++) {
-			ElementIndex index = indexer.getNodeIndex(i);
-
-			xyz = dataset.getNodeXYZ(index, xyz);
-
-			if (xyz[0] < lx) {
-				lxBounds = index;
-				lx = xyz[0];
-			}
-
-			if (xyz[0] > hx) {
-				hxBounds = index;
-				hx = xyz[0];
-			}
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UISpace#addSpaceListener(org.graphstream.nui.space
+	 * .SpaceListener)
+	 */
+	@Override
+	public void addSpaceListener(SpaceListener l) {
+		listeners.add(l);
+	}
 
-			if (xyz[1] < ly) {
-				lyBounds = index;
-				ly = xyz[1];
-			}
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UISpace#removeSpaceListener(org.graphstream.nui.space
+	 * .SpaceListener)
+	 */
+	@Override
+	public void removeSpaceListener(SpaceListener l) {
+		listeners.remove(l);
+	}
 
-			if (xyz[1] > hy) {
-				hyBounds = index;
-				hy = xyz[1];
+	/**
+	 * Compute the extremes from all the nodes and update the bounds. The
+	 * coordinates are read from the buffer of the dataset, and large graphs
+	 * are reduced in parallel. An axis on which no node has a coordinate, all
+	 * of them being NaN, keeps its previous extremes.
+	 */
+	protected void computeSpace() {
+		int nodeCount = dataset.getNodeCount();
+		int dim = dataset.getPointDimension();
+
+		for (int a = 0; a < 3; a++) {
+			if (nodeCount == 0) {
+				lowest[a] = -1;
+				highest[a] = 1;
+			} else if (a >= dim) {
+				lowest[a] = highest[a] = 0;
 			}
 
-			if (xyz[2] < lz) {
-				lzBounds = index;
-				lz = xyz[2];
-			}
+			lowestNodes[a] = highestNodes[a] = null;
+		}
 
-			if (xyz[2] > hz) {
-				hzBounds = index;
-				hz = xyz[2];
+		if (nodeCount > 0) {
+			BoundsReduction reduction = new BoundsReduction(
+					dataset.getNodesXYZ(), dim, 0, nodeCount);
+
+			if (nodeCount > BoundsReduction.SPLIT_THRESHOLD)
+				Tools.getForkJoinPool().invoke(reduction);
+			else
+				reduction.reduce();
+
+			for (int a = 0; a < dim; a++) {
+				if (reduction.lowestIndexes[a] < 0)
+					continue;
+
+				lowest[a] = reduction.lowest[a];
+				highest[a] = reduction.highest[a];
+				lowestNodes[a] = indexer
+						.getNodeIndex(reduction.lowestIndexes[a]);
+				highestNodes[a] = indexer
+						.getNodeIndex(reduction.highestIndexes[a]);
 			}
 		}
 
-		bounds.set(lx - padding, ly - padding, lz - padding, hx + padding, hy
-				+ padding, hz + padding);
+		updateBounds();
+	}
+
+	/**
+	 * Set the bounds to the extremes plus the padding.
+	 */
+	protected void updateBounds() {
+		bounds.set(lowest[0] - padding, lowest[1] - padding, lowest[2]
+				- padding, highest[0] + padding, highest[1] + padding,
+				highest[2] + padding);
 	}
 
 	protected void fireSpaceUpdated() {
-		Logger.getGlobal().info("space updated " + bounds);
+		for (SpaceListener l : listeners)
+			l.spaceUpdated(this);
 	}
 
 	class CoordinatesListener implements DatasetListener {
@@ -308,128 +355,78 @@ public class DefaultSpace extends AbstractModule implements UISpace {
 		 * (non-Javadoc)
 		 * 
 		 * @see
-		 * org.graphstream.nui.dataset.DatasetListener#nodeMoved(ElementIndex,
-		 * double, double, double)
-		 */
-		@Override
-		public void nodeMoved(ElementIndex nodeIndex, double x, double y,
-				double z) {
-			if (check(nodeIndex, x, y, z))
-				fireSpaceUpdated();
-		}
-
-		/*
-		 * (non-Javadoc)
-		 * 
-		 * @see org.graphstream.nui.dataset.DatasetListener#allNodesMoved()
+		 * org.graphstream.nui.dataset.DatasetListener#nodesMoved(org.graphstream
+		 * .nui.swapper.DirtyTracker)
 		 */
 		@Override
-		public void allNodesMoved() {
-			double[] xyz = new double[3];
-			boolean changed = false;
-
-			for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
-				ElementIndex index = indexer.getNodeIndex(idx);
-				changed = changed || check(index, xyz[0], xyz[1], xyz[2]);
+		public void nodesMoved(DirtyTracker movedNodes) {
+			if (mode == Mode.FIXED)
+				return;
+
+			boolean adaptative = mode == Mode.ADAPTATIVE;
+			int nodeCount = indexer.getNodeCount();
+
+			//
+			// If most of the nodes have moved, like after a step of the
+			// layout, reducing the whole buffer is cheaper than following
+			// each node.
+			//
+			if (adaptative
+					&& (movedNodes.getDirtyCount() > nodeCount / 2
+							|| hasRemovedExtreme())) {
+				computeSpace();
+				return;
 			}
 
-			if (changed)
-				fireSpaceUpdated();
-		}
-
-		protected boolean check(ElementIndex nodeIndex, double x, double y,
-				double z) {
+			DoubleBuffer points = dataset.getNodesXYZ();
+			int dim = dataset.getPointDimension();
 			boolean changed = false;
 
-			double lx = bounds.lowestPoint.x();
-			double ly = bounds.lowestPoint.y();
-			double lz = bounds.lowestPoint.z();
-
-			double hx = bounds.getHighestPoint().x();
-			double hy = bounds.getHighestPoint().y();
-			double hz = bounds.getHighestPoint().z();
-
-			switch (mode) {
-			case GROWING:
-				if (x < lx) {
-					lx = x;
-					changed = true;
-				} else if (x > hx) {
-					hx = x;
-					changed = true;
-				}
-
-				if (y < ly) {
-					ly = y;
-					changed = true;
-				} else if (y > hy) {
-					hy = y;
-					changed = true;
-				}
+			for (int idx = movedNodes.nextDirty(0); idx >= 0
+					&& idx < nodeCount; idx = movedNodes.nextDirty(idx + 1)) {
+				for (int a = 0, o = idx * dim; a < dim; a++, o++) {
+					double v = points.get(o);
 
-				if (is3D) {
-					if (z < lz) {
-						lz = z;
-						changed = true;
-					} else if (z > hz) {
-						hz = z;
-						changed = true;
-					}
-				}
-
-				break;
-			case ADAPTATIVE:
-				if (nodeIndex == lxBounds || nodeIndex == hxBounds
-						|| nodeIndex == lyBounds || nodeIndex == hyBounds
-						|| nodeIndex == lzBounds || nodeIndex == hzBounds) {
-					computeSpace();
-					changed = true;
-				} else {
-					if (x < lx + padding) {
-						lx = x - padding;
-						lxBounds = nodeIndex;
-						changed = true;
-					} else if (x > hx - padding) {
-						hx = x + padding;
-						hxBounds = nodeIndex;
+					if (v < lowest[a]) {
+						lowest[a] = v;
+						lowestNodes[a] = indexer.getNodeIndex(idx);
 						changed = true;
+					} else if (adaptative && v > lowest[a]
+							&& isNode(lowestNodes[a], idx)) {
+						computeSpace();
+						return;
 					}
 
-					if (y < ly + padding) {
-						ly = y - padding;
-						lyBounds = nodeIndex;
+					if (v > highest[a]) {
+						highest[a] = v;
+						highestNodes[a] = indexer.getNodeIndex(idx);
 						changed = true;
-					} else if (y > hy - padding) {
-						hy = y + padding;
-						hyBounds = nodeIndex;
-						changed = true;
-					}
-
-					if (is3D) {
-						if (z < lz + padding) {
-							lz = z - padding;
-							lzBounds = nodeIndex;
-							changed = true;
-						} else if (z > hz - padding) {
-							hz = z + padding;
-							hzBounds = nodeIndex;
-							changed = true;
-						}
+					} else if (adaptative && v < highest[a]
+							&& isNode(highestNodes[a], idx)) {
+						computeSpace();
+						return;
 					}
 				}
-
-				break;
-			default:
-				//
-				// If mode is fixed, there is nothing to do here.
-				//
-				break;
 			}
 
 			if (changed)
-				bounds.set(lx, ly, lz, hx, hy, hz);
+				updateBounds();
+		}
+
+		protected boolean isNode(ElementIndex nodeIndex, int idx) {
+			return nodeIndex != null && nodeIndex.index() == idx;
+		}
+
+		protected boolean hasRemovedExtreme() {
+			for (int a = 0; a < 3; a++) {
+				if (lowestNodes[a] != null && lowestNodes[a].index() < 0)
+					return true;
+
+				if (highestNodes[a] != null && highestNodes[a].index() < 0)
+					return true;
+			}
 
-			return changed;
+			return false;
 		}
 	}
 
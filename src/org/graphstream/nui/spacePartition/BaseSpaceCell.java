@@ -31,22 +31,35 @@
  */
 package org.graphstream.nui.spacePartition;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
 //import java.util.logging.Logger;
 
 import org.graphstream.nui.UISpacePartition;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.space.Bounds;
-import org.graphstream.nui.spacePartition.data.SpaceCellData;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataIndex;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataSet;
 
+/**
+ * Base of the cells holding their nodes themselves. Nodes are stored as their
+ * integer index in an array, and the slot of each node in this array is
+ * recorded by the space partition, so a node is added or removed in constant
+ * time. Removing a node moves the last node of the cell to its slot.
+ * 
+ * The space partition keeps the integer indexes up to date when the indexes
+ * of nodes change.
+ */
 public abstract class BaseSpaceCell implements SpaceCell {
 	// private static final Logger LOGGER = Logger.getLogger(BaseSpaceCell.class
 	// .getName());
 
-	protected final LinkedList<ElementIndex> elements;
+	protected static final int[] NO_NODES = new int[0];
+
+	protected int[] nodes;
+	protected int size;
+	protected int id;
 	protected final Bounds boundary;
 	protected final UISpacePartition spacePartition;
 	protected boolean changed;
@@ -55,7 +68,9 @@ public abstract class BaseSpaceCell implements SpaceCell {
 	protected BaseSpaceCell(UISpacePartition spacePartition, Bounds boundary) {
 		this.spacePartition = spacePartition;
 		this.boundary = boundary;
-		this.elements = new LinkedList<ElementIndex>();
+		this.nodes = NO_NODES;
+		this.size = 0;
+		this.id = -1;
 
 		register();
 	}
@@ -67,7 +82,172 @@ public abstract class BaseSpaceCell implements SpaceCell {
 	 */
 	@Override
 	public Iterator<ElementIndex> iterator() {
-		return elements.iterator();
+		return new Iterator<ElementIndex>() {
+			int next = 0;
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#hasNext()
+			 */
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#next()
+			 */
+			@Override
+			public ElementIndex next() {
+				if (next >= size)
+					throw new NoSuchElementException();
+
+				return spacePartition.getIndexer().getNodeIndex(nodes[next++]);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#remove()
+			 */
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#getId()
+	 */
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#setId(int)
+	 */
+	@Override
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	/**
+	 * Integer index of the node stored in a slot of this cell.
+	 * 
+	 * @param slot
+	 *            the slot, in [0..getNodeCount()[
+	 * @return integer index of the node
+	 */
+	public int getNode(int slot) {
+		return nodes[slot];
+	}
+
+	/**
+	 * Count of nodes stored in this cell itself, which differs from
+	 * {@link #getElementCount()} for cells counting the nodes of their
+	 * children.
+	 * 
+	 * @return count of nodes stored in this cell
+	 */
+	public int getNodeCount() {
+		return size;
+	}
+
+	/**
+	 * Change the integer index of the node stored in a slot. This is called
+	 * by the space partition when the index of a node changes.
+	 * 
+	 * @param slot
+	 *            slot of the node
+	 * @param nodeIndex
+	 *            new integer index of the node
+	 */
+	protected void setNode(int slot, int nodeIndex) {
+		nodes[slot] = nodeIndex;
+	}
+
+	/**
+	 * Store a node at the end of this cell.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 */
+	protected void addNode(int nodeIndex) {
+		if (size == nodes.length)
+			nodes = Arrays.copyOf(nodes, Math.max(4, 2 * size));
+
+		nodes[size] = nodeIndex;
+		nodeCellChanged(nodeIndex, this, size);
+		size++;
+	}
+
+	/**
+	 * Remove the node stored in a slot. The last node of the cell takes its
+	 * slot.
+	 * 
+	 * @param slot
+	 *            slot of the node to remove
+	 */
+	protected void removeNode(int slot) {
+		nodeCellChanged(nodes[slot], null, -1);
+		size--;
+
+		if (slot < size) {
+			nodes[slot] = nodes[size];
+			nodeCellChanged(nodes[slot], this, slot);
+		}
+	}
+
+	/**
+	 * Forget all the nodes of this cell, without recording it in the space
+	 * partition. The nodes have to be stored in another cell.
+	 */
+	protected void clearNodes() {
+		nodes = NO_NODES;
+		size = 0;
+	}
+
+	protected void nodeCellChanged(int nodeIndex, SpaceCell cell, int slot) {
+		if (spacePartition instanceof SpaceCellHandler)
+			((SpaceCellHandler) spacePartition).setNodeCell(nodeIndex, cell,
+					slot);
+	}
+
+	/**
+	 * Cell holding a node, as recorded by the space partition.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return the cell of the node, or null
+	 */
+	protected SpaceCell getNodeCell(int nodeIndex) {
+		if (spacePartition instanceof SpaceCellHandler)
+			return ((SpaceCellHandler) spacePartition).getSpaceCell(nodeIndex);
+
+		return null;
+	}
+
+	/**
+	 * Slot of a node in its cell, as recorded by the space partition.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return the slot of the node
+	 */
+	protected int getNodeSlot(int nodeIndex) {
+		if (spacePartition instanceof SpaceCellHandler)
+			return ((SpaceCellHandler) spacePartition).getNodeSlot(nodeIndex);
+
+		return -1;
 	}
 
 	protected void register() {
@@ -95,14 +275,45 @@ public abstract class BaseSpaceCell implements SpaceCell {
 	 * 
 	 * @see
 	 * org.graphstream.nui.spacePartition.SpaceCell#getData(org.graphstream.
-	 * nui.spacePartition.data.SpaceCellDataIndex)
+	 * nui.spacePartition.data.SpaceCellDataIndex, int)
 	 */
 	@Override
-	public SpaceCellData getData(SpaceCellDataIndex index) {
+	public double getData(SpaceCellDataIndex index, int component) {
+		if (changed)
+			updateData();
+
+		return datas.get(this, index, component);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#invalidateData()
+	 */
+	@Override
+	public void invalidateData() {
+		changed = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#updateData()
+	 */
+	@Override
+	public void updateData() {
 		if (changed)
 			computeData();
+	}
 
-		return datas.get(index);
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#isDataChanged()
+	 */
+	@Override
+	public boolean isDataChanged() {
+		return changed;
 	}
 
 	/*
@@ -124,12 +335,12 @@ public abstract class BaseSpaceCell implements SpaceCell {
 	 */
 	@Override
 	public String toString() {
-		return String.format("space_cell@%s%s", boundary, elements);
+		return String.format("space_cell#%d@%s[%d nodes]", id, boundary, size);
 	}
 
 	protected void computeData() {
-		for (SpaceCellData data : datas)
-			data.compute(spacePartition.getContext(), this);
+		if (datas != null)
+			datas.compute(this);
 
 		changed = false;
 	}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.spacePartition;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Updates the data of the invalidated cells of a tree, children before their
+ * parent. Only the invalidated children are visited, and the subtrees holding
+ * enough nodes are updated in parallel when the task is invoked in a fork/join
+ * pool.
+ */
+class DataUpdate extends RecursiveAction {
+	private static final long serialVersionUID = 4313350817546431624L;
+
+	/**
+	 * Subtrees with less nodes than this are updated sequentially.
+	 */
+	static final int SPLIT_THRESHOLD = 1 << 12;
+
+	final TreeSpaceCell cell;
+
+	DataUpdate(TreeSpaceCell cell) {
+		this.cell = cell;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.RecursiveAction#compute()
+	 */
+	@Override
+	protected void compute() {
+		if (!cell.isDataChanged())
+			return;
+
+		if (cell.getElementCount() > SPLIT_THRESHOLD) {
+			DataUpdate[] tasks = new DataUpdate[cell.getChildrenCount()];
+			int count = 0;
+
+			for (int i = 0; i < cell.getChildrenCount(); i++) {
+				TreeSpaceCell child = cell.getChild(i);
+
+				if (child.isDataChanged())
+					tasks[count++] = new DataUpdate(child);
+			}
+
+			if (count > 0) {
+				for (int i = 1; i < count; i++)
+					tasks[i].fork();
+
+				tasks[0].compute();
+
+				for (int i = 1; i < count; i++)
+					tasks[i].join();
+			}
+		}
+
+		//
+		// Children are up to date at this point when the subtree has been
+		// split, only the data of the cell itself are computed.
+		//
+		cell.updateData();
+	}
+}
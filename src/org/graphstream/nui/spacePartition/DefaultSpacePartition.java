@@ -33,10 +33,10 @@ package org.graphstream.nui.spacePartition;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,16 +48,24 @@ import org.graphstream.nui.UIIndexer;
 import org.graphstream.nui.UISpace;
 import org.graphstream.nui.UISpacePartition;
 import org.graphstream.nui.UISwapper;
+import org.graphstream.nui.UISwapper.BufferType;
+import org.graphstream.nui.UISwapper.CreationTrigger;
 import org.graphstream.nui.dataset.DatasetListener;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.indexer.IndexPermutation;
+import org.graphstream.nui.indexer.IndexerListener;
 import org.graphstream.nui.spacePartition.data.SpaceCellData;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataFactory;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataIndex;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataSet;
+import org.graphstream.nui.spacePartition.linear.LinearTreeBuilder;
+import org.graphstream.nui.spacePartition.linear.LinearTreeSpaceCell;
 import org.graphstream.nui.spacePartition.ntree.OctTreeSpaceCell;
 import org.graphstream.nui.spacePartition.ntree.QuadTreeSpaceCell;
-import org.graphstream.nui.swapper.UIArrayReference;
+import org.graphstream.nui.swapper.DirtyTracker;
+import org.graphstream.nui.swapper.UIBufferReference;
+import org.graphstream.nui.swapper.UIBufferReference.IntBufferReference;
 import org.graphstream.nui.util.Tools;
 
 public class DefaultSpacePartition extends AbstractModule implements
@@ -67,6 +75,10 @@ public class DefaultSpacePartition extends AbstractModule implements
 
 	protected static final String ATTRIBUTE_ELEMENTS_PER_CELL = "maxElementsPerCell";
 	protected static final String ATTRIBUTE_SPACE_CELL_FACTORY = "spaceCellFactory";
+	protected static final String ATTRIBUTE_REBUILD = "rebuild";
+
+	protected static final int NODE_CELL = 0;
+	protected static final int NODE_SLOT = 1;
 
 	protected UIIndexer indexer;
 
@@ -76,23 +88,55 @@ public class DefaultSpacePartition extends AbstractModule implements
 
 	protected int maxElementsPerCell = DEFAULT_MAX_ELEMENTS_PER_CELL;
 
-	protected final LinkedList<SpaceCell> cells;
+	/**
+	 * Registered cells, addressed by their identifier. Identifiers of the
+	 * unregistered cells are kept in a stack to be reused, so the table stays
+	 * as large as the maximum count of cells.
+	 */
+	protected SpaceCell[] cells;
+
+	protected int cellsEnd;
+
+	protected int[] freeIds;
+
+	protected int freeIdsCount;
 
 	protected SpaceCellFactory cellFactory;
 
 	protected SpaceCell root;
 
-	protected UIArrayReference<SpaceCell> nodeCell;
+	/**
+	 * Identifier of the cell of each node, and slot of the node in this cell.
+	 */
+	protected IntBufferReference nodeCells;
+
+	protected NodeIndexListener indexListener;
 
-	protected final DataSetPool datasets;
+	protected final DataColumns datasets;
+
+	/**
+	 * Builder of the tree when it is built again from scratch each time nodes
+	 * move, rather than updated node by node. Null if the tree is updated.
+	 */
+	protected LinearTreeBuilder linearTreeBuilder;
+
+	/**
+	 * Set when nodes have been removed since the last build of the linear
+	 * tree. The tree is built again before it is read.
+	 */
+	protected boolean treeStale;
 
 	public DefaultSpacePartition() {
 		super(MODULE_ID, UIIndexer.MODULE_ID, UIAttributes.MODULE_ID,
 				UISwapper.MODULE_ID, UIDataset.MODULE_ID, UISpace.MODULE_ID);
 
-		datasets = new DataSetPool();
+		datasets = new DataColumns(16);
 
-		cells = new LinkedList<SpaceCell>();
+		cells = new SpaceCell[datasets.capacity];
+		cellsEnd = 0;
+		freeIds = new int[16];
+		freeIdsCount = 0;
+		indexListener = new NodeIndexListener();
 		cellFactory = new SpaceCellFactory() {
 			/*
 			 * (non-Javadoc)
@@ -129,8 +173,30 @@ public class DefaultSpacePartition extends AbstractModule implements
 		assert space != null;
 
 		UISwapper swapper = (UISwapper) ctx.getModule(UISwapper.MODULE_ID);
-		nodeCell = swapper.createArray(Type.NODE, 1, SpaceCell.class, null);
-
+		nodeCells = (IntBufferReference) swapper.createBuffer(Type.NODE, 2,
+				BufferType.INT, null, new CreationTrigger() {
+					/*
+					 * (non-Javadoc)
+					 * 
+					 * @see org.graphstream.nui.UISwapper.CreationTrigger#
+					 * newBufferElement
+					 * (org.graphstream.nui.swapper.UIBufferReference,
+					 * org.graphstream.nui.indexer.ElementIndex)
+					 */
+					@Override
+					public void newBufferElement(UIBufferReference buffer,
+							ElementIndex index) {
+						nodeCells.setInt(index, NODE_CELL, -1);
+						nodeCells.setInt(index, NODE_SLOT, -1);
+					}
+				});
+
+		//
+		// The swapper has been initialized before, so its listener is called
+		// first and the cells of the nodes already follow the changes of
+		// indexes when this listener is called.
+		//
+		indexer.addIndexerListener(indexListener);
 		dataset.addDatasetListener(this);
 		root = cellFactory.createRootCell(this);
 	}
@@ -144,9 +210,15 @@ public class DefaultSpacePartition extends AbstractModule implements
 	public void release() {
 		super.release();
 
+		linearTreeBuilder = null;
+		treeStale = false;
+
 		dataset.removeDatasetListener(this);
 		dataset = null;
 
+		indexer.removeIndexerListener(indexListener);
+		nodeCells.release();
+
 		space = null;
 	}
 
@@ -183,6 +255,15 @@ public class DefaultSpacePartition extends AbstractModule implements
 						MODULE_ID, ATTRIBUTE_SPACE_CELL_FACTORY, value));
 			}
 
+			break;
+		case ATTRIBUTE_REBUILD:
+			try {
+				setRebuildEnabled(Tools.checkAndGetBoolean(value));
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_REBUILD, value));
+			}
+
 			break;
 		default:
 			break;
@@ -196,7 +277,54 @@ public class DefaultSpacePartition extends AbstractModule implements
 	 */
 	@Override
 	public Iterator<SpaceCell> iterator() {
-		return cells.iterator();
+		checkTree();
+
+		return new Iterator<SpaceCell>() {
+			int next = nextCell(0);
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#hasNext()
+			 */
+			@Override
+			public boolean hasNext() {
+				return next < cellsEnd;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#next()
+			 */
+			@Override
+			public SpaceCell next() {
+				if (next >= cellsEnd)
+					throw new NoSuchElementException();
+
+				SpaceCell cell = cells[next];
+				next = nextCell(next + 1);
+
+				return cell;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#remove()
+			 */
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+			int nextCell(int from) {
+				while (from < cellsEnd && cells[from] == null)
+					from++;
+
+				return from;
+			}
+		};
 	}
 
 	/*
@@ -208,7 +336,45 @@ public class DefaultSpacePartition extends AbstractModule implements
 	 */
 	@Override
 	public SpaceCell getSpaceCell(ElementIndex nodeIndex) {
-		return nodeCell.get(nodeIndex, 0);
+		return getSpaceCell(nodeIndex.index());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCellHandler#getSpaceCell(int)
+	 */
+	@Override
+	public SpaceCell getSpaceCell(int nodeIndex) {
+		checkTree();
+
+		int id = nodeCells.getInt(nodeIndex, NODE_CELL);
+		return id < 0 ? null : cells[id];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCellHandler#getNodeSlot(int)
+	 */
+	@Override
+	public int getNodeSlot(int nodeIndex) {
+		return nodeCells.getInt(nodeIndex, NODE_SLOT);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCellHandler#setNodeCell(int,
+	 * org.graphstream.nui.spacePartition.SpaceCell, int)
+	 */
+	@Override
+	public void setNodeCell(int nodeIndex, SpaceCell cell, int slot) {
+		nodeCells.setInt(nodeIndex, NODE_CELL, cell == null ? -1 : cell.getId());
+		nodeCells.setInt(nodeIndex, NODE_SLOT, slot);
 	}
 
 	/*
@@ -231,6 +397,16 @@ public class DefaultSpacePartition extends AbstractModule implements
 		return dataset;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.UISpacePartition#getIndexer()
+	 */
+	@Override
+	public UIIndexer getIndexer() {
+		return indexer;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -274,8 +450,26 @@ public class DefaultSpacePartition extends AbstractModule implements
 	 */
 	@Override
 	public void register(SpaceCell cell) {
-		cells.add(cell);
-		datasets.add(cell);
+		if (cell.getId() >= 0)
+			return;
+
+		int id;
+
+		if (freeIdsCount > 0)
+			id = freeIds[--freeIdsCount];
+		else {
+			if (cellsEnd == cells.length) {
+				cells = Arrays.copyOf(cells, 2 * cellsEnd);
+				datasets.ensureCapacity(cells.length);
+			}
+
+			id = cellsEnd++;
+		}
+
+		cells[id] = cell;
+		cell.setId(id);
+		cell.setSpaceCellDataCell(datasets);
+		cell.invalidateData();
 
 		//LOGGER.info(String.format("new space cell %s", cell));
 	}
@@ -288,8 +482,18 @@ public class DefaultSpacePartition extends AbstractModule implements
 	 */
 	@Override
 	public void unregister(SpaceCell cell) {
-		datasets.remove(cell);
-		cells.remove(cell);
+		int id = cell.getId();
+
+		if (id < 0 || cells[id] != cell)
+			return;
+
+		cells[id] = null;
+		cell.setId(-1);
+
+		if (freeIdsCount == freeIds.length)
+			freeIds = Arrays.copyOf(freeIds, 2 * freeIdsCount);
+
+		freeIds[freeIdsCount++] = id;
 
 		LOGGER.info(String.format("remove space cell %s", cell));
 	}
@@ -301,6 +505,8 @@ public class DefaultSpacePartition extends AbstractModule implements
 	 */
 	@Override
 	public TreeSpaceCell getRootCell() {
+		checkTree();
+
 		if (root instanceof TreeSpaceCell)
 			return (TreeSpaceCell) root;
 
@@ -321,14 +527,21 @@ public class DefaultSpacePartition extends AbstractModule implements
 			}
 
 			cellFactory = (SpaceCellFactory) obj;
+
+			//
+			// The factory is used once the rebuild is disabled.
+			//
+			if (linearTreeBuilder != null)
+				return;
+
 			root = cellFactory.createRootCell(this);
 
 			for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
 				ElementIndex e = indexer.getNodeIndex(idx);
 
-				double x = dataset.getNodeX(e);
-				double y = dataset.getNodeY(e);
-				double z = dataset.getNodeZ(e);
+				double x = dataset.getNodeX(idx);
+				double y = dataset.getNodeY(idx);
+				double z = dataset.getNodeZ(idx);
 
 				root.insert(e, x, y, z);
 			}
@@ -344,16 +557,170 @@ public class DefaultSpacePartition extends AbstractModule implements
 		}
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Enable or disable the rebuild of the tree. When enabled, the tree is
+	 * built again from scratch with a {@link LinearTreeBuilder} each time
+	 * nodes move, instead of moving the nodes one by one from a cell to
+	 * another. This is faster when most of the nodes move at each step, like
+	 * with a layout.
 	 * 
-	 * @see
-	 * org.graphstream.nui.dataset.DatasetListener#nodeMoved(org.graphstream
-	 * .nui.indexer.ElementIndex, double, double, double)
+	 * @param on
+	 *            true to rebuild the tree, false to update it
 	 */
-	@Override
-	public void nodeMoved(ElementIndex nodeIndex, double x, double y, double z) {
-		SpaceCell sc = nodeCell.get(nodeIndex, 0);
+	public void setRebuildEnabled(boolean on) {
+		if (on == (linearTreeBuilder != null))
+			return;
+
+		if (on) {
+			linearTreeBuilder = new LinearTreeBuilder(getPool());
+
+			rebuild();
+		} else {
+			linearTreeBuilder = null;
+			treeStale = false;
+
+			reset();
+		}
+	}
+
+	public boolean isRebuildEnabled() {
+		return linearTreeBuilder != null;
+	}
+
+	/**
+	 * Pool used to build the linear trees and to update the data of the
+	 * cells. This is the pool shared by the modules.
+	 */
+	protected ForkJoinPool getPool() {
+		return Tools.getForkJoinPool();
+	}
+
+	/**
+	 * Compute again the data of the cells which have been invalidated, from
+	 * the leaves to the root. Large subtrees are updated in parallel.
+	 */
+	protected void updateData() {
+		if (datasets.count == 0 || !root.isDataChanged())
+			return;
+
+		if (root instanceof TreeSpaceCell
+				&& root.getElementCount() > DataUpdate.SPLIT_THRESHOLD)
+			getPool().invoke(new DataUpdate((TreeSpaceCell) root));
+		else
+			root.updateData();
+	}
+
+	/**
+	 * Build the whole tree again from the coordinates of the nodes. Cells are
+	 * built in parallel, and then registered in the ui thread.
+	 */
+	protected void rebuild() {
+		treeStale = false;
+
+		LinearTreeSpaceCell newRoot = linearTreeBuilder.build(indexer,
+				dataset.getNodesXYZ(), dataset.getPointDimension(),
+				indexer.getNodeCount(), space.getBounds(), maxElementsPerCell);
+
+		clearCells();
+		root = newRoot;
+		registerTree(newRoot);
+	}
+
+	/**
+	 * Build the linear tree again if nodes have been removed since its last
+	 * build, so that removed nodes can not be read from its cells.
+	 */
+	protected void checkTree() {
+		if (!treeStale)
+			return;
+
+		rebuild();
+		updateData();
+	}
+
+	/**
+	 * Register a cell built by a {@link LinearTreeBuilder} and its
+	 * descendants, and map the nodes of the leaves to them.
+	 */
+	protected void registerTree(LinearTreeSpaceCell cell) {
+		//
+		// Children are registered first, so the data of a cell can use the
+		// data of its children.
+		//
+		if (cell.getChildrenCount() > 0) {
+			for (int i = 0; i < cell.getChildrenCount(); i++)
+				registerTree((LinearTreeSpaceCell) cell.getChild(i));
+		}
+
+		register(cell);
+
+		if (cell.getChildrenCount() == 0) {
+			int slot = 0;
+
+			for (ElementIndex e : cell)
+				setNodeCell(e.index(), cell, slot++);
+		}
+	}
+
+	/**
+	 * Build a new tree with the cell factory and insert all the nodes in it.
+	 */
+	protected void reset() {
+		clearCells();
+		root = cellFactory.createRootCell(this);
+
+		for (int idx = 0; idx < indexer.getNodeCount(); idx++)
+			setNodeCell(idx, null, -1);
+
+		for (int idx = 0; idx < indexer.getNodeCount(); idx++)
+			moveNode(indexer.getNodeIndex(idx), dataset.getNodeX(idx),
+					dataset.getNodeY(idx), dataset.getNodeZ(idx));
+	}
+
+	/**
+	 * Forget all the cells, and their data.
+	 */
+	protected void clearCells() {
+		for (int id = 0; id < cellsEnd; id++) {
+			if (cells[id] != null)
+				cells[id].setId(-1);
+		}
+
+		Arrays.fill(cells, 0, cellsEnd, null);
+		cellsEnd = 0;
+		freeIdsCount = 0;
+	}
+
+	/**
+	 * Give its current integer index to a node in the cell holding it, after
+	 * its index has changed.
+	 */
+	protected void updateNodeIndex(int nodeIndex) {
+		//
+		// A stale tree is built again anyway.
+		//
+		if (treeStale)
+			return;
+
+		SpaceCell sc = getSpaceCell(nodeIndex);
+
+		if (sc instanceof BaseSpaceCell)
+			((BaseSpaceCell) sc).setNode(getNodeSlot(nodeIndex), nodeIndex);
+	}
+
+	/**
+	 * Move a node in the tree, if it is no longer in the boundary of its cell.
+	 * 
+	 * @param nodeIndex
+	 *            index of the node
+	 * @param x
+	 * @param y
+	 * @param z
+	 *            new coordinates of the node
+	 */
+	protected void moveNode(ElementIndex nodeIndex, double x, double y,
+			double z) {
+		SpaceCell sc = getSpaceCell(nodeIndex);
 
 		if (sc != null && !sc.getBoundary().contains(x, y, z)) {
 			sc.remove(nodeIndex);
@@ -362,7 +729,6 @@ public class DefaultSpacePartition extends AbstractModule implements
 
 		if (sc == null) {
 			sc = root.insert(nodeIndex, x, y, z);
-			nodeCell.set(nodeIndex, 0, sc);
 			// LOGGER.info(String.format("%s in %s", nodeIndex, sc));
 			// /assert sc != null;
 			if (sc == null)
@@ -374,17 +740,176 @@ public class DefaultSpacePartition extends AbstractModule implements
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see org.graphstream.nui.dataset.DatasetListener#allNodesMoved()
+	 * @see
+	 * org.graphstream.nui.dataset.DatasetListener#nodesMoved(org.graphstream
+	 * .nui.swapper.DirtyTracker)
 	 */
 	@Override
-	public void allNodesMoved() {
+	public void nodesMoved(DirtyTracker movedNodes) {
+		if (linearTreeBuilder != null) {
+			rebuild();
+			updateData();
+			return;
+		}
+
 		double[] xyz = new double[3];
+		int nodeCount = indexer.getNodeCount();
+
+		for (int idx = movedNodes.nextDirty(0); idx >= 0 && idx < nodeCount; idx = movedNodes
+				.nextDirty(idx + 1)) {
+			dataset.getNodeXYZ(idx, xyz);
 
-		for (int idx = 0; idx < indexer.getNodeCount(); idx++) {
-			ElementIndex index = indexer.getNodeIndex(idx);
-			dataset.getNodeXYZ(index, xyz);
+			//
+			// Most of the nodes stay in their cell, this is checked without
+			// going through the index object.
+			//
+			SpaceCell sc = getSpaceCell(idx);
 
-			nodeMoved(index, xyz[0], xyz[1], xyz[2]);
+			if (sc != null && sc.getBoundary().contains(xyz[0], xyz[1], xyz[2])) {
+				sc.invalidateData();
+				continue;
+			}
+
+			moveNode(indexer.getNodeIndex(idx), xyz[0], xyz[1], xyz[2]);
+		}
+
+		updateData();
+	}
+
+	/**
+	 * Keeps the integer indexes stored in the cells up to date.
+	 */
+	class NodeIndexListener implements IndexerListener {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#nodeAdded(org.graphstream
+		 * .nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void nodeAdded(ElementIndex nodeIndex) {
+			//
+			// The node is inserted when its coordinates are notified.
+			//
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#nodeRemoved(org.graphstream
+		 * .nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void nodeRemoved(ElementIndex nodeIndex) {
+			//
+			// Linear trees are not updated, they are built again before being
+			// read. This avoids a build for each node of a bulk removal.
+			//
+			if (linearTreeBuilder != null) {
+				treeStale = true;
+				return;
+			}
+
+			SpaceCell sc = getSpaceCell(nodeIndex.index());
+
+			if (sc != null)
+				sc.remove(nodeIndex);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#nodesSwapped(org.graphstream
+		 * .nui.indexer.ElementIndex, org.graphstream.nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void nodesSwapped(ElementIndex nodeIndex1,
+				ElementIndex nodeIndex2) {
+			updateNodeIndex(nodeIndex1.index());
+			updateNodeIndex(nodeIndex2.index());
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#edgeAdded(org.graphstream
+		 * .nui.indexer.ElementIndex, org.graphstream.nui.indexer.ElementIndex,
+		 * org.graphstream.nui.indexer.ElementIndex, boolean)
+		 */
+		@Override
+		public void edgeAdded(ElementIndex edgeIndex, ElementIndex sourceIndex,
+				ElementIndex targetIndex, boolean directed) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#edgeRemoved(org.graphstream
+		 * .nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void edgeRemoved(ElementIndex edgeIndex) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#edgesSwapped(org.graphstream
+		 * .nui.indexer.ElementIndex, org.graphstream.nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void edgesSwapped(ElementIndex edgeIndex1,
+				ElementIndex edgeIndex2) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.indexer.IndexerListener#elementsClear()
+		 */
+		@Override
+		public void elementsClear() {
+			if (linearTreeBuilder != null)
+				rebuild();
+			else
+				reset();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#elementsPermuted(org.
+		 * graphstream.nui.indexer.IndexPermutation)
+		 */
+		@Override
+		public void elementsPermuted(IndexPermutation permutation) {
+			if (permutation.getType() != Type.NODE)
+				return;
+
+			//
+			// Slots of the removed nodes are lost with the permutation, so the
+			// tree is built again. This is a bulk change anyway.
+			//
+			if (permutation.getRemoved().size() > 0) {
+				if (linearTreeBuilder != null)
+					rebuild();
+				else
+					reset();
+
+				return;
+			}
+
+			for (int i = 0; i < permutation.getSwapCount(); i++) {
+				updateNodeIndex(permutation.getSwapIndex1(i));
+				updateNodeIndex(permutation.getSwapIndex2(i));
+			}
 		}
 	}
 
@@ -407,84 +932,143 @@ public class DefaultSpacePartition extends AbstractModule implements
 		}
 	}
 
-	@SuppressWarnings("serial")
-	static class DefaultDataSet extends LinkedList<SpaceCellData> implements
-			SpaceCellDataSet {
+	/**
+	 * Values of the data of the cells. Each data has its own column of
+	 * doubles, holding the components of the data of each cell at an offset
+	 * given by the identifier of the cell, so data are read without going
+	 * through any map or list.
+	 */
+	class DataColumns implements SpaceCellDataSet {
+		SpaceCellData[] datas;
+		DataIndex[] indexes;
+		double[][] columns;
+		int[] strides;
+		int count;
+		int capacity;
+
+		DataColumns(int capacity) {
+			this.datas = new SpaceCellData[4];
+			this.indexes = new DataIndex[4];
+			this.columns = new double[4][];
+			this.strides = new int[4];
+			this.count = 0;
+			this.capacity = capacity;
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
 		 * @see
 		 * org.graphstream.nui.spacePartition.data.SpaceCellDataSet#get(org.
-		 * graphstream.nui.spacePartition.data.SpaceCellDataIndex)
+		 * graphstream.nui.spacePartition.SpaceCell,
+		 * org.graphstream.nui.spacePartition.data.SpaceCellDataIndex, int)
 		 */
 		@Override
-		public SpaceCellData get(SpaceCellDataIndex index) {
-			return get(index.getIndex());
+		public double get(SpaceCell cell, SpaceCellDataIndex index,
+				int component) {
+			int k = index.getIndex();
+			return columns[k][cell.getId() * strides[k] + component];
 		}
-	}
 
-	@SuppressWarnings("serial")
-	class DataSetPool extends HashMap<SpaceCell, DefaultDataSet> {
-		final LinkedList<SpaceCellDataFactory> factories;
-		final LinkedList<DataIndex> indexes;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.spacePartition.data.SpaceCellDataSet#compute(org
+		 * .graphstream.nui.spacePartition.SpaceCell)
+		 */
+		@Override
+		public void compute(SpaceCell cell) {
+			int id = cell.getId();
 
-		DataSetPool() {
-			this.factories = new LinkedList<SpaceCellDataFactory>();
-			this.indexes = new LinkedList<DataIndex>();
-		}
+			if (id < 0)
+				return;
 
-		void add(SpaceCell cell) {
-			DefaultDataSet dataset = new DefaultDataSet();
-			put(cell, dataset);
+			TreeSpaceCell tree = cell instanceof TreeSpaceCell ? (TreeSpaceCell) cell
+					: null;
+			int children = tree == null ? 0 : tree.getChildrenCount();
 
-			cell.setSpaceCellDataCell(dataset);
+			for (int c = 0; c < children; c++)
+				tree.getChild(c).updateData();
 
-			for (int i = 0; i < factories.size(); i++) {
-				SpaceCellData data = factories.get(i).createNewData(cell);
-				data.compute(ctx, cell);
-				dataset.add(data);
+			for (int k = 0; k < count; k++) {
+				SpaceCellData data = datas[k];
+				double[] values = columns[k];
+				int offset = id * strides[k];
+
+				data.reset(values, offset);
+
+				if (children == 0)
+					data.addNodes(ctx, cell, values, offset);
+				else {
+					for (int c = 0; c < children; c++)
+						data.addChild(values, offset, tree.getChild(c)
+								.getId() * strides[k]);
+				}
+
+				data.complete(values, offset);
 			}
 		}
 
+		/**
+		 * Make room for the data of the cells which identifier is lower than
+		 * the given capacity.
+		 */
+		void ensureCapacity(int capacity) {
+			if (capacity <= this.capacity)
+				return;
+
+			for (int k = 0; k < count; k++)
+				columns[k] = Arrays.copyOf(columns[k], capacity * strides[k]);
+
+			this.capacity = capacity;
+		}
+
 		DataIndex add(SpaceCellDataFactory factory) {
-			DataIndex index = new DataIndex(indexes.size());
+			if (count == datas.length) {
+				datas = Arrays.copyOf(datas, 2 * count);
+				indexes = Arrays.copyOf(indexes, 2 * count);
+				columns = Arrays.copyOf(columns, 2 * count);
+				strides = Arrays.copyOf(strides, 2 * count);
+			}
 
-			factories.addLast(factory);
-			indexes.addLast(index);
+			SpaceCellData data = factory.createNewData(DefaultSpacePartition.this);
+			DataIndex index = new DataIndex(count);
 
-			for (Map.Entry<SpaceCell, DefaultDataSet> entry : entrySet()) {
-				DefaultDataSet dataset = entry.getValue();
-				SpaceCellData data = factory.createNewData(entry.getKey());
+			datas[count] = data;
+			indexes[count] = index;
+			strides[count] = data.getComponentCount();
+			columns[count] = new double[capacity * strides[count]];
+			count++;
 
-				data.compute(ctx, entry.getKey());
-				dataset.add(data);
+			for (int id = 0; id < cellsEnd; id++) {
+				if (cells[id] != null)
+					cells[id].invalidateData();
 			}
 
 			return index;
 		}
 
 		void remove(SpaceCellDataIndex index) {
-			if (index.getIndex() == size() - 1) {
-				for (DefaultDataSet dataset : values())
-					dataset.removeLast();
-
-				factories.removeLast();
-				indexes.removeLast();
-			} else {
-				for (DefaultDataSet dataset : values()) {
-					SpaceCellData last = dataset.getLast();
-
-					dataset.set(index.getIndex(), last);
-					dataset.removeLast();
-				}
+			int k = index.getIndex();
 
-				factories.set(index.getIndex(), factories.getLast());
-				factories.removeLast();
+			if (k < 0 || k >= count || indexes[k] != index)
+				return;
 
-				indexes.getLast().index = index.getIndex();
-				indexes.set(index.getIndex(), indexes.getLast());
-				indexes.removeLast();
-			}
+			//
+			// The last data takes the place of the removed one.
+			//
+			count--;
+
+			datas[k] = datas[count];
+			columns[k] = columns[count];
+			strides[k] = strides[count];
+			indexes[k] = indexes[count];
+			indexes[k].index = k;
+
+			datas[count] = null;
+			columns[count] = null;
+			indexes[count] = null;
 		}
 	}
 }
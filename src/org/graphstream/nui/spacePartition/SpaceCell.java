@@ -33,7 +33,6 @@ package org.graphstream.nui.spacePartition;
 
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.space.Bounds;
-import org.graphstream.nui.spacePartition.data.SpaceCellData;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataIndex;
 import org.graphstream.nui.spacePartition.data.SpaceCellDataSet;
 
@@ -46,7 +45,54 @@ public interface SpaceCell extends Iterable<ElementIndex> {
 	
 	void setSpaceCellDataCell(SpaceCellDataSet set);
 	
-	SpaceCellData getData(SpaceCellDataIndex index);
+	/**
+	 * Get a value of a data of this cell. Data are computed again first if
+	 * they have been invalidated.
+	 * 
+	 * @param index
+	 *            index of the data in the space partition
+	 * @param component
+	 *            component of the data
+	 * @return the value of the component
+	 */
+	double getData(SpaceCellDataIndex index, int component);
+
+	/**
+	 * Mark the data of this cell, and of its ancestors, as to be computed
+	 * again. Ancestors of a cell which data have changed are expected to be
+	 * marked too, so propagation stops at the first marked ancestor.
+	 */
+	void invalidateData();
+
+	/**
+	 * Compute again the data of this cell if they have been invalidated. Data
+	 * of the children are updated first.
+	 */
+	void updateData();
+
+	/**
+	 * Tell if the data of this cell have to be computed again.
+	 * 
+	 * @return true if the data have been invalidated since the last update
+	 */
+	boolean isDataChanged();
 	
 	int getElementCount();
+
+	/**
+	 * Identifier of the cell in its space partition, given when the cell is
+	 * registered. Identifiers of unregistered cells are reused.
+	 * 
+	 * @return the identifier of the cell, or -1 if it is not registered
+	 */
+	int getId();
+
+	/**
+	 * Set the identifier of the cell. This is called by the space partition
+	 * when the cell is registered or unregistered.
+	 * 
+	 * @param id
+	 *            the new identifier, or -1
+	 */
+	void setId(int id);
 }
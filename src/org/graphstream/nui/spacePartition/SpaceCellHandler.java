@@ -37,4 +37,35 @@ interface SpaceCellHandler extends UISpacePartition {
 	void register(SpaceCell cell);
 	
 	void unregister(SpaceCell cell);
+
+	/**
+	 * Record the cell holding a node, and the slot of the node in this cell.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @param cell
+	 *            the cell holding the node, or null
+	 * @param slot
+	 *            slot of the node in the cell
+	 */
+	void setNodeCell(int nodeIndex, SpaceCell cell, int slot);
+
+	/**
+	 * Get the slot of a node in its cell, as given to
+	 * {@link #setNodeCell(int, SpaceCell, int)}.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return slot of the node
+	 */
+	int getNodeSlot(int nodeIndex);
+
+	/**
+	 * Get the cell holding a node.
+	 * 
+	 * @param nodeIndex
+	 *            integer index of the node
+	 * @return the cell of the node, or null
+	 */
+	SpaceCell getSpaceCell(int nodeIndex);
 }
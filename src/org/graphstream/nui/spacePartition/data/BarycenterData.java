@@ -33,80 +33,143 @@ package org.graphstream.nui.spacePartition.data;
 
 import org.graphstream.nui.UIContext;
 import org.graphstream.nui.UIDataset;
-import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.UISpacePartition;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.NodeIndex;
 import org.graphstream.nui.spacePartition.SpaceCell;
 
+/**
+ * Barycenter of the nodes of a cell, with the sum of their weights and of
+ * their degrees. Each node counts for one in the barycenter.
+ */
 public class BarycenterData implements SpaceCellData {
 	public static final SpaceCellDataFactory FACTORY = new SpaceCellDataFactory() {
 		/*
 		 * (non-Javadoc)
 		 * 
 		 * @see org.graphstream.nui.spacePartition.data.SpaceCellDataFactory#
-		 * createNewData(org.graphstream.nui.spacePartition.SpaceCell)
+		 * createNewData(org.graphstream.nui.UISpacePartition)
 		 */
 		@Override
-		public SpaceCellData createNewData(SpaceCell cell) {
-			return new BarycenterData();
+		public SpaceCellData createNewData(UISpacePartition spacePartition) {
+			return new BarycenterData(spacePartition.getDataset());
 		}
 	};
 
-	protected Vector3 barycenter;
-	protected double weight;
-	protected double degree;
+	public static final int X = 0;
+	public static final int Y = 1;
+	public static final int Z = 2;
+	public static final int WEIGHT = 3;
+	public static final int DEGREE = 4;
+	public static final int COUNT = 5;
+
+	protected static final int COMPONENTS = 6;
 
-	public BarycenterData() {
-		barycenter = new Vector3();
-		weight = 0;
-		degree = 0;
+	/**
+	 * Dataset giving the positions and the weights of the nodes, resolved
+	 * once since the data is computed for each changed cell.
+	 */
+	protected final UIDataset dataset;
+
+	public BarycenterData(UIDataset dataset) {
+		this.dataset = dataset;
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
 	 * @see
-	 * org.graphstream.nui.spacePartition.data.SpaceCellData#compute(org.graphstream
-	 * .nui.UIContext, org.graphstream.nui.spacePartition.SpaceCell)
+	 * org.graphstream.nui.spacePartition.data.SpaceCellData#getComponentCount()
 	 */
 	@Override
-	public void compute(UIContext ctx, SpaceCell cell) {
-		double x = 0;
-		double y = 0;
-		double z = 0;
-		double[] xyz = new double[3];
-
-		weight = 0;
-
-		UIDataset dataset = (UIDataset) ctx.getModule(UIDataset.MODULE_ID);
-
-		for (ElementIndex index : cell) {
-			dataset.getNodeXYZ(index, xyz);
+	public int getComponentCount() {
+		return COMPONENTS;
+	}
 
-			x += xyz[0];
-			y += xyz[1];
-			z += xyz[2];
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.data.SpaceCellData#reset(double[],
+	 * int)
+	 */
+	@Override
+	public void reset(double[] values, int offset) {
+		for (int i = 0; i < COMPONENTS; i++)
+			values[offset + i] = 0;
+	}
 
-			weight += dataset.getElementWeight(index);
-			degree += ((NodeIndex) index).getDegree();
-		}
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.SpaceCellData#addNodes(org.graphstream
+	 * .nui.UIContext, org.graphstream.nui.spacePartition.SpaceCell, double[],
+	 * int)
+	 */
+	@Override
+	public void addNodes(UIContext ctx, SpaceCell cell, double[] values,
+			int offset) {
+		//
+		// Cells are computed in parallel, so the coordinates are read one by
+		// one rather than through a scratch array shared by all the cells.
+		//
+		for (ElementIndex index : cell)
+			addNode(dataset, index, dataset.getNodeX(index),
+					dataset.getNodeY(index), dataset.getNodeZ(index), values,
+					offset);
+	}
 
-		x /= cell.getElementCount();
-		y /= cell.getElementCount();
-		z /= cell.getElementCount();
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.SpaceCellData#addChild(double[],
+	 * int, int)
+	 */
+	@Override
+	public void addChild(double[] values, int offset, int childOffset) {
+		double count = values[childOffset + COUNT];
 
-		barycenter.set(x, y, z);
+		//
+		// The child holds its barycenter, it is weighted by its count of nodes
+		// to get back the sum of the coordinates.
+		//
+		values[offset + X] += values[childOffset + X] * count;
+		values[offset + Y] += values[childOffset + Y] * count;
+		values[offset + Z] += values[childOffset + Z] * count;
+		values[offset + WEIGHT] += values[childOffset + WEIGHT];
+		values[offset + DEGREE] += values[childOffset + DEGREE];
+		values[offset + COUNT] += count;
 	}
 
-	public Vector3 getBarycenter() {
-		return barycenter;
-	}
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.SpaceCellData#complete(double[],
+	 * int)
+	 */
+	@Override
+	public void complete(double[] values, int offset) {
+		double count = values[offset + COUNT];
 
-	public double getWeight() {
-		return weight;
+		if (count > 0) {
+			values[offset + X] /= count;
+			values[offset + Y] /= count;
+			values[offset + Z] /= count;
+		}
 	}
 
-	public double getDegree() {
-		return degree;
+	/**
+	 * Aggregate one node of a leaf.
+	 */
+	protected void addNode(UIDataset dataset, ElementIndex index, double x,
+			double y, double z, double[] values, int offset) {
+		values[offset + X] += x;
+		values[offset + Y] += y;
+		values[offset + Z] += z;
+		values[offset + WEIGHT] += dataset.getElementWeight(index);
+		values[offset + DEGREE] += ((NodeIndex) index).getDegree();
+		values[offset + COUNT]++;
 	}
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.spacePartition.data;
+
+import org.graphstream.nui.UIDataset;
+import org.graphstream.nui.UISpacePartition;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.spacePartition.SpaceCell;
+
+/**
+ * Barycenter data also giving the quadrupole moment of the nodes of a cell,
+ * relative to their barycenter. The moment is the traceless tensor
+ * Q[i][j] = sum(3 * d[i] * d[j] - |d|^2 * delta[i][j]), where d is the
+ * position of a node relative to the barycenter, and each node counts for one
+ * like in the barycenter.
+ * 
+ * The second moments relative to the barycenter are stored rather than the
+ * quadrupole itself, because they can be aggregated from the children with the
+ * parallel axis theorem. The quadrupole is given by
+ * {@link #getQuadrupole(SpaceCell, SpaceCellDataIndex, int)}.
+ */
+public class QuadrupoleData extends BarycenterData {
+	public static final SpaceCellDataFactory FACTORY = new SpaceCellDataFactory() {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.spacePartition.data.SpaceCellDataFactory#
+		 * createNewData(org.graphstream.nui.UISpacePartition)
+		 */
+		@Override
+		public SpaceCellData createNewData(UISpacePartition spacePartition) {
+			return new QuadrupoleData(spacePartition.getDataset());
+		}
+	};
+
+	public static final int XX = BarycenterData.COMPONENTS;
+	public static final int YY = XX + 1;
+	public static final int ZZ = XX + 2;
+	public static final int XY = XX + 3;
+	public static final int XZ = XX + 4;
+	public static final int YZ = XX + 5;
+
+	protected static final int COMPONENTS = BarycenterData.COMPONENTS + 6;
+
+	public QuadrupoleData(UIDataset dataset) {
+		super(dataset);
+	}
+
+	/**
+	 * Get a component of the quadrupole moment of a cell.
+	 * 
+	 * @param cell
+	 *            the cell
+	 * @param index
+	 *            index of a quadrupole data in the space partition
+	 * @param component
+	 *            one of {@link #XX}, {@link #YY}, {@link #ZZ}, {@link #XY},
+	 *            {@link #XZ} or {@link #YZ}
+	 * @return the value of the component
+	 */
+	public static double getQuadrupole(SpaceCell cell,
+			SpaceCellDataIndex index, int component) {
+		double m = cell.getData(index, component);
+
+		if (component > ZZ)
+			return 3 * m;
+
+		double trace = cell.getData(index, XX) + cell.getData(index, YY)
+				+ cell.getData(index, ZZ);
+
+		return 3 * m - trace;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.BarycenterData#getComponentCount
+	 * ()
+	 */
+	@Override
+	public int getComponentCount() {
+		return COMPONENTS;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.BarycenterData#reset(double[],
+	 * int)
+	 */
+	@Override
+	public void reset(double[] values, int offset) {
+		for (int i = 0; i < COMPONENTS; i++)
+			values[offset + i] = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.BarycenterData#addChild(double[],
+	 * int, int)
+	 */
+	@Override
+	public void addChild(double[] values, int offset, int childOffset) {
+		double count = values[childOffset + COUNT];
+		double cx = values[childOffset + X];
+		double cy = values[childOffset + Y];
+		double cz = values[childOffset + Z];
+
+		//
+		// Moments of the child are moved back to the origin, like the sums of
+		// products aggregated by the leaves.
+		//
+		values[offset + XX] += values[childOffset + XX] + count * cx * cx;
+		values[offset + YY] += values[childOffset + YY] + count * cy * cy;
+		values[offset + ZZ] += values[childOffset + ZZ] + count * cz * cz;
+		values[offset + XY] += values[childOffset + XY] + count * cx * cy;
+		values[offset + XZ] += values[childOffset + XZ] + count * cx * cz;
+		values[offset + YZ] += values[childOffset + YZ] + count * cy * cz;
+
+		super.addChild(values, offset, childOffset);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.BarycenterData#complete(double[],
+	 * int)
+	 */
+	@Override
+	public void complete(double[] values, int offset) {
+		super.complete(values, offset);
+
+		double count = values[offset + COUNT];
+		double cx = values[offset + X];
+		double cy = values[offset + Y];
+		double cz = values[offset + Z];
+
+		values[offset + XX] -= count * cx * cx;
+		values[offset + YY] -= count * cy * cy;
+		values[offset + ZZ] -= count * cz * cz;
+		values[offset + XY] -= count * cx * cy;
+		values[offset + XZ] -= count * cx * cz;
+		values[offset + YZ] -= count * cy * cz;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.data.BarycenterData#addNode(org.graphstream
+	 * .nui.UIDataset, org.graphstream.nui.indexer.ElementIndex, double,
+	 * double, double, double[], int)
+	 */
+	@Override
+	protected void addNode(UIDataset dataset, ElementIndex index, double x,
+			double y, double z, double[] values, int offset) {
+		super.addNode(dataset, index, x, y, z, values, offset);
+
+		values[offset + XX] += x * x;
+		values[offset + YY] += y * y;
+		values[offset + ZZ] += z * z;
+		values[offset + XY] += x * y;
+		values[offset + XZ] += x * z;
+		values[offset + YZ] += y * z;
+	}
+}
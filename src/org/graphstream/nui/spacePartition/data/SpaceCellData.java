@@ -34,6 +34,77 @@ package org.graphstream.nui.spacePartition.data;
 import org.graphstream.nui.UIContext;
 import org.graphstream.nui.spacePartition.SpaceCell;
 
+/**
+ * Data aggregated on the cells of a space partition, for example the barycenter
+ * of their nodes. Values are not held by this object : the space partition
+ * stores them in a column of doubles, with {@link #getComponentCount()} values
+ * for each cell, at an offset given by the identifier of the cell. A single
+ * instance is shared by all the cells, and it may be used by several threads
+ * at once on different cells.
+ * 
+ * Data are computed bottom-up : a leaf adds its own nodes, while other cells
+ * add the values of their children, which are up to date at this time. So,
+ * when nodes move, only the cells on the path between their leaves and the
+ * root have to be computed again.
+ * 
+ * Computing the values of a cell is done by calling
+ * {@link #reset(double[], int)}, then
+ * {@link #addNodes(UIContext, SpaceCell, double[], int)} or
+ * {@link #addChild(double[], int, int)} for each child, and finally
+ * {@link #complete(double[], int)}.
+ */
 public interface SpaceCellData {
-	void compute(UIContext ctx, SpaceCell cell);
+	/**
+	 * Count of values stored for each cell.
+	 * 
+	 * @return the count of components of this data
+	 */
+	int getComponentCount();
+
+	/**
+	 * Forget the values previously aggregated.
+	 * 
+	 * @param values
+	 *            column of this data
+	 * @param offset
+	 *            offset of the values of the cell in the column
+	 */
+	void reset(double[] values, int offset);
+
+	/**
+	 * Aggregate the nodes held by a leaf cell.
+	 * 
+	 * @param ctx
+	 *            context of the space partition
+	 * @param cell
+	 *            the leaf
+	 * @param values
+	 *            column of this data
+	 * @param offset
+	 *            offset of the values of the leaf in the column
+	 */
+	void addNodes(UIContext ctx, SpaceCell cell, double[] values, int offset);
+
+	/**
+	 * Aggregate the values of a child of the cell.
+	 * 
+	 * @param values
+	 *            column of this data
+	 * @param offset
+	 *            offset of the values of the cell in the column
+	 * @param childOffset
+	 *            offset of the values of the child in the column
+	 */
+	void addChild(double[] values, int offset, int childOffset);
+
+	/**
+	 * Called once all the nodes or children have been aggregated, to compute
+	 * values which are not additive.
+	 * 
+	 * @param values
+	 *            column of this data
+	 * @param offset
+	 *            offset of the values of the cell in the column
+	 */
+	void complete(double[] values, int offset);
 }
@@ -31,8 +31,16 @@
  */
 package org.graphstream.nui.spacePartition.data;
 
-import org.graphstream.nui.spacePartition.SpaceCell;
+import org.graphstream.nui.UISpacePartition;
 
 public interface SpaceCellDataFactory {
-	SpaceCellData createNewData(SpaceCell cell);
+	/**
+	 * Create the data shared by all the cells of a space partition. This is
+	 * called once, when the data is added to the space partition.
+	 * 
+	 * @param spacePartition
+	 *            the space partition
+	 * @return a new data
+	 */
+	SpaceCellData createNewData(UISpacePartition spacePartition);
 }
@@ -31,6 +31,32 @@
  */
 package org.graphstream.nui.spacePartition.data;
 
-public interface SpaceCellDataSet extends Iterable<SpaceCellData> {
-	SpaceCellData get(SpaceCellDataIndex index);
+import org.graphstream.nui.spacePartition.SpaceCell;
+
+/**
+ * Values of the data of all the cells of a space partition.
+ */
+public interface SpaceCellDataSet {
+	/**
+	 * Get a value of a data of a cell. This does not check if the data of the
+	 * cell are up to date.
+	 * 
+	 * @param cell
+	 *            a registered cell
+	 * @param index
+	 *            index of the data
+	 * @param component
+	 *            component of the data
+	 * @return the value of the component
+	 */
+	double get(SpaceCell cell, SpaceCellDataIndex index, int component);
+
+	/**
+	 * Compute again all the data of a cell. Leaves aggregate their own nodes,
+	 * other cells aggregate the data of their children.
+	 * 
+	 * @param cell
+	 *            the cell to compute
+	 */
+	void compute(SpaceCell cell);
 }
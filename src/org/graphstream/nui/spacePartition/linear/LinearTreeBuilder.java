@@ -0,0 +1,350 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.spacePartition.linear;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.geom.Vector3;
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.space.Bounds;
+
+/**
+ * Builds a quad or oct tree from scratch, from the coordinates of the nodes.
+ * 
+ * Each node gets a Morton code, interleaving the bits of its coordinates
+ * quantized on {@link #LEVELS} bits. Codes are sorted with a radix sort, so
+ * the nodes of any cell of the tree are a range of the sorted nodes, and the
+ * children of a cell are found with a single pass on its range. Codes and
+ * subtrees are computed in parallel in a fork/join pool.
+ * 
+ * A builder keeps its working arrays from one build to another and is not
+ * thread-safe. Trees it has built are independent of it.
+ */
+public class LinearTreeBuilder {
+	/**
+	 * Count of bits of the quantized coordinates, which is the maximum depth
+	 * of the tree.
+	 */
+	public static final int LEVELS = 21;
+
+	/**
+	 * Ranges of nodes smaller than this are processed sequentially.
+	 */
+	protected static final int SPLIT_THRESHOLD = 1 << 12;
+
+	protected static final int RADIX_BITS = 8;
+	protected static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+
+	protected final ForkJoinPool pool;
+
+	protected long[] codes, codesTmp;
+	protected int[] order, orderTmp;
+	protected final int[] radixCounts;
+
+	public LinearTreeBuilder(ForkJoinPool pool) {
+		this.pool = pool;
+
+		codes = codesTmp = new long[0];
+		order = orderTmp = new int[0];
+		radixCounts = new int[1 << RADIX_BITS];
+	}
+
+	/**
+	 * Build a tree containing the given nodes.
+	 * 
+	 * @param indexer
+	 *            indexer giving the index objects of the nodes
+	 * @param points
+	 *            coordinates of the nodes, dim per node
+	 * @param dim
+	 *            dimension of the points, 2 for a quad tree and 3 for an oct
+	 *            tree
+	 * @param nodeCount
+	 *            count of nodes
+	 * @param bounds
+	 *            bounds of the root cell, nodes outside are put in the
+	 *            closest cell
+	 * @param maxElementsPerCell
+	 *            count of nodes above which a cell is subdivided
+	 * @return the root cell of the new tree
+	 */
+	public LinearTreeSpaceCell build(UIIndexer indexer, DoubleBuffer points,
+			int dim, int nodeCount, Bounds bounds, int maxElementsPerCell) {
+		if (codes.length < nodeCount) {
+			codes = new long[nodeCount];
+			codesTmp = new long[nodeCount];
+			order = new int[nodeCount];
+			orderTmp = new int[nodeCount];
+		}
+
+		pool.invoke(new CodesTask(points, dim, bounds, 0, nodeCount));
+		sort(nodeCount, LEVELS * dim);
+
+		LinearTreeSpaceCell root = new LinearTreeSpaceCell(null, new Bounds(
+				bounds), new ElementIndex[nodeCount], 0, nodeCount);
+
+		pool.invoke(new BuildTask(indexer, root, dim, 0, maxElementsPerCell));
+
+		return root;
+	}
+
+	/**
+	 * Spread the 21 lower bits of a value, leaving two zeros between each of
+	 * them.
+	 */
+	protected static long spread3(long v) {
+		v &= 0x1fffffL;
+		v = (v | v << 32) & 0x1f00000000ffffL;
+		v = (v | v << 16) & 0x1f0000ff0000ffL;
+		v = (v | v << 8) & 0x100f00f00f00f00fL;
+		v = (v | v << 4) & 0x10c30c30c30c30c3L;
+		v = (v | v << 2) & 0x1249249249249249L;
+
+		return v;
+	}
+
+	/**
+	 * Spread the 32 lower bits of a value, leaving one zero between each of
+	 * them.
+	 */
+	protected static long spread2(long v) {
+		v &= 0xffffffffL;
+		v = (v | v << 16) & 0x0000ffff0000ffffL;
+		v = (v | v << 8) & 0x00ff00ff00ff00ffL;
+		v = (v | v << 4) & 0x0f0f0f0f0f0f0f0fL;
+		v = (v | v << 2) & 0x3333333333333333L;
+		v = (v | v << 1) & 0x5555555555555555L;
+
+		return v;
+	}
+
+	/**
+	 * Sort the codes, and the nodes with them, on their lower bits. This is a
+	 * LSD radix sort, which skips the digits shared by all the codes.
+	 */
+	protected void sort(int n, int bits) {
+		long[] src = codes, dst = codesTmp;
+		int[] srcOrder = order, dstOrder = orderTmp;
+
+		for (int shift = 0; shift < bits && n > 0; shift += RADIX_BITS) {
+			Arrays.fill(radixCounts, 0);
+
+			for (int i = 0; i < n; i++)
+				radixCounts[(int) (src[i] >>> shift) & RADIX_MASK]++;
+
+			if (radixCounts[(int) (src[0] >>> shift) & RADIX_MASK] == n)
+				continue;
+
+			for (int d = 0, offset = 0; d < radixCounts.length; d++) {
+				int c = radixCounts[d];
+				radixCounts[d] = offset;
+				offset += c;
+			}
+
+			for (int i = 0; i < n; i++) {
+				int p = radixCounts[(int) (src[i] >>> shift) & RADIX_MASK]++;
+
+				dst[p] = src[i];
+				dstOrder[p] = srcOrder[i];
+			}
+
+			long[] t = src;
+			src = dst;
+			dst = t;
+
+			int[] to = srcOrder;
+			srcOrder = dstOrder;
+			dstOrder = to;
+		}
+
+		codes = src;
+		codesTmp = dst;
+		order = srcOrder;
+		orderTmp = dstOrder;
+	}
+
+	/**
+	 * Compute the Morton codes of a range of nodes.
+	 */
+	@SuppressWarnings("serial")
+	class CodesTask extends RecursiveAction {
+		final DoubleBuffer points;
+		final int dim;
+		final Bounds bounds;
+		final int from, to;
+
+		CodesTask(DoubleBuffer points, int dim, Bounds bounds, int from,
+				int to) {
+			this.points = points;
+			this.dim = dim;
+			this.bounds = bounds;
+			this.from = from;
+			this.to = to;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+
+				invokeAll(new CodesTask(points, dim, bounds, from, middle),
+						new CodesTask(points, dim, bounds, middle, to));
+
+				return;
+			}
+
+			double[] lo = bounds.getLowestPoint().getRawData();
+			double[] hi = bounds.getHighestPoint().getRawData();
+			double[] scale = new double[dim];
+
+			for (int a = 0; a < dim; a++)
+				scale[a] = hi[a] > lo[a] ? (1 << LEVELS) / (hi[a] - lo[a]) : 0;
+
+			for (int idx = from; idx < to; idx++) {
+				long code = 0;
+
+				for (int a = 0; a < dim; a++) {
+					double v = (points.get(idx * dim + a) - lo[a]) * scale[a];
+					long q = (long) Math.max(0,
+							Math.min((1 << LEVELS) - 1, v));
+
+					code |= (dim == 3 ? spread3(q) : spread2(q)) << a;
+				}
+
+				codes[idx] = code;
+				order[idx] = idx;
+			}
+		}
+	}
+
+	/**
+	 * Create the children of a cell, and recursively the subtree under it.
+	 * Leaves resolve the index objects of their nodes.
+	 */
+	@SuppressWarnings("serial")
+	class BuildTask extends RecursiveAction {
+		final UIIndexer indexer;
+		final LinearTreeSpaceCell cell;
+		final int dim;
+		final int level;
+		final int maxElementsPerCell;
+
+		BuildTask(UIIndexer indexer, LinearTreeSpaceCell cell, int dim,
+				int level, int maxElementsPerCell) {
+			this.indexer = indexer;
+			this.cell = cell;
+			this.dim = dim;
+			this.level = level;
+			this.maxElementsPerCell = maxElementsPerCell;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (cell.to - cell.from <= maxElementsPerCell || level == LEVELS) {
+				for (int i = cell.from; i < cell.to; i++)
+					cell.elements[i] = indexer.getNodeIndex(order[i]);
+
+				return;
+			}
+
+			int shift = (LEVELS - 1 - level) * dim;
+			int mask = (1 << dim) - 1;
+			ArrayList<BuildTask> tasks = new ArrayList<BuildTask>(1 << dim);
+
+			for (int start = cell.from; start < cell.to;) {
+				int digit = (int) (codes[start] >>> shift) & mask;
+				int end = start + 1;
+
+				while (end < cell.to
+						&& ((int) (codes[end] >>> shift) & mask) == digit)
+					end++;
+
+				LinearTreeSpaceCell child = new LinearTreeSpaceCell(cell,
+						childBounds(digit), cell.elements, start, end);
+
+				tasks.add(new BuildTask(indexer, child, dim, level + 1,
+						maxElementsPerCell));
+
+				start = end;
+			}
+
+			cell.children = new LinearTreeSpaceCell[tasks.size()];
+
+			for (int i = 0; i < tasks.size(); i++)
+				cell.children[i] = tasks.get(i).cell;
+
+			if (cell.to - cell.from > SPLIT_THRESHOLD)
+				invokeAll(tasks);
+			else
+				for (BuildTask task : tasks)
+					task.compute();
+		}
+
+		/**
+		 * Bounds of the child of the cell, whose bits of the coordinates at
+		 * this level are given by the digit.
+		 */
+		Bounds childBounds(int digit) {
+			Vector3 lo = cell.boundary.getLowestPoint();
+			Vector3 hi = cell.boundary.getHighestPoint();
+			double[] l = lo.getRawData().clone();
+			double[] h = hi.getRawData().clone();
+
+			for (int a = 0; a < dim; a++) {
+				double c = (l[a] + h[a]) / 2;
+
+				if ((digit >>> a & 1) == 0)
+					h[a] = c;
+				else
+					l[a] = c;
+			}
+
+			return new Bounds(new Vector3(l[0], l[1], l[2]), new Vector3(h[0],
+					h[1], h[2]));
+		}
+	}
+}
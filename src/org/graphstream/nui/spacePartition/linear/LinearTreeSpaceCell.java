@@ -0,0 +1,299 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.spacePartition.linear;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.space.Bounds;
+import org.graphstream.nui.spacePartition.SpaceCell;
+import org.graphstream.nui.spacePartition.TreeSpaceCell;
+import org.graphstream.nui.spacePartition.data.SpaceCellDataIndex;
+import org.graphstream.nui.spacePartition.data.SpaceCellDataSet;
+
+/**
+ * Cell of a tree built by {@link LinearTreeBuilder}. Nodes are sorted along
+ * the Morton curve, so the nodes of a cell, and of all its descendants, are a
+ * range of a single array shared by all the cells of the tree. Iterating on a
+ * cell which is not a leaf gives the nodes of all its descendants.
+ * 
+ * Cells are built at once and are not modified afterwards : the tree is built
+ * again when nodes move, so {@link #insert(ElementIndex, double, double, double)}
+ * and {@link #remove(ElementIndex)} are not supported.
+ */
+public class LinearTreeSpaceCell implements TreeSpaceCell {
+	protected final LinearTreeSpaceCell parent;
+	protected LinearTreeSpaceCell[] children;
+	protected final Bounds boundary;
+	protected final ElementIndex[] elements;
+	protected final int from, to;
+	protected SpaceCellDataSet datas;
+	protected int id;
+	protected boolean changed;
+
+	LinearTreeSpaceCell(LinearTreeSpaceCell parent, Bounds boundary,
+			ElementIndex[] elements, int from, int to) {
+		this.parent = parent;
+		this.boundary = boundary;
+		this.elements = elements;
+		this.from = from;
+		this.to = to;
+		this.children = null;
+		this.id = -1;
+		this.changed = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Iterable#iterator()
+	 */
+	@Override
+	public Iterator<ElementIndex> iterator() {
+		return new Iterator<ElementIndex>() {
+			int next = from;
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#hasNext()
+			 */
+			@Override
+			public boolean hasNext() {
+				return next < to;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#next()
+			 */
+			@Override
+			public ElementIndex next() {
+				if (next >= to)
+					throw new NoSuchElementException();
+
+				return elements[next++];
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Iterator#remove()
+			 */
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCell#insert(org.graphstream.nui
+	 * .indexer.ElementIndex, double, double, double)
+	 */
+	@Override
+	public SpaceCell insert(ElementIndex e, double x, double y, double z) {
+		throw new UnsupportedOperationException(
+				"linear trees are built again, not updated");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCell#remove(org.graphstream.nui
+	 * .indexer.ElementIndex)
+	 */
+	@Override
+	public boolean remove(ElementIndex e) {
+		throw new UnsupportedOperationException(
+				"linear trees are built again, not updated");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#getBoundary()
+	 */
+	@Override
+	public Bounds getBoundary() {
+		return boundary;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCell#setSpaceCellDataCell(org
+	 * .graphstream.nui.spacePartition.data.SpaceCellDataSet)
+	 */
+	@Override
+	public void setSpaceCellDataCell(SpaceCellDataSet set) {
+		this.datas = set;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.spacePartition.SpaceCell#getData(org.graphstream.
+	 * nui.spacePartition.data.SpaceCellDataIndex, int)
+	 */
+	@Override
+	public double getData(SpaceCellDataIndex index, int component) {
+		if (changed)
+			updateData();
+
+		return datas.get(this, index, component);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#invalidateData()
+	 */
+	@Override
+	public void invalidateData() {
+		changed = true;
+
+		if (parent != null && !parent.changed)
+			parent.invalidateData();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#updateData()
+	 */
+	@Override
+	public void updateData() {
+		if (!changed)
+			return;
+
+		if (children != null)
+			for (int i = 0; i < children.length; i++)
+				children[i].updateData();
+
+		if (datas != null)
+			datas.compute(this);
+
+		changed = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#isDataChanged()
+	 */
+	@Override
+	public boolean isDataChanged() {
+		return changed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#getElementCount()
+	 */
+	@Override
+	public int getElementCount() {
+		return to - from;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#getId()
+	 */
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.SpaceCell#setId(int)
+	 */
+	@Override
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.TreeSpaceCell#getParent()
+	 */
+	@Override
+	public TreeSpaceCell getParent() {
+		return parent;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.TreeSpaceCell#getChildrenCount()
+	 */
+	@Override
+	public int getChildrenCount() {
+		return children == null ? 0 : children.length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.TreeSpaceCell#getChild(int)
+	 */
+	@Override
+	public TreeSpaceCell getChild(int i) {
+		if (children == null)
+			return null;
+
+		return children[i];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("linear_cell@%s[%d..%d]", boundary, from, to);
+	}
+}
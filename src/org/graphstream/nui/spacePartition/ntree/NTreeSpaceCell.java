@@ -31,6 +31,7 @@
  */
 package org.graphstream.nui.spacePartition.ntree;
 
+import org.graphstream.nui.UIDataset;
 import org.graphstream.nui.UISpacePartition;
 import org.graphstream.nui.geom.Vector3;
 import org.graphstream.nui.indexer.ElementIndex;
@@ -60,6 +61,9 @@ public abstract class NTreeSpaceCell extends BaseSpaceCell implements
 		this.parent = parent;
 		this.changed = true;
 		this.depth = parent == null ? 0 : parent.depth + 1;
+
+		if (parent != null)
+			parent.invalidateData();
 	}
 
 	public abstract void subdivide();
@@ -105,12 +109,12 @@ public abstract class NTreeSpaceCell extends BaseSpaceCell implements
 		if (!contains(e))
 			return null;
 
-		if ((elements.size() < spacePartition.getMaxElementsPerCell() && neighbourhood == null)
+		if ((size < spacePartition.getMaxElementsPerCell() && neighbourhood == null)
 				|| !canSubdivide()) {
-			elements.add(e);
+			addNode(e.index());
 			elementAdded();
+			invalidateData();
 
-			changed = true;
 			return this;
 		}
 
@@ -120,10 +124,8 @@ public abstract class NTreeSpaceCell extends BaseSpaceCell implements
 		for (int i = 0; i < neighbourhood.length; i++) {
 			SpaceCell sc = neighbourhood[i].insert(e, x, y, z);
 
-			if (sc != null) {
-				changed = true;
+			if (sc != null)
 				return sc;
-			}
 		}
 
 		return null;
@@ -138,25 +140,39 @@ public abstract class NTreeSpaceCell extends BaseSpaceCell implements
 	 */
 	@Override
 	public boolean remove(ElementIndex e) {
-		if (neighbourhood != null) {
-			for (int i = 0; i < neighbourhood.length; i++) {
-				if (neighbourhood[i].remove(e)) {
-					changed = true;
-					return true;
-				}
-			}
-		} else if (elements.contains(e)) {
-			if (elements.remove(e)) {
-				elementRemoved();
-				changed = true;
+		SpaceCell sc = getNodeCell(e.index());
+
+		//
+		// The cell of the node is known, it is removed from there if this
+		// cell is the cell or one of its ancestors.
+		//
+		if (sc == this) {
+			int slot = getNodeSlot(e.index());
+
+			//
+			// A stale record, the node is not stored here anymore.
+			//
+			if (slot < 0 || slot >= size || nodes[slot] != e.index()) {
+				nodeCellChanged(e.index(), null, -1);
+				return false;
 			}
 
+			removeNode(slot);
+			elementRemoved();
+			invalidateData();
+
 			if (parent != null)
 				parent.checkMergeNeeded();
 
 			return true;
 		}
 
+		for (TreeSpaceCell c = sc instanceof TreeSpaceCell ? ((TreeSpaceCell) sc)
+				.getParent() : null; c != null; c = c.getParent()) {
+			if (c == this)
+				return sc.remove(e);
+		}
+
 		return false;
 	}
 
@@ -193,26 +209,110 @@ public abstract class NTreeSpaceCell extends BaseSpaceCell implements
 		return neighbourhood[i];
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.BaseSpaceCell#invalidateData()
+	 */
+	@Override
+	public void invalidateData() {
+		changed = true;
+
+		if (parent != null && !parent.changed)
+			parent.invalidateData();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.spacePartition.BaseSpaceCell#updateData()
+	 */
+	@Override
+	public void updateData() {
+		if (!changed)
+			return;
+
+		if (neighbourhood != null)
+			for (int i = 0; i < neighbourhood.length; i++)
+				neighbourhood[i].updateData();
+
+		computeData();
+	}
+
+	/**
+	 * Insert again the nodes of this cell in its children, after it has been
+	 * subdivided. Nodes are inserted at their current position, which may be
+	 * outside of this cell if their move has not been handled yet. These
+	 * nodes are inserted again from the root.
+	 */
+	protected void dispatchNodes() {
+		UIDataset dataset = spacePartition.getDataset();
+		int[] old = nodes;
+		int count = size;
+
+		clearNodes();
+
+		for (int i = 0; i < count; i++) {
+			ElementIndex e = spacePartition.getIndexer().getNodeIndex(old[i]);
+			double x = dataset.getNodeX(e);
+			double y = dataset.getNodeY(e);
+			double z = dataset.getNodeZ(e);
+			SpaceCell sc = insert(e, x, y, z);
+
+			if (sc == null && parent != null) {
+				NTreeSpaceCell root = parent;
+
+				while (root.parent != null)
+					root = root.parent;
+
+				sc = root.insert(e, x, y, z);
+			}
+
+			//
+			// The node is out of the tree, its next move inserts it again.
+			//
+			if (sc == null)
+				nodeCellChanged(old[i], null, -1);
+
+			elementRemoved();
+		}
+	}
+
 	protected void checkMergeNeeded() {
 		if (neighbourhood != null
 				&& getElementCount() < spacePartition.getMaxElementsPerCell() / 2) {
-			elements.clear();
+			clearNodes();
 
 			for (int i = 0; i < neighbourhood.length; i++) {
-				elements.addAll(neighbourhood[i].elements);
+				neighbourhood[i].mergeInto(this);
 				neighbourhood[i].unregister();
 			}
 
-			System.err.printf("merge\n");
-
 			neighbourhood = null;
 			register();
+			invalidateData();
 
 			if (parent != null)
 				parent.checkMergeNeeded();
 		}
 	}
 
+	/**
+	 * Move the nodes of this cell, and of its children, to another cell.
+	 */
+	protected void mergeInto(NTreeSpaceCell cell) {
+		if (neighbourhood != null)
+			for (int i = 0; i < neighbourhood.length; i++) {
+				neighbourhood[i].mergeInto(cell);
+				neighbourhood[i].unregister();
+			}
+
+		for (int i = 0; i < size; i++)
+			cell.addNode(nodes[i]);
+
+		clearNodes();
+	}
+
 	protected void elementAdded() {
 		elementsCount++;
 
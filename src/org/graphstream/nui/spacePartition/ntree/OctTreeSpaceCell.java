@@ -87,10 +87,7 @@ public class OctTreeSpaceCell extends NTreeSpaceCell {
 			neighbourhood[i] = new OctTreeSpaceCell(spacePartition, b, this);
 		}
 
-		for (int i = 0; i < elements.size(); i++)
-			insert(elements.get(i));
-
-		elements.clear();
+		dispatchNodes();
 	}
 
 	/*
@@ -83,10 +83,7 @@ public class QuadTreeSpaceCell extends NTreeSpaceCell {
 			neighbourhood[i] = new QuadTreeSpaceCell(spacePartition, b, this);
 		}
 
-		for (int i = 0; i < elements.size(); i++)
-			insert(elements.get(i));
-
-		elements.clear();
+		dispatchNodes();
 	}
 
 	/*
@@ -61,6 +61,7 @@ import org.graphstream.nui.UISwapper.ValueFactory;
 import org.graphstream.nui.attributes.AttributeHandler;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.indexer.IndexPermutation;
 import org.graphstream.nui.indexer.IndexerListener;
 import org.graphstream.nui.style.ElementStyle;
 import org.graphstream.nui.style.GroupStyle;
@@ -330,6 +331,36 @@ public class BaseStyle extends AbstractModule implements UIStyle,
 		return data;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UIStyle#getElementStyle(org.graphstream.nui.indexer
+	 * .ElementIndex.Type, int)
+	 */
+	@Override
+	public ElementStyle getElementStyle(Type type, int index) {
+		BaseElementStyle data = null;
+
+		switch (type) {
+		case NODE:
+			data = nodeDatas.get(index, 0);
+			break;
+		case EDGE:
+			data = edgeDatas.get(index, 0);
+			break;
+		case SPRITE:
+			data = spritesData.get(index, 0);
+			break;
+		case GRAPH:
+			data = graphData;
+			break;
+		}
+
+		assert data != null;
+		return data;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1222,4 +1253,17 @@ public class BaseStyle extends AbstractModule implements UIStyle,
 	public void elementsClear() {
 		zIndexTree.clear();
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.indexer.IndexerListener#elementsPermuted(org.graphstream
+	 * .nui.indexer.IndexPermutation)
+	 */
+	@Override
+	public void elementsPermuted(IndexPermutation permutation) {
+		for (ElementIndex index : permutation.getRemoved())
+			zIndexTree.remove(index);
+	}
 }
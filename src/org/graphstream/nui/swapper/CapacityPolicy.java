@@ -0,0 +1,193 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper;
+
+/**
+ * Defines how the capacity of a swappable data structure evolves when the
+ * count of elements changes.
+ * 
+ * A policy is a pure function : it receives the current capacity, the current
+ * element count and a minimum capacity under which the structure must never
+ * shrink, and returns the new capacity. If the returned value is equal to the
+ * current capacity, no reallocation is done.
+ */
+public interface CapacityPolicy {
+	/**
+	 * Compute the capacity fitting an element count.
+	 * 
+	 * @param capacity
+	 *            current capacity, in elements
+	 * @param elementCount
+	 *            current count of elements
+	 * @param minimumCapacity
+	 *            the capacity can not be lower than this value
+	 * @return the new capacity, which is at least elementCount
+	 */
+	int getCapacity(int capacity, int elementCount, int minimumCapacity);
+
+	/**
+	 * Capacity grows by a fixed step. Growing a structure up to n elements
+	 * leads to O(n/step) reallocations and O(n^2/step) copied elements.
+	 */
+	public static class FixedCapacityPolicy implements CapacityPolicy {
+		protected final int growingSize;
+
+		public FixedCapacityPolicy(int growingSize) {
+			if (growingSize <= 0)
+				throw new IllegalArgumentException("growing size must be > 0");
+
+			this.growingSize = growingSize;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.CapacityPolicy#getCapacity(int,
+		 * int, int)
+		 */
+		@Override
+		public int getCapacity(int capacity, int elementCount,
+				int minimumCapacity) {
+			if (elementCount >= capacity)
+				return Math.max(capacity + growingSize, elementCount);
+
+			if (elementCount < capacity / 2
+					&& elementCount + growingSize > minimumCapacity
+					&& elementCount + growingSize < capacity)
+				return elementCount + growingSize;
+
+			return Math.max(capacity, minimumCapacity);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("fixed(%d)", growingSize);
+		}
+	}
+
+	/**
+	 * Capacity is multiplied by a growing factor, so growing a structure up to
+	 * n elements leads to O(log n) reallocations and O(n) copied elements.
+	 * 
+	 * Shrinking uses an hysteresis : the capacity is reduced only when the
+	 * element count falls under capacity / (factor * factor), and it is then
+	 * reduced to elementCount * factor. This way, a count oscillating around a
+	 * reallocation threshold does not lead to a reallocation at each change.
+	 */
+	public static class GeometricCapacityPolicy implements CapacityPolicy {
+		public static final double DEFAULT_GROWING_FACTOR = 1.5;
+
+		protected final double growingFactor;
+		protected final double shrinkThreshold;
+
+		public GeometricCapacityPolicy() {
+			this(DEFAULT_GROWING_FACTOR);
+		}
+
+		public GeometricCapacityPolicy(double growingFactor) {
+			this(growingFactor, 1.0 / (growingFactor * growingFactor));
+		}
+
+		/**
+		 * 
+		 * @param growingFactor
+		 *            factor applied to the capacity when it has to grow, must
+		 *            be greater than 1
+		 * @param shrinkThreshold
+		 *            ratio elementCount / capacity under which the capacity is
+		 *            reduced, must be lower than 1 / growingFactor
+		 */
+		public GeometricCapacityPolicy(double growingFactor,
+				double shrinkThreshold) {
+			if (growingFactor <= 1)
+				throw new IllegalArgumentException(
+						"growing factor must be > 1");
+
+			if (shrinkThreshold < 0 || shrinkThreshold >= 1 / growingFactor)
+				throw new IllegalArgumentException(
+						"shrink threshold must be in [0;1/growingFactor[");
+
+			this.growingFactor = growingFactor;
+			this.shrinkThreshold = shrinkThreshold;
+		}
+
+		public double getGrowingFactor() {
+			return growingFactor;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.CapacityPolicy#getCapacity(int,
+		 * int, int)
+		 */
+		@Override
+		public int getCapacity(int capacity, int elementCount,
+				int minimumCapacity) {
+			if (elementCount > capacity) {
+				long newCapacity = Math.max(capacity, 1);
+
+				while (newCapacity < elementCount)
+					newCapacity = Math.max(newCapacity + 1,
+							(long) Math.ceil(newCapacity * growingFactor));
+
+				return (int) Math.min(newCapacity, Integer.MAX_VALUE - 8);
+			}
+
+			if (capacity > minimumCapacity
+					&& elementCount < capacity * shrinkThreshold) {
+				int newCapacity = Math.max(minimumCapacity,
+						(int) Math.ceil(elementCount * growingFactor));
+
+				if (newCapacity < capacity)
+					return newCapacity;
+			}
+
+			return Math.max(capacity, minimumCapacity);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("geometric(%.2f)", growingFactor);
+		}
+	}
+}
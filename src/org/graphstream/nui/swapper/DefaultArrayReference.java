@@ -36,12 +36,14 @@ import java.util.Arrays;
 
 import org.graphstream.nui.UISwapper.ValueFactory;
 import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.IndexPermutation;
 import org.graphstream.nui.indexer.ElementIndex.Type;
 
 public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable {
 	protected final Type type;
-	protected int growingSize;
 	protected int initialSize;
+	protected int reserved;
+	protected int capacity;
 	protected final int componentCount;
 	protected T[] data;
 	protected ValueFactory<T> valueFactory;
@@ -49,21 +51,20 @@ public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable
 	protected final SwappableHandler handler;
 
 	@SuppressWarnings("unchecked")
-	public DefaultArrayReference(Type type, int initialSize, int growingSize,
+	public DefaultArrayReference(Type type, int initialSize,
 			int componentCount, Class<T> componentType,
 			ValueFactory<T> valueFactory, SwappableHandler handler) {
 		this.type = type;
 		this.initialSize = initialSize;
-		this.growingSize = growingSize;
+		this.reserved = 0;
 		this.componentCount = componentCount;
 		this.handler = handler;
 
-		initialSize = Math.max(initialSize, getElementCount() + growingSize);
-
+		this.capacity = Math.max(initialSize, getElementCount());
 		this.valueFactory = valueFactory;
 		this.size = 0;
 		this.data = (T[]) Array.newInstance(componentType, componentCount
-				* initialSize);
+				* capacity);
 
 		checkSize();
 		initDefaultValues();
@@ -112,11 +113,31 @@ public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable
 	public void checkSize() {
 		int elementCount = getElementCount();
 
-		if (elementCount >= data.length)
-			data = Arrays.copyOf(data, data.length + growingSize);
-		else if (elementCount < data.length / 2
-				&& elementCount + growingSize > initialSize)
-			data = Arrays.copyOf(data, elementCount + growingSize);
+		if (elementCount >= reserved)
+			reserved = 0;
+
+		int newCapacity = handler.capacityPolicy(type).getCapacity(capacity,
+				elementCount, Math.max(initialSize, reserved));
+
+		if (newCapacity != capacity) {
+			capacity = newCapacity;
+			data = Arrays.copyOf(data, capacity * componentCount);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#reserve(int)
+	 */
+	@Override
+	public void reserve(int elementCount) {
+		reserved = Math.max(reserved, elementCount);
+
+		if (capacity < elementCount) {
+			capacity = elementCount;
+			data = Arrays.copyOf(data, capacity * componentCount);
+		}
 	}
 
 	/*
@@ -129,31 +150,75 @@ public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable
 		int elementCount = getElementCount();
 
 		if (valueFactory != null)
-			for (int i = size; i < elementCount; i++) {
-				ElementIndex index;
-
-				switch (type) {
-				case NODE:
-					index = handler.indexer().getNodeIndex(i);
-					break;
-				case EDGE:
-					index = handler.indexer().getEdgeIndex(i);
-					break;
-				case SPRITE:
-					index = handler.indexer().getSpriteIndex(i);
-					break;
-				default:
-					index = handler.indexer().getGraphIndex();
-					break;
-				}
-
-				for (int j = 0; j < componentCount; j++)
-					set(index, j, valueFactory.createValue(index, j));
-			}
+			for (int i = size; i < elementCount; i++)
+				createValues(getElementIndex(i));
 
 		size = elementCount;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.Swappable#permute(org.graphstream.nui.indexer
+	 * .IndexPermutation)
+	 */
+	@Override
+	public void permute(IndexPermutation permutation) {
+		boolean grow = permutation.getNewCount() > permutation.getOldCount();
+
+		if (grow)
+			checkSize();
+
+		for (int i = 0; i < permutation.getSwapCount(); i++)
+			swap(permutation.getSwapIndex1(i), permutation.getSwapIndex2(i));
+
+		if (!grow) {
+			checkSize();
+
+			//
+			// Do not keep references to the removed values.
+			//
+			Arrays.fill(data, permutation.getNewCount() * componentCount,
+					Math.min(data.length, permutation.getOldCount()
+							* componentCount), null);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.Swappable#initDefaultValues(org.graphstream
+	 * .nui.indexer.IndexPermutation)
+	 */
+	@Override
+	public void initDefaultValues(IndexPermutation permutation) {
+		if (valueFactory != null)
+			for (int i = 0; i < permutation.getAddedCount(); i++)
+				createValues(getElementIndex(permutation.getAddedIndex(i)));
+
+		size = permutation.getNewCount();
+	}
+
+	protected void createValues(ElementIndex index) {
+		for (int j = 0; j < componentCount; j++)
+			set(index, j, valueFactory.createValue(index, j));
+	}
+
+	protected ElementIndex getElementIndex(int i) {
+		switch (type) {
+		case NODE:
+			return handler.indexer().getNodeIndex(i);
+		case EDGE:
+			return handler.indexer().getEdgeIndex(i);
+		case SPRITE:
+			return handler.indexer().getSpriteIndex(i);
+		default:
+			return handler.indexer().getGraphIndex();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -164,6 +229,17 @@ public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable
 		return type;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#remove(int)
+	 */
+	@Override
+	public void remove(int index) {
+		if (index < size)
+			size = index;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -192,8 +268,18 @@ public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable
 	 */
 	@Override
 	public T get(ElementIndex index, int component) {
+		return get(index.index(), component);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.UIArrayReference#get(int, int)
+	 */
+	@Override
+	public T get(int index, int component) {
 		assert component >= 0 && component < componentCount;
-		return data[index.index() * componentCount + component];
+		return data[index * componentCount + component];
 	}
 
 	/*
@@ -204,8 +290,19 @@ public class DefaultArrayReference<T> implements UIArrayReference<T>, Swappable
 	 */
 	@Override
 	public void set(ElementIndex index, int component, T value) {
+		set(index.index(), component, value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.UIArrayReference#set(int, int,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void set(int index, int component, T value) {
 		assert component >= 0 && component < componentCount;
-		data[index.index() * componentCount + component] = value;
+		data[index * componentCount + component] = value;
 	}
 
 	/*
@@ -32,14 +32,17 @@
 package org.graphstream.nui.swapper;
 
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
+import java.util.Arrays;
 
 import org.graphstream.nui.UISwapper.CreationTrigger;
 import org.graphstream.nui.indexer.ElementIndex;
+import org.graphstream.nui.indexer.IndexPermutation;
 import org.graphstream.nui.indexer.ElementIndex.Type;
 
 public abstract class DefaultBufferReference implements UIBufferReference,
@@ -48,22 +51,23 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 	protected Buffer backArrayBuffer;
 	protected final int componentCount;
 	protected final Type type;
-	protected int growingSize;
 	protected int initialSize;
+	protected int reserved;
 	protected int capacity;
 	protected int size;
 	protected final CreationTrigger onNewElement;
 	protected ByteOrder order;
+	protected DirtyTracker[] trackers;
 
 	protected DefaultBufferReference(SwappableHandler handler, Type type,
-			int componentCount, int initialSize, int growingSize,
-			CreationTrigger onNewElement) {
+			int componentCount, int initialSize, CreationTrigger onNewElement) {
 		this.type = type;
 		this.componentCount = componentCount;
 		this.handler = handler;
 		this.onNewElement = onNewElement;
 		this.initialSize = initialSize;
-		this.growingSize = growingSize;
+		this.reserved = 0;
+		this.trackers = new DirtyTracker[0];
 
 		this.capacity = Math.max(getElementCount(), initialSize);
 	}
@@ -98,6 +102,54 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		return componentCount;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.UIBufferReference#addDirtyTracker(org.graphstream
+	 * .nui.swapper.DirtyTracker)
+	 */
+	@Override
+	public void addDirtyTracker(DirtyTracker tracker) {
+		DirtyTracker[] newTrackers = Arrays.copyOf(trackers,
+				trackers.length + 1);
+		newTrackers[trackers.length] = tracker;
+
+		trackers = newTrackers;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.UIBufferReference#removeDirtyTracker(org.
+	 * graphstream.nui.swapper.DirtyTracker)
+	 */
+	@Override
+	public void removeDirtyTracker(DirtyTracker tracker) {
+		for (int i = 0; i < trackers.length; i++) {
+			if (trackers[i] == tracker) {
+				DirtyTracker[] newTrackers = new DirtyTracker[trackers.length - 1];
+
+				System.arraycopy(trackers, 0, newTrackers, 0, i);
+				System.arraycopy(trackers, i + 1, newTrackers, i,
+						trackers.length - i - 1);
+
+				trackers = newTrackers;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Get the count of elements that can be stored without reallocation.
+	 * 
+	 * @return the current capacity, in elements
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -107,19 +159,39 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 	public void checkSize() {
 		int elementCount = getElementCount();
 
-		if (elementCount >= capacity) {
-			capacity = Math.max(capacity + growingSize, elementCount);
-			adaptDataToCapacity();
-		} else if (elementCount < capacity / 2
-				&& elementCount + growingSize > initialSize
-				&& elementCount + growingSize < capacity) {
-			capacity = elementCount + growingSize;
+		//
+		// Once reached, the reservation is no longer needed.
+		//
+		if (elementCount >= reserved)
+			reserved = 0;
+
+		int newCapacity = handler.capacityPolicy(type).getCapacity(capacity,
+				elementCount, Math.max(initialSize, reserved));
+
+		if (newCapacity != capacity) {
+			capacity = newCapacity;
 			adaptDataToCapacity();
 		}
 
 		backArrayBuffer.limit(elementCount * componentCount);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#reserve(int)
+	 */
+	@Override
+	public void reserve(int elementCount) {
+		reserved = Math.max(reserved, elementCount);
+
+		if (capacity < elementCount) {
+			capacity = elementCount;
+			adaptDataToCapacity();
+			backArrayBuffer.limit(getElementCount() * componentCount);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -130,30 +202,64 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		int elementCount = getElementCount();
 
 		if (onNewElement != null)
-			for (int i = size; i < elementCount; i++) {
-				ElementIndex index;
-
-				switch (type) {
-				case NODE:
-					index = handler.indexer().getNodeIndex(i);
-					break;
-				case EDGE:
-					index = handler.indexer().getEdgeIndex(i);
-					break;
-				case SPRITE:
-					index = handler.indexer().getSpriteIndex(i);
-					break;
-				default:
-					index = handler.indexer().getGraphIndex();
-					break;
-				}
-
-				onNewElement.newBufferElement(this, index);
-			}
+			for (int i = size; i < elementCount; i++)
+				onNewElement.newBufferElement(this, getElementIndex(i));
 
 		size = elementCount;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.Swappable#permute(org.graphstream.nui.indexer
+	 * .IndexPermutation)
+	 */
+	@Override
+	public void permute(IndexPermutation permutation) {
+		boolean grow = permutation.getNewCount() > permutation.getOldCount();
+
+		//
+		// Swaps may involve indexes up to the larger of both counts.
+		//
+		if (grow)
+			checkSize();
+
+		for (int i = 0; i < permutation.getSwapCount(); i++)
+			swap(permutation.getSwapIndex1(i), permutation.getSwapIndex2(i));
+
+		if (!grow)
+			checkSize();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.Swappable#initDefaultValues(org.graphstream
+	 * .nui.indexer.IndexPermutation)
+	 */
+	@Override
+	public void initDefaultValues(IndexPermutation permutation) {
+		if (onNewElement != null)
+			for (int i = 0; i < permutation.getAddedCount(); i++)
+				onNewElement.newBufferElement(this,
+						getElementIndex(permutation.getAddedIndex(i)));
+
+		size = permutation.getNewCount();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#remove(int)
+	 */
+	@Override
+	public void remove(int index) {
+		if (index < size)
+			size = index;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -164,9 +270,67 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		return type;
 	}
 
+	/**
+	 * Mark an element as modified in all the attached trackers. Setters only
+	 * call this when the value actually changes.
+	 * 
+	 * @param index
+	 *            index of the modified element
+	 */
+	protected void markDirty(int index) {
+		for (int i = 0; i < trackers.length; i++)
+			trackers[i].markDirty(index);
+	}
+
+	/**
+	 * Mark a range of elements as modified in all the attached trackers.
+	 * 
+	 * @param fromIndex
+	 *            first index, inclusive
+	 * @param toIndex
+	 *            last index, exclusive
+	 */
+	protected void markDirty(int fromIndex, int toIndex) {
+		for (int i = 0; i < trackers.length; i++)
+			trackers[i].markDirty(fromIndex, toIndex);
+	}
+
+	/**
+	 * Check that a buffer given for adoption can hold the current elements,
+	 * and get its capacity in elements.
+	 */
+	protected int checkAdoptable(Buffer data) {
+		int elementCount = getElementCount();
+
+		if (data.capacity() % componentCount != 0
+				|| data.capacity() / componentCount < elementCount)
+			throw new IllegalArgumentException(String.format(
+					"buffer of %d values can not hold %d elements of %d components",
+					data.capacity(), elementCount, componentCount));
+
+		return data.capacity() / componentCount;
+	}
+
+	protected ElementIndex getElementIndex(int i) {
+		switch (type) {
+		case NODE:
+			return handler.indexer().getNodeIndex(i);
+		case EDGE:
+			return handler.indexer().getEdgeIndex(i);
+		case SPRITE:
+			return handler.indexer().getSpriteIndex(i);
+		default:
+			return handler.indexer().getGraphIndex();
+		}
+	}
+
 	protected int bindex(ElementIndex index, int component) {
+		return bindex(index.index(), component);
+	}
+
+	protected int bindex(int index, int component) {
 		assert component < componentCount;
-		return index.index() * componentCount + component;
+		return index * componentCount + component;
 	}
 
 	protected int getElementCount() {
@@ -195,6 +359,19 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 
 	protected abstract void adaptDataToCapacity();
 
+	/**
+	 * Allocate a direct byte buffer, using the byte order of this reference,
+	 * large enough to contain the data of the current capacity.
+	 * 
+	 * @param bytesPerValue
+	 *            size of a component in bytes
+	 * @return a new direct byte buffer
+	 */
+	protected ByteBuffer allocateDirect(int bytesPerValue) {
+		return ByteBuffer.allocateDirect(
+				capacity * componentCount * bytesPerValue).order(order);
+	}
+
 	public static class DefaultDoubleBufferReference extends
 			DefaultBufferReference implements
 			UIBufferReference.DoubleBufferReference {
@@ -202,9 +379,8 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 
 		public DefaultDoubleBufferReference(SwappableHandler handler,
 				Type type, int componentCount, int initialSize,
-				int growingSize, CreationTrigger onNewElement) {
-			super(handler, type, componentCount, initialSize, growingSize,
-					onNewElement);
+				CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
 
 			adaptDataToCapacity();
 		}
@@ -237,6 +413,18 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 */
 		@Override
 		public double getDouble(ElementIndex index, int component) {
+			return getDouble(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #getDouble(int, int)
+		 */
+		@Override
+		public double getDouble(int index, int component) {
 			return data[bindex(index, component)];
 		}
 
@@ -249,7 +437,24 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 */
 		@Override
 		public void setDouble(ElementIndex index, int component, double d) {
-			data[bindex(index, component)] = d;
+			setDouble(index.index(), component, d);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDouble(int, int, double)
+		 */
+		@Override
+		public void setDouble(int index, int component, double d) {
+			int offset = bindex(index, component);
+
+			if (data[offset] != d) {
+				data[offset] = d;
+				markDirty(index);
+			}
 		}
 
 		/*
@@ -265,6 +470,63 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 			System.arraycopy(data, bindex(index, 0), tuple, 0, componentCount);
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDoubles(int, double[], int, int)
+		 */
+		@Override
+		public void setDoubles(int fromIndex, double[] src, int offset,
+				int count) {
+			System.arraycopy(src, offset, data, bindex(fromIndex, 0), count
+					* componentCount);
+			markDirty(fromIndex, fromIndex + count);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDoubles(int, java.nio.DoubleBuffer, int)
+		 */
+		@Override
+		public void setDoubles(int fromIndex, DoubleBuffer src, int count) {
+			src.duplicate().get(data, bindex(fromIndex, 0),
+					count * componentCount);
+			markDirty(fromIndex, fromIndex + count);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #adopt(java.nio.DoubleBuffer)
+		 */
+		@Override
+		public DoubleBuffer adopt(DoubleBuffer newData) {
+			if (!newData.hasArray() || newData.arrayOffset() != 0
+					|| newData.array().length != newData.capacity())
+				throw new IllegalArgumentException(
+						"only a whole heap buffer can be adopted");
+
+			int newCapacity = checkAdoptable(newData);
+			DoubleBuffer old = DoubleBuffer.wrap(data);
+			int elementCount = getElementCount();
+
+			data = newData.array();
+			capacity = newCapacity;
+			backArrayBuffer = DoubleBuffer.wrap(data);
+			backArrayBuffer.limit(elementCount * componentCount);
+
+			markDirty(0, elementCount);
+
+			return old;
+		}
+
 		protected void adaptDataToCapacity() {
 			int size = capacity * componentCount;
 
@@ -282,17 +544,26 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		}
 	}
 
-	public static class DefaultIntBufferReference extends
+	/**
+	 * Same as {@link DefaultDoubleBufferReference} but data are stored in a
+	 * direct buffer, outside of the heap, using a given byte order. The
+	 * buffer can be given as it is to native code.
+	 */
+	public static class DirectDoubleBufferReference extends
 			DefaultBufferReference implements
-			UIBufferReference.IntBufferReference {
-		protected int[] data;
+			UIBufferReference.DoubleBufferReference {
+		/**
+		 * View on the whole data. The buffer exposed by {@link #buffer()}
+		 * is a duplicate of this view, limited to the element count.
+		 */
+		protected DoubleBuffer data;
 
-		public DefaultIntBufferReference(SwappableHandler handler, Type type,
-				int componentCount, int initialSize, int growingSize,
+		public DirectDoubleBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, ByteOrder order,
 				CreationTrigger onNewElement) {
-			super(handler, type, componentCount, initialSize, growingSize,
-					onNewElement);
+			super(handler, type, componentCount, initialSize, onNewElement);
 
+			this.order = order == null ? ByteOrder.nativeOrder() : order;
 			adaptDataToCapacity();
 		}
 
@@ -303,15 +574,15 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 */
 		@Override
 		public void swap(int index1, int index2) {
-			int tmp;
+			double tmp;
 
 			index1 *= componentCount;
 			index2 *= componentCount;
 
 			for (int c = 0; c < componentCount; c++) {
-				tmp = data[index1 + c];
-				data[index1 + c] = data[index2 + c];
-				data[index2 + c] = tmp;
+				tmp = data.get(index1 + c);
+				data.put(index1 + c, data.get(index2 + c));
+				data.put(index2 + c, tmp);
 			}
 		}
 
@@ -319,127 +590,171 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 * (non-Javadoc)
 		 * 
 		 * @see
-		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference#
-		 * getInt(org.graphstream.nui.indexer.ElementIndex, int)
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #getDouble(org.graphstream.nui.indexer.ElementIndex, int)
 		 */
 		@Override
-		public int getInt(ElementIndex index, int component) {
-			return data[bindex(index, component)];
+		public double getDouble(ElementIndex index, int component) {
+			return getDouble(index.index(), component);
 		}
 
 		/*
 		 * (non-Javadoc)
 		 * 
 		 * @see
-		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference#
-		 * setInt(org.graphstream.nui.indexer.ElementIndex, int, int)
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #getDouble(int, int)
 		 */
 		@Override
-		public void setInt(ElementIndex index, int component, int i) {
-			data[bindex(index, component)] = i;
+		public double getDouble(int index, int component) {
+			return data.get(bindex(index, component));
 		}
 
-		protected void adaptDataToCapacity() {
-			int size = capacity * componentCount;
-
-			if (data != null && data.length == size)
-				return;
-
-			int[] newData = new int[size];
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDouble(org.graphstream.nui.indexer.ElementIndex, int, double)
+		 */
+		@Override
+		public void setDouble(ElementIndex index, int component, double d) {
+			setDouble(index.index(), component, d);
+		}
 
-			if (data != null)
-				System.arraycopy(data, 0, newData, 0,
-						Math.min(data.length, newData.length));
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDouble(int, int, double)
+		 */
+		@Override
+		public void setDouble(int index, int component, double d) {
+			int offset = bindex(index, component);
 
-			data = newData;
-			backArrayBuffer = IntBuffer.wrap(data);
+			if (data.get(offset) != d) {
+				data.put(offset, d);
+				markDirty(index);
+			}
 		}
-	}
 
-	public static class DefaultFloatBufferReference extends
-			DefaultBufferReference implements
-			UIBufferReference.FloatBufferReference {
-		protected float[] data;
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #getTuple(org.graphstream.nui.indexer.ElementIndex, double[])
+		 */
+		@Override
+		public void getTuple(ElementIndex index, double[] tuple) {
+			assert tuple.length == componentCount;
 
-		public DefaultFloatBufferReference(SwappableHandler handler, Type type,
-				int componentCount, int initialSize, int growingSize,
-				CreationTrigger onNewElement) {
-			super(handler, type, componentCount, initialSize, growingSize,
-					onNewElement);
+			int offset = bindex(index, 0);
 
-			adaptDataToCapacity();
+			for (int c = 0; c < componentCount; c++)
+				tuple[c] = data.get(offset + c);
 		}
 
 		/*
 		 * (non-Javadoc)
 		 * 
-		 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDoubles(int, double[], int, int)
 		 */
 		@Override
-		public void swap(int index1, int index2) {
-			float tmp;
-
-			index1 *= componentCount;
-			index2 *= componentCount;
+		public void setDoubles(int fromIndex, double[] src, int offset,
+				int count) {
+			DoubleBuffer dst = data.duplicate();
+			dst.position(bindex(fromIndex, 0));
+			dst.put(src, offset, count * componentCount);
 
-			for (int c = 0; c < componentCount; c++) {
-				tmp = data[index1 + c];
-				data[index1 + c] = data[index2 + c];
-				data[index2 + c] = tmp;
-			}
+			markDirty(fromIndex, fromIndex + count);
 		}
 
 		/*
 		 * (non-Javadoc)
 		 * 
 		 * @see
-		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
-		 * #getFloat(org.graphstream.nui.indexer.ElementIndex, int)
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #setDoubles(int, java.nio.DoubleBuffer, int)
 		 */
 		@Override
-		public float getFloat(ElementIndex index, int component) {
-			return data[bindex(index, component)];
+		public void setDoubles(int fromIndex, DoubleBuffer src, int count) {
+			DoubleBuffer from = src.duplicate();
+			from.limit(from.position() + count * componentCount);
+
+			DoubleBuffer dst = data.duplicate();
+			dst.position(bindex(fromIndex, 0));
+			dst.put(from);
+
+			markDirty(fromIndex, fromIndex + count);
 		}
 
 		/*
 		 * (non-Javadoc)
 		 * 
 		 * @see
-		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
-		 * #setFloat(org.graphstream.nui.indexer.ElementIndex, int, float)
+		 * org.graphstream.nui.swapper.UIBufferReference.DoubleBufferReference
+		 * #adopt(java.nio.DoubleBuffer)
 		 */
 		@Override
-		public void setFloat(ElementIndex index, int component, float f) {
-			data[bindex(index, component)] = f;
+		public DoubleBuffer adopt(DoubleBuffer newData) {
+			if (!newData.isDirect() || newData.order() != order)
+				throw new IllegalArgumentException(
+						"only a direct buffer of order " + order
+								+ " can be adopted");
+
+			int newCapacity = checkAdoptable(newData);
+			DoubleBuffer old = data;
+			int elementCount = getElementCount();
+
+			data = newData.duplicate();
+			data.clear();
+			capacity = newCapacity;
+			backArrayBuffer = data.duplicate();
+			backArrayBuffer.limit(elementCount * componentCount);
+
+			markDirty(0, elementCount);
+
+			old.clear();
+			return old;
 		}
 
 		protected void adaptDataToCapacity() {
 			int size = capacity * componentCount;
 
-			if (data != null && data.length == size)
+			if (data != null && data.capacity() == size)
 				return;
 
-			float[] newData = new float[size];
+			DoubleBuffer newData = allocateDirect(Double.SIZE / 8).asDoubleBuffer();
 
-			if (data != null)
-				System.arraycopy(data, 0, newData, 0,
-						Math.min(data.length, newData.length));
+			if (data != null) {
+				//
+				// Direct to direct copy, no data goes through the heap.
+				//
+				DoubleBuffer src = data.duplicate();
+				src.clear();
+				src.limit(Math.min(src.capacity(), size));
+
+				newData.put(src);
+				newData.clear();
+			}
 
 			data = newData;
-			backArrayBuffer = FloatBuffer.wrap(data);
+			backArrayBuffer = data.duplicate();
 		}
 	}
 
-	public static class DefaultLongBufferReference extends
+	public static class DefaultIntBufferReference extends
 			DefaultBufferReference implements
-			UIBufferReference.LongBufferReference {
-		protected long[] data;
+			UIBufferReference.IntBufferReference {
+		protected int[] data;
 
-		public DefaultLongBufferReference(SwappableHandler handler, Type type,
-				int componentCount, int initialSize, int growingSize,
-				CreationTrigger onNewElement) {
-			super(handler, type, componentCount, initialSize, growingSize,
-					onNewElement);
+		public DefaultIntBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
 
 			adaptDataToCapacity();
 		}
@@ -451,7 +766,449 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 */
 		@Override
 		public void swap(int index1, int index2) {
-			long tmp;
+			int tmp;
+
+			index1 *= componentCount;
+			index2 *= componentCount;
+
+			for (int c = 0; c < componentCount; c++) {
+				tmp = data[index1 + c];
+				data[index1 + c] = data[index2 + c];
+				data[index2 + c] = tmp;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference#
+		 * getInt(org.graphstream.nui.indexer.ElementIndex, int)
+		 */
+		@Override
+		public int getInt(ElementIndex index, int component) {
+			return getInt(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference
+		 * #getInt(int, int)
+		 */
+		@Override
+		public int getInt(int index, int component) {
+			return data[bindex(index, component)];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference#
+		 * setInt(org.graphstream.nui.indexer.ElementIndex, int, int)
+		 */
+		@Override
+		public void setInt(ElementIndex index, int component, int i) {
+			setInt(index.index(), component, i);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference
+		 * #setInt(int, int, int)
+		 */
+		@Override
+		public void setInt(int index, int component, int i) {
+			int offset = bindex(index, component);
+
+			if (data[offset] != i) {
+				data[offset] = i;
+				markDirty(index);
+			}
+		}
+
+		protected void adaptDataToCapacity() {
+			int size = capacity * componentCount;
+
+			if (data != null && data.length == size)
+				return;
+
+			int[] newData = new int[size];
+
+			if (data != null)
+				System.arraycopy(data, 0, newData, 0,
+						Math.min(data.length, newData.length));
+
+			data = newData;
+			backArrayBuffer = IntBuffer.wrap(data);
+		}
+	}
+
+	/**
+	 * Same as {@link DefaultIntBufferReference} but data are stored in a
+	 * direct buffer, outside of the heap, using a given byte order. The
+	 * buffer can be given as it is to native code.
+	 */
+	public static class DirectIntBufferReference extends
+			DefaultBufferReference implements
+			UIBufferReference.IntBufferReference {
+		/**
+		 * View on the whole data. The buffer exposed by {@link #buffer()}
+		 * is a duplicate of this view, limited to the element count.
+		 */
+		protected IntBuffer data;
+
+		public DirectIntBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, ByteOrder order,
+				CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
+
+			this.order = order == null ? ByteOrder.nativeOrder() : order;
+			adaptDataToCapacity();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+		 */
+		@Override
+		public void swap(int index1, int index2) {
+			int tmp;
+
+			index1 *= componentCount;
+			index2 *= componentCount;
+
+			for (int c = 0; c < componentCount; c++) {
+				tmp = data.get(index1 + c);
+				data.put(index1 + c, data.get(index2 + c));
+				data.put(index2 + c, tmp);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference
+		 * #getInt(org.graphstream.nui.indexer.ElementIndex, int)
+		 */
+		@Override
+		public int getInt(ElementIndex index, int component) {
+			return getInt(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference
+		 * #getInt(int, int)
+		 */
+		@Override
+		public int getInt(int index, int component) {
+			return data.get(bindex(index, component));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference
+		 * #setInt(org.graphstream.nui.indexer.ElementIndex, int, int)
+		 */
+		@Override
+		public void setInt(ElementIndex index, int component, int i) {
+			setInt(index.index(), component, i);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.IntBufferReference
+		 * #setInt(int, int, int)
+		 */
+		@Override
+		public void setInt(int index, int component, int i) {
+			int offset = bindex(index, component);
+
+			if (data.get(offset) != i) {
+				data.put(offset, i);
+				markDirty(index);
+			}
+		}
+
+		protected void adaptDataToCapacity() {
+			int size = capacity * componentCount;
+
+			if (data != null && data.capacity() == size)
+				return;
+
+			IntBuffer newData = allocateDirect(Integer.SIZE / 8).asIntBuffer();
+
+			if (data != null) {
+				//
+				// Direct to direct copy, no data goes through the heap.
+				//
+				IntBuffer src = data.duplicate();
+				src.clear();
+				src.limit(Math.min(src.capacity(), size));
+
+				newData.put(src);
+				newData.clear();
+			}
+
+			data = newData;
+			backArrayBuffer = data.duplicate();
+		}
+	}
+
+	public static class DefaultFloatBufferReference extends
+			DefaultBufferReference implements
+			UIBufferReference.FloatBufferReference {
+		protected float[] data;
+
+		public DefaultFloatBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
+
+			adaptDataToCapacity();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+		 */
+		@Override
+		public void swap(int index1, int index2) {
+			float tmp;
+
+			index1 *= componentCount;
+			index2 *= componentCount;
+
+			for (int c = 0; c < componentCount; c++) {
+				tmp = data[index1 + c];
+				data[index1 + c] = data[index2 + c];
+				data[index2 + c] = tmp;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #getFloat(org.graphstream.nui.indexer.ElementIndex, int)
+		 */
+		@Override
+		public float getFloat(ElementIndex index, int component) {
+			return getFloat(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #getFloat(int, int)
+		 */
+		@Override
+		public float getFloat(int index, int component) {
+			return data[bindex(index, component)];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #setFloat(org.graphstream.nui.indexer.ElementIndex, int, float)
+		 */
+		@Override
+		public void setFloat(ElementIndex index, int component, float f) {
+			setFloat(index.index(), component, f);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #setFloat(int, int, float)
+		 */
+		@Override
+		public void setFloat(int index, int component, float f) {
+			int offset = bindex(index, component);
+
+			if (data[offset] != f) {
+				data[offset] = f;
+				markDirty(index);
+			}
+		}
+
+		protected void adaptDataToCapacity() {
+			int size = capacity * componentCount;
+
+			if (data != null && data.length == size)
+				return;
+
+			float[] newData = new float[size];
+
+			if (data != null)
+				System.arraycopy(data, 0, newData, 0,
+						Math.min(data.length, newData.length));
+
+			data = newData;
+			backArrayBuffer = FloatBuffer.wrap(data);
+		}
+	}
+
+	/**
+	 * Same as {@link DefaultFloatBufferReference} but data are stored in a
+	 * direct buffer, outside of the heap, using a given byte order. The
+	 * buffer can be given as it is to native code.
+	 */
+	public static class DirectFloatBufferReference extends
+			DefaultBufferReference implements
+			UIBufferReference.FloatBufferReference {
+		/**
+		 * View on the whole data. The buffer exposed by {@link #buffer()}
+		 * is a duplicate of this view, limited to the element count.
+		 */
+		protected FloatBuffer data;
+
+		public DirectFloatBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, ByteOrder order,
+				CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
+
+			this.order = order == null ? ByteOrder.nativeOrder() : order;
+			adaptDataToCapacity();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+		 */
+		@Override
+		public void swap(int index1, int index2) {
+			float tmp;
+
+			index1 *= componentCount;
+			index2 *= componentCount;
+
+			for (int c = 0; c < componentCount; c++) {
+				tmp = data.get(index1 + c);
+				data.put(index1 + c, data.get(index2 + c));
+				data.put(index2 + c, tmp);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #getFloat(org.graphstream.nui.indexer.ElementIndex, int)
+		 */
+		@Override
+		public float getFloat(ElementIndex index, int component) {
+			return getFloat(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #getFloat(int, int)
+		 */
+		@Override
+		public float getFloat(int index, int component) {
+			return data.get(bindex(index, component));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #setFloat(org.graphstream.nui.indexer.ElementIndex, int, float)
+		 */
+		@Override
+		public void setFloat(ElementIndex index, int component, float f) {
+			setFloat(index.index(), component, f);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.FloatBufferReference
+		 * #setFloat(int, int, float)
+		 */
+		@Override
+		public void setFloat(int index, int component, float f) {
+			int offset = bindex(index, component);
+
+			if (data.get(offset) != f) {
+				data.put(offset, f);
+				markDirty(index);
+			}
+		}
+
+		protected void adaptDataToCapacity() {
+			int size = capacity * componentCount;
+
+			if (data != null && data.capacity() == size)
+				return;
+
+			FloatBuffer newData = allocateDirect(Float.SIZE / 8).asFloatBuffer();
+
+			if (data != null) {
+				//
+				// Direct to direct copy, no data goes through the heap.
+				//
+				FloatBuffer src = data.duplicate();
+				src.clear();
+				src.limit(Math.min(src.capacity(), size));
+
+				newData.put(src);
+				newData.clear();
+			}
+
+			data = newData;
+			backArrayBuffer = data.duplicate();
+		}
+	}
+
+	public static class DefaultLongBufferReference extends
+			DefaultBufferReference implements
+			UIBufferReference.LongBufferReference {
+		protected long[] data;
+
+		public DefaultLongBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
+
+			adaptDataToCapacity();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+		 */
+		@Override
+		public void swap(int index1, int index2) {
+			long tmp;
 
 			index1 *= componentCount;
 			index2 *= componentCount;
@@ -472,6 +1229,18 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 */
 		@Override
 		public long getLong(ElementIndex index, int component) {
+			return getLong(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.LongBufferReference
+		 * #getLong(int, int)
+		 */
+		@Override
+		public long getLong(int index, int component) {
 			return data[bindex(index, component)];
 		}
 
@@ -484,7 +1253,24 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 		 */
 		@Override
 		public void setLong(ElementIndex index, int component, long l) {
-			data[bindex(index, component)] = l;
+			setLong(index.index(), component, l);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.LongBufferReference
+		 * #setLong(int, int, long)
+		 */
+		@Override
+		public void setLong(int index, int component, long l) {
+			int offset = bindex(index, component);
+
+			if (data[offset] != l) {
+				data[offset] = l;
+				markDirty(index);
+			}
 		}
 
 		protected void adaptDataToCapacity() {
@@ -503,4 +1289,124 @@ public abstract class DefaultBufferReference implements UIBufferReference,
 			backArrayBuffer = LongBuffer.wrap(data);
 		}
 	}
+
+	/**
+	 * Same as {@link DefaultLongBufferReference} but data are stored in a
+	 * direct buffer, outside of the heap, using a given byte order. The
+	 * buffer can be given as it is to native code.
+	 */
+	public static class DirectLongBufferReference extends
+			DefaultBufferReference implements
+			UIBufferReference.LongBufferReference {
+		/**
+		 * View on the whole data. The buffer exposed by {@link #buffer()}
+		 * is a duplicate of this view, limited to the element count.
+		 */
+		protected LongBuffer data;
+
+		public DirectLongBufferReference(SwappableHandler handler, Type type,
+				int componentCount, int initialSize, ByteOrder order,
+				CreationTrigger onNewElement) {
+			super(handler, type, componentCount, initialSize, onNewElement);
+
+			this.order = order == null ? ByteOrder.nativeOrder() : order;
+			adaptDataToCapacity();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+		 */
+		@Override
+		public void swap(int index1, int index2) {
+			long tmp;
+
+			index1 *= componentCount;
+			index2 *= componentCount;
+
+			for (int c = 0; c < componentCount; c++) {
+				tmp = data.get(index1 + c);
+				data.put(index1 + c, data.get(index2 + c));
+				data.put(index2 + c, tmp);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.LongBufferReference
+		 * #getLong(org.graphstream.nui.indexer.ElementIndex, int)
+		 */
+		@Override
+		public long getLong(ElementIndex index, int component) {
+			return getLong(index.index(), component);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.LongBufferReference
+		 * #getLong(int, int)
+		 */
+		@Override
+		public long getLong(int index, int component) {
+			return data.get(bindex(index, component));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.LongBufferReference
+		 * #setLong(org.graphstream.nui.indexer.ElementIndex, int, long)
+		 */
+		@Override
+		public void setLong(ElementIndex index, int component, long l) {
+			setLong(index.index(), component, l);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.UIBufferReference.LongBufferReference
+		 * #setLong(int, int, long)
+		 */
+		@Override
+		public void setLong(int index, int component, long l) {
+			int offset = bindex(index, component);
+
+			if (data.get(offset) != l) {
+				data.put(offset, l);
+				markDirty(index);
+			}
+		}
+
+		protected void adaptDataToCapacity() {
+			int size = capacity * componentCount;
+
+			if (data != null && data.capacity() == size)
+				return;
+
+			LongBuffer newData = allocateDirect(Long.SIZE / 8).asLongBuffer();
+
+			if (data != null) {
+				//
+				// Direct to direct copy, no data goes through the heap.
+				//
+				LongBuffer src = data.duplicate();
+				src.clear();
+				src.limit(Math.min(src.capacity(), size));
+
+				newData.put(src);
+				newData.clear();
+			}
+
+			data = newData;
+			backArrayBuffer = data.duplicate();
+		}
+	}
 }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper;
+
+import java.util.BitSet;
+
+import org.graphstream.nui.indexer.IndexPermutation;
+import org.graphstream.nui.indexer.ElementIndex.Type;
+
+/**
+ * Dirty tracker based on a bitset, one bit per element. Marking is constant
+ * time, and iterating on the dirty elements costs a word test per 64 elements
+ * plus the dirty elements themselves.
+ */
+public class DefaultDirtyTracker implements DirtyTracker, Swappable {
+	protected final SwappableHandler handler;
+	protected final Type type;
+	protected final BitSet dirty;
+	protected int size;
+
+	public DefaultDirtyTracker(SwappableHandler handler, Type type) {
+		this.handler = handler;
+		this.type = type;
+		this.dirty = new BitSet();
+		this.size = 0;
+
+		//
+		// Elements existing at creation are new for the consumer.
+		//
+		initDefaultValues();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#isDirty(int)
+	 */
+	@Override
+	public boolean isDirty(int index) {
+		return dirty.get(index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#nextDirty(int)
+	 */
+	@Override
+	public int nextDirty(int fromIndex) {
+		return dirty.nextSetBit(fromIndex);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#nextClean(int)
+	 */
+	@Override
+	public int nextClean(int fromIndex) {
+		return dirty.nextClearBit(fromIndex);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#getDirtyCount()
+	 */
+	@Override
+	public int getDirtyCount() {
+		return dirty.cardinality();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#markDirty(int)
+	 */
+	@Override
+	public void markDirty(int index) {
+		dirty.set(index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#markDirty(int, int)
+	 */
+	@Override
+	public void markDirty(int fromIndex, int toIndex) {
+		dirty.set(fromIndex, toIndex);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#markAllDirty()
+	 */
+	@Override
+	public void markAllDirty() {
+		dirty.set(0, size);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.DirtyTracker#include(org.graphstream.nui.
+	 * swapper.DirtyTracker)
+	 */
+	@Override
+	public void include(DirtyTracker other) {
+		if (other instanceof DefaultDirtyTracker) {
+			dirty.or(((DefaultDirtyTracker) other).dirty);
+		} else {
+			for (int i = other.nextDirty(0); i >= 0; i = other
+					.nextDirty(i + 1))
+				dirty.set(i);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#clear()
+	 */
+	@Override
+	public void clear() {
+		dirty.clear();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#getType()
+	 */
+	@Override
+	public Type getType() {
+		return type;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#checkSize()
+	 */
+	@Override
+	public void checkSize() {
+		int elementCount = getElementCount();
+
+		//
+		// Removed elements are no longer dirty.
+		//
+		if (elementCount < size) {
+			dirty.clear(elementCount, size);
+			size = elementCount;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#initDefaultValues()
+	 */
+	@Override
+	public void initDefaultValues() {
+		int elementCount = getElementCount();
+
+		if (elementCount > size)
+			dirty.set(size, elementCount);
+
+		size = elementCount;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#reserve(int)
+	 */
+	@Override
+	public void reserve(int elementCount) {
+		//
+		// Make sure the bitset will not grow word after word.
+		//
+		if (elementCount > 0 && !dirty.get(elementCount - 1)) {
+			dirty.set(elementCount - 1);
+			dirty.clear(elementCount - 1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#remove(int)
+	 */
+	@Override
+	public void remove(int index) {
+		//
+		// A removed element is no longer dirty.
+		//
+		dirty.clear(index);
+
+		if (index < size)
+			size = index;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.Swappable#swap(int, int)
+	 */
+	@Override
+	public void swap(int index1, int index2) {
+		//
+		// Data at both indexes now belongs to another element.
+		//
+		dirty.set(index1);
+		dirty.set(index2);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.Swappable#permute(org.graphstream.nui.indexer
+	 * .IndexPermutation)
+	 */
+	@Override
+	public void permute(IndexPermutation permutation) {
+		for (int i = 0; i < permutation.getSwapCount(); i++)
+			swap(permutation.getSwapIndex1(i), permutation.getSwapIndex2(i));
+
+		checkSize();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.swapper.Swappable#initDefaultValues(org.graphstream
+	 * .nui.indexer.IndexPermutation)
+	 */
+	@Override
+	public void initDefaultValues(IndexPermutation permutation) {
+		for (int i = 0; i < permutation.getAddedCount(); i++)
+			dirty.set(permutation.getAddedIndex(i));
+
+		size = permutation.getNewCount();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.swapper.DirtyTracker#release()
+	 */
+	@Override
+	public void release() {
+		handler.release(this);
+		dirty.clear();
+	}
+
+	protected int getElementCount() {
+		switch (type) {
+		case NODE:
+			return handler.indexer().getNodeCount();
+		case EDGE:
+			return handler.indexer().getEdgeCount();
+		case SPRITE:
+			return handler.indexer().getSpriteCount();
+		default:
+			return 1;
+		}
+	}
+}
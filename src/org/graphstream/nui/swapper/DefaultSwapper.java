@@ -37,6 +37,7 @@ import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Logger;
 
 import org.graphstream.nui.AbstractModule;
 import org.graphstream.nui.UISwapper;
@@ -44,14 +45,32 @@ import org.graphstream.nui.UIContext;
 import org.graphstream.nui.UIIndexer;
 import org.graphstream.nui.indexer.ElementIndex;
 import org.graphstream.nui.indexer.ElementIndex.Type;
+import org.graphstream.nui.indexer.IndexPermutation;
 import org.graphstream.nui.indexer.IndexerListener;
+import org.graphstream.nui.swapper.CapacityPolicy.FixedCapacityPolicy;
+import org.graphstream.nui.swapper.CapacityPolicy.GeometricCapacityPolicy;
 import org.graphstream.nui.swapper.DefaultBufferReference.DefaultDoubleBufferReference;
 import org.graphstream.nui.swapper.DefaultBufferReference.DefaultIntBufferReference;
 import org.graphstream.nui.swapper.DefaultBufferReference.DefaultFloatBufferReference;
 import org.graphstream.nui.swapper.DefaultBufferReference.DefaultLongBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectDoubleBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectFloatBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectIntBufferReference;
+import org.graphstream.nui.swapper.DefaultBufferReference.DirectLongBufferReference;
+import org.graphstream.nui.util.Tools;
 
 public class DefaultSwapper extends AbstractModule implements UISwapper {
+	private static final Logger LOGGER = Logger.getLogger(DefaultSwapper.class
+			.getName());
+
+	public static final String ATTRIBUTE_CAPACITY_POLICY = "capacityPolicy";
+	public static final String ATTRIBUTE_GROWING_FACTOR = "growingFactor";
+
+	public static final String CAPACITY_POLICY_FIXED = "fixed";
+	public static final String CAPACITY_POLICY_GEOMETRIC = "geometric";
+
 	protected final Map<Type, List<Swappable>> buffers;
+	protected final Map<Type, CapacityPolicy> capacityPolicies;
 	protected UIIndexer indexer;
 	protected ByteBuffer swapBuffer;
 	protected ChangeListener listener;
@@ -76,6 +95,9 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 		edgeInitialSize = 2000;
 		nodeGrowingSize = 1000;
 		edgeGrowingSize = 2000;
+
+		capacityPolicies = new EnumMap<Type, CapacityPolicy>(Type.class);
+		setGeometricCapacityPolicy(GeometricCapacityPolicy.DEFAULT_GROWING_FACTOR);
 	}
 
 	/*
@@ -135,38 +157,50 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 	public UIBufferReference createBuffer(ElementIndex.Type type,
 			int components, BufferType bufferType, ByteOrder order,
 			CreationTrigger onNewElement) {
-		int initialSize, growingSize;
-
-		switch (type) {
-		case EDGE:
-			initialSize = edgeInitialSize;
-			growingSize = edgeGrowingSize;
-			break;
-		case NODE:
-		default:
-			initialSize = nodeInitialSize;
-			growingSize = nodeGrowingSize;
-		}
-
+		int initialSize = getInitialSize(type);
 		DefaultBufferReference ref = null;
 
-		switch (bufferType) {
-		case DOUBLE:
-			ref = new DefaultDoubleBufferReference(handler, type, components,
-					initialSize, growingSize, onNewElement);
-			break;
-		case FLOAT:
-			ref = new DefaultFloatBufferReference(handler, type, components,
-					initialSize, growingSize, onNewElement);
-			break;
-		case INT:
-			ref = new DefaultIntBufferReference(handler, type, components,
-					initialSize, growingSize, onNewElement);
-			break;
-		case LONG:
-			ref = new DefaultLongBufferReference(handler, type, components,
-					initialSize, growingSize, onNewElement);
-			break;
+		if (order == null) {
+			//
+			// No byte order requested, data stay in the heap.
+			//
+			switch (bufferType) {
+			case DOUBLE:
+				ref = new DefaultDoubleBufferReference(handler, type,
+						components, initialSize, onNewElement);
+				break;
+			case FLOAT:
+				ref = new DefaultFloatBufferReference(handler, type,
+						components, initialSize, onNewElement);
+				break;
+			case INT:
+				ref = new DefaultIntBufferReference(handler, type, components,
+						initialSize, onNewElement);
+				break;
+			case LONG:
+				ref = new DefaultLongBufferReference(handler, type,
+						components, initialSize, onNewElement);
+				break;
+			}
+		} else {
+			switch (bufferType) {
+			case DOUBLE:
+				ref = new DirectDoubleBufferReference(handler, type,
+						components, initialSize, order, onNewElement);
+				break;
+			case FLOAT:
+				ref = new DirectFloatBufferReference(handler, type,
+						components, initialSize, order, onNewElement);
+				break;
+			case INT:
+				ref = new DirectIntBufferReference(handler, type, components,
+						initialSize, order, onNewElement);
+				break;
+			case LONG:
+				ref = new DirectLongBufferReference(handler, type, components,
+						initialSize, order, onNewElement);
+				break;
+			}
 		}
 
 		assert ref != null;
@@ -189,21 +223,8 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 	@Override
 	public <T> UIArrayReference<T> createArray(ElementIndex.Type type,
 			int components, Class<T> valueType, ValueFactory<T> valueFactory) {
-		int initialSize, growingSize;
-
-		switch (type) {
-		case EDGE:
-			initialSize = edgeInitialSize;
-			growingSize = edgeGrowingSize;
-			break;
-		case NODE:
-		default:
-			initialSize = nodeInitialSize;
-			growingSize = nodeGrowingSize;
-		}
-
 		DefaultArrayReference<T> ref = new DefaultArrayReference<T>(type,
-				initialSize, growingSize, components, valueType, valueFactory,
+				getInitialSize(type), components, valueType, valueFactory,
 				handler);
 
 		if (!buffers.containsKey(type))
@@ -214,6 +235,146 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 		return ref;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UISwapper#createDirtyTracker(org.graphstream.nui.
+	 * indexer.ElementIndex.Type)
+	 */
+	@Override
+	public DirtyTracker createDirtyTracker(ElementIndex.Type type) {
+		DefaultDirtyTracker tracker = new DefaultDirtyTracker(handler, type);
+
+		if (!buffers.containsKey(type))
+			buffers.put(type, new LinkedList<Swappable>());
+
+		buffers.get(type).add(tracker);
+
+		return tracker;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UISwapper#reserve(org.graphstream.nui.indexer.ElementIndex
+	 * .Type, int)
+	 */
+	@Override
+	public void reserve(ElementIndex.Type type, int expectedCount) {
+		List<Swappable> l = buffers.get(type);
+
+		if (l != null) {
+			for (Swappable ref : l)
+				ref.reserve(expectedCount);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UISwapper#setCapacityPolicy(org.graphstream.nui.indexer
+	 * .ElementIndex.Type, org.graphstream.nui.swapper.CapacityPolicy)
+	 */
+	@Override
+	public void setCapacityPolicy(ElementIndex.Type type, CapacityPolicy policy) {
+		assert policy != null;
+		capacityPolicies.put(type, policy);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.UISwapper#getCapacityPolicy(org.graphstream.nui.indexer
+	 * .ElementIndex.Type)
+	 */
+	@Override
+	public CapacityPolicy getCapacityPolicy(ElementIndex.Type type) {
+		CapacityPolicy policy = capacityPolicies.get(type);
+
+		if (policy == null) {
+			policy = new GeometricCapacityPolicy();
+			capacityPolicies.put(type, policy);
+		}
+
+		return policy;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.graphstream.nui.AbstractModule#setAttribute(java.lang.String,
+	 * java.lang.Object)
+	 */
+	@Override
+	public void setAttribute(String key, Object value) {
+		super.setAttribute(key, value);
+
+		switch (key) {
+		case ATTRIBUTE_CAPACITY_POLICY:
+			try {
+				String policy = Tools.checkAndGetString(value, false);
+
+				switch (policy) {
+				case CAPACITY_POLICY_FIXED:
+					setFixedCapacityPolicy();
+					break;
+				case CAPACITY_POLICY_GEOMETRIC:
+					setGeometricCapacityPolicy(GeometricCapacityPolicy.DEFAULT_GROWING_FACTOR);
+					break;
+				default:
+					throw new IllegalArgumentException();
+				}
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_CAPACITY_POLICY, value));
+			}
+
+			break;
+		case ATTRIBUTE_GROWING_FACTOR:
+			try {
+				setGeometricCapacityPolicy(Tools.checkAndGetDouble(value));
+			} catch (IllegalArgumentException e) {
+				LOGGER.warning(String.format("Illegal value for %s.%s : %s",
+						MODULE_ID, ATTRIBUTE_GROWING_FACTOR, value));
+			}
+
+			break;
+		default:
+			break;
+		}
+	}
+
+	protected void setFixedCapacityPolicy() {
+		capacityPolicies.put(Type.NODE, new FixedCapacityPolicy(
+				nodeGrowingSize));
+		capacityPolicies.put(Type.EDGE, new FixedCapacityPolicy(
+				edgeGrowingSize));
+		capacityPolicies.put(Type.SPRITE, new FixedCapacityPolicy(
+				nodeGrowingSize));
+	}
+
+	protected void setGeometricCapacityPolicy(double growingFactor) {
+		CapacityPolicy policy = new GeometricCapacityPolicy(growingFactor);
+
+		capacityPolicies.put(Type.NODE, policy);
+		capacityPolicies.put(Type.EDGE, policy);
+		capacityPolicies.put(Type.SPRITE, policy);
+	}
+
+	protected int getInitialSize(Type type) {
+		switch (type) {
+		case EDGE:
+			return edgeInitialSize;
+		case NODE:
+		default:
+			return nodeInitialSize;
+		}
+	}
+
 	protected void checkSize(Type type) {
 		List<Swappable> l = buffers.get(type);
 
@@ -232,6 +393,35 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 		}
 	}
 
+	protected void permute(IndexPermutation permutation) {
+		List<Swappable> l = buffers.get(permutation.getType());
+
+		//
+		// Like in checkSize(), all the references are permuted before the
+		// new elements are initialized.
+		//
+		if (l != null) {
+			for (Swappable ref : l)
+				ref.permute(permutation);
+
+			for (Swappable ref : l)
+				ref.initDefaultValues(permutation);
+		}
+	}
+
+	/**
+	 * Release the slot of a removed element in all the references. The
+	 * indexer still counts the element when the removal is notified.
+	 */
+	protected void remove(Type type, int index) {
+		List<Swappable> l = buffers.get(type);
+
+		if (l != null) {
+			for (Swappable ref : l)
+				ref.remove(index);
+		}
+	}
+
 	protected void swap(Type type, int idx1, int idx2) {
 		List<Swappable> l = buffers.get(type);
 
@@ -252,6 +442,18 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 			return indexer;
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.swapper.SwappableHandler#capacityPolicy(org.graphstream
+		 * .nui.indexer.ElementIndex.Type)
+		 */
+		@Override
+		public CapacityPolicy capacityPolicy(Type type) {
+			return getCapacityPolicy(type);
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
@@ -261,7 +463,14 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 		 */
 		@Override
 		public void release(Swappable swappable) {
-			buffers.get(swappable.getType()).remove(this);
+			List<Swappable> l = buffers.get(swappable.getType());
+
+			//
+			// Buffers are already gone if the swapper has been released
+			// first.
+			//
+			if (l != null)
+				l.remove(swappable);
 		}
 	}
 
@@ -288,6 +497,7 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 		@Override
 		public void nodeRemoved(ElementIndex nodeIndex) {
 			checkSize(Type.NODE);
+			remove(Type.NODE, nodeIndex.index());
 		}
 
 		/*
@@ -327,6 +537,7 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 		@Override
 		public void edgeRemoved(ElementIndex edgeIndex) {
 			checkSize(Type.EDGE);
+			remove(Type.EDGE, edgeIndex.index());
 		}
 
 		/*
@@ -352,5 +563,17 @@ public class DefaultSwapper extends AbstractModule implements UISwapper {
 			checkSize(Type.NODE);
 			checkSize(Type.EDGE);
 		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#elementsPermuted(org.
+		 * graphstream.nui.indexer.IndexPermutation)
+		 */
+		@Override
+		public void elementsPermuted(IndexPermutation permutation) {
+			permute(permutation);
+		}
 	}
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2006 - 2015
+ *     Stefan Balev     <stefan.balev@graphstream-project.org>
+ *     Julien Baudry    <julien.baudry@graphstream-project.org>
+ *     Antoine Dutot    <antoine.dutot@graphstream-project.org>
+ *     Yoann Pigné      <yoann.pigne@graphstream-project.org>
+ *     Guilhelm Savin   <guilhelm.savin@graphstream-project.org>
+ * 
+ * This file is part of GraphStream <http://graphstream-project.org>.
+ * 
+ * GraphStream is a library whose purpose is to handle static or dynamic
+ * graph, create them from scratch, file or any source and display them.
+ * 
+ * This program is free software distributed under the terms of two licenses, the
+ * CeCILL-C license that fits European law, and the GNU Lesser General Public
+ * License. You can  use, modify and/ or redistribute the software under the terms
+ * of the CeCILL-C license as circulated by CEA, CNRS and INRIA at the following
+ * URL <http://www.cecill.info> or under the terms of the GNU LGPL as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ * The fact that you are presently reading this means that you have had
+ * knowledge of the CeCILL-C and LGPL licenses and that you accept their terms.
+ */
+package org.graphstream.nui.swapper;
+
+/**
+ * Keeps track of the elements modified since the last time a consumer read
+ * them. Each consumer owns its tracker, so several consumers can read the
+ * changes at their own pace.
+ * 
+ * Trackers are created by the swapper, which keeps them in sync with the
+ * indexes : new elements are dirty, elements whose index changed are dirty and
+ * removed elements are no longer tracked. A tracker can then be attached to
+ * one or more buffers which will mark the elements they modify.
+ * 
+ * A consumer typically iterates on the dirty elements and then clears the
+ * tracker :
+ * 
+ * <pre>
+ * for (int i = tracker.nextDirty(0); i &gt;= 0; i = tracker.nextDirty(i + 1))
+ * 	process(i);
+ * 
+ * tracker.clear();
+ * </pre>
+ * 
+ * Trackers are not thread-safe and have to be used in the ui thread.
+ */
+public interface DirtyTracker {
+	/**
+	 * Check if an element has been modified since the last clear.
+	 * 
+	 * @param index
+	 *            index of the element
+	 * @return true if the element is dirty
+	 */
+	boolean isDirty(int index);
+
+	/**
+	 * Get the first dirty element whose index is greater or equal to a given
+	 * index.
+	 * 
+	 * @param fromIndex
+	 *            index to start from, inclusive
+	 * @return the index of the next dirty element, or -1 if there is not
+	 */
+	int nextDirty(int fromIndex);
+
+	/**
+	 * Get the first clean element whose index is greater or equal to a given
+	 * index. This can be used with {@link #nextDirty(int)} to iterate on the
+	 * dirty ranges.
+	 * 
+	 * @param fromIndex
+	 *            index to start from, inclusive
+	 * @return the index of the next clean element
+	 */
+	int nextClean(int fromIndex);
+
+	/**
+	 * Count of dirty elements.
+	 * 
+	 * @return the dirty count
+	 */
+	int getDirtyCount();
+
+	/**
+	 * Mark an element as modified.
+	 * 
+	 * @param index
+	 *            index of the element
+	 */
+	void markDirty(int index);
+
+	/**
+	 * Mark a range of elements as modified.
+	 * 
+	 * @param fromIndex
+	 *            first index, inclusive
+	 * @param toIndex
+	 *            last index, exclusive
+	 */
+	void markDirty(int fromIndex, int toIndex);
+
+	/**
+	 * Mark all the elements as modified.
+	 */
+	void markAllDirty();
+
+	/**
+	 * Mark as modified all the elements that are dirty in another tracker.
+	 * 
+	 * @param other
+	 *            the tracker to merge in this one
+	 */
+	void include(DirtyTracker other);
+
+	/**
+	 * Mark all the elements as clean. This is done by the consumer once
+	 * changes have been processed.
+	 */
+	void clear();
+
+	/**
+	 * Stop tracking. The tracker should be detached from buffers before.
+	 */
+	void release();
+}
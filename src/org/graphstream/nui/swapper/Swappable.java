@@ -31,6 +31,7 @@
  */
 package org.graphstream.nui.swapper;
 
+import org.graphstream.nui.indexer.IndexPermutation;
 import org.graphstream.nui.indexer.ElementIndex.Type;
 
 public interface Swappable {
@@ -40,7 +41,46 @@ public interface Swappable {
 
 	void initDefaultValues();
 
+	/**
+	 * Ensure that the capacity is large enough to hold the given count of
+	 * elements, so they can be added without any reallocation.
+	 * 
+	 * @param elementCount
+	 *            expected count of elements
+	 */
+	void reserve(int elementCount);
+
 	void swap(int index1, int index2);
 
+	/**
+	 * Release the slot of a removed element. The element has already been
+	 * moved to the last index but is still counted by the indexer, so the
+	 * slot would not be initialized again when a new element takes it.
+	 * 
+	 * @param index
+	 *            index of the removed element
+	 */
+	void remove(int index);
+
+	/**
+	 * Apply all the changes of a batch in one pass : move the data of the
+	 * elements to their new index and resize to the new count of elements.
+	 * Added elements are initialized later by
+	 * {@link #initDefaultValues(IndexPermutation)}.
+	 * 
+	 * @param permutation
+	 *            the changes of indexes
+	 */
+	void permute(IndexPermutation permutation);
+
+	/**
+	 * Initialize the elements added by a batch, once all the swappable
+	 * objects have been permuted.
+	 * 
+	 * @param permutation
+	 *            the changes of indexes
+	 */
+	void initDefaultValues(IndexPermutation permutation);
+
 	void release();
 }
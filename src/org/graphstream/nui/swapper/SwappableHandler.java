@@ -32,9 +32,12 @@
 package org.graphstream.nui.swapper;
 
 import org.graphstream.nui.UIIndexer;
+import org.graphstream.nui.indexer.ElementIndex.Type;
 
 public interface SwappableHandler {
 	UIIndexer indexer();
+
+	CapacityPolicy capacityPolicy(Type type);
 	
 	void release(Swappable swappable);
 }
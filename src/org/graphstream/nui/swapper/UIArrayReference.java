@@ -33,11 +33,20 @@ package org.graphstream.nui.swapper;
 
 import org.graphstream.nui.indexer.ElementIndex;
 
+/**
+ * Reference to an array storing some objects for each element of a type. Like
+ * in {@link UIBufferReference}, accessors taking the integer index of the
+ * element should be preferred in loops over all the elements.
+ */
 public interface UIArrayReference<T> {
 	T get(ElementIndex index, int component);
 
+	T get(int index, int component);
+
 	void set(ElementIndex index, int component, T value);
 
+	void set(int index, int component, T value);
+
 	T[] array();
 
 	void release();
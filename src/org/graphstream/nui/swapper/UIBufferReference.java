@@ -32,9 +32,20 @@
 package org.graphstream.nui.swapper;
 
 import java.nio.Buffer;
+import java.nio.DoubleBuffer;
 
 import org.graphstream.nui.indexer.ElementIndex;
 
+/**
+ * Reference to a buffer storing some components for each element of a type.
+ * 
+ * Each accessor exists in two flavors : one taking the index object of the
+ * element, and one taking directly the integer index as returned by
+ * {@link org.graphstream.nui.indexer.ElementIndex#index()}. The second one
+ * avoids an interface call for each access and should be preferred in loops
+ * over all the elements. Integer indexes are stable between two events of
+ * {@link org.graphstream.nui.indexer.IndexerListener}.
+ */
 public interface UIBufferReference {
 	Buffer buffer();
 
@@ -42,29 +53,117 @@ public interface UIBufferReference {
 
 	int getComponentsCount();
 
+	/**
+	 * Attach a tracker to this buffer. Each time the value of an element is
+	 * changed through a setter of this reference, the element is marked as
+	 * dirty in the tracker.
+	 * 
+	 * Modifications made directly on the buffer returned by {@link #buffer()}
+	 * are not tracked.
+	 * 
+	 * @param tracker
+	 *            a tracker of the same element type, usually created with
+	 *            {@link org.graphstream.nui.UISwapper#createDirtyTracker}
+	 */
+	void addDirtyTracker(DirtyTracker tracker);
+
+	/**
+	 * Detach a tracker from this buffer.
+	 * 
+	 * @param tracker
+	 *            the tracker to detach
+	 */
+	void removeDirtyTracker(DirtyTracker tracker);
+
 	public static interface FloatBufferReference extends UIBufferReference {
 		float getFloat(ElementIndex index, int component);
 
+		float getFloat(int index, int component);
+
 		void setFloat(ElementIndex index, int component, float f);
+
+		void setFloat(int index, int component, float f);
 	}
 
 	public static interface DoubleBufferReference extends UIBufferReference {
 		double getDouble(ElementIndex index, int component);
 
+		double getDouble(int index, int component);
+
 		void setDouble(ElementIndex index, int component, double d);
+
+		void setDouble(int index, int component, double d);
 		
 		void getTuple(ElementIndex index, double[] tuple);
+
+		/**
+		 * Copy the components of consecutive elements from an array, in one
+		 * bulk copy. All the elements copied are marked as dirty, whether
+		 * their values changed or not.
+		 * 
+		 * @param fromIndex
+		 *            index of the first element
+		 * @param src
+		 *            the array, holding all the components of each element
+		 * @param offset
+		 *            position of the first component in the array
+		 * @param count
+		 *            count of elements to copy
+		 */
+		void setDoubles(int fromIndex, double[] src, int offset, int count);
+
+		/**
+		 * Same as {@link #setDoubles(int, double[], int, int)}, reading the
+		 * components from the position of a buffer. The position of the
+		 * buffer is not modified.
+		 * 
+		 * @param fromIndex
+		 *            index of the first element
+		 * @param src
+		 *            the buffer
+		 * @param count
+		 *            count of elements to copy
+		 */
+		void setDoubles(int fromIndex, DoubleBuffer src, int count);
+
+		/**
+		 * Use a buffer as storage of this reference, without copying it. The
+		 * buffer has to be of the same kind than the storage, heap or direct
+		 * with the same byte order, and large enough for the current
+		 * elements. Its capacity becomes the capacity of this reference.
+		 * 
+		 * Once adopted, the buffer belongs to this reference and should not
+		 * be written by its previous owner. The previous storage is given
+		 * back, and can be reused for a next adoption.
+		 * 
+		 * All the elements are marked as dirty.
+		 * 
+		 * @param data
+		 *            the new storage
+		 * @return the previous storage
+		 * @throws IllegalArgumentException
+		 *             if the buffer can not be adopted
+		 */
+		DoubleBuffer adopt(DoubleBuffer data);
 	}
 
 	public static interface IntBufferReference extends UIBufferReference {
 		int getInt(ElementIndex index, int component);
 
+		int getInt(int index, int component);
+
 		void setInt(ElementIndex index, int component, int i);
+
+		void setInt(int index, int component, int i);
 	}
 
 	public static interface LongBufferReference extends UIBufferReference {
 		long getLong(ElementIndex index, int component);
 
+		long getLong(int index, int component);
+
 		void setLong(ElementIndex index, int component, long l);
+
+		void setLong(int index, int component, long l);
 	}
 }
@@ -42,6 +42,7 @@ import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
 import org.graphstream.nui.context.AbstractContext;
+import org.graphstream.nui.context.TickScheduler.OverrunPolicy;
 
 public class SwingContext extends AbstractContext {
 	protected Timer timer;
@@ -125,6 +126,21 @@ public class SwingContext extends AbstractContext {
 		createTimer();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.graphstream.nui.context.AbstractContext#setOverrunPolicy(org.graphstream
+	 * .nui.context.TickScheduler.OverrunPolicy)
+	 */
+	@Override
+	public void setOverrunPolicy(OverrunPolicy policy) {
+		super.setOverrunPolicy(policy);
+
+		if (timer != null)
+			createTimer();
+	}
+
 	protected void createTimer() {
 		if (timer != null)
 			timer.stop();
@@ -132,6 +148,10 @@ public class SwingContext extends AbstractContext {
 		timer = new Timer((int) TimeUnit.MILLISECONDS.convert(tickLength,
 				tickLengthUnits), new Ticker());
 
+		//
+		// A coalescing timer drops the ticks it could not fire on time.
+		//
+		timer.setCoalesce(getOverrunPolicy() == OverrunPolicy.DROP);
 		timer.start();
 	}
 
@@ -31,9 +31,27 @@
  */
 package org.graphstream.nui.util;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.graphstream.nui.geom.Vector3;
 
 public class Tools {
+	private static ForkJoinPool forkJoinPool;
+
+	/**
+	 * Pool shared by the modules to run their fork/join computations, created
+	 * when first needed. Its threads are daemon threads, and it is never shut
+	 * down.
+	 * 
+	 * @return the shared pool
+	 */
+	public static synchronized ForkJoinPool getForkJoinPool() {
+		if (forkJoinPool == null)
+			forkJoinPool = new ForkJoinPool();
+
+		return forkJoinPool;
+	}
+
 	public static double checkAndGetDouble(Object value)
 			throws IllegalArgumentException {
 		if (value instanceof Double)
@@ -92,7 +110,7 @@ public class Tools {
 			throws IllegalArgumentException {
 		if (value instanceof Long
 				|| Long.TYPE.isAssignableFrom(value.getClass()))
-			return (Integer) value;
+			return (Long) value;
 		else if (value instanceof Number)
 			return ((Number) value).longValue();
 
@@ -34,7 +34,9 @@ package org.graphstream.nui.views.opengl.renderer;
 import java.awt.Dimension;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
 import java.nio.IntBuffer;
+import java.util.BitSet;
 
 import javax.media.opengl.GL;
 import javax.media.opengl.GL2;
@@ -45,8 +47,11 @@ import org.graphstream.nui.UIContext;
 import org.graphstream.nui.UIDataset;
 import org.graphstream.nui.UIIndexer;
 import org.graphstream.nui.dataset.DatasetListener;
+import org.graphstream.nui.indexer.CompressedAdjacency;
 import org.graphstream.nui.indexer.ElementIndex;
-import org.graphstream.nui.indexer.ElementIndex.EdgeIndex;
+import org.graphstream.nui.indexer.IndexPermutation;
+import org.graphstream.nui.indexer.IndexerListener;
+import org.graphstream.nui.swapper.DirtyTracker;
 import org.graphstream.nui.views.opengl.DefaultOpenGLCamera;
 import org.graphstream.nui.views.opengl.OpenGLRenderer;
 
@@ -58,7 +63,18 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 
 	protected IntBuffer buffers;
 	protected UIDataset dataset;
-	protected boolean changed;
+	protected volatile boolean changed;
+	protected volatile boolean structureChanged;
+
+	/**
+	 * Nodes waiting to be uploaded, filled in the ui thread and consumed in
+	 * the rendering thread.
+	 */
+	protected final BitSet pendingNodes;
+
+	protected int uploadedNodeCount;
+	protected int uploadedEdgeCount;
+	protected StructureListener structureListener;
 
 	protected IntBuffer nodeIndices;
 	protected IntBuffer edgeIndices;
@@ -77,6 +93,9 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 	public VBORenderer(String viewId) {
 		// TODO: camera & controller
 		super(VIEW_TYPE_ID_PREFIX, viewId, new DefaultOpenGLCamera(), null);
+
+		pendingNodes = new BitSet();
+		structureListener = new StructureListener();
 	}
 
 	public boolean checkCompatibility(GL gl) {
@@ -119,11 +138,15 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 		dataset.addDatasetListener(this);
 
 		indexer = (UIIndexer) ctx.getModule(UIIndexer.MODULE_ID);
+		indexer.addIndexerListener(structureListener);
 
 		nodeIndices = IntBuffer.allocate(0);
 		edgeIndices = IntBuffer.allocate(0);
 
 		changed = true;
+		structureChanged = true;
+		uploadedNodeCount = -1;
+		uploadedEdgeCount = -1;
 
 		super.init(ctx);
 
@@ -141,6 +164,9 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 	 */
 	@Override
 	public void close() {
+		dataset.removeDatasetListener(this);
+		indexer.removeIndexerListener(structureListener);
+
 		super.close();
 	}
 
@@ -260,21 +286,17 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 	 * (non-Javadoc)
 	 * 
 	 * @see
-	 * org.graphstream.nui.dataset.DatasetListener#nodeMoved(org.graphstream
-	 * .nui.indexer.ElementIndex, double, double, double)
+	 * org.graphstream.nui.dataset.DatasetListener#nodesMoved(org.graphstream
+	 * .nui.swapper.DirtyTracker)
 	 */
 	@Override
-	public void nodeMoved(ElementIndex nodeIndex, double x, double y, double z) {
-		changed = true;
-	}
+	public void nodesMoved(DirtyTracker movedNodes) {
+		synchronized (pendingNodes) {
+			for (int idx = movedNodes.nextDirty(0); idx >= 0; idx = movedNodes
+					.nextDirty(idx + 1))
+				pendingNodes.set(idx);
+		}
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.graphstream.nui.dataset.DatasetListener#allNodesMoved()
-	 */
-	@Override
-	public void allNodesMoved() {
 		changed = true;
 	}
 
@@ -291,15 +313,22 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 	}
 
 	protected void checkBuffers(GL2 gl) {
-		if (changed) {
-			int nodeCount = dataset.getNodeCount();
-			int edgeCount = dataset.getEdgeCount();
+		int nodeCount = dataset.getNodeCount();
+		int edgeCount = dataset.getEdgeCount();
+		int dim = dataset.getPointDimension();
+		long epoch = dataset.getNodesXYZEpoch();
+
+		if (nodeCount != uploadedNodeCount) {
+			changed = false;
+
+			synchronized (pendingNodes) {
+				pendingNodes.clear();
+			}
 
 			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, arrayBuffer());
-			gl.glBufferData(GL2.GL_ARRAY_BUFFER,
-					nodeCount * dataset.getPointDimension() * Double.SIZE / 8,
-					dataset.getNodesXYZ(), GL2.GL_DYNAMIC_DRAW);
-			
+			gl.glBufferData(GL2.GL_ARRAY_BUFFER, nodeCount * dim * Double.SIZE
+					/ 8, dataset.getNodesXYZ(), GL2.GL_DYNAMIC_DRAW);
+
 			if (nodeCount != nodeIndices.capacity()) {
 				nodeIndices = ByteBuffer
 						.allocateDirect(nodeCount * Integer.SIZE / 8)
@@ -313,7 +342,58 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 						nodeIndices.rewind(), GL2.GL_DYNAMIC_DRAW);
 			}
 
-			if (edgeCount != edgeIndices.capacity())
+			uploadedNodeCount = nodeCount;
+			structureChanged = true;
+		} else if (changed) {
+			changed = false;
+
+			//
+			// Only upload the ranges of nodes that have been modified.
+			//
+			DoubleBuffer nodes = dataset.getNodesXYZ().duplicate();
+
+			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, arrayBuffer());
+
+			synchronized (pendingNodes) {
+				int from = pendingNodes.nextSetBit(0);
+
+				while (from >= 0 && from < nodeCount) {
+					int to = Math.min(pendingNodes.nextClearBit(from),
+							nodeCount);
+
+					nodes.clear();
+					nodes.limit(to * dim);
+					nodes.position(from * dim);
+
+					gl.glBufferSubData(GL2.GL_ARRAY_BUFFER, (long) from * dim
+							* Double.SIZE / 8, (long) (to - from) * dim
+							* Double.SIZE / 8, nodes);
+
+					from = pendingNodes.nextSetBit(to);
+				}
+
+				pendingNodes.clear();
+			}
+		}
+
+		//
+		// The buffers have been flipped during the upload, which may then mix
+		// two frames : upload everything again at the next display.
+		//
+		if (dataset.getNodesXYZEpoch() != epoch)
+			uploadedNodeCount = -1;
+
+		if (structureChanged || edgeCount != uploadedEdgeCount) {
+			structureChanged = false;
+
+			//
+			// The adjacency is an immutable snapshot, so it can be safely read
+			// from the rendering thread.
+			//
+			CompressedAdjacency adjacency = indexer.getAdjacency();
+			edgeCount = adjacency.getEdgeCount();
+
+			if (edgeCount * 2 != edgeIndices.capacity())
 				edgeIndices = ByteBuffer
 						.allocateDirect(edgeCount * 2 * Integer.SIZE / 8)
 						.order(ByteOrder.nativeOrder()).asIntBuffer();
@@ -321,20 +401,121 @@ public class VBORenderer extends BaseOpenGLRenderer implements OpenGLRenderer,
 			edgeIndices.rewind();
 
 			for (int idx = 0; idx < edgeCount; idx++) {
-				EdgeIndex e = indexer.getEdgeIndex(idx);
-
-				edgeIndices.put(e.getSource().index());
-				edgeIndices.put(e.getTarget().index());
+				edgeIndices.put(adjacency.getEdgeSource(idx));
+				edgeIndices.put(adjacency.getEdgeTarget(idx));
 			}
 
 			gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, edgeBuffer());
 			gl.glBufferData(GL2.GL_ELEMENT_ARRAY_BUFFER, edgeCount,
 					edgeIndices.rewind(), GL2.GL_DYNAMIC_DRAW);
 
-			gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
-			gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, 0);
+			uploadedEdgeCount = edgeCount;
+		}
 
-			changed = false;
+		gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+		gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Edges indices have to be rebuilt when edges are added, removed or
+	 * swapped, or when nodes are removed since this changes node indices.
+	 */
+	class StructureListener implements IndexerListener {
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#nodeAdded(org.graphstream
+		 * .nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void nodeAdded(ElementIndex nodeIndex) {
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#nodeRemoved(org.graphstream
+		 * .nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void nodeRemoved(ElementIndex nodeIndex) {
+			structureChanged = true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#nodesSwapped(org.graphstream
+		 * .nui.indexer.ElementIndex, org.graphstream.nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void nodesSwapped(ElementIndex nodeIndex1,
+				ElementIndex nodeIndex2) {
+			structureChanged = true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#edgeAdded(org.graphstream
+		 * .nui.indexer.ElementIndex, org.graphstream.nui.indexer.ElementIndex,
+		 * org.graphstream.nui.indexer.ElementIndex, boolean)
+		 */
+		@Override
+		public void edgeAdded(ElementIndex edgeIndex, ElementIndex sourceIndex,
+				ElementIndex targetIndex, boolean directed) {
+			structureChanged = true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#edgeRemoved(org.graphstream
+		 * .nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void edgeRemoved(ElementIndex edgeIndex) {
+			structureChanged = true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#edgesSwapped(org.graphstream
+		 * .nui.indexer.ElementIndex, org.graphstream.nui.indexer.ElementIndex)
+		 */
+		@Override
+		public void edgesSwapped(ElementIndex edgeIndex1,
+				ElementIndex edgeIndex2) {
+			structureChanged = true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.graphstream.nui.indexer.IndexerListener#elementsClear()
+		 */
+		@Override
+		public void elementsClear() {
+			structureChanged = true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.graphstream.nui.indexer.IndexerListener#elementsPermuted(org.
+		 * graphstream.nui.indexer.IndexPermutation)
+		 */
+		@Override
+		public void elementsPermuted(IndexPermutation permutation) {
+			structureChanged = true;
 		}
 	}
 }
@@ -84,12 +84,20 @@ public class SwingGraphCanvas extends JPanel implements StyleListener {
 	@Override
 	protected void paintComponent(Graphics g) {
 		Graphics2D g2d = (Graphics2D) g;
+		long epoch = dataset.getNodesXYZEpoch();
 
 		setupGraphics(g2d);
 		camera.pushTransform(g2d);
 
 		renderBackground(g2d, style.getGraphStyle());
 		renderElements(g2d);
+
+		//
+		// A new frame has been published while painting, so this one may
+		// mix two frames. Paint again to show a consistent one.
+		//
+		if (dataset.getNodesXYZEpoch() != epoch)
+			repaint();
 	}
 
 	protected SwingElementRenderer getDefaultBackgroundRenderer() {